@@ -1,10 +1,17 @@
 package com.adityachandel.booklore.config;
 
+import com.adityachandel.booklore.model.enums.MetadataProvider;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 @ConfigurationProperties(prefix = "app")
 @Getter
@@ -15,6 +22,13 @@ public class AppProperties {
     private String version;
     private RemoteAuth remoteAuth;
     private Swagger swagger = new Swagger();
+    private Cbx cbx = new Cbx();
+    private Monitoring monitoring = new Monitoring();
+    private Bookdrop bookdrop = new Bookdrop();
+    private MetadataCache metadataCache = new MetadataCache();
+    private MetadataCircuitBreaker metadataCircuitBreaker = new MetadataCircuitBreaker();
+    private MetadataRefresh metadataRefresh = new MetadataRefresh();
+    private OutboundHttp outboundHttp = new OutboundHttp();
 
     @Getter
     @Setter
@@ -33,4 +47,70 @@ public class AppProperties {
     public static class Swagger {
         private boolean enabled = true;
     }
+
+    @Getter
+    @Setter
+    public static class Cbx {
+        private boolean normalizeOnOpen = false;
+        private boolean normalizeOnIngest = false;
+        private long normalizedCacheSizeMb = 2048;
+    }
+
+    @Getter
+    @Setter
+    public static class Monitoring {
+        private long quietPeriodMs = 5000;
+        private int workerThreads = 4;
+        private List<String> pollingPaths = new ArrayList<>();
+        private boolean pollNetworkFilesystems = true;
+        private long pollingMinIntervalMs = 2000;
+        private long pollingMaxIntervalMs = 60000;
+        private int eventQueueCapacity = 10000;
+        private int maxInFlightEvents = 256;
+        private long moveDetectionWindowMs = 15000;
+        private long directoryCreateWaitMs = 2000;
+    }
+
+    @Getter
+    @Setter
+    public static class Bookdrop {
+        private int extractionThreads = 0;
+        private int metadataFetchThreads = 2;
+        private int maxQueuedFiles = 256;
+    }
+
+    @Getter
+    @Setter
+    public static class MetadataCache {
+        private boolean enabled = true;
+        private int maxMemoryEntries = 2000;
+        private int maxDiskEntries = 20000;
+        private Duration defaultTtl = Duration.ofDays(7);
+        private Map<MetadataProvider, Duration> ttl = new EnumMap<>(MetadataProvider.class);
+        private Duration negativeTtl = Duration.ofDays(1);
+    }
+
+    @Getter
+    @Setter
+    public static class MetadataCircuitBreaker {
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private Duration maxOpenDuration = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class MetadataRefresh {
+        private int parallelBooks = 4;
+        private int maxConcurrentJobs = 2;
+        private int smallJobMaxBooks = 20;
+    }
+
+    @Getter
+    @Setter
+    public static class OutboundHttp {
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration readTimeout = Duration.ofSeconds(30);
+        private int maxConcurrentRequestsPerHost = 8;
+    }
 }
@@ -1,6 +1,7 @@
 package com.adityachandel.booklore.config;
 
 import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.service.metadata.cache.MetadataResponseCache;
 import com.adityachandel.booklore.service.metadata.parser.*;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,13 +13,14 @@ public class BookParserConfig {
 
     @Bean
     public Map<MetadataProvider, BookParser> parserMap(GoogleParser googleParser, AmazonBookParser amazonBookParser,
-                                                       GoodReadsParser goodReadsParser, HardcoverParser hardcoverParser, ComicvineBookParser comicvineBookParser) {
+                                                       GoodReadsParser goodReadsParser, HardcoverParser hardcoverParser, ComicvineBookParser comicvineBookParser,
+                                                       MetadataResponseCache metadataResponseCache) {
         return Map.of(
-                MetadataProvider.Amazon, amazonBookParser,
-                MetadataProvider.GoodReads, goodReadsParser,
-                MetadataProvider.Google, googleParser,
-                MetadataProvider.Hardcover, hardcoverParser,
-                MetadataProvider.Comicvine, comicvineBookParser
+                MetadataProvider.Amazon, new CachingBookParser(MetadataProvider.Amazon, amazonBookParser, metadataResponseCache),
+                MetadataProvider.GoodReads, new CachingBookParser(MetadataProvider.GoodReads, goodReadsParser, metadataResponseCache),
+                MetadataProvider.Google, new CachingBookParser(MetadataProvider.Google, googleParser, metadataResponseCache),
+                MetadataProvider.Hardcover, new CachingBookParser(MetadataProvider.Hardcover, hardcoverParser, metadataResponseCache),
+                MetadataProvider.Comicvine, new CachingBookParser(MetadataProvider.Comicvine, comicvineBookParser, metadataResponseCache)
         );
     }
 }
@@ -13,11 +13,12 @@ import com.adityachandel.booklore.model.enums.ResetProgressType;
 import com.adityachandel.booklore.service.BookService;
 import com.adityachandel.booklore.service.metadata.BookMetadataService;
 import com.adityachandel.booklore.service.recommender.BookRecommendationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.AllArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -25,7 +26,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 
@@ -79,15 +79,15 @@ public class BookController {
 
     @GetMapping("/{bookId}/content")
     @CheckBookAccess(bookIdParam = "bookId")
-    public ResponseEntity<ByteArrayResource> getBookContent(@PathVariable long bookId) throws IOException {
-        return bookService.getBookContent(bookId);
+    public void getBookContent(@PathVariable long bookId, HttpServletRequest request, HttpServletResponse response) {
+        bookService.getBookContent(bookId, request, response);
     }
 
     @GetMapping("/{bookId}/download")
     @PreAuthorize("@securityUtil.canDownload() or @securityUtil.isAdmin()")
     @CheckBookAccess(bookIdParam = "bookId")
-    public ResponseEntity<Resource> downloadBook(@PathVariable("bookId") Long bookId) {
-        return bookService.downloadBook(bookId);
+    public void downloadBook(@PathVariable("bookId") Long bookId, HttpServletRequest request, HttpServletResponse response) {
+        bookService.downloadBook(bookId, request, response);
     }
 
     @GetMapping("/{bookId}/viewer-setting")
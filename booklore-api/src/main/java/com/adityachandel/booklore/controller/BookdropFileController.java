@@ -4,6 +4,7 @@ import com.adityachandel.booklore.model.dto.BookdropFile;
 import com.adityachandel.booklore.model.dto.BookdropFileNotification;
 import com.adityachandel.booklore.model.dto.request.BookdropFinalizeRequest;
 import com.adityachandel.booklore.model.dto.request.BookdropSelectionRequest;
+import com.adityachandel.booklore.model.dto.response.BookdropFinalizeJob;
 import com.adityachandel.booklore.model.dto.response.BookdropFinalizeResult;
 import com.adityachandel.booklore.service.bookdrop.BookDropService;
 import lombok.AllArgsConstructor;
@@ -44,6 +45,16 @@ public class BookdropFileController {
         return ResponseEntity.ok(result);
     }
 
+    @PostMapping("/imports/finalize/jobs")
+    public ResponseEntity<BookdropFinalizeJob> startFinalizeImport(@RequestBody BookdropFinalizeRequest request) {
+        return ResponseEntity.accepted().body(bookDropService.startFinalizeImport(request));
+    }
+
+    @GetMapping("/imports/finalize/jobs/{jobId}")
+    public BookdropFinalizeJob getFinalizeJob(@PathVariable String jobId) {
+        return bookDropService.getFinalizeJob(jobId);
+    }
+
     @GetMapping("/{bookdropId}/cover")
     public ResponseEntity<Resource> getBookdropCover(@PathVariable long bookdropId) {
         Resource file = bookDropService.getBookdropCover(bookdropId);
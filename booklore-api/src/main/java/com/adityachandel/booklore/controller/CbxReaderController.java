@@ -1,10 +1,11 @@
 package com.adityachandel.booklore.controller;
 
 import com.adityachandel.booklore.config.security.annotation.CheckBookAccess;
+import com.adityachandel.booklore.model.dto.response.CbxPageManifest;
 import com.adityachandel.booklore.service.reader.CbxReaderService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
@@ -23,9 +24,13 @@ public class CbxReaderController {
         return cbxReaderService.getAvailablePages(bookId);
     }
 
+    @GetMapping("/{bookId}/manifest")
+    public CbxPageManifest getManifest(@PathVariable Long bookId) {
+        return cbxReaderService.getPageManifest(bookId);
+    }
+
     @GetMapping("/{bookId}/pages/{pageNumber}")
-    public void getPage(@PathVariable Long bookId, @PathVariable int pageNumber, HttpServletResponse response) throws IOException {
-        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
-        cbxReaderService.streamPageImage(bookId, pageNumber, response.getOutputStream());
+    public void getPage(@PathVariable Long bookId, @PathVariable int pageNumber, @RequestParam(required = false) Integer width, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        cbxReaderService.streamPageImage(bookId, pageNumber, width, request, response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.adityachandel.booklore.controller;
+
+import com.adityachandel.booklore.config.security.annotation.CheckBookAccess;
+import com.adityachandel.booklore.model.dto.response.EpubBookInfo;
+import com.adityachandel.booklore.service.reader.EpubReaderService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/v1/epub")
+@RequiredArgsConstructor
+public class EpubReaderController {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final EpubReaderService epubReaderService;
+
+    @GetMapping("/{bookId}/info")
+    @CheckBookAccess(bookIdParam = "bookId")
+    public ResponseEntity<EpubBookInfo> getBookInfo(@PathVariable Long bookId) {
+        return ResponseEntity.ok(epubReaderService.getBookInfo(bookId));
+    }
+
+    @GetMapping("/{bookId}/file/**")
+    @CheckBookAccess(bookIdParam = "bookId")
+    public void getEntry(@PathVariable Long bookId, HttpServletRequest request, HttpServletResponse response) {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String entryPath = UriUtils.decode(PATH_MATCHER.extractPathWithinPattern(pattern, path), StandardCharsets.UTF_8);
+        epubReaderService.streamEntry(bookId, entryPath, request, response);
+    }
+}
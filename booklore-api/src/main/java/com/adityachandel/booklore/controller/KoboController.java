@@ -131,9 +131,9 @@ public class KoboController {
     }
 
     @GetMapping("/v1/books/{bookId}/download")
-    public void downloadBook(@PathVariable String bookId, HttpServletResponse response) throws IOException {
+    public void downloadBook(@PathVariable String bookId, HttpServletRequest request, HttpServletResponse response) throws IOException {
         if (StringUtils.isNumeric(bookId)) {
-            bookDownloadService.downloadKoboBook(Long.parseLong(bookId), response);
+            bookDownloadService.downloadKoboBook(Long.parseLong(bookId), request, response);
         } else {
             koboServerProxy.proxyCurrentRequest(null, false);
         }
@@ -1,11 +1,18 @@
 package com.adityachandel.booklore.controller;
 
+import com.adityachandel.booklore.model.dto.FetchedProposal;
 import com.adityachandel.booklore.model.dto.MetadataBatchProgressNotification;
+import com.adityachandel.booklore.model.dto.request.MetadataProposalBulkStatusRequest;
+import com.adityachandel.booklore.model.dto.request.MetadataProposalFilter;
 import com.adityachandel.booklore.model.dto.response.MetadataTaskDetailsResponse;
 import com.adityachandel.booklore.service.MetadataTaskService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -25,6 +32,19 @@ public class MetadataTaskController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{taskId}/proposals")
+    @PreAuthorize("@securityUtil.canEditMetadata() or @securityUtil.isAdmin()")
+    public Slice<FetchedProposal> getProposals(@PathVariable String taskId, MetadataProposalFilter filter,
+                                               @PageableDefault(size = 50) Pageable pageable) {
+        return metadataTaskService.getProposals(taskId, filter, pageable);
+    }
+
+    @PostMapping("/{taskId}/proposals/status")
+    @PreAuthorize("@securityUtil.canEditMetadata() or @securityUtil.isAdmin()")
+    public ResponseEntity<Integer> updateProposalStatuses(@PathVariable String taskId, @Validated @RequestBody MetadataProposalBulkStatusRequest request) {
+        return ResponseEntity.ok(metadataTaskService.updateProposalStatuses(taskId, request));
+    }
+
     @GetMapping("/active")
     @PreAuthorize("@securityUtil.canEditMetadata() or @securityUtil.isAdmin()")
     public ResponseEntity<List<MetadataBatchProgressNotification>> getActiveTasks() {
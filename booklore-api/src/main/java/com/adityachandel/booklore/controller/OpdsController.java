@@ -3,6 +3,7 @@ package com.adityachandel.booklore.controller;
 import com.adityachandel.booklore.service.BookService;
 import com.adityachandel.booklore.service.opds.OpdsService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
@@ -46,8 +47,8 @@ public class OpdsController {
     }
 
     @GetMapping("/{bookId}/download")
-    public ResponseEntity<Resource> downloadBook(@PathVariable("bookId") Long bookId) {
-        return bookService.downloadBook(bookId);
+    public void downloadBook(@PathVariable("bookId") Long bookId, HttpServletRequest request, HttpServletResponse response) {
+        bookService.downloadBook(bookId, request, response);
     }
 
     @GetMapping("/{bookId}/cover.jpg")
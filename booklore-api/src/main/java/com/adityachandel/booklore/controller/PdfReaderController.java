@@ -2,12 +2,13 @@ package com.adityachandel.booklore.controller;
 
 import com.adityachandel.booklore.config.security.annotation.CheckBookAccess;
 import com.adityachandel.booklore.service.reader.PdfReaderService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
@@ -26,8 +27,7 @@ public class PdfReaderController {
     }
 
     @GetMapping("/{bookId}/pages/{pageNumber}")
-    public void getPage(@PathVariable Long bookId, @PathVariable int pageNumber, HttpServletResponse response) throws IOException {
-        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
-        pdfReaderService.streamPageImage(bookId, pageNumber, response.getOutputStream());
+    public void getPage(@PathVariable Long bookId, @PathVariable int pageNumber, @RequestParam(required = false) Integer width, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        pdfReaderService.streamPageImage(bookId, pageNumber, width, request, response);
     }
 }
\ No newline at end of file
@@ -11,6 +11,9 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Arrays;
+import java.util.List;
+
 @Mapper(componentModel = "spring")
 @Slf4j
 public abstract class FetchedProposalMapper {
@@ -20,8 +23,18 @@ public abstract class FetchedProposalMapper {
 
     @Mapping(target = "metadataJson", ignore = true)
     @Mapping(target = "taskId", expression = "java(getTaskId(entity))")
+    @Mapping(target = "changedFields", expression = "java(splitChangedFields(entity.getChangedFields()))")
     public abstract FetchedProposal toDto(MetadataFetchProposalEntity entity);
 
+    protected List<String> splitChangedFields(String changedFields) {
+        if (changedFields == null || changedFields.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(changedFields.split(","))
+                .filter(field -> !field.isEmpty())
+                .toList();
+    }
+
     protected String getTaskId(MetadataFetchProposalEntity entity) {
         return entity.getJob() != null ? entity.getJob().getTaskId() : null;
     }
@@ -10,4 +10,5 @@ public class MetadataUpdateWrapper {
     private BookMetadata metadata;
     @Builder.Default
     private MetadataClearFlags clearFlags = new MetadataClearFlags();
+    private String prefetchedThumbnailPath;
 }
@@ -5,6 +5,7 @@ import com.adityachandel.booklore.model.enums.FetchedMetadataProposalStatus;
 import lombok.*;
 
 import java.time.Instant;
+import java.util.List;
 
 @Getter
 @Setter
@@ -20,4 +21,6 @@ public class FetchedProposal {
     private String reviewerUserId;
     private FetchedMetadataProposalStatus status;
     private BookMetadata metadataJson;
+    private Double confidence;
+    private List<String> changedFields;
 }
@@ -7,7 +7,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
-import java.util.List;
 
 @Data
 @Builder
@@ -21,5 +20,5 @@ public class MetadataFetchTask {
     private Instant startedAt;
     private Instant completedAt;
     private Long initiatedBy;
-    private List<FetchedProposal> proposals;
+    private long pendingProposals;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.adityachandel.booklore.model.dto.request;
+
+import com.adityachandel.booklore.model.enums.FetchedMetadataProposalStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MetadataProposalBulkStatusRequest {
+    @NotNull(message = "Status cannot be null")
+    private FetchedMetadataProposalStatus status;
+    private boolean selectAll;
+    private MetadataProposalFilter filter;
+    private List<Long> excludedIds;
+    private List<Long> selectedIds;
+}
@@ -0,0 +1,13 @@
+package com.adityachandel.booklore.model.dto.request;
+
+import com.adityachandel.booklore.model.enums.FetchedMetadataProposalStatus;
+import lombok.Data;
+
+@Data
+public class MetadataProposalFilter {
+    private FetchedMetadataProposalStatus status;
+    private Double minConfidence;
+    private Double maxConfidence;
+    private String changedField;
+    private Long afterProposalId;
+}
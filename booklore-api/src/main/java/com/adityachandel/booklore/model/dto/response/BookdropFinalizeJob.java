@@ -0,0 +1,23 @@
+package com.adityachandel.booklore.model.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class BookdropFinalizeJob {
+    private String jobId;
+    private Status status;
+    private int totalFiles;
+    private int processed;
+    private int failed;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private BookdropFinalizeResult result;
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
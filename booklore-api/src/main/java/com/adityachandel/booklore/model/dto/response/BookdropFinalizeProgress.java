@@ -0,0 +1,14 @@
+package com.adityachandel.booklore.model.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BookdropFinalizeProgress {
+    private String jobId;
+    private Long fileId;
+    private BookdropFileResult result;
+    private int processed;
+    private int totalFiles;
+}
@@ -0,0 +1,33 @@
+package com.adityachandel.booklore.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CbxPageManifest {
+    private Long bookId;
+    private long sourceSize;
+    private long sourceLastModified;
+    private List<Page> pages;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Page {
+        private int pageNumber;
+        private String entryName;
+        private String fileName;
+        private String mediaType;
+        private long size;
+        private Integer width;
+        private Integer height;
+    }
+}
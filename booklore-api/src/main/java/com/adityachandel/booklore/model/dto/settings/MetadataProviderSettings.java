@@ -1,6 +1,11 @@
 package com.adityachandel.booklore.model.dto.settings;
 
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
 
 @Data
 public class MetadataProviderSettings {
@@ -9,6 +14,7 @@ public class MetadataProviderSettings {
     private Goodreads goodReads;
     private Hardcover hardcover;
     private Comicvine comicvine;
+    private Map<MetadataProvider, RateLimit> rateLimits;
 
     @Data
     public static class Amazon {
@@ -37,4 +43,22 @@ public class MetadataProviderSettings {
         private boolean enabled;
         private String apiKey;
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RateLimit {
+        private Double requestsPerSecond;
+        private Integer burst;
+        private Integer maxConcurrentRequests;
+
+        public static RateLimit defaultFor(MetadataProvider provider) {
+            return switch (provider) {
+                case Google -> new RateLimit(5.0, 10, 4);
+                case Hardcover -> new RateLimit(1.0, 5, 2);
+                case Amazon -> new RateLimit(1.0, 2, 1);
+                case GoodReads, Comicvine -> new RateLimit(1.0, 1, 1);
+            };
+        }
+    }
 }
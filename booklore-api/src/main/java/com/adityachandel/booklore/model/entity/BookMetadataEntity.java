@@ -72,6 +72,10 @@ public class BookMetadataEntity {
     @Column(name = "cover_updated_on")
     private Instant coverUpdatedOn;
 
+    // URL the current cover was downloaded from, cleared when the cover comes from anywhere else
+    @Column(name = "cover_source_url", length = 1000)
+    private String coverSourceUrl;
+
     @Column(name = "amazon_rating")
     private Double amazonRating;
 
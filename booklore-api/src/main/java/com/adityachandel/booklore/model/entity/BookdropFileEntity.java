@@ -29,6 +29,12 @@ public class BookdropFileEntity {
     @Column(name = "file_size")
     private Long fileSize;
 
+    @Column(name = "file_last_modified")
+    private Long fileLastModified;
+
+    @Column(name = "file_hash", length = 128)
+    private String fileHash;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", length = 20, nullable = false)
     private Status status = Status.PENDING_REVIEW;
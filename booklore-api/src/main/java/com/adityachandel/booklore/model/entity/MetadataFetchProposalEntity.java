@@ -45,4 +45,14 @@ public class MetadataFetchProposalEntity {
     @Lob
     @Column(name = "metadata_json", columnDefinition = "JSON")
     private String metadataJson;
+
+    @Column(name = "confidence")
+    private Double confidence;
+
+    /**
+     * Names of the fields the proposal would change, comma separated with a leading and trailing comma so a single
+     * field can be matched with LIKE.
+     */
+    @Column(name = "changed_fields", length = 1024)
+    private String changedFields;
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.adityachandel.booklore.model.entity;
+
+import com.adityachandel.booklore.model.enums.MetadataRefreshQueueStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "metadata_refresh_queue")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetadataRefreshQueueEntity {
+
+    @Id
+    @Column(name = "job_id", length = 100)
+    private String jobId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Lob
+    @Column(name = "request_json", columnDefinition = "JSON", nullable = false)
+    private String requestJson;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MetadataRefreshQueueStatus status;
+
+    @Column(name = "total_books", nullable = false)
+    private Integer totalBooks;
+
+    @Column(name = "queued_at", nullable = false)
+    private Instant queuedAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+}
@@ -12,6 +12,7 @@ public enum Topic {
     BOOK_METADATA_BATCH_UPDATE("/queue/book-metadata-batch-update"),
     BOOK_METADATA_BATCH_PROGRESS("/queue/book-metadata-batch-progress"),
     BOOKDROP_FILE("/queue/bookdrop-file"),
+    BOOKDROP_FINALIZE_PROGRESS("/queue/bookdrop-finalize-progress"),
     TASK("/queue/task"),
     LOG("/queue/log");
 
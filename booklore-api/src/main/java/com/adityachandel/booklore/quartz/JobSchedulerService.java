@@ -1,87 +1,161 @@
 package com.adityachandel.booklore.quartz;
 
-import com.adityachandel.booklore.config.security.AuthenticationService;
+import com.adityachandel.booklore.config.AppProperties;
 import com.adityachandel.booklore.exception.ApiError;
 import com.adityachandel.booklore.model.dto.BookLoreUser;
 import com.adityachandel.booklore.model.dto.request.MetadataRefreshRequest;
-import lombok.Getter;
+import com.adityachandel.booklore.model.entity.MetadataRefreshQueueEntity;
+import com.adityachandel.booklore.model.enums.MetadataRefreshQueueStatus;
+import com.adityachandel.booklore.repository.MetadataRefreshQueueRepository;
+import com.adityachandel.booklore.service.metadata.MetadataRefreshService;
+import com.adityachandel.booklore.service.user.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.*;
-import org.quartz.impl.matchers.KeyMatcher;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
-
+import java.util.stream.Collectors;
+
+/**
+ * Queues metadata refresh jobs and runs them on Quartz, a few at a time.
+ * <p>
+ * Queued and running jobs are stored in the database, together with the books each running job has finished, so
+ * after a restart interrupted jobs continue where they stopped and queued jobs still run. When a slot frees up the
+ * next job is picked fairly: users with fewer running jobs go first, then small jobs before large ones, then the
+ * oldest. When more than one job may run at a time, one slot is kept free of large jobs so a single-book refresh never
+ * waits behind a library refresh; with a single slot, large and small jobs share it.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class JobSchedulerService {
 
+    static final String JOB_GROUP = "metadataRefreshJobGroup";
+
     private final Scheduler scheduler;
-    private final AuthenticationService authenticationService;
+    private final MetadataRefreshQueueRepository queueRepository;
+    private final MetadataRefreshService metadataRefreshService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final AppProperties appProperties;
+
+    private final Map<String, RunningJob> runningJobs = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown = false;
 
-    private final BlockingQueue<RefreshJobWrapper> jobQueue = new LinkedBlockingQueue<>();
-    private final Map<String, String> runningJobs = new ConcurrentHashMap<>();
-    private boolean isJobRunning = false;
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeQueuedJobs() {
+        try {
+            scheduler.getListenerManager().addJobListener(new JobCompletionListener(), GroupMatcher.jobGroupEquals(JOB_GROUP));
+        } catch (SchedulerException e) {
+            log.error("Failed to register metadata refresh job listener: {}", e.getMessage(), e);
+        }
+        int interrupted = queueRepository.updateStatus(MetadataRefreshQueueStatus.RUNNING, MetadataRefreshQueueStatus.QUEUED);
+        if (interrupted > 0) {
+            log.info("Resuming {} metadata refresh job(s) interrupted by the last shutdown", interrupted);
+        }
+        processQueue();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Jobs interrupted by the shutdown stay in the queue and are resumed on the next start
+        shuttingDown = true;
+    }
 
-    public synchronized void scheduleMetadataRefresh(MetadataRefreshRequest request, Long userId) {
+    public void scheduleMetadataRefresh(MetadataRefreshRequest request, Long userId) {
         log.info("Received request to schedule metadata refresh: {}", request);
-        jobQueue.offer(new RefreshJobWrapper(request, userId));
-        log.debug("Added request to job queue. Queue size: {}", jobQueue.size());
+        int totalBooks = metadataRefreshService.getBookEntities(request).size();
+        String requestJson;
+        try {
+            requestJson = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw ApiError.SCHEDULE_REFRESH_ERROR.createException(e.getMessage());
+        }
+        MetadataRefreshQueueEntity job = MetadataRefreshQueueEntity.builder()
+                .jobId(generateUniqueJobId())
+                .userId(userId)
+                .requestJson(requestJson)
+                .status(MetadataRefreshQueueStatus.QUEUED)
+                .totalBooks(totalBooks)
+                .queuedAt(Instant.now())
+                .build();
+        queueRepository.save(job);
+        log.debug("Queued metadata refresh job {} with {} books", job.getJobId(), totalBooks);
         processQueue();
     }
 
     private synchronized void processQueue() {
-        if (isJobRunning) {
-            log.debug("A job is already running. Queue processing is paused.");
+        if (shuttingDown) {
             return;
         }
-        if (jobQueue.isEmpty()) {
-            log.debug("Job queue is empty. Nothing to process.");
-            return;
-        }
-
-        isJobRunning = true;
-        RefreshJobWrapper wrapper = jobQueue.poll();
-        if (wrapper != null) {
-            MetadataRefreshRequest request = wrapper.getRequest();
-            Long userId = wrapper.getUserId();
-            log.info("Processing job from queue. Remaining queue size: {}", jobQueue.size());
-            String jobId = generateUniqueJobId(request);
-            try {
-                scheduleJob(request, userId, jobId);
-            } catch (Exception e) {
-                isJobRunning = false;
-                log.error("Failed to schedule job with ID: {}. Error: {}", jobId, e.getMessage(), e);
-                throw e;
+        int maxConcurrentJobs = Math.max(1, appProperties.getMetadataRefresh().getMaxConcurrentJobs());
+        while (runningJobs.size() < maxConcurrentJobs) {
+            List<MetadataRefreshQueueEntity> queued = queueRepository.findAllByStatusOrderByQueuedAtAsc(MetadataRefreshQueueStatus.QUEUED);
+            MetadataRefreshQueueEntity next = pickNext(queued, runningJobs.values(), maxConcurrentJobs, appProperties.getMetadataRefresh().getSmallJobMaxBooks());
+            if (next == null) {
+                log.debug("No queued metadata refresh job can start now. Running: {}, queued: {}", runningJobs.size(), queued.size());
+                return;
             }
+            startJob(next);
         }
     }
 
-    public synchronized boolean cancelJob(String jobId) {
-        try {
-            String quartzJobId = runningJobs.get(jobId);
-            if (quartzJobId == null) {
-                log.warn("Job with ID {} not found in running jobs", jobId);
-                return false;
-            }
+    /**
+     * Picks the queued job to start next, or null if none may start while the given jobs are running.
+     */
+    static MetadataRefreshQueueEntity pickNext(List<MetadataRefreshQueueEntity> queued, Collection<RunningJob> running,
+                                               int maxConcurrentJobs, int smallJobMaxBooks) {
+        // A single slot is not reserved, or large jobs could never run
+        int largeSlots = maxConcurrentJobs > 1 ? maxConcurrentJobs - 1 : 1;
+        long largeRunning = running.stream().filter(RunningJob::large).count();
+        Map<Long, Long> runningPerUser = running.stream()
+                .collect(Collectors.groupingBy(RunningJob::userId, Collectors.counting()));
+        return queued.stream()
+                .filter(job -> !isLarge(job, smallJobMaxBooks) || largeRunning < largeSlots)
+                .min(Comparator.<MetadataRefreshQueueEntity>comparingLong(job -> runningPerUser.getOrDefault(job.getUserId(), 0L))
+                        .thenComparing(job -> isLarge(job, smallJobMaxBooks))
+                        .thenComparing(MetadataRefreshQueueEntity::getQueuedAt))
+                .orElse(null);
+    }
 
-            JobKey jobKey = new JobKey(quartzJobId, "metadataRefreshJobGroup");
-            boolean cancelled = scheduler.interrupt(jobKey);
+    private static boolean isLarge(MetadataRefreshQueueEntity job, int smallJobMaxBooks) {
+        return job.getTotalBooks() > smallJobMaxBooks;
+    }
 
+    public synchronized boolean cancelJob(String jobId) {
+        if (!runningJobs.containsKey(jobId)) {
+            if (queueRepository.existsById(jobId)) {
+                queueRepository.deleteById(jobId);
+                log.info("Removed queued job {}", jobId);
+                return true;
+            }
+            log.warn("Job with ID {} not found in running or queued jobs", jobId);
+            return false;
+        }
+        try {
+            // Tells the job this interruption is a cancellation, not a shutdown it will resume from
+            metadataRefreshService.markCancelled(jobId);
+            boolean cancelled = scheduler.interrupt(new JobKey(jobId, JOB_GROUP));
             if (cancelled) {
-                runningJobs.remove(jobId);
-                isJobRunning = false;
+                // The slot stays taken until the job has actually stopped, the completion listener then frees it
+                queueRepository.deleteById(jobId);
                 log.info("Job {} cancellation scheduled", jobId);
-                processQueue();
             } else {
                 log.warn("Failed to cancel job {}", jobId);
             }
-
             return cancelled;
         } catch (UnableToInterruptJobException e) {
             log.error("Job {} cannot be interrupted: {}", jobId, e.getMessage());
@@ -89,81 +163,90 @@ public class JobSchedulerService {
         }
     }
 
-    private void scheduleJob(MetadataRefreshRequest request, Long userId, String jobId) {
+    private void startJob(MetadataRefreshQueueEntity job) {
+        String jobId = job.getJobId();
         try {
-            BookLoreUser authenticatedUser = authenticationService.getAuthenticatedUser();
+            MetadataRefreshRequest request = objectMapper.readValue(job.getRequestJson(), MetadataRefreshRequest.class);
+            BookLoreUser user = userService.getBookLoreUser(job.getUserId());
 
             JobDataMap jobDataMap = new JobDataMap();
             jobDataMap.put("request", request);
-            jobDataMap.put("userId", userId);
+            jobDataMap.put("userId", job.getUserId());
             jobDataMap.put("jobId", jobId);
-            jobDataMap.put("user", authenticatedUser);
+            jobDataMap.put("user", user);
 
             JobDetail jobDetail = JobBuilder.newJob(RefreshMetadataJob.class)
-                    .withIdentity(jobId, "metadataRefreshJobGroup")
+                    .withIdentity(jobId, JOB_GROUP)
                     .usingJobData(jobDataMap)
                     .build();
 
             Trigger trigger = TriggerBuilder.newTrigger()
                     .forJob(jobDetail)
-                    .withIdentity(jobId, "metadataRefreshJobGroup")
+                    .withIdentity(jobId, JOB_GROUP)
                     .startNow()
                     .build();
 
-            runningJobs.put(jobId, jobId);
+            job.setStatus(MetadataRefreshQueueStatus.RUNNING);
+            job.setStartedAt(Instant.now());
+            queueRepository.save(job);
+            runningJobs.put(jobId, new RunningJob(job.getUserId(), isLarge(job, appProperties.getMetadataRefresh().getSmallJobMaxBooks())));
 
             scheduler.scheduleJob(jobDetail, trigger);
-            log.info("Job scheduled successfully with ID: {}", jobId);
-
-            scheduler.getListenerManager().addJobListener(new JobListener() {
-                @Override
-                public String getName() {
-                    return "JobCompletionListener";
-                }
-
-                @Override
-                public void jobToBeExecuted(JobExecutionContext context) {
-                    log.debug("Job is about to be executed. JobKey: {}", context.getJobDetail().getKey());
-                }
-
-                @Override
-                public void jobExecutionVetoed(JobExecutionContext context) {
-                    log.warn("Job execution was vetoed. JobKey: {}", context.getJobDetail().getKey());
-                }
-
-                @Override
-                public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
-                    log.info("Job executed. JobKey: {}", context.getJobDetail().getKey());
-                    if (jobException != null) {
-                        log.error("Job execution encountered an error: {}", jobException.getMessage(), jobException);
-                    }
-                    runningJobs.remove(jobId);
-                    isJobRunning = false;
-                    log.debug("Job completion handled. Processing next job in the queue.");
-                    processQueue();
-                }
-            }, KeyMatcher.keyEquals(jobDetail.getKey()));
+            log.info("Job scheduled successfully with ID: {}. Running: {}", jobId, runningJobs.size());
+        } catch (Exception e) {
+            // A job that cannot start now will not start later either, e.g. its user was deleted
+            log.error("Failed to schedule job with ID: {}, dropping it from the queue. Error: {}", jobId, e.getMessage(), e);
+            runningJobs.remove(jobId);
+            queueRepository.deleteById(jobId);
+        }
+    }
 
-        } catch (SchedulerException e) {
-            log.error("Error while scheduling job with ID: {}. Error: {}", jobId, e.getMessage(), e);
-            throw ApiError.SCHEDULE_REFRESH_ERROR.createException(e.getMessage());
+    private synchronized void onJobFinished(String jobId) {
+        runningJobs.remove(jobId);
+        if (shuttingDown) {
+            return;
         }
+        if (queueRepository.existsById(jobId)) {
+            queueRepository.deleteById(jobId);
+        }
+        log.debug("Job {} finished. Processing next job in the queue.", jobId);
+        processQueue();
     }
 
-    private String generateUniqueJobId(MetadataRefreshRequest request) {
-        String jobId = "metadataRefreshJob_" + System.currentTimeMillis();
+    private String generateUniqueJobId() {
+        String jobId = "metadataRefreshJob_" + System.currentTimeMillis() + "_" + UUID.randomUUID().toString().substring(0, 8);
         log.debug("Generated unique job ID: {}", jobId);
         return jobId;
     }
 
-    @Getter
-    private static class RefreshJobWrapper {
-        private final MetadataRefreshRequest request;
-        private final Long userId;
+    record RunningJob(Long userId, boolean large) {
+    }
+
+    private class JobCompletionListener implements JobListener {
+
+        @Override
+        public String getName() {
+            return "MetadataRefreshJobCompletionListener";
+        }
 
-        public RefreshJobWrapper(MetadataRefreshRequest request, Long userId) {
-            this.request = request;
-            this.userId = userId;
+        @Override
+        public void jobToBeExecuted(JobExecutionContext context) {
+            log.debug("Job is about to be executed. JobKey: {}", context.getJobDetail().getKey());
+        }
+
+        @Override
+        public void jobExecutionVetoed(JobExecutionContext context) {
+            log.warn("Job execution was vetoed. JobKey: {}", context.getJobDetail().getKey());
+            onJobFinished(context.getJobDetail().getKey().getName());
+        }
+
+        @Override
+        public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+            log.info("Job executed. JobKey: {}", context.getJobDetail().getKey());
+            if (jobException != null) {
+                log.error("Job execution encountered an error: {}", jobException.getMessage(), jobException);
+            }
+            onJobFinished(context.getJobDetail().getKey().getName());
         }
     }
-}
\ No newline at end of file
+}
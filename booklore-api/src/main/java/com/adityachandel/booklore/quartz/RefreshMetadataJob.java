@@ -2,6 +2,7 @@ package com.adityachandel.booklore.quartz;
 
 import com.adityachandel.booklore.model.dto.BookLoreUser;
 import com.adityachandel.booklore.model.dto.request.MetadataRefreshRequest;
+import com.adityachandel.booklore.repository.MetadataRefreshQueueRepository;
 import com.adityachandel.booklore.service.metadata.MetadataRefreshService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +11,9 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Set;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -17,6 +21,7 @@ import org.springframework.stereotype.Component;
 public class RefreshMetadataJob implements InterruptableJob {
 
     private final MetadataRefreshService metadataRefreshService;
+    private final MetadataRefreshQueueRepository queueRepository;
     private volatile Thread executionThread;
 
     @Override
@@ -31,8 +36,13 @@ public class RefreshMetadataJob implements InterruptableJob {
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(user, null, null);
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            log.info("Starting metadata refresh job with ID: {}", jobId);
-            metadataRefreshService.refreshMetadata(request, userId, jobId);
+            Set<Long> refreshedBookIds = queueRepository.findRefreshedBookIds(jobId);
+            if (refreshedBookIds.isEmpty()) {
+                log.info("Starting metadata refresh job with ID: {}", jobId);
+            } else {
+                log.info("Resuming metadata refresh job with ID: {}, {} books already done", jobId, refreshedBookIds.size());
+            }
+            metadataRefreshService.refreshMetadata(request, userId, jobId, refreshedBookIds, bookIds -> markBooksRefreshed(jobId, bookIds));
             log.info("Completed metadata refresh job with ID: {}", jobId);
         } catch (RuntimeException e) {
             if (e.getCause() instanceof InterruptedException) {
@@ -54,6 +64,15 @@ public class RefreshMetadataJob implements InterruptableJob {
         }
     }
 
+    private void markBooksRefreshed(String jobId, Collection<Long> bookIds) {
+        try {
+            queueRepository.markBooksRefreshed(jobId, bookIds);
+        } catch (RuntimeException e) {
+            // The job may have been cancelled and removed from the queue meanwhile
+            log.debug("Could not record progress of job {} for books {}: {}", jobId, bookIds, e.getMessage());
+        }
+    }
+
     @Override
     public void interrupt() throws UnableToInterruptJobException {
         Thread thread = executionThread;
@@ -1,7 +1,11 @@
 package com.adityachandel.booklore.repository;
 
 import com.adityachandel.booklore.model.entity.AuthorEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -19,5 +23,27 @@ public interface AuthorRepository extends JpaRepository<AuthorEntity, Long> {
     List<AuthorEntity> findAuthorsByBookId(@Param("bookId") Long bookId);
 
     List<AuthorEntity> findAllByIdIn(Set<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO author (name) VALUES (:name)", nativeQuery = true)
+    void insertIgnore(@Param("name") String name);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Transactional
+    @Query("SELECT a FROM AuthorEntity a WHERE a.name = :name")
+    Optional<AuthorEntity> findByNameForShare(@Param("name") String name);
+
+    /**
+     * Returns the author with the given name, creating it if needed. Concurrent imports may create the same name at
+     * once, so the row is inserted with INSERT IGNORE and then read with a locking read, which sees a row committed by
+     * another transaction after this one started.
+     */
+    default AuthorEntity findOrCreateByName(String name) {
+        return findByName(name).orElseGet(() -> {
+            insertIgnore(name);
+            return findByNameForShare(name).orElseThrow();
+        });
+    }
 }
 
@@ -1,6 +1,7 @@
 package com.adityachandel.booklore.repository;
 
 import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
 import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -21,6 +22,14 @@ public interface BookRepository extends JpaRepository<BookEntity, Long>, JpaSpec
 
     Optional<BookEntity> findByCurrentHash(String currentHash);
 
+    @Query("SELECT b.currentHash FROM BookEntity b WHERE b.id = :id")
+    Optional<String> findCurrentHashById(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BookEntity b SET b.currentHash = :hash WHERE b.id = :id AND b.currentHash IS NULL")
+    int setCurrentHashIfMissing(@Param("id") Long id, @Param("hash") String hash);
+
     @Query("SELECT b.id FROM BookEntity b WHERE b.library.id = :libraryId AND (b.deleted IS NULL OR b.deleted = false)")
     Set<Long> findBookIdsByLibraryId(@Param("libraryId") long libraryId);
 
@@ -31,6 +40,26 @@ public interface BookRepository extends JpaRepository<BookEntity, Long>, JpaSpec
                                                                        @Param("fileSubPath") String fileSubPath,
                                                                        @Param("fileName") String fileName);
 
+    @Query("SELECT b.fileName FROM BookEntity b WHERE b.libraryPath.id = :libraryPathId AND b.fileSubPath = :fileSubPath AND (b.deleted IS NULL OR b.deleted = false)")
+    Set<String> findFileNamesByLibraryPathIdAndFileSubPath(@Param("libraryPathId") Long libraryPathId,
+                                                           @Param("fileSubPath") String fileSubPath);
+
+    @Query("SELECT b FROM BookEntity b WHERE b.libraryPath.id = :libraryPathId AND (b.fileSubPath = :directory OR SUBSTRING(b.fileSubPath, 1, LENGTH(:directory) + 1) = CONCAT(:directory, '/')) AND (b.deleted IS NULL OR b.deleted = false)")
+    List<BookEntity> findAllInDirectory(@Param("libraryPathId") Long libraryPathId, @Param("directory") String directory);
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE BookEntity b SET b.libraryPath = :newLibraryPath,
+                b.fileSubPath = CONCAT(:newDirectory, SUBSTRING(b.fileSubPath, LENGTH(:oldDirectory) + 1))
+            WHERE b.libraryPath.id = :oldLibraryPathId
+                AND (b.fileSubPath = :oldDirectory OR SUBSTRING(b.fileSubPath, 1, LENGTH(:oldDirectory) + 1) = CONCAT(:oldDirectory, '/'))
+                AND (b.deleted IS NULL OR b.deleted = false)
+            """)
+    int moveDirectory(@Param("oldLibraryPathId") Long oldLibraryPathId,
+                      @Param("oldDirectory") String oldDirectory,
+                      @Param("newLibraryPath") LibraryPathEntity newLibraryPath,
+                      @Param("newDirectory") String newDirectory);
+
     @Query("SELECT b.id FROM BookEntity b WHERE b.libraryPath.id IN :libraryPathIds AND (b.deleted IS NULL OR b.deleted = false)")
     List<Long> findAllBookIdsByLibraryPathIdIn(@Param("libraryPathIds") Collection<Long> libraryPathIds);
 
@@ -68,6 +97,16 @@ public interface BookRepository extends JpaRepository<BookEntity, Long>, JpaSpec
             """)
     List<BookEntity> findAllFullBooks();
 
+    @Query("""
+                SELECT DISTINCT b FROM BookEntity b
+                LEFT JOIN FETCH b.metadata m
+                LEFT JOIN FETCH m.authors
+                LEFT JOIN FETCH m.categories
+                LEFT JOIN FETCH b.shelves
+                WHERE b.id IN :bookIds AND (b.deleted IS NULL OR b.deleted = false)
+            """)
+    List<BookEntity> findAllFullBooksByIds(@Param("bookIds") Collection<Long> bookIds);
+
     @Query("""
                 SELECT DISTINCT b FROM BookEntity b
                 LEFT JOIN FETCH b.metadata m
@@ -29,6 +29,29 @@ public interface BookdropFileRepository extends JpaRepository<BookdropFileEntity
     @Query("DELETE FROM BookdropFileEntity f WHERE f.filePath LIKE CONCAT(:prefix, '%')")
     int deleteAllByFilePathStartingWith(@Param("prefix") String prefix);
 
+    @Query("SELECT f.id AS id, f.filePath AS filePath, f.fileSize AS fileSize, f.fileLastModified AS fileLastModified, f.fileHash AS fileHash FROM BookdropFileEntity f")
+    List<FileSnapshot> findAllFileSnapshots();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookdropFileEntity f SET f.fileSize = :fileSize, f.fileLastModified = :fileLastModified, f.fileHash = :fileHash WHERE f.id = :id")
+    void updateFileStats(@Param("id") Long id,
+                         @Param("fileSize") long fileSize,
+                         @Param("fileLastModified") long fileLastModified,
+                         @Param("fileHash") String fileHash);
+
     @Query("SELECT f.id FROM BookdropFileEntity f WHERE f.id NOT IN :excludedIds")
     List<Long> findAllExcludingIdsFlat(@Param("excludedIds") List<Long> excludedIds);
+
+    interface FileSnapshot {
+        Long getId();
+
+        String getFilePath();
+
+        Long getFileSize();
+
+        Long getFileLastModified();
+
+        String getFileHash();
+    }
 }
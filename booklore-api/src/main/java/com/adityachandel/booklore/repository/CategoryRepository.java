@@ -1,7 +1,13 @@
 package com.adityachandel.booklore.repository;
 
 import com.adityachandel.booklore.model.entity.CategoryEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,5 +20,27 @@ public interface CategoryRepository extends JpaRepository<CategoryEntity, Long>
     Optional<CategoryEntity> findByName(String categoryName);
 
     List<CategoryEntity> findAllByIdIn(Set<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO category (name) VALUES (:name)", nativeQuery = true)
+    void insertIgnore(@Param("name") String name);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Transactional
+    @Query("SELECT c FROM CategoryEntity c WHERE c.name = :name")
+    Optional<CategoryEntity> findByNameForShare(@Param("name") String name);
+
+    /**
+     * Returns the category with the given name, creating it if needed. Concurrent imports may create the same name at
+     * once, so the row is inserted with INSERT IGNORE and then read with a locking read, which sees a row committed by
+     * another transaction after this one started.
+     */
+    default CategoryEntity findOrCreateByName(String name) {
+        return findByName(name).orElseGet(() -> {
+            insertIgnore(name);
+            return findByNameForShare(name).orElseThrow();
+        });
+    }
 }
 
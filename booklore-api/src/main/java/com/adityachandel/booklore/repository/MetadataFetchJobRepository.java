@@ -1,18 +1,25 @@
 package com.adityachandel.booklore.repository;
 
 import com.adityachandel.booklore.model.entity.MetadataFetchJobEntity;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
-import java.util.List;
 
 @Repository
 public interface MetadataFetchJobRepository extends JpaRepository<MetadataFetchJobEntity, String> {
 
     int deleteAllByCompletedAtBefore(Instant cutoff);
 
-    @Query("SELECT DISTINCT t FROM MetadataFetchJobEntity t LEFT JOIN FETCH t.proposals")
-    List<MetadataFetchJobEntity> findAllWithProposals();
+    /**
+     * Deletes the job without loading its proposals; the database removes them through the foreign key.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM MetadataFetchJobEntity t WHERE t.taskId = :taskId")
+    int deleteByTaskId(@Param("taskId") String taskId);
 }
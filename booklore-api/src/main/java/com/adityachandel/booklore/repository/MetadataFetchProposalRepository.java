@@ -1,10 +1,101 @@
 package com.adityachandel.booklore.repository;
 
 import com.adityachandel.booklore.model.entity.MetadataFetchProposalEntity;
+import com.adityachandel.booklore.model.enums.FetchedMetadataProposalStatus;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface MetadataFetchProposalRepository extends JpaRepository<MetadataFetchProposalEntity, Long> {
 
+    String FILTER = """
+            p.job.taskId = :taskId
+            AND (:status IS NULL OR p.status = :status)
+            AND (:minConfidence IS NULL OR p.confidence >= :minConfidence)
+            AND (:maxConfidence IS NULL OR p.confidence <= :maxConfidence)
+            AND (:changedField IS NULL OR p.changedFields LIKE CONCAT('%,', :changedField, ',%') ESCAPE '!')
+            AND (:afterProposalId IS NULL OR p.proposalId > :afterProposalId)
+            """;
+
+    /**
+     * Proposals matching the filter in id order. Returned as a slice, so paging through them with
+     * {@code afterProposalId} does not count the matching rows on every page.
+     */
+    @Query("SELECT p FROM MetadataFetchProposalEntity p WHERE " + FILTER + " ORDER BY p.proposalId")
+    Slice<MetadataFetchProposalEntity> findFiltered(@Param("taskId") String taskId,
+                                                    @Param("status") FetchedMetadataProposalStatus status,
+                                                    @Param("minConfidence") Double minConfidence,
+                                                    @Param("maxConfidence") Double maxConfidence,
+                                                    @Param("changedField") String changedField,
+                                                    @Param("afterProposalId") Long afterProposalId,
+                                                    Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE MetadataFetchProposalEntity p
+            SET p.status = :newStatus, p.reviewedAt = :reviewedAt, p.reviewerUserId = :reviewerUserId
+            WHERE p.job.taskId = :taskId AND p.proposalId IN :proposalIds
+            """)
+    int updateStatusByIds(@Param("taskId") String taskId,
+                          @Param("proposalIds") Collection<Long> proposalIds,
+                          @Param("newStatus") FetchedMetadataProposalStatus newStatus,
+                          @Param("reviewedAt") Instant reviewedAt,
+                          @Param("reviewerUserId") Long reviewerUserId);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE MetadataFetchProposalEntity p
+            SET p.status = :newStatus, p.reviewedAt = :reviewedAt, p.reviewerUserId = :reviewerUserId
+            WHERE
+            """ + FILTER)
+    int updateStatusByFilter(@Param("taskId") String taskId,
+                             @Param("status") FetchedMetadataProposalStatus status,
+                             @Param("minConfidence") Double minConfidence,
+                             @Param("maxConfidence") Double maxConfidence,
+                             @Param("changedField") String changedField,
+                             @Param("afterProposalId") Long afterProposalId,
+                             @Param("newStatus") FetchedMetadataProposalStatus newStatus,
+                             @Param("reviewedAt") Instant reviewedAt,
+                             @Param("reviewerUserId") Long reviewerUserId);
+
+    /**
+     * Like {@link #updateStatusByFilter}, but skips the excluded proposals. {@code excludedIds} must not be empty.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE MetadataFetchProposalEntity p
+            SET p.status = :newStatus, p.reviewedAt = :reviewedAt, p.reviewerUserId = :reviewerUserId
+            WHERE p.proposalId NOT IN :excludedIds AND
+            """ + FILTER)
+    int updateStatusByFilterExcluding(@Param("taskId") String taskId,
+                                      @Param("status") FetchedMetadataProposalStatus status,
+                                      @Param("minConfidence") Double minConfidence,
+                                      @Param("maxConfidence") Double maxConfidence,
+                                      @Param("changedField") String changedField,
+                                      @Param("afterProposalId") Long afterProposalId,
+                                      @Param("excludedIds") Collection<Long> excludedIds,
+                                      @Param("newStatus") FetchedMetadataProposalStatus newStatus,
+                                      @Param("reviewedAt") Instant reviewedAt,
+                                      @Param("reviewerUserId") Long reviewerUserId);
+
+    /**
+     * Proposal counts per task and status, as rows of task id, status and count.
+     */
+    @Query("SELECT p.job.taskId, p.status, COUNT(p) FROM MetadataFetchProposalEntity p GROUP BY p.job.taskId, p.status")
+    List<Object[]> countGroupedByTaskAndStatus();
+
+    long countByJob_TaskIdAndStatus(String taskId, FetchedMetadataProposalStatus status);
 }
@@ -0,0 +1,33 @@
+package com.adityachandel.booklore.repository;
+
+import com.adityachandel.booklore.model.entity.MetadataRefreshQueueEntity;
+import com.adityachandel.booklore.model.enums.MetadataRefreshQueueStatus;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+public interface MetadataRefreshQueueRepository extends JpaRepository<MetadataRefreshQueueEntity, String> {
+
+    List<MetadataRefreshQueueEntity> findAllByStatusOrderByQueuedAtAsc(MetadataRefreshQueueStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE MetadataRefreshQueueEntity q SET q.status = :to, q.startedAt = NULL WHERE q.status = :from")
+    int updateStatus(@Param("from") MetadataRefreshQueueStatus from, @Param("to") MetadataRefreshQueueStatus to);
+
+    @Query(value = "SELECT book_id FROM metadata_refresh_queue_book WHERE job_id = :jobId", nativeQuery = true)
+    Set<Long> findRefreshedBookIds(@Param("jobId") String jobId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO metadata_refresh_queue_book (job_id, book_id) SELECT :jobId, b.id FROM book b WHERE b.id IN :bookIds", nativeQuery = true)
+    void markBooksRefreshed(@Param("jobId") String jobId, @Param("bookIds") Collection<Long> bookIds);
+}
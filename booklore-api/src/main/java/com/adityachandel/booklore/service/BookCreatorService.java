@@ -46,8 +46,7 @@ public class BookCreatorService {
         }
         categories.stream()
                 .map(cat -> truncate(cat, 255))
-                .map(truncated -> categoryRepository.findByName(truncated)
-                        .orElseGet(() -> categoryRepository.save(CategoryEntity.builder().name(truncated).build())))
+                .map(categoryRepository::findOrCreateByName)
                 .forEach(catEntity -> bookEntity.getMetadata().getCategories().add(catEntity));
     }
 
@@ -57,8 +56,7 @@ public class BookCreatorService {
         }
         authors.stream()
                 .map(authorName -> truncate(authorName, 255))
-                .map(authorName -> authorRepository.findByName(authorName)
-                        .orElseGet(() -> authorRepository.save(AuthorEntity.builder().name(authorName).build())))
+                .map(authorRepository::findOrCreateByName)
                 .forEach(authorEntity -> bookEntity.getMetadata().getAuthors().add(authorEntity));
     }
 
@@ -1,27 +1,24 @@
 package com.adityachandel.booklore.service;
 
+import com.adityachandel.booklore.exception.APIException;
 import com.adityachandel.booklore.exception.ApiError;
 import com.adityachandel.booklore.model.dto.settings.KoboSettings;
 import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.enums.BookFileType;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.file.FileStreamingService;
 import com.adityachandel.booklore.service.kobo.KepubConversionService;
 import com.adityachandel.booklore.util.FileUtils;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -34,26 +31,23 @@ public class BookDownloadService {
     private final BookRepository bookRepository;
     private final KepubConversionService kepubConversionService;
     private final AppSettingService appSettingService;
+    private final FileStreamingService fileStreamingService;
 
-    public ResponseEntity<Resource> downloadBook(Long bookId) {
-        try {
-            BookEntity bookEntity = bookRepository.findById(bookId)
-                    .orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
-
-            Path file = Paths.get(FileUtils.getBookFullPath(bookEntity)).toAbsolutePath().normalize();
-            Resource resource = new UrlResource(file.toUri());
+    public void downloadBook(Long bookId, HttpServletRequest request, HttpServletResponse response) {
+        BookEntity bookEntity = bookRepository.findById(bookId)
+                .orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
+        Path file = Paths.get(FileUtils.getBookFullPath(bookEntity)).toAbsolutePath().normalize();
+        fileStreamingService.streamFile(file, bookEntity.getCurrentHash(), MediaType.APPLICATION_OCTET_STREAM, "attachment", request, response);
+    }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
-                    .body(resource);
-        } catch (Exception e) {
-            log.error("Failed to download book {}: {}", bookId, e.getMessage(), e);
-            throw ApiError.FAILED_TO_DOWNLOAD_FILE.createException(bookId);
-        }
+    public void streamBookContent(Long bookId, HttpServletRequest request, HttpServletResponse response) {
+        BookEntity bookEntity = bookRepository.findById(bookId)
+                .orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
+        Path file = Paths.get(FileUtils.getBookFullPath(bookEntity)).toAbsolutePath().normalize();
+        fileStreamingService.streamFile(file, bookEntity.getCurrentHash(), MediaType.APPLICATION_OCTET_STREAM, null, request, response);
     }
 
-    public void downloadKoboBook(Long bookId, HttpServletResponse response) {
+    public void downloadKoboBook(Long bookId, HttpServletRequest request, HttpServletResponse response) {
         BookEntity bookEntity = bookRepository.findById(bookId).orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
 
         if (bookEntity.getBookType() != BookFileType.EPUB) {
@@ -71,18 +65,19 @@ public class BookDownloadService {
         Path tempDir = null;
         try {
             File inputFile = new File(FileUtils.getBookFullPath(bookEntity));
-            File fileToSend = inputFile;
 
             if (asKepub) {
                 tempDir = Files.createTempDirectory("kepub-output");
-                fileToSend = kepubConversionService.convertEpubToKepub(inputFile, tempDir.toFile());
+                File kepubFile = kepubConversionService.convertEpubToKepub(inputFile, tempDir.toFile());
+                fileStreamingService.streamTemporaryFile(kepubFile.toPath(), MediaType.APPLICATION_OCTET_STREAM, "attachment", request, response);
+                log.info("Successfully streamed {} ({} bytes) to client", kepubFile.getName(), kepubFile.length());
+            } else {
+                fileStreamingService.streamFile(inputFile.toPath(), bookEntity.getCurrentHash(), MediaType.APPLICATION_OCTET_STREAM, "attachment", request, response);
+                log.info("Successfully streamed {} ({} bytes) to client", inputFile.getName(), inputFile.length());
             }
 
-            setResponseHeaders(response, fileToSend);
-            streamFileToResponse(fileToSend, response);
-
-            log.info("Successfully streamed {} ({} bytes) to client", fileToSend.getName(), fileToSend.length());
-
+        } catch (APIException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to download kobo book {}: {}", bookId, e.getMessage(), e);
             throw ApiError.FAILED_TO_DOWNLOAD_FILE.createException(bookId);
@@ -91,19 +86,6 @@ public class BookDownloadService {
         }
     }
 
-    private void setResponseHeaders(HttpServletResponse response, File file) {
-        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
-        response.setContentLengthLong(file.length());
-        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"");
-    }
-
-    private void streamFileToResponse(File file, HttpServletResponse response) throws IOException {
-        try (InputStream in = Files.newInputStream(file.toPath())) {
-            in.transferTo(response.getOutputStream());
-            response.getOutputStream().flush();
-        }
-    }
-
     private void cleanupTempDirectory(Path tempDir) {
         if (tempDir != null) {
             try {
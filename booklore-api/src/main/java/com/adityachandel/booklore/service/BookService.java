@@ -15,24 +15,24 @@ import com.adityachandel.booklore.model.enums.BookFileType;
 import com.adityachandel.booklore.model.enums.ReadStatus;
 import com.adityachandel.booklore.model.enums.ResetProgressType;
 import com.adityachandel.booklore.repository.*;
+import com.adityachandel.booklore.service.reader.BookReaderCacheService;
 import com.adityachandel.booklore.util.FileService;
 import com.adityachandel.booklore.util.FileUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.EnumUtils;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -60,6 +60,7 @@ public class BookService {
     private final BookQueryService bookQueryService;
     private final UserProgressService userProgressService;
     private final BookDownloadService bookDownloadService;
+    private final BookReaderCacheService bookReaderCacheService;
 
 
     private void setBookProgress(Book book, UserBookProgressEntity progress) {
@@ -453,17 +454,12 @@ public class BookService {
         return fileService.getBookCover(bookEntity.getMetadata().getThumbnail());
     }
 
-    public ResponseEntity<Resource> downloadBook(Long bookId) {
-        return bookDownloadService.downloadBook(bookId);
+    public void downloadBook(Long bookId, HttpServletRequest request, HttpServletResponse response) {
+        bookDownloadService.downloadBook(bookId, request, response);
     }
 
-    public ResponseEntity<ByteArrayResource> getBookContent(long bookId) throws IOException {
-        BookEntity bookEntity = bookRepository.findById(bookId).orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
-        try (FileInputStream inputStream = new FileInputStream(FileUtils.getBookFullPath(bookEntity))) {
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(new ByteArrayResource(inputStream.readAllBytes()));
-        }
+    public void getBookContent(long bookId, HttpServletRequest request, HttpServletResponse response) {
+        bookDownloadService.streamBookContent(bookId, request, response);
     }
 
 
@@ -491,6 +487,7 @@ public class BookService {
         }
 
         bookRepository.deleteAll(books);
+        bookReaderCacheService.purge(books.stream().map(BookEntity::getId).toList());
         BookDeletionResponse response = new BookDeletionResponse(ids, failedFileDeletions);
         return failedFileDeletions.isEmpty()
                 ? ResponseEntity.ok(response)
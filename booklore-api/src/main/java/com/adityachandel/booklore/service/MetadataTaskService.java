@@ -5,18 +5,23 @@ import com.adityachandel.booklore.mapper.FetchedProposalMapper;
 import com.adityachandel.booklore.model.dto.FetchedProposal;
 import com.adityachandel.booklore.model.dto.MetadataBatchProgressNotification;
 import com.adityachandel.booklore.model.dto.MetadataFetchTask;
+import com.adityachandel.booklore.model.dto.request.MetadataProposalBulkStatusRequest;
+import com.adityachandel.booklore.model.dto.request.MetadataProposalFilter;
 import com.adityachandel.booklore.model.dto.response.MetadataTaskDetailsResponse;
-import com.adityachandel.booklore.model.entity.MetadataFetchJobEntity;
-import com.adityachandel.booklore.model.entity.MetadataFetchProposalEntity;
 import com.adityachandel.booklore.model.enums.FetchedMetadataProposalStatus;
 import com.adityachandel.booklore.repository.MetadataFetchJobRepository;
 import com.adityachandel.booklore.repository.MetadataFetchProposalRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -28,14 +33,12 @@ public class MetadataTaskService {
     private final FetchedProposalMapper fetchedProposalMapper;
     private final AuthenticationService authenticationService;
 
+    /**
+     * Returns the task without its proposals, which are paged through {@link #getProposals}.
+     */
     public Optional<MetadataTaskDetailsResponse> getTaskWithProposals(String taskId) {
         return metadataFetchTaskRepository.findById(taskId)
                 .map(task -> {
-                    List<FetchedProposal> proposals = task.getProposals().stream()
-                            .filter(p -> p.getStatus() == FetchedMetadataProposalStatus.FETCHED)
-                            .map(fetchedProposalMapper::toDto)
-                            .toList();
-
                     MetadataFetchTask taskDto = MetadataFetchTask.builder()
                             .id(task.getTaskId())
                             .status(task.getStatus())
@@ -44,21 +47,26 @@ public class MetadataTaskService {
                             .startedAt(task.getStartedAt())
                             .completedAt(task.getCompletedAt())
                             .initiatedBy(task.getUserId())
-                            .proposals(proposals)
+                            .pendingProposals(proposalRepository.countByJob_TaskIdAndStatus(taskId, FetchedMetadataProposalStatus.FETCHED))
                             .build();
 
                     return new MetadataTaskDetailsResponse(taskDto);
                 });
     }
 
-    @Transactional
+    /**
+     * Proposals are always ordered by id. With {@code afterProposalId} the page number is ignored and the slice starts
+     * right after that proposal.
+     */
+    public Slice<FetchedProposal> getProposals(String taskId, MetadataProposalFilter filter, Pageable pageable) {
+        int page = filter.getAfterProposalId() != null ? 0 : pageable.getPageNumber();
+        return proposalRepository.findFiltered(taskId, filter.getStatus(), filter.getMinConfidence(), filter.getMaxConfidence(),
+                        likeLiteral(blankToNull(filter.getChangedField())), filter.getAfterProposalId(), PageRequest.of(page, pageable.getPageSize()))
+                .map(fetchedProposalMapper::toDto);
+    }
+
     public boolean deleteTaskAndProposals(String taskId) {
-        return metadataFetchTaskRepository.findById(taskId)
-                .map(task -> {
-                    metadataFetchTaskRepository.delete(task);
-                    return true;
-                })
-                .orElse(false);
+        return metadataFetchTaskRepository.deleteByTaskId(taskId) > 0;
     }
 
     public boolean updateProposalStatus(String taskId, Long proposalId, String statusStr) {
@@ -78,6 +86,31 @@ public class MetadataTaskService {
                 .orElse(false);
     }
 
+    /**
+     * Sets the status of the selected proposals in a single update. With {@code selectAll} the selection is every
+     * proposal matching the filter except the excluded ones, otherwise the listed ids. Returns the number of updated
+     * proposals.
+     */
+    public int updateProposalStatuses(String taskId, MetadataProposalBulkStatusRequest request) {
+        Long userId = authenticationService.getAuthenticatedUser().getId();
+        Instant now = Instant.now();
+        if (!request.isSelectAll()) {
+            if (request.getSelectedIds() == null || request.getSelectedIds().isEmpty()) {
+                return 0;
+            }
+            return proposalRepository.updateStatusByIds(taskId, request.getSelectedIds(), request.getStatus(), now, userId);
+        }
+        MetadataProposalFilter filter = request.getFilter() != null ? request.getFilter() : new MetadataProposalFilter();
+        String changedField = likeLiteral(blankToNull(filter.getChangedField()));
+        // JPQL does not accept an empty NOT IN list, so the exclusion is only part of the query when there is one
+        if (request.getExcludedIds() == null || request.getExcludedIds().isEmpty()) {
+            return proposalRepository.updateStatusByFilter(taskId, filter.getStatus(), filter.getMinConfidence(), filter.getMaxConfidence(),
+                    changedField, filter.getAfterProposalId(), request.getStatus(), now, userId);
+        }
+        return proposalRepository.updateStatusByFilterExcluding(taskId, filter.getStatus(), filter.getMinConfidence(), filter.getMaxConfidence(),
+                changedField, filter.getAfterProposalId(), request.getExcludedIds(), request.getStatus(), now, userId);
+    }
+
     private Optional<FetchedMetadataProposalStatus> parseStatus(String statusStr) {
         try {
             return Optional.of(FetchedMetadataProposalStatus.valueOf(statusStr.toUpperCase()));
@@ -86,28 +119,36 @@ public class MetadataTaskService {
         }
     }
 
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Escapes LIKE wildcards with the {@code !} escape character declared by the proposal filter query.
+     */
+    private static String likeLiteral(String value) {
+        if (value == null) return null;
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
     public List<MetadataBatchProgressNotification> getActiveTasks() {
-        List<MetadataFetchJobEntity> tasks = metadataFetchTaskRepository.findAllWithProposals(); // Ensure this uses a fetch join
+        Map<String, Map<FetchedMetadataProposalStatus, Long>> countsByTask = new LinkedHashMap<>();
+        for (Object[] row : proposalRepository.countGroupedByTaskAndStatus()) {
+            countsByTask.computeIfAbsent((String) row[0], taskId -> new EnumMap<>(FetchedMetadataProposalStatus.class))
+                    .put((FetchedMetadataProposalStatus) row[1], (Long) row[2]);
+        }
 
-        return tasks.stream()
-                .map(task -> {
-                    List<MetadataFetchProposalEntity> proposals = task.getProposals();
-                    List<MetadataFetchProposalEntity> remaining = proposals.stream()
-                            .filter(p -> p.getStatus() != FetchedMetadataProposalStatus.REJECTED)
-                            .toList();
-
-                    int total = remaining.size();
-                    long acceptedCount = remaining.stream()
-                            .filter(p -> p.getStatus() == FetchedMetadataProposalStatus.ACCEPTED)
-                            .count();
-                    long fetchedCount = remaining.stream()
-                            .filter(p -> p.getStatus() == FetchedMetadataProposalStatus.FETCHED)
-                            .count();
+        return countsByTask.entrySet().stream()
+                .map(entry -> {
+                    Map<FetchedMetadataProposalStatus, Long> counts = entry.getValue();
+                    long acceptedCount = counts.getOrDefault(FetchedMetadataProposalStatus.ACCEPTED, 0L);
+                    long fetchedCount = counts.getOrDefault(FetchedMetadataProposalStatus.FETCHED, 0L);
+                    int total = (int) (acceptedCount + fetchedCount);
 
                     String message = String.format("Metadata review pending for %d of %d books", fetchedCount, total);
 
                     return new MetadataBatchProgressNotification(
-                            task.getTaskId(),
+                            entry.getKey(),
                             (int) acceptedCount,
                             total,
                             message,
@@ -117,4 +158,4 @@ public class MetadataTaskService {
                 .filter(n -> n.getTotal() > 0)
                 .toList();
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -87,6 +88,12 @@ public class SettingPersistenceHelper {
         defaultMetadataProviderSettings.setHardcover(defaultHardcover);
         defaultMetadataProviderSettings.setComicvine(defaultComicvine);
 
+        Map<MetadataProvider, MetadataProviderSettings.RateLimit> defaultRateLimits = new EnumMap<>(MetadataProvider.class);
+        for (MetadataProvider provider : MetadataProvider.values()) {
+            defaultRateLimits.put(provider, MetadataProviderSettings.RateLimit.defaultFor(provider));
+        }
+        defaultMetadataProviderSettings.setRateLimits(defaultRateLimits);
+
         return defaultMetadataProviderSettings;
     }
 
@@ -1,14 +1,18 @@
 package com.adityachandel.booklore.service.bookdrop;
 
 import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.config.security.AuthenticationService;
 import com.adityachandel.booklore.exception.ApiError;
 import com.adityachandel.booklore.mapper.BookdropFileMapper;
 import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BookLoreUser;
 import com.adityachandel.booklore.model.dto.BookMetadata;
 import com.adityachandel.booklore.model.dto.BookdropFile;
 import com.adityachandel.booklore.model.dto.BookdropFileNotification;
 import com.adityachandel.booklore.model.dto.request.BookdropFinalizeRequest;
 import com.adityachandel.booklore.model.dto.response.BookdropFileResult;
+import com.adityachandel.booklore.model.dto.response.BookdropFinalizeJob;
+import com.adityachandel.booklore.model.dto.response.BookdropFinalizeProgress;
 import com.adityachandel.booklore.model.dto.response.BookdropFinalizeResult;
 import com.adityachandel.booklore.model.dto.settings.LibraryFile;
 import com.adityachandel.booklore.model.entity.BookEntity;
@@ -30,6 +34,7 @@ import com.adityachandel.booklore.service.monitoring.MonitoringService;
 import com.adityachandel.booklore.util.FileUtils;
 import com.adityachandel.booklore.util.PathPatternResolver;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FilenameUtils;
@@ -37,21 +42,26 @@ import org.springframework.core.io.PathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 @Slf4j
@@ -59,6 +69,11 @@ import java.util.stream.Stream;
 @Service
 public class BookDropService {
 
+    private static final int FINALIZE_CHUNK_SIZE = 100;
+    private static final int FINALIZE_WORKERS = 4;
+    private static final int HASH_LOCK_STRIPES = 64;
+    private static final Duration FINALIZE_JOB_RETENTION = Duration.ofHours(1);
+
     private final BookdropFileRepository bookdropFileRepository;
     private final LibraryRepository libraryRepository;
     private final BookRepository bookRepository;
@@ -71,8 +86,26 @@ public class BookDropService {
     private final AppProperties appProperties;
     private final BookdropFileMapper mapper;
     private final ObjectMapper objectMapper;
+    private final AuthenticationService authenticationService;
+    private final PlatformTransactionManager transactionManager;
     AppSettingService appSettingService;
 
+    private final Map<String, FinalizeJob> finalizeJobs = new ConcurrentHashMap<>();
+    // Jobs run concurrently; jobs importing into the same library wait for each other on its lock
+    private final Map<Long, Lock> libraryLocks = new ConcurrentHashMap<>();
+    // Copies of one file are imported one after the other, so the duplicate check of the second sees the first
+    private final Lock[] hashLocks = IntStream.range(0, HASH_LOCK_STRIPES).mapToObj(i -> new ReentrantLock()).toArray(Lock[]::new);
+    private final ExecutorService finalizeJobExecutor = new DelegatingSecurityContextExecutorService(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bookdrop-finalize-job-", 0).factory()));
+    private final ExecutorService finalizeFileExecutor = new DelegatingSecurityContextExecutorService(
+            Executors.newFixedThreadPool(FINALIZE_WORKERS, Thread.ofPlatform().name("bookdrop-finalize-", 0).daemon().factory()));
+
+    @PreDestroy
+    public void shutdown() {
+        finalizeJobExecutor.shutdownNow();
+        finalizeFileExecutor.shutdownNow();
+    }
+
     public BookdropFileNotification getFileNotificationSummary() {
         long pendingCount = bookdropFileRepository.countByStatus(BookdropFileEntity.Status.PENDING_REVIEW);
         long totalCount = bookdropFileRepository.count();
@@ -87,14 +120,63 @@ public class BookDropService {
         }
     }
 
+    /**
+     * Imports the selected files and waits for the result. Runs as a job like
+     * {@link #startFinalizeImport(BookdropFinalizeRequest)}, which is preferred for large imports.
+     */
     public BookdropFinalizeResult finalizeImport(BookdropFinalizeRequest request) {
-        boolean monitoringWasActive = !monitoringService.isPaused();
-        if (monitoringWasActive) monitoringService.pauseMonitoring();
-        bookdropMonitoringService.pauseMonitoring();
+        FinalizeJob job = submitFinalizeJob(request);
+        try {
+            return job.future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
 
-        BookdropFinalizeResult results = BookdropFinalizeResult.builder()
-                .processedAt(Instant.now())
-                .build();
+    /**
+     * Starts the import of the selected files as a background job. Jobs for different libraries run concurrently, jobs
+     * sharing a target library one after the other. Per-file results are streamed to the requesting user on
+     * {@link Topic#BOOKDROP_FINALIZE_PROGRESS}; the job can be polled with {@link #getFinalizeJob(String)} by that user or
+     * an admin.
+     */
+    public BookdropFinalizeJob startFinalizeImport(BookdropFinalizeRequest request) {
+        return submitFinalizeJob(request).snapshot();
+    }
+
+    public BookdropFinalizeJob getFinalizeJob(String jobId) {
+        FinalizeJob job = finalizeJobs.get(jobId);
+        BookLoreUser user = authenticationService.getAuthenticatedUser();
+        // Jobs of other users are reported as missing, so their ids cannot be probed
+        if (job == null || (!Objects.equals(job.userId, user.getId()) && !user.getPermissions().isAdmin())) {
+            throw ApiError.GENERIC_NOT_FOUND.createException("Bookdrop import job not found: " + jobId);
+        }
+        return job.snapshot();
+    }
+
+    private FinalizeJob submitFinalizeJob(BookdropFinalizeRequest request) {
+        List<Long> ids = resolveFileIds(request);
+        FinalizeJob job = new FinalizeJob(UUID.randomUUID().toString(), authenticationService.getAuthenticatedUser().getId(), ids.size());
+        finalizeJobs.values().removeIf(FinalizeJob::isExpired);
+        finalizeJobs.put(job.id, job);
+        job.future = CompletableFuture.supplyAsync(() -> runFinalizeJob(job, request, ids), finalizeJobExecutor);
+        return job;
+    }
+
+    private List<Long> resolveFileIds(BookdropFinalizeRequest request) {
+        if (Boolean.TRUE.equals(request.getSelectAll())) {
+            List<Long> excludedIds = Optional.ofNullable(request.getExcludedIds()).orElse(List.of());
+            List<Long> allIds = bookdropFileRepository.findAllExcludingIdsFlat(excludedIds);
+            log.info("SelectAll: Total files to finalize (after exclusions): {}, Excluded IDs: {}", allIds.size(), excludedIds);
+            return allIds;
+        }
+        return Optional.ofNullable(request.getFiles())
+                .orElse(List.of())
+                .stream()
+                .map(BookdropFinalizeRequest.BookdropFinalizeFile::getFileId)
+                .toList();
+    }
+
+    private BookdropFinalizeResult runFinalizeJob(FinalizeJob job, BookdropFinalizeRequest request, List<Long> ids) {
         Long defaultLibraryId = request.getDefaultLibraryId();
         Long defaultPathId = request.getDefaultPathId();
 
@@ -103,106 +185,190 @@ public class BookDropService {
                 .stream()
                 .collect(Collectors.toMap(BookdropFinalizeRequest.BookdropFinalizeFile::getFileId, Function.identity()));
 
-        final int CHUNK_SIZE = 100;
-        AtomicInteger failedCount = new AtomicInteger();
-        AtomicInteger totalFilesProcessed = new AtomicInteger();
-
-        log.info("Starting finalizeImport: selectAll={}, provided file count={}, defaultLibraryId={}, defaultPathId={}",
-                request.getSelectAll(), metadataById.size(), defaultLibraryId, defaultPathId);
-
-        if (Boolean.TRUE.equals(request.getSelectAll())) {
-            List<Long> excludedIds = Optional.ofNullable(request.getExcludedIds()).orElse(List.of());
+        List<Lock> heldLocks = lockTargetLibraries(job, metadataById.values(), defaultLibraryId);
+        job.status = BookdropFinalizeJob.Status.RUNNING;
+        log.info("Starting finalizeImport job {}: selectAll={}, file count={}, defaultLibraryId={}, defaultPathId={}",
+                job.id, request.getSelectAll(), ids.size(), defaultLibraryId, defaultPathId);
 
-            List<Long> allIds = bookdropFileRepository.findAllExcludingIdsFlat(excludedIds);
-            log.info("SelectAll: Total files to finalize (after exclusions): {}, Excluded IDs: {}", allIds.size(), excludedIds);
+        Set<Path> targetPaths = resolveTargetPaths(metadataById.values(), defaultLibraryId, defaultPathId);
+        monitoringService.pausePaths(targetPaths);
+        bookdropMonitoringService.pauseMonitoring();
 
-            for (int i = 0; i < allIds.size(); i += CHUNK_SIZE) {
-                int end = Math.min(i + CHUNK_SIZE, allIds.size());
-                List<Long> chunk = allIds.subList(i, end);
+        Map<Long, Optional<LibraryEntity>> libraries = new ConcurrentHashMap<>();
+        Set<Path> claimedTargets = ConcurrentHashMap.newKeySet();
 
-                log.info("Processing chunk {}/{} ({} files): IDs={}", (i / CHUNK_SIZE + 1), (int) Math.ceil((double) allIds.size() / CHUNK_SIZE), chunk.size(), chunk);
+        try {
+            for (int i = 0; i < ids.size(); i += FINALIZE_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(i, Math.min(i + FINALIZE_CHUNK_SIZE, ids.size()));
+                log.info("Processing chunk {}/{} ({} files)", (i / FINALIZE_CHUNK_SIZE + 1), (int) Math.ceil((double) ids.size() / FINALIZE_CHUNK_SIZE), chunk.size());
 
-                List<BookdropFileEntity> chunkFiles = bookdropFileRepository.findAllById(chunk);
-                Map<Long, BookdropFileEntity> fileMap = chunkFiles.stream().collect(Collectors.toMap(BookdropFileEntity::getId, Function.identity()));
+                Map<Long, BookdropFileEntity> fileMap = bookdropFileRepository.findAllById(chunk).stream()
+                        .collect(Collectors.toMap(BookdropFileEntity::getId, Function.identity()));
+                Queue<Long> finishedIds = new ConcurrentLinkedQueue<>();
+                Queue<ImportedBook> importedBooks = new ConcurrentLinkedQueue<>();
 
+                List<CompletableFuture<Void>> tasks = new ArrayList<>(chunk.size());
                 for (Long id : chunk) {
                     BookdropFileEntity file = fileMap.get(id);
                     if (file == null) {
                         log.warn("File ID {} missing in DB during finalizeImport chunk processing", id);
-                        failedCount.incrementAndGet();
-                        totalFilesProcessed.incrementAndGet();
+                        job.record(failureResult(String.valueOf(id), "Bookdrop file not found"));
                         continue;
                     }
-                    processFile(file, metadataById.get(id), defaultLibraryId, defaultPathId, results, failedCount);
-                    totalFilesProcessed.incrementAndGet();
+                    tasks.add(CompletableFuture.runAsync(() -> {
+                        Lock hashLock = file.getFileHash() != null ? hashLocks[Math.floorMod(file.getFileHash().hashCode(), hashLocks.length)] : null;
+                        BookdropFileResult result;
+                        if (hashLock != null) hashLock.lock();
+                        try {
+                            result = processFile(file, metadataById.get(id), defaultLibraryId, defaultPathId, libraries, claimedTargets, finishedIds, importedBooks);
+                        } finally {
+                            if (hashLock != null) hashLock.unlock();
+                        }
+                        job.record(result);
+                        notificationService.sendMessage(Topic.BOOKDROP_FINALIZE_PROGRESS, job.progress(id, result));
+                    }, finalizeFileExecutor));
                 }
-            }
-        } else {
-            List<Long> ids = Optional.ofNullable(request.getFiles())
-                    .orElse(List.of())
-                    .stream()
-                    .map(BookdropFinalizeRequest.BookdropFinalizeFile::getFileId)
-                    .toList();
-
-            log.info("Processing {} manually selected files in chunks of {}. File IDs: {}", ids.size(), CHUNK_SIZE, ids);
-
-            for (int i = 0; i < ids.size(); i += CHUNK_SIZE) {
-                int end = Math.min(i + CHUNK_SIZE, ids.size());
-                List<Long> chunkIds = ids.subList(i, end);
-                List<BookdropFileEntity> chunkFiles = bookdropFileRepository.findAllById(chunkIds);
-
-                log.info("Processing chunk {} of {} ({} files): IDs={}", (i / CHUNK_SIZE + 1), (int) Math.ceil((double) ids.size() / CHUNK_SIZE), chunkFiles.size(), chunkIds);
-
-                Map<Long, BookdropFileEntity> fileMap = chunkFiles.stream()
-                        .collect(Collectors.toMap(BookdropFileEntity::getId, Function.identity()));
+                CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
 
-                for (Long id : chunkIds) {
-                    BookdropFileEntity file = fileMap.get(id);
-                    if (file == null) {
-                        log.error("File ID {} not found in DB during finalizeImport chunk processing", id);
-                        failedCount.incrementAndGet();
-                        totalFilesProcessed.incrementAndGet();
-                        continue;
-                    }
-                    processFile(file, metadataById.get(id), defaultLibraryId, defaultPathId, results, failedCount);
-                    totalFilesProcessed.incrementAndGet();
+                persistImportedBooks(importedBooks);
+                if (!finishedIds.isEmpty()) {
+                    bookdropFileRepository.deleteAllByIdInBatch(List.copyOf(finishedIds));
                 }
+                bookdropNotificationService.sendBookdropFileSummaryNotification();
             }
-        }
-
-        results.setTotalFiles(totalFilesProcessed.get());
-        results.setFailed(failedCount.get());
-        results.setSuccessfullyImported(totalFilesProcessed.get() - failedCount.get());
 
-        log.info("Finalization complete. Success: {}, Failed: {}, Total processed: {}",
-                results.getSuccessfullyImported(),
-                results.getFailed(),
-                results.getTotalFiles());
-
-        if (monitoringWasActive) {
+            BookdropFinalizeResult results = job.toResult();
+            job.complete(BookdropFinalizeJob.Status.COMPLETED, results);
+            log.info("Finalization complete. Success: {}, Failed: {}, Total processed: {}",
+                    results.getSuccessfullyImported(), results.getFailed(), results.getTotalFiles());
+            return results;
+        } catch (RuntimeException e) {
+            log.error("Bookdrop import job {} failed", job.id, e);
+            job.complete(BookdropFinalizeJob.Status.FAILED, job.toResult());
+            throw e;
+        } finally {
+            heldLocks.forEach(Lock::unlock);
             Thread.startVirtualThread(() -> {
                 try {
                     Thread.sleep(5000);
-                    monitoringService.resumeMonitoring();
-                    bookdropMonitoringService.resumeMonitoring();
-                    log.info("Monitoring resumed after 5s delay following finalizeImport");
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     log.warn("Interrupted while delaying resume of monitoring after finalizeImport");
                 }
+                monitoringService.resumePaths(targetPaths);
+                bookdropMonitoringService.resumeMonitoring();
+                log.info("Monitoring resumed after 5s delay following finalizeImport");
             });
         }
+    }
+
+    /**
+     * Waits until no other job imports into any of the job's target libraries. Locks are taken in library id order, so
+     * jobs with overlapping targets cannot deadlock.
+     */
+    private List<Lock> lockTargetLibraries(FinalizeJob job, Collection<BookdropFinalizeRequest.BookdropFinalizeFile> files, Long defaultLibraryId) {
+        Set<Long> libraryIds = new TreeSet<>();
+        if (defaultLibraryId != null) libraryIds.add(defaultLibraryId);
+        files.stream().map(BookdropFinalizeRequest.BookdropFinalizeFile::getLibraryId).filter(Objects::nonNull).forEach(libraryIds::add);
+
+        List<Lock> held = new ArrayList<>(libraryIds.size());
+        try {
+            for (Long libraryId : libraryIds) {
+                Lock lock = libraryLocks.computeIfAbsent(libraryId, id -> new ReentrantLock());
+                lock.lockInterruptibly();
+                held.add(lock);
+            }
+            return held;
+        } catch (InterruptedException e) {
+            held.forEach(Lock::unlock);
+            Thread.currentThread().interrupt();
+            job.complete(BookdropFinalizeJob.Status.FAILED, job.toResult());
+            throw new CancellationException("Bookdrop import job " + job.id + " was interrupted before it started");
+        }
+    }
+
+    /**
+     * Applies the reviewed metadata to the books created for one chunk in a single transaction that is flushed once,
+     * instead of one round trip per file. If a book fails the chunk is rolled back and applied book by book, so one bad
+     * file does not cost the others their metadata.
+     */
+    private void persistImportedBooks(Collection<ImportedBook> importedBooks) {
+        if (importedBooks.isEmpty()) return;
+
+        TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
+        try {
+            int updated = Objects.requireNonNullElse(txTemplate.execute(status -> applyImportedMetadata(importedBooks)), 0);
+            log.info("Saved {} imported books", updated);
+        } catch (RuntimeException e) {
+            log.warn("Saving imported books as a batch failed, retrying one by one: {}", e.getMessage());
+            for (ImportedBook imported : importedBooks) {
+                try {
+                    txTemplate.executeWithoutResult(status -> applyImportedMetadata(List.of(imported)));
+                } catch (RuntimeException bookException) {
+                    log.warn("Failed to apply metadata to imported book id={}: {}", imported.book().getId(), bookException.getMessage());
+                }
+            }
+        }
+
+        for (ImportedBook imported : importedBooks) {
+            File cachedCover = Paths.get(appProperties.getPathConfig(), "bookdrop_temp", imported.bookdropFileId() + ".jpg").toFile();
+            if (cachedCover.exists()) {
+                boolean deleted = cachedCover.delete();
+                log.debug("Deleted cached cover image for bookdropId={}: {}", imported.bookdropFileId(), deleted);
+            }
+        }
+    }
 
-        return results;
+    private int applyImportedMetadata(Collection<ImportedBook> importedBooks) {
+        Set<Long> bookIds = importedBooks.stream().map(imported -> imported.book().getId()).collect(Collectors.toSet());
+        Map<Long, BookEntity> entities = bookRepository.findAllFullBooksByIds(bookIds).stream()
+                .collect(Collectors.toMap(BookEntity::getId, Function.identity()));
+
+        int updated = 0;
+        for (ImportedBook imported : importedBooks) {
+            BookEntity bookEntity = entities.get(imported.book().getId());
+            if (bookEntity == null) {
+                log.warn("Imported book id={} not found when applying its metadata", imported.book().getId());
+                continue;
+            }
+            BookMetadata metadata = imported.metadata();
+            if (metadataRefreshService.updateBookMetadata(bookEntity, metadata, metadata != null && metadata.getThumbnailUrl() != null, false)) {
+                updated++;
+            }
+        }
+        bookRepository.flush();
+        return updated;
     }
 
-    private void processFile(
+    private Set<Path> resolveTargetPaths(Collection<BookdropFinalizeRequest.BookdropFinalizeFile> files, Long defaultLibraryId, Long defaultPathId) {
+        Map<Long, Set<Long>> pathIdsByLibrary = new HashMap<>();
+        if (defaultLibraryId != null && defaultPathId != null) {
+            pathIdsByLibrary.computeIfAbsent(defaultLibraryId, id -> new HashSet<>()).add(defaultPathId);
+        }
+        for (BookdropFinalizeRequest.BookdropFinalizeFile file : files) {
+            Long libraryId = file.getLibraryId() != null ? file.getLibraryId() : defaultLibraryId;
+            Long pathId = file.getPathId() != null ? file.getPathId() : defaultPathId;
+            if (libraryId != null && pathId != null) {
+                pathIdsByLibrary.computeIfAbsent(libraryId, id -> new HashSet<>()).add(pathId);
+            }
+        }
+        Set<Path> paths = new HashSet<>();
+        pathIdsByLibrary.forEach((libraryId, pathIds) -> libraryRepository.findById(libraryId).ifPresent(library ->
+                library.getLibraryPaths().stream()
+                        .filter(path -> pathIds.contains(path.getId()))
+                        .forEach(path -> paths.add(Path.of(path.getPath())))));
+        return paths;
+    }
+
+    private BookdropFileResult processFile(
             BookdropFileEntity fileEntity,
             BookdropFinalizeRequest.BookdropFinalizeFile fileReq,
             Long defaultLibraryId,
             Long defaultPathId,
-            BookdropFinalizeResult results,
-            AtomicInteger failedCount
+            Map<Long, Optional<LibraryEntity>> libraries,
+            Set<Path> claimedTargets,
+            Queue<Long> finishedIds,
+            Queue<ImportedBook> importedBooks
     ) {
         try {
             Long libraryId;
@@ -229,32 +395,31 @@ public class BookDropService {
                 log.debug("Processing fileId={}, fileName={} with default metadata, libraryId={}, pathId={}", fileEntity.getId(), fileEntity.getFileName(), libraryId, pathId);
             }
 
-            BookdropFileResult result = moveFile(libraryId, pathId, metadata, fileEntity);
+            LibraryEntity library = libraries.computeIfAbsent(libraryId, libraryRepository::findById)
+                    .orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
+            BookdropFileResult result = moveFile(library, pathId, metadata, fileEntity, claimedTargets, finishedIds, importedBooks);
 
-            results.getResults().add(result);
             if (!result.isSuccess()) {
                 log.warn("Finalization failed (non-exception) for file id={}, name={}, message={}", fileEntity.getId(), fileEntity.getFileName(), result.getMessage());
-                failedCount.incrementAndGet();
             } else {
                 log.info("Successfully finalized file id={}, name={}", fileEntity.getId(), fileEntity.getFileName());
             }
+            return result;
 
         } catch (Exception e) {
-            failedCount.incrementAndGet();
             String msg = String.format("Error finalizing file [id=%s, name=%s]: %s", fileEntity.getId(), fileEntity.getFileName(), e.getMessage());
             log.error(msg, e);
             notificationService.sendMessage(Topic.LOG, msg);
+            return failureResult(fileEntity.getFileName(), e.getMessage());
         }
     }
 
-    private BookdropFileResult moveFile(long libraryId, long pathId, BookMetadata metadata, BookdropFileEntity bookdropFile) throws Exception {
-        LibraryEntity library = libraryRepository.findById(libraryId)
-                .orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
-
+    private BookdropFileResult moveFile(LibraryEntity library, long pathId, BookMetadata metadata, BookdropFileEntity bookdropFile,
+                                        Set<Path> claimedTargets, Queue<Long> finishedIds, Queue<ImportedBook> importedBooks) throws Exception {
         LibraryPathEntity path = library.getLibraryPaths().stream()
                 .filter(p -> p.getId() == pathId)
                 .findFirst()
-                .orElseThrow(() -> ApiError.INVALID_LIBRARY_PATH.createException(libraryId));
+                .orElseThrow(() -> ApiError.INVALID_LIBRARY_PATH.createException(library.getId()));
 
         String filePattern = library.getFileNamingPattern();
         if (filePattern == null || filePattern.isBlank()) {
@@ -274,13 +439,12 @@ public class BookDropService {
                 bookdropFile.getId(), bookdropFile.getFileName(), source, target, library.getName(), path.getPath());
 
         if (!Files.exists(source)) {
-            bookdropFileRepository.deleteById(bookdropFile.getId());
+            finishedIds.add(bookdropFile.getId());
             log.warn("Source file [id={}] not found at '{}'. Deleting entry from DB.", bookdropFile.getId(), source);
-            bookdropNotificationService.sendBookdropFileSummaryNotification();
             return failureResult(targetFile.getName(), "Source file does not exist in bookdrop folder");
         }
 
-        if (targetFile.exists()) {
+        if (targetFile.exists() || !claimedTargets.add(target.toAbsolutePath().normalize())) {
             log.warn("Target file already exists: id={}, name={}, target={}", bookdropFile.getId(), bookdropFile.getFileName(), target);
             return failureResult(targetFile.getName(), "File already exists in the library '" + library.getName() + "'");
         }
@@ -296,19 +460,9 @@ public class BookDropService {
                             .orElseThrow(() -> ApiError.INVALID_FILE_FORMAT.createException("Unsupported file extension"))
                             .getType());
 
-            BookEntity bookEntity = bookRepository.findById(processedBook.getId())
-                    .orElseThrow(() -> ApiError.FILE_NOT_FOUND.createException("Book ID missing after import"));
-
             notificationService.sendMessage(Topic.BOOK_ADD, processedBook);
-            metadataRefreshService.updateBookMetadata(bookEntity, metadata, metadata.getThumbnailUrl() != null, false);
-            bookdropFileRepository.deleteById(bookdropFile.getId());
-            bookdropNotificationService.sendBookdropFileSummaryNotification();
-
-            File cachedCover = Paths.get(appProperties.getPathConfig(), "bookdrop_temp", bookdropFile.getId() + ".jpg").toFile();
-            if (cachedCover.exists()) {
-                boolean deleted = cachedCover.delete();
-                log.debug("Deleted cached cover image for bookdropId={}: {}", bookdropFile.getId(), deleted);
-            }
+            importedBooks.add(new ImportedBook(bookdropFile.getId(), processedBook, metadata));
+            finishedIds.add(bookdropFile.getId());
 
             log.info("File import completed: id={}, name={}, library={}, path={}", bookdropFile.getId(), targetFile.getName(), library.getName(), path.getPath());
 
@@ -435,4 +589,77 @@ public class BookDropService {
             return null;
         }
     }
+
+    private record ImportedBook(Long bookdropFileId, Book book, BookMetadata metadata) {
+    }
+
+    private static class FinalizeJob {
+        private final String id;
+        private final Long userId;
+        private final int totalFiles;
+        private final Instant startedAt = Instant.now();
+        private final List<BookdropFileResult> results = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile BookdropFinalizeJob.Status status = BookdropFinalizeJob.Status.QUEUED;
+        private volatile Instant finishedAt;
+        private volatile BookdropFinalizeResult result;
+        private CompletableFuture<BookdropFinalizeResult> future;
+
+        FinalizeJob(String id, Long userId, int totalFiles) {
+            this.id = id;
+            this.userId = userId;
+            this.totalFiles = totalFiles;
+        }
+
+        void record(BookdropFileResult fileResult) {
+            results.add(fileResult);
+            if (!fileResult.isSuccess()) failed.incrementAndGet();
+            processed.incrementAndGet();
+        }
+
+        BookdropFinalizeProgress progress(Long fileId, BookdropFileResult fileResult) {
+            return BookdropFinalizeProgress.builder()
+                    .jobId(id)
+                    .fileId(fileId)
+                    .result(fileResult)
+                    .processed(processed.get())
+                    .totalFiles(totalFiles)
+                    .build();
+        }
+
+        BookdropFinalizeResult toResult() {
+            int total = processed.get();
+            return BookdropFinalizeResult.builder()
+                    .processedAt(startedAt)
+                    .totalFiles(total)
+                    .failed(failed.get())
+                    .successfullyImported(total - failed.get())
+                    .results(new ArrayList<>(results))
+                    .build();
+        }
+
+        void complete(BookdropFinalizeJob.Status finalStatus, BookdropFinalizeResult finalResult) {
+            this.result = finalResult;
+            this.finishedAt = Instant.now();
+            this.status = finalStatus;
+        }
+
+        boolean isExpired() {
+            return finishedAt != null && finishedAt.plus(FINALIZE_JOB_RETENTION).isBefore(Instant.now());
+        }
+
+        BookdropFinalizeJob snapshot() {
+            return BookdropFinalizeJob.builder()
+                    .jobId(id)
+                    .status(status)
+                    .totalFiles(totalFiles)
+                    .processed(processed.get())
+                    .failed(failed.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .result(result)
+                    .build();
+        }
+    }
 }
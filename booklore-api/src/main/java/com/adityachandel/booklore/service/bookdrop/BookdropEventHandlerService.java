@@ -1,5 +1,6 @@
 package com.adityachandel.booklore.service.bookdrop;
 
+import com.adityachandel.booklore.config.AppProperties;
 import com.adityachandel.booklore.model.BookDropFileEvent;
 import com.adityachandel.booklore.model.entity.BookdropFileEntity;
 import com.adityachandel.booklore.model.enums.BookFileExtension;
@@ -7,6 +8,7 @@ import com.adityachandel.booklore.model.enums.PermissionType;
 import com.adityachandel.booklore.model.websocket.LogNotification;
 import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookdropFileRepository;
+import com.adityachandel.booklore.service.FileFingerprint;
 import com.adityachandel.booklore.service.NotificationService;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
 import jakarta.annotation.PostConstruct;
@@ -20,59 +22,133 @@ import java.nio.file.Path;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.time.Instant;
-import java.util.List;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
 
+/**
+ * Ingests files dropped into the bookdrop folder.
+ * <p>
+ * Files run through two stages with their own pools: local work (registering the file, extracting embedded metadata
+ * and cover) and online metadata fetching, which is limited to a few concurrent lookups so providers are not flooded.
+ * Progress is reported to admins as a periodic summary rather than one notification per file. Events for the same path
+ * run under a lock striped by path and check the file system under it, so a create and a delete handled concurrently or
+ * out of order still leave the table matching the folder.
+ * <p>
+ * Each stage queues at most {@code app.bookdrop.max-queued-files} tasks. When a queue is full the submitting thread
+ * waits for room, so a large drop holds back the watcher and extraction instead of piling up in memory.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookdropEventHandlerService {
 
+    private static final Set<PermissionType> NOTIFY_PERMISSIONS = Set.of(PermissionType.ADMIN, PermissionType.MANIPULATE_LIBRARY);
+    private static final long PROGRESS_INTERVAL_MS = 2000;
+    private static final int PATH_LOCK_STRIPES = 64;
+
     private final BookdropFileRepository bookdropFileRepository;
     private final NotificationService notificationService;
     private final BookdropNotificationService bookdropNotificationService;
     private final AppSettingService appSettingService;
     private final BookdropMetadataService bookdropMetadataService;
+    private final AppProperties appProperties;
+
+    private final Set<BookDropFileEvent> pendingEvents = ConcurrentHashMap.newKeySet();
+    private final Lock[] pathLocks = IntStream.range(0, PATH_LOCK_STRIPES).mapToObj(i -> new ReentrantLock()).toArray(Lock[]::new);
+    private final AtomicInteger pendingFetches = new AtomicInteger();
+    private final AtomicInteger batchTotal = new AtomicInteger();
+    private final AtomicInteger batchFinished = new AtomicInteger();
+    private volatile boolean summaryDirty = false;
+    private int lastReportedFinished = -1;
 
-    private final BlockingQueue<BookDropFileEvent> fileQueue = new LinkedBlockingQueue<>();
-    private volatile boolean running = true;
-    private Thread workerThread;
+    private ExecutorService extractionExecutor;
+    private ExecutorService metadataFetchExecutor;
+    private ScheduledExecutorService progressReporter;
 
     @PostConstruct
     public void init() {
-        workerThread = new Thread(this::processQueue, "BookdropFileProcessor");
-        workerThread.start();
+        AppProperties.Bookdrop settings = appProperties.getBookdrop();
+        int extractionThreads = settings.getExtractionThreads() > 0
+                ? settings.getExtractionThreads()
+                : Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        int fetchThreads = Math.max(1, settings.getMetadataFetchThreads());
+
+        int queueCapacity = Math.max(1, settings.getMaxQueuedFiles());
+
+        extractionExecutor = boundedExecutor(extractionThreads, queueCapacity, "bookdrop-extract-");
+        metadataFetchExecutor = boundedExecutor(fetchThreads, queueCapacity, "bookdrop-fetch-");
+        progressReporter = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("bookdrop-progress").daemon().factory());
+        progressReporter.scheduleWithFixedDelay(this::reportProgress, PROGRESS_INTERVAL_MS, PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        log.info("Bookdrop pipeline started with {} extraction and {} metadata fetch threads", extractionThreads, fetchThreads);
     }
 
     @PreDestroy
     public void shutdown() {
-        running = false;
-        if (workerThread != null) {
-            workerThread.interrupt();
+        extractionExecutor.shutdownNow();
+        metadataFetchExecutor.shutdownNow();
+        progressReporter.shutdownNow();
+    }
+
+    private static ExecutorService boundedExecutor(int threads, int queueCapacity, String namePrefix) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name(namePrefix, 0).daemon().factory(), BookdropEventHandlerService::awaitQueueSpace);
+    }
+
+    private static void awaitQueueSpace(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Executor is shut down");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for queue space", e);
         }
     }
 
     public void enqueueFile(Path file, WatchEvent.Kind<?> kind) {
+        if (kind != StandardWatchEventKinds.ENTRY_CREATE && kind != StandardWatchEventKinds.ENTRY_DELETE) {
+            return;
+        }
         BookDropFileEvent event = new BookDropFileEvent(file, kind);
-        if (!fileQueue.contains(event)) {
-            fileQueue.offer(event);
+        if (!pendingEvents.add(event)) {
+            return;
+        }
+        batchTotal.incrementAndGet();
+        try {
+            extractionExecutor.execute(() -> {
+                boolean fetchScheduled = false;
+                Lock lock = pathLocks[Math.floorMod(file.toAbsolutePath().toString().hashCode(), pathLocks.length)];
+                lock.lock();
+                try {
+                    fetchScheduled = processFile(event);
+                } finally {
+                    lock.unlock();
+                    if (!fetchScheduled) {
+                        batchFinished.incrementAndGet();
+                    }
+                    pendingEvents.remove(event);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingEvents.remove(event);
+            batchTotal.decrementAndGet();
+            log.warn("Bookdrop pipeline is shutting down, ignoring: {}", file);
         }
     }
 
-    private void processQueue() {
-        while (running) {
-            try {
-                processFile(fileQueue.take());
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.info("File processing thread interrupted, shutting down.");
-            }
-        }
+    public int getPendingCount() {
+        return pendingEvents.size() + pendingFetches.get();
     }
 
-    public void processFile(BookDropFileEvent event) {
+    /**
+     * Runs the local stage for one event. Returns true if the file was handed on to the metadata fetch stage.
+     */
+    private boolean processFile(BookDropFileEvent event) {
         Path file = event.getFile();
         WatchEvent.Kind<?> kind = event.getKind();
 
@@ -80,12 +156,12 @@ public class BookdropEventHandlerService {
             try {
                 if (!Files.exists(file)) {
                     log.warn("File does not exist, ignoring: {}", file);
-                    return;
+                    return false;
                 }
 
                 if (Files.isDirectory(file)) {
                     log.info("New folder detected in bookdrop, ignoring: {}", file);
-                    return;
+                    return false;
                 }
 
                 String filePath = file.toAbsolutePath().toString();
@@ -93,70 +169,101 @@ public class BookdropEventHandlerService {
 
                 if (BookFileExtension.fromFileName(fileName).isEmpty()) {
                     log.info("Unsupported file type detected, ignoring file: {}", fileName);
-                    return;
+                    return false;
                 }
 
                 if (bookdropFileRepository.findByFilePath(filePath).isPresent()) {
                     log.info("File already exists in Bookdrop and is pending review or acceptance: {}", filePath);
-                    return;
+                    return false;
                 }
 
                 log.info("Handling new bookdrop file: {}", file);
 
-                int queueSize = fileQueue.size();
-                notificationService.sendMessageToPermissions(
-                        Topic.LOG,
-                        new LogNotification("Processing bookdrop file: " + fileName + " (" + queueSize + " files remaining)"),
-                        Set.of(PermissionType.ADMIN, PermissionType.MANIPULATE_LIBRARY)
-                );
-
                 BookdropFileEntity bookdropFileEntity = BookdropFileEntity.builder()
                         .filePath(filePath)
                         .fileName(fileName)
                         .fileSize(Files.size(file))
+                        .fileLastModified(Files.getLastModifiedTime(file).toMillis())
+                        .fileHash(FileFingerprint.generateHash(file))
                         .status(BookdropFileEntity.Status.PENDING_REVIEW)
                         .createdAt(Instant.now())
                         .updatedAt(Instant.now())
                         .build();
 
                 bookdropFileEntity = bookdropFileRepository.save(bookdropFileEntity);
+                bookdropMetadataService.attachInitialMetadata(bookdropFileEntity.getId());
+                summaryDirty = true;
 
                 if (appSettingService.getAppSettings().isMetadataDownloadOnBookdrop()) {
-                    bookdropMetadataService.attachInitialMetadata(bookdropFileEntity.getId());
-                    bookdropMetadataService.attachFetchedMetadata(bookdropFileEntity.getId());
-                } else {
-                    bookdropMetadataService.attachInitialMetadata(bookdropFileEntity.getId());
-                    log.info("Metadata download is disabled. Only initial metadata extracted for file: {}", bookdropFileEntity.getFileName());
-                }
-
-                bookdropNotificationService.sendBookdropFileSummaryNotification();
-
-                if (fileQueue.isEmpty()) {
-                    notificationService.sendMessageToPermissions(
-                            Topic.LOG,
-                            new LogNotification("All bookdrop files have finished processing"),
-                            Set.of(PermissionType.ADMIN, PermissionType.MANIPULATE_LIBRARY)
-                    );
-                } else {
-                    notificationService.sendMessageToPermissions(
-                            Topic.LOG,
-                            new LogNotification("Finished processing bookdrop file: " + fileName + " (" + fileQueue.size() + " files remaining)"),
-                            Set.of(PermissionType.ADMIN, PermissionType.MANIPULATE_LIBRARY)
-                    );
+                    return scheduleMetadataFetch(bookdropFileEntity.getId());
                 }
+                log.info("Metadata download is disabled. Only initial metadata extracted for file: {}", bookdropFileEntity.getFileName());
 
             } catch (Exception e) {
                 log.error("Error handling bookdrop file: {}", file, e);
             }
 
         } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+            if (Files.exists(file)) {
+                log.info("Deleted bookdrop path was created again, keeping its records: {}", file);
+                return false;
+            }
             String deletedPath = file.toAbsolutePath().toString();
             log.info("Detected deletion event: {}", deletedPath);
 
             int deletedCount = bookdropFileRepository.deleteAllByFilePathStartingWith(deletedPath);
             log.info("Deleted {} BookdropFile record(s) from database matching path: {}", deletedCount, deletedPath);
+            summaryDirty = true;
+        }
+        return false;
+    }
+
+    private boolean scheduleMetadataFetch(Long bookdropFileId) {
+        pendingFetches.incrementAndGet();
+        try {
+            metadataFetchExecutor.execute(() -> {
+                try {
+                    bookdropMetadataService.attachFetchedMetadata(bookdropFileId);
+                    summaryDirty = true;
+                } catch (Exception e) {
+                    log.error("Error fetching metadata for bookdrop file {}", bookdropFileId, e);
+                } finally {
+                    pendingFetches.decrementAndGet();
+                    batchFinished.incrementAndGet();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pendingFetches.decrementAndGet();
+            log.warn("Bookdrop pipeline is shutting down, skipping metadata fetch for file {}", bookdropFileId);
+            return false;
+        }
+    }
+
+    void reportProgress() {
+        try {
+            if (summaryDirty) {
+                summaryDirty = false;
+                bookdropNotificationService.sendBookdropFileSummaryNotification();
+            }
 
-            bookdropNotificationService.sendBookdropFileSummaryNotification();
+            int total = batchTotal.get();
+            if (total == 0) return;
+            int finished = batchFinished.get();
+
+            if (getPendingCount() == 0 && finished >= total) {
+                notificationService.sendMessageToPermissions(Topic.LOG, new LogNotification("All bookdrop files have finished processing"), NOTIFY_PERMISSIONS);
+                batchTotal.addAndGet(-total);
+                batchFinished.addAndGet(-finished);
+                lastReportedFinished = -1;
+            } else if (finished != lastReportedFinished) {
+                String message = "Processing bookdrop files: " + finished + " of " + total + " done"
+                        + (pendingFetches.get() > 0 ? " (" + pendingFetches.get() + " waiting for online metadata)" : "");
+                notificationService.sendMessageToPermissions(Topic.LOG, new LogNotification(message), NOTIFY_PERMISSIONS);
+                lastReportedFinished = finished;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to report bookdrop progress: {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -25,10 +25,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.File;
 import java.io.IOException;
+import java.text.Normalizer;
 import java.time.Instant;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.adityachandel.booklore.model.entity.BookdropFileEntity.Status.PENDING_REVIEW;
 
@@ -37,6 +39,9 @@ import static com.adityachandel.booklore.model.entity.BookdropFileEntity.Status.
 @Service
 public class BookdropMetadataService {
 
+    private static final long LOOKUP_RETENTION_MS = 10 * 60 * 1000;
+    private static final int MAX_SHARED_LOOKUPS = 500;
+
     private final BookdropFileRepository bookdropFileRepository;
     private final AppSettingService appSettingService;
     private final ObjectMapper objectMapper;
@@ -47,6 +52,8 @@ public class BookdropMetadataService {
     private final ImageUtils imageUtils;
     private final FileService fileService;
 
+    private final Map<String, SharedLookup> sharedLookups = new ConcurrentHashMap<>();
+
     @Transactional
     public BookdropFileEntity attachInitialMetadata(Long bookdropFileId) throws JsonProcessingException {
         BookdropFileEntity entity = getOrThrow(bookdropFileId);
@@ -58,7 +65,12 @@ public class BookdropMetadataService {
         return bookdropFileRepository.save(entity);
     }
 
-    @Transactional
+    /**
+     * Fetches online metadata for a bookdrop file. Files that resolve to the same lookup (same ISBN, or same title and
+     * authors) within the retention window share one provider request, so dropping several formats or copies of a book
+     * only queries the providers once. Not transactional on purpose: the fetch can take a while, especially when
+     * waiting on another file's lookup, and should not hold a database connection.
+     */
     public BookdropFileEntity attachFetchedMetadata(Long bookdropFileId) throws JsonProcessingException {
         BookdropFileEntity entity = getOrThrow(bookdropFileId);
 
@@ -75,15 +87,7 @@ public class BookdropMetadataService {
                 .metadata(initial)
                 .build();
 
-        if (providers.contains(MetadataProvider.GoodReads)) {
-            try {
-                Thread.sleep(ThreadLocalRandom.current().nextLong(250, 1250));
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        Map<MetadataProvider, BookMetadata> metadataMap = metadataRefreshService.fetchMetadataForBook(providers, book);
+        Map<MetadataProvider, BookMetadata> metadataMap = fetchShared(lookupKey(initial, providers), providers, book);
         BookMetadata fetchedMetadata = metadataRefreshService.buildFetchMetadata(book.getId(), request, metadataMap);
         String fetchedJson = objectMapper.writeValueAsString(fetchedMetadata);
 
@@ -94,6 +98,100 @@ public class BookdropMetadataService {
         return bookdropFileRepository.save(entity);
     }
 
+    private Map<MetadataProvider, BookMetadata> fetchShared(String key, List<MetadataProvider> providers, Book book) {
+        if (key == null) {
+            return metadataRefreshService.fetchMetadataForBook(providers, book);
+        }
+        evictExpiredLookups();
+
+        SharedLookup lookup = new SharedLookup(new CompletableFuture<>(), System.currentTimeMillis());
+        SharedLookup existing = sharedLookups.putIfAbsent(key, lookup);
+        if (existing != null) {
+            try {
+                Map<MetadataProvider, BookMetadata> result = existing.result().join();
+                log.info("Reusing metadata lookup '{}' for bookdrop file: {}", key, book.getFileName());
+                return result;
+            } catch (CompletionException e) {
+                log.debug("Shared metadata lookup '{}' failed, fetching separately for: {}", key, book.getFileName());
+                return metadataRefreshService.fetchMetadataForBook(providers, book);
+            }
+        }
+
+        try {
+            Map<MetadataProvider, BookMetadata> result = metadataRefreshService.fetchMetadataForBook(providers, book);
+            lookup.result().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            sharedLookups.remove(key, lookup);
+            lookup.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void evictExpiredLookups() {
+        long cutoff = System.currentTimeMillis() - LOOKUP_RETENTION_MS;
+        sharedLookups.entrySet().removeIf(entry -> entry.getValue().result().isDone() && entry.getValue().createdAt() < cutoff);
+        if (sharedLookups.size() >= MAX_SHARED_LOOKUPS) {
+            sharedLookups.entrySet().removeIf(entry -> entry.getValue().result().isDone());
+        }
+    }
+
+    /**
+     * Builds the key identifying an online lookup: the ISBN-13 if one is known (ISBN-10 is converted), otherwise the
+     * normalized title and sorted authors. Returns null if the metadata has no usable title.
+     */
+    static String lookupKey(BookMetadata metadata, List<MetadataProvider> providers) {
+        if (metadata == null) {
+            return null;
+        }
+        String identity;
+        String isbn = normalizeIsbn(metadata.getIsbn13(), metadata.getIsbn10());
+        if (isbn != null) {
+            identity = "isbn:" + isbn;
+        } else {
+            String title = normalizeText(metadata.getTitle());
+            if (title.isEmpty()) {
+                return null;
+            }
+            String authors = metadata.getAuthors() == null ? "" : metadata.getAuthors().stream()
+                    .map(BookdropMetadataService::normalizeText)
+                    .filter(author -> !author.isEmpty())
+                    .sorted()
+                    .reduce((a, b) -> a + "," + b)
+                    .orElse("");
+            identity = "title:" + title + "|" + authors;
+        }
+        return identity + "|" + providers;
+    }
+
+    private static String normalizeIsbn(String isbn13, String isbn10) {
+        String digits13 = isbn13 == null ? "" : isbn13.replaceAll("[^0-9]", "");
+        if (digits13.length() == 13) {
+            return digits13;
+        }
+        String digits10 = isbn10 == null ? "" : isbn10.replaceAll("[^0-9Xx]", "").toUpperCase(Locale.ROOT);
+        if (digits10.length() != 10) {
+            return null;
+        }
+        String base = "978" + digits10.substring(0, 9);
+        int sum = 0;
+        for (int i = 0; i < base.length(); i++) {
+            sum += (base.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return base + (10 - sum % 10) % 10;
+    }
+
+    private static String normalizeText(String value) {
+        if (value == null) {
+            return "";
+        }
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
     private BookdropFileEntity getOrThrow(Long id) {
         return bookdropFileRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Bookdrop file not found: " + id));
     }
@@ -125,4 +223,7 @@ public class BookdropMetadataService {
             }
         }
     }
+
+    private record SharedLookup(CompletableFuture<Map<MetadataProvider, BookMetadata>> result, long createdAt) {
+    }
 }
@@ -2,15 +2,21 @@ package com.adityachandel.booklore.service.bookdrop;
 
 import com.adityachandel.booklore.config.AppProperties;
 import com.adityachandel.booklore.model.enums.BookFileExtension;
-import com.adityachandel.booklore.util.FileService;
+import com.adityachandel.booklore.repository.BookdropFileRepository;
+import com.adityachandel.booklore.service.FileFingerprint;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Slf4j
@@ -19,6 +25,7 @@ public class BookdropMonitoringService {
 
     private final AppProperties appProperties;
     private final BookdropEventHandlerService eventHandler;
+    private final BookdropFileRepository bookdropFileRepository;
 
     private Path bookdrop;
     private WatchService watchService;
@@ -26,10 +33,12 @@ public class BookdropMonitoringService {
     private volatile boolean running;
     private WatchKey watchKey;
     private volatile boolean paused;
+    private int pauseCount = 0;
 
-    public BookdropMonitoringService(AppProperties appProperties, BookdropEventHandlerService eventHandler) {
+    public BookdropMonitoringService(AppProperties appProperties, BookdropEventHandlerService eventHandler, BookdropFileRepository bookdropFileRepository) {
         this.appProperties = appProperties;
         this.eventHandler = eventHandler;
+        this.bookdropFileRepository = bookdropFileRepository;
     }
 
     @PostConstruct
@@ -52,11 +61,11 @@ public class BookdropMonitoringService {
                 StandardWatchEventKinds.ENTRY_DELETE,
                 StandardWatchEventKinds.ENTRY_MODIFY);
         this.running = true;
-        this.paused = false;
+        this.paused = pauseCount > 0;
         this.watchThread = new Thread(this::processEvents, "BookdropFolderWatcher");
         this.watchThread.setDaemon(true);
         this.watchThread.start();
-        scanExistingBookdropFiles();
+        Thread.ofVirtual().name("bookdrop-startup-scan").start(() -> scanExistingBookdropFiles(bookdrop));
     }
 
     @PreDestroy
@@ -75,34 +84,48 @@ public class BookdropMonitoringService {
         log.info("Stopped bookdrop folder monitor");
     }
 
+    /**
+     * Stops watching the bookdrop folder. Calls are counted, so with overlapping imports monitoring only resumes once
+     * every caller has called {@link #resumeMonitoring()}.
+     */
     public synchronized void pauseMonitoring() {
-        if (!paused) {
-            if (watchKey != null) {
-                watchKey.cancel();
-                watchKey = null;
-            }
-            paused = true;
-            log.info("Bookdrop monitoring paused.");
-        } else {
-            log.info("Bookdrop monitoring already paused.");
+        pauseCount++;
+        if (pauseCount > 1) {
+            log.info("Bookdrop monitoring already paused (pauseCount={})", pauseCount);
+            return;
+        }
+        if (watchKey != null) {
+            watchKey.cancel();
+            watchKey = null;
         }
+        paused = true;
+        log.info("Bookdrop monitoring paused.");
     }
 
     public synchronized void resumeMonitoring() {
-        if (paused) {
-            try {
-                watchKey = bookdrop.register(watchService,
-                        StandardWatchEventKinds.ENTRY_CREATE,
-                        StandardWatchEventKinds.ENTRY_DELETE,
-                        StandardWatchEventKinds.ENTRY_MODIFY);
-                paused = false;
-                log.info("Bookdrop monitoring resumed.");
-            } catch (IOException e) {
-                log.error("Error reregistering bookdrop folder during resume", e);
-            }
-        } else {
+        if (pauseCount == 0) {
             log.info("Bookdrop monitoring is not paused, cannot resume.");
+            return;
+        }
+        pauseCount--;
+        if (pauseCount > 0) {
+            log.info("Bookdrop monitoring resume requested (pauseCount={}), monitoring still paused", pauseCount);
+            return;
         }
+        try {
+            watchKey = bookdrop.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            paused = false;
+            log.info("Bookdrop monitoring resumed.");
+        } catch (IOException e) {
+            log.error("Error reregistering bookdrop folder during resume", e);
+        }
+    }
+
+    public synchronized boolean isPaused() {
+        return pauseCount > 0;
     }
 
     private void processEvents() {
@@ -179,16 +202,83 @@ public class BookdropMonitoringService {
         }
     }
 
-    private void scanExistingBookdropFiles() {
+    /**
+     * Reconciles the bookdrop folder with the recorded files in one pass. Files whose size and modification time match
+     * their record are skipped; files that changed are re-fingerprinted and only reprocessed if the fingerprint differs.
+     * Records whose file is gone are removed.
+     */
+    void scanExistingBookdropFiles(Path bookdrop) {
+        long started = System.currentTimeMillis();
+        Map<String, BookdropFileRepository.FileSnapshot> known;
+        try {
+            known = bookdropFileRepository.findAllFileSnapshots().stream()
+                    .collect(Collectors.toMap(BookdropFileRepository.FileSnapshot::getFilePath, Function.identity(), (a, b) -> a));
+        } catch (Exception e) {
+            log.error("Failed to load bookdrop records for startup scan", e);
+            return;
+        }
+
+        int[] counts = new int[3];
         try (Stream<Path> files = Files.walk(bookdrop)) {
             files.filter(Files::isRegularFile)
                     .filter(path -> BookFileExtension.fromFileName(path.getFileName().toString()).isPresent())
                     .forEach(file -> {
-                        log.info("Found existing supported file on startup: {}", file);
-                        eventHandler.enqueueFile(file, StandardWatchEventKinds.ENTRY_CREATE);
+                        BookdropFileRepository.FileSnapshot snapshot = known.remove(file.toAbsolutePath().toString());
+                        switch (reconcile(file, snapshot)) {
+                            case NEW -> counts[0]++;
+                            case CHANGED -> counts[1]++;
+                            case UNCHANGED -> counts[2]++;
+                        }
                     });
         } catch (IOException e) {
             log.error("Error scanning bookdrop folder on startup", e);
+            return;
+        }
+
+        int seen = counts[0] + counts[1] + counts[2];
+        if (!known.isEmpty() && seen == 0) {
+            // An empty folder with pending records is more likely an unmounted volume than a cleared bookdrop
+            log.warn("Bookdrop folder {} is empty but {} files are recorded; keeping the records", bookdrop, known.size());
+            known.clear();
+        }
+        List<Long> staleIds = known.values().stream().map(BookdropFileRepository.FileSnapshot::getId).toList();
+        if (!staleIds.isEmpty()) {
+            bookdropFileRepository.deleteAllByIdInBatch(staleIds);
+        }
+        log.info("Bookdrop startup scan finished in {} ms: {} new, {} changed, {} unchanged, {} stale records removed",
+                System.currentTimeMillis() - started, counts[0], counts[1], counts[2], staleIds.size());
+    }
+
+    private ScanResult reconcile(Path file, BookdropFileRepository.FileSnapshot snapshot) {
+        if (snapshot == null) {
+            log.info("Found new supported file on startup: {}", file);
+            eventHandler.enqueueFile(file, StandardWatchEventKinds.ENTRY_CREATE);
+            return ScanResult.NEW;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            long modified = attributes.lastModifiedTime().toMillis();
+            if (Objects.equals(snapshot.getFileSize(), size) && Objects.equals(snapshot.getFileLastModified(), modified)) {
+                return ScanResult.UNCHANGED;
+            }
+            String hash = FileFingerprint.generateHash(file);
+            boolean legacyRecord = snapshot.getFileHash() == null && Objects.equals(snapshot.getFileSize(), size);
+            if (legacyRecord || hash.equals(snapshot.getFileHash())) {
+                bookdropFileRepository.updateFileStats(snapshot.getId(), size, modified, hash);
+                return ScanResult.UNCHANGED;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to inspect bookdrop file {}: {}", file, e.getMessage());
+            return ScanResult.UNCHANGED;
         }
+        log.info("Bookdrop file changed since it was recorded, reprocessing: {}", file);
+        bookdropFileRepository.deleteById(snapshot.getId());
+        eventHandler.enqueueFile(file, StandardWatchEventKinds.ENTRY_CREATE);
+        return ScanResult.CHANGED;
+    }
+
+    private enum ScanResult {
+        NEW, CHANGED, UNCHANGED
     }
-}
\ No newline at end of file
+}
@@ -14,6 +14,7 @@ import com.adityachandel.booklore.service.NotificationService;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
 import com.adityachandel.booklore.service.library.LibraryService;
 import com.adityachandel.booklore.service.monitoring.MonitoringService;
+import com.adityachandel.booklore.service.reader.BookReaderCacheService;
 import com.adityachandel.booklore.util.PathPatternResolver;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +37,7 @@ public class FileMoveService {
     private final LibraryService libraryService;
     private final MonitoringService monitoringService;
     private final AppSettingService appSettingService;
+    private final BookReaderCacheService bookReaderCacheService;
 
     public void moveFiles(FileMoveRequest request) {
         Set<Long> bookIds = request.getBookIds();
@@ -148,6 +150,7 @@ public class FileMoveService {
 
         updateBookPaths(book, newFilePath);
         bookRepository.save(book);
+        bookReaderCacheService.evict(book.getId());
         updatedBooks.add(bookMapper.toBook(book));
 
         log.info("Updated book id {} with new path", book.getId());
@@ -0,0 +1,230 @@
+package com.adityachandel.booklore.service.file;
+
+import com.adityachandel.booklore.exception.ApiError;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+/**
+ * Streams files from disk with HTTP caching and single-range support.
+ * <p>
+ * Bodies are never buffered on the heap: when the servlet container supports sendfile the kernel copies the file
+ * straight to the socket, otherwise the file channel is transferred to the response output stream.
+ */
+@Slf4j
+@Service
+public class FileStreamingService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    /**
+     * Streams a file that outlives the request, allowing the container to send it asynchronously via sendfile.
+     *
+     * @param fingerprint stable content fingerprint (e.g. the book's current hash), may be null
+     * @param disposition "inline" or "attachment"
+     */
+    public void streamFile(Path file, String fingerprint, MediaType contentType, String disposition,
+                           HttpServletRequest request, HttpServletResponse response) {
+        stream(file, fingerprint, contentType, disposition, true, request, response);
+    }
+
+    /**
+     * Streams a file that will be deleted once this method returns, so the body is written synchronously.
+     */
+    public void streamTemporaryFile(Path file, MediaType contentType, String disposition,
+                                    HttpServletRequest request, HttpServletResponse response) {
+        stream(file, null, contentType, disposition, false, request, response);
+    }
+
+    private void stream(Path file, String fingerprint, MediaType contentType, String disposition, boolean allowSendfile,
+                        HttpServletRequest request, HttpServletResponse response) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw ApiError.FILE_NOT_FOUND.createException(file.getFileName());
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+        String etag = buildEtag(fingerprint, length, lastModified);
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setContentType(contentType.toString());
+        if (disposition != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename=\"" + file.getFileName() + "\"");
+        }
+
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        ByteRange range = null;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && isIfRangeSatisfied(request, etag, lastModified)) {
+            try {
+                range = ByteRange.parse(rangeHeader, length);
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+        }
+
+        long start = 0;
+        long count = length;
+        if (range != null) {
+            start = range.start();
+            count = range.length();
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + length);
+        } else {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+        response.setContentLengthLong(count);
+
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+
+        if (allowSendfile && count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) break;
+                position += transferred;
+                remaining -= transferred;
+            }
+            out.flush();
+        } catch (IOException e) {
+            log.debug("Client aborted transfer of {}: {}", file, e.getMessage());
+        }
+    }
+
+    private String buildEtag(String fingerprint, long length, long lastModified) {
+        String base = (fingerprint != null && !fingerprint.isBlank()) ? fingerprint : Long.toHexString(length);
+        return "\"" + base + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = parseDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+    }
+
+    private boolean isIfRangeSatisfied(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.trim().equals(etag);
+        }
+        long ifRangeDate = parseDateHeader(request, HttpHeaders.IF_RANGE);
+        return ifRangeDate != -1 && ifRangeDate == lastModified;
+    }
+
+    private boolean matchesEtag(String header, String etag) {
+        String strongEtag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(strongEtag));
+    }
+
+    private long parseDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A single satisfiable byte range with an inclusive end. Multi-range requests are answered with the first range,
+     * which RFC 9110 permits and which is all PDF.js and download managers ask for in practice.
+     */
+    record ByteRange(long start, long end) {
+
+        long length() {
+            return end - start + 1;
+        }
+
+        /**
+         * Returns null for a header that RFC 9110 has the server ignore and answer with the full content: a range unit
+         * other than bytes, a malformed range, or one whose last position is before its first. Throws only for a valid
+         * range that cannot be satisfied because it starts at or past the end of the file.
+         */
+        static ByteRange parse(String header, long totalLength) {
+            if (!header.regionMatches(true, 0, "bytes=", 0, "bytes=".length())) {
+                return null;
+            }
+            String spec = header.substring("bytes=".length()).split(",")[0].trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            try {
+                if (first.isEmpty()) {
+                    long suffix = Long.parseLong(last);
+                    if (suffix < 0) return null;
+                    if (suffix == 0) throw new IllegalArgumentException("Empty suffix range: " + header);
+                    start = Math.max(0, totalLength - suffix);
+                    end = totalLength - 1;
+                } else {
+                    start = Long.parseLong(first);
+                    end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= totalLength) {
+                throw new IllegalArgumentException("Unsatisfiable range: " + header);
+            }
+            return new ByteRange(start, Math.min(end, totalLength - 1));
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.adityachandel.booklore.repository.BookMetadataRepository;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.service.BookCreatorService;
 import com.adityachandel.booklore.service.metadata.MetadataMatchService;
+import com.adityachandel.booklore.service.reader.CbxNormalizationService;
 import com.adityachandel.booklore.util.FileUtils;
 import com.github.junrar.Archive;
 import com.github.junrar.rarfile.FileHeader;
@@ -29,15 +30,18 @@ import java.util.*;
 public class CbxProcessor extends AbstractFileProcessor implements BookFileProcessor {
 
     private final BookMetadataRepository bookMetadataRepository;
+    private final CbxNormalizationService cbxNormalizationService;
 
     public CbxProcessor(BookRepository bookRepository,
                         BookCreatorService bookCreatorService,
                         BookMapper bookMapper,
                         FileProcessingUtils fileProcessingUtils,
                         BookMetadataRepository bookMetadataRepository,
-                        MetadataMatchService metadataMatchService) {
+                        MetadataMatchService metadataMatchService,
+                        CbxNormalizationService cbxNormalizationService) {
         super(bookRepository, bookCreatorService, bookMapper, fileProcessingUtils, bookMetadataRepository, metadataMatchService);
         this.bookMetadataRepository = bookMetadataRepository;
+        this.cbxNormalizationService = cbxNormalizationService;
     }
 
     @Override
@@ -47,6 +51,9 @@ public class CbxProcessor extends AbstractFileProcessor implements BookFileProce
             fileProcessingUtils.setBookCoverPath(bookEntity.getId(), bookEntity.getMetadata());
         }
         setMetadata(bookEntity);
+        if (cbxNormalizationService.isNormalizeOnIngest()) {
+            cbxNormalizationService.scheduleNormalization(bookEntity);
+        }
         return bookEntity;
     }
 
@@ -59,6 +66,7 @@ public class CbxProcessor extends AbstractFileProcessor implements BookFileProce
                 boolean saved = fileProcessingUtils.saveCoverImage(imageOptional.get(), bookEntity.getId());
                 if (saved) {
                     bookEntity.getMetadata().setCoverUpdatedOn(Instant.now());
+                    bookEntity.getMetadata().setCoverSourceUrl(null);
                     bookMetadataRepository.save(bookEntity.getMetadata());
                     return true;
                 }
@@ -84,6 +84,7 @@ public class EpubProcessor extends AbstractFileProcessor implements BookFileProc
 
             boolean saved = saveCoverImage(coverImage, bookEntity.getId());
             bookEntity.getMetadata().setCoverUpdatedOn(Instant.now());
+            bookEntity.getMetadata().setCoverSourceUrl(null);
             bookMetadataRepository.save(bookEntity.getMetadata());
             return saved;
 
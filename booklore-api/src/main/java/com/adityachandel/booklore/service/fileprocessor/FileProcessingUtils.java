@@ -40,6 +40,7 @@ public class FileProcessingUtils {
     public void setBookCoverPath(long bookId, BookMetadataEntity bookMetadataEntity) {
         bookMetadataEntity.setThumbnail(fileService.getThumbnailPath(bookId) + "/f.jpg");
         bookMetadataEntity.setCoverUpdatedOn(Instant.now());
+        bookMetadataEntity.setCoverSourceUrl(null);
     }
 
     public boolean saveCoverImage(BufferedImage coverImage, long bookId) throws IOException {
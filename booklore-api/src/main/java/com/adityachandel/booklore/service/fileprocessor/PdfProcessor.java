@@ -61,6 +61,7 @@ public class PdfProcessor extends AbstractFileProcessor implements BookFileProce
         try (PDDocument pdf = Loader.loadPDF(new File(FileUtils.getBookFullPath(bookEntity)))) {
             boolean saved = generateCoverImageAndSave(bookEntity.getId(), pdf);
             bookEntity.getMetadata().setCoverUpdatedOn(Instant.now());
+            bookEntity.getMetadata().setCoverSourceUrl(null);
             bookMetadataRepository.save(bookEntity.getMetadata());
             return saved;
         } catch (Exception e) {
@@ -0,0 +1,148 @@
+package com.adityachandel.booklore.service.http;
+
+import com.adityachandel.booklore.config.AppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The one HTTP client used for outbound calls: metadata providers, cover downloads and the Kobo store proxy.
+ * <p>
+ * All callers share a single JDK {@link HttpClient}, so connections are pooled and kept alive across requests and
+ * HTTP/2 is negotiated where the server supports it. Responses are requested gzip-compressed and decoded here.
+ * Requests to the same host are capped by {@code app.outbound-http.max-concurrent-requests-per-host}, and every
+ * request is timed in {@code booklore.http.client.requests}, tagged with the calling client and the outcome.
+ */
+@Slf4j
+@Service
+public class OutboundHttpClient {
+
+    private final AppProperties.OutboundHttp properties;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    public OutboundHttpClient(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.properties = appProperties.getOutboundHttp();
+        this.meterRegistry = meterRegistry;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+    }
+
+    /**
+     * Sends a request and returns the fully read, decompressed response. The configured read timeout applies unless
+     * the request sets its own.
+     */
+    public OutboundResponse send(String client, HttpRequest request) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+        if (request.timeout().isEmpty()) {
+            builder.timeout(properties.getReadTimeout());
+        }
+        if (request.headers().firstValue("Accept-Encoding").isEmpty()) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        HttpRequest prepared = builder.build();
+
+        Semaphore permit = permitFor(prepared.uri());
+        permit.acquire();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            HttpResponse<InputStream> response = httpClient.send(prepared, HttpResponse.BodyHandlers.ofInputStream());
+            outcome = outcome(response.statusCode());
+            return new OutboundResponse(response.statusCode(), response.headers(), readBody(response));
+        } finally {
+            sample.stop(meterRegistry.timer("booklore.http.client.requests", "client", client, "outcome", outcome));
+            permit.release();
+        }
+    }
+
+    public OutboundResponse get(String client, String url) throws IOException, InterruptedException {
+        return send(client, HttpRequest.newBuilder(URI.create(url)).GET().build());
+    }
+
+    /**
+     * Downloads a resource, failing on anything but a 2xx answer.
+     */
+    public byte[] download(String client, String url) throws IOException, InterruptedException {
+        OutboundResponse response = get(client, url);
+        if (!response.isSuccessful()) {
+            throw new IOException("Request to " + url + " failed with status " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    /**
+     * A {@link RestClient} builder backed by the shared connection pool, with the same timeouts, host limits and
+     * metrics as {@link #send}.
+     */
+    public RestClient.Builder restClientBuilder(String client) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        ClientHttpRequestInterceptor instrumentation = (request, body, execution) -> {
+            Semaphore permit = permitFor(request.getURI());
+            try {
+                permit.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a connection to " + request.getURI().getHost(), e);
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "error";
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                outcome = outcome(response.getStatusCode().value());
+                return response;
+            } finally {
+                sample.stop(meterRegistry.timer("booklore.http.client.requests", "client", client, "outcome", outcome));
+                permit.release();
+            }
+        };
+        return RestClient.builder()
+                .requestFactory(requestFactory)
+                .requestInterceptor(instrumentation);
+    }
+
+    private Semaphore permitFor(URI uri) {
+        String host = uri.getHost() != null ? uri.getHost().toLowerCase() : "";
+        return hostPermits.computeIfAbsent(host, h -> new Semaphore(Math.max(1, properties.getMaxConcurrentRequestsPerHost()), true));
+    }
+
+    private static byte[] readBody(HttpResponse<InputStream> response) throws IOException {
+        boolean gzipped = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        try (InputStream body = gzipped ? new GZIPInputStream(response.body()) : response.body()) {
+            return body.readAllBytes();
+        }
+    }
+
+    private static String outcome(int status) {
+        return switch (status / 100) {
+            case 2 -> "success";
+            case 3 -> "redirection";
+            case 4 -> "client_error";
+            case 5 -> "server_error";
+            default -> "unknown";
+        };
+    }
+}
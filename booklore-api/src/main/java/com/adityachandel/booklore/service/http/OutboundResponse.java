@@ -0,0 +1,34 @@
+package com.adityachandel.booklore.service.http;
+
+import java.net.http.HttpHeaders;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public record OutboundResponse(int statusCode, HttpHeaders headers, byte[] body) {
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    public String bodyAsString() {
+        return new String(body, charset());
+    }
+
+    private Charset charset() {
+        return headers.firstValue("Content-Type")
+                .flatMap(type -> Arrays.stream(type.split(";"))
+                        .map(String::trim)
+                        .filter(part -> part.toLowerCase().startsWith("charset="))
+                        .map(part -> part.substring("charset=".length()).replace("\"", ""))
+                        .findFirst())
+                .map(name -> {
+                    try {
+                        return Charset.forName(name);
+                    } catch (IllegalArgumentException e) {
+                        return StandardCharsets.UTF_8;
+                    }
+                })
+                .orElse(StandardCharsets.UTF_8);
+    }
+}
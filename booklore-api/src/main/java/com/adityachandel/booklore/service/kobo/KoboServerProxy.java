@@ -2,6 +2,8 @@ package com.adityachandel.booklore.service.kobo;
 
 import com.adityachandel.booklore.model.dto.BookloreSyncToken;
 import com.adityachandel.booklore.model.dto.kobo.KoboHeaders;
+import com.adityachandel.booklore.service.http.OutboundHttpClient;
+import com.adityachandel.booklore.service.http.OutboundResponse;
 import com.adityachandel.booklore.util.RequestUtils;
 import com.adityachandel.booklore.util.kobo.BookloreSyncTokenGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -22,9 +24,7 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
@@ -35,7 +35,7 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class KoboServerProxy {
 
-    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMinutes(1)).build();
+    private final OutboundHttpClient outboundHttpClient;
     private final ObjectMapper objectMapper;
     private final BookloreSyncTokenGenerator bookloreSyncTokenGenerator;
 
@@ -76,7 +76,7 @@ public class KoboServerProxy {
                     .GET()
                     .build();
 
-            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            OutboundResponse response = outboundHttpClient.send("kobo", request);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.IMAGE_JPEG);
@@ -123,10 +123,11 @@ public class KoboServerProxy {
             }
 
             HttpRequest httpRequest = builder.build();
-            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+            OutboundResponse response = outboundHttpClient.send("kobo", httpRequest);
+            String responseString = response.bodyAsString();
 
-            JsonNode responseBody = response.body() != null && !response.body().isBlank()
-                    ? objectMapper.readTree(response.body())
+            JsonNode responseBody = !responseString.isBlank()
+                    ? objectMapper.readTree(responseString)
                     : null;
 
             HttpHeaders responseHeaders = new HttpHeaders();
@@ -11,6 +11,7 @@ import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.reader.BookReaderCacheService;
 import com.adityachandel.booklore.util.FileService;
 import com.adityachandel.booklore.util.FileUtils;
 import lombok.AllArgsConstructor;
@@ -40,6 +41,7 @@ public class LibraryProcessingService {
     private final FileService fileService;
     private final BookMapper bookMapper;
     private final LibraryFileProcessorRegistry fileProcessorRegistry;
+    private final BookReaderCacheService bookReaderCacheService;
 
     @Transactional
     public void processLibrary(long libraryId) throws IOException {
@@ -140,6 +142,7 @@ public class LibraryProcessingService {
             }
         }
         bookRepository.deleteAll(books);
+        bookReaderCacheService.purge(bookIds);
         notificationService.sendMessage(Topic.BOOKS_REMOVE, bookIds);
         if (bookIds.size() > 1) log.info("Books removed: {}", bookIds);
     }
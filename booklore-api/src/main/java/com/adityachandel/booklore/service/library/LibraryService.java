@@ -19,6 +19,7 @@ import com.adityachandel.booklore.repository.LibraryPathRepository;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.repository.UserRepository;
 import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.reader.BookReaderCacheService;
 import com.adityachandel.booklore.util.SecurityContextVirtualThread;
 import com.adityachandel.booklore.service.fileprocessor.FileProcessingUtils;
 import com.adityachandel.booklore.service.monitoring.MonitoringService;
@@ -56,6 +57,7 @@ public class LibraryService {
     private final MonitoringService monitoringService;
     private final AuthenticationService authenticationService;
     private final UserRepository userRepository;
+    private final BookReaderCacheService bookReaderCacheService;
 
     @Transactional
     @PostConstruct
@@ -222,6 +224,7 @@ public class LibraryService {
         Set<Long> bookIds = library.getBookEntities().stream().map(BookEntity::getId).collect(Collectors.toSet());
         fileProcessingUtils.deleteBookCovers(bookIds);
         libraryRepository.deleteById(id);
+        bookReaderCacheService.purge(bookIds);
         log.info("Library deleted successfully: {}", id);
     }
 
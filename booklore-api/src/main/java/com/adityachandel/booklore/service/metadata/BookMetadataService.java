@@ -152,6 +152,7 @@ public class BookMetadataService {
         fileService.createThumbnailFromFile(bookId, file);
         BookEntity bookEntity = bookRepository.findById(bookId).orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
         bookEntity.getMetadata().setCoverUpdatedOn(Instant.now());
+        bookEntity.getMetadata().setCoverSourceUrl(null);
         boolean saveToOriginalFile = appSettingService.getAppSettings().getMetadataPersistenceSettings().isSaveToOriginalFile();
         if (saveToOriginalFile) {
             metadataWriterFactory.getWriter(bookEntity.getBookType())
@@ -13,14 +13,14 @@ import com.adityachandel.booklore.service.appsettings.AppSettingService;
 import com.adityachandel.booklore.service.metadata.backuprestore.MetadataBackupRestore;
 import com.adityachandel.booklore.service.metadata.backuprestore.MetadataBackupRestoreFactory;
 import com.adityachandel.booklore.service.metadata.writer.MetadataWriterFactory;
+import com.adityachandel.booklore.service.reader.BookReaderCacheService;
 import com.adityachandel.booklore.util.FileService;
 import com.adityachandel.booklore.util.MetadataChangeDetector;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
@@ -28,6 +28,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.URL;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Consumer;
@@ -38,6 +39,10 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class BookMetadataUpdater {
 
+    // Kept in the database only, a change to these alone does not rewrite the book file
+    private static final Set<String> FIELDS_NOT_IN_FILE = Set.of("amazonRating", "amazonReviewCount", "goodreadsRating",
+            "goodreadsReviewCount", "hardcoverRating", "hardcoverReviewCount", "reviews");
+
     private final AuthorRepository authorRepository;
     private final CategoryRepository categoryRepository;
     private final FileService fileService;
@@ -46,30 +51,38 @@ public class BookMetadataUpdater {
     private final MetadataWriterFactory metadataWriterFactory;
     private final MetadataBackupRestoreFactory metadataBackupRestoreFactory;
     private final BookReviewUpdateService bookReviewUpdateService;
+    private final BookReaderCacheService bookReaderCacheService;
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void setBookMetadata(BookEntity bookEntity, MetadataUpdateWrapper wrapper, boolean setThumbnail, boolean mergeCategories) {
+    /**
+     * Applies the metadata of the wrapper to the book, touching only what differs from the current values: unchanged
+     * authors, categories and reviews are left alone, the cover is only downloaded when it comes from a new URL, and
+     * the file is only rewritten when a field it stores changed. Returns whether anything changed. Joins the caller's
+     * transaction, so a caller that already holds one does not take a second connection.
+     */
+    @Transactional
+    public boolean setBookMetadata(BookEntity bookEntity, MetadataUpdateWrapper wrapper, boolean setThumbnail, boolean mergeCategories) {
         Long bookId = bookEntity.getId();
         BookMetadata newMetadata = wrapper.getMetadata();
         MetadataClearFlags clearFlags = wrapper.getClearFlags();
         BookMetadataEntity metadata = bookEntity.getMetadata();
 
-        boolean thumbnailRequiresUpdate = StringUtils.hasText(newMetadata.getThumbnailUrl());
-        boolean hasMetadataChanges = MetadataChangeDetector.isDifferent(newMetadata, metadata, clearFlags);
-        if (!thumbnailRequiresUpdate && !hasMetadataChanges) {
-            log.info("No changes in metadata for book ID {}. Skipping update.", bookId);
-            return;
+        boolean locksChanged = updateLocks(newMetadata, metadata);
+        Set<String> changedFields = MetadataChangeDetector.changedFields(newMetadata, metadata, clearFlags, mergeCategories);
+        boolean coverChanged = coverRequiresUpdate(newMetadata, metadata, setThumbnail, wrapper.getPrefetchedThumbnailPath());
+        if (changedFields.isEmpty() && !coverChanged) {
+            log.debug("No changes in metadata for book ID {}. Skipping update.", bookId);
+            return locksChanged;
         }
 
-        updateLocks(newMetadata, metadata);
-
         if (metadata.areAllFieldsLocked()) {
             log.warn("All fields are locked for book ID {}. Skipping update.", bookId);
-            return;
+            return locksChanged;
         }
+        log.debug("Updating {}{} for book ID {}", changedFields, coverChanged ? " and cover" : "", bookId);
 
         MetadataPersistenceSettings settings = appSettingService.getAppSettings().getMetadataPersistenceSettings();
-        boolean writeToFile = settings.isSaveToOriginalFile();
+        boolean writeToFile = settings.isSaveToOriginalFile()
+                && (coverChanged || changedFields.stream().anyMatch(field -> !FIELDS_NOT_IN_FILE.contains(field)));
         boolean backupEnabled = settings.isBackupMetadata();
         boolean backupCover = settings.isBackupCover();
         BookFileType bookType = bookEntity.getBookType();
@@ -86,11 +99,19 @@ public class BookMetadataUpdater {
             }
         }
 
-        updateBasicFields(newMetadata, metadata, clearFlags);
-        updateAuthorsIfNeeded(newMetadata, metadata, clearFlags);
-        updateCategoriesIfNeeded(newMetadata, metadata, clearFlags, mergeCategories);
-        bookReviewUpdateService.updateBookReviews(newMetadata, metadata, clearFlags, mergeCategories);
-        updateThumbnailIfNeeded(bookId, newMetadata, metadata, setThumbnail);
+        updateBasicFields(newMetadata, metadata, clearFlags, changedFields);
+        if (changedFields.contains("authors")) {
+            updateAuthorsIfNeeded(newMetadata, metadata, clearFlags);
+        }
+        if (changedFields.contains("categories")) {
+            updateCategoriesIfNeeded(newMetadata, metadata, clearFlags, mergeCategories);
+        }
+        if (changedFields.contains("reviews")) {
+            bookReviewUpdateService.updateBookReviews(newMetadata, metadata, clearFlags, mergeCategories);
+        }
+        if (coverChanged) {
+            updateThumbnailIfNeeded(bookId, newMetadata, metadata, wrapper.getPrefetchedThumbnailPath());
+        }
 
         try {
             Float score = metadataMatchService.calculateMatchScore(bookEntity);
@@ -102,17 +123,16 @@ public class BookMetadataUpdater {
         if (writeToFile) {
             metadataWriterFactory.getWriter(bookType).ifPresent(writer -> {
                 try {
-                    String thumbnailUrl = setThumbnail ? newMetadata.getThumbnailUrl() : null;
-
-                    if (StringUtils.hasText(thumbnailUrl) && isLocalOrPrivateUrl(thumbnailUrl)) {
-                        log.warn("Blocked local/private thumbnail URL: {}", thumbnailUrl);
-                        thumbnailUrl = null;
+                    String thumbnailUrl = coverChanged ? newMetadata.getThumbnailUrl() : null;
+                    if (thumbnailUrl != null && wrapper.getPrefetchedThumbnailPath() != null) {
+                        thumbnailUrl = wrapper.getPrefetchedThumbnailPath();
                     }
 
                     File file = new File(bookEntity.getFullFilePath().toUri());
                     writer.writeMetadataToFile(file, metadata, thumbnailUrl, false, clearFlags);
                     String newHash = FileFingerprint.generateHash(bookEntity.getFullFilePath());
                     bookEntity.setCurrentHash(newHash);
+                    bookReaderCacheService.purge(bookId);
                     log.info("Metadata written for book ID {}", bookId);
 
                 } catch (Exception e) {
@@ -120,37 +140,38 @@ public class BookMetadataUpdater {
                 }
             });
         }
+        return true;
     }
 
-    private void updateBasicFields(BookMetadata m, BookMetadataEntity e, MetadataClearFlags clear) {
-        handleFieldUpdate(e.getTitleLocked(), clear.isTitle(), m.getTitle(), v -> e.setTitle(nullIfBlank(v)));
-        handleFieldUpdate(e.getSubtitleLocked(), clear.isSubtitle(), m.getSubtitle(), v -> e.setSubtitle(nullIfBlank(v)));
-        handleFieldUpdate(e.getPublisherLocked(), clear.isPublisher(), m.getPublisher(), v -> e.setPublisher(nullIfBlank(v)));
-        handleFieldUpdate(e.getPublishedDateLocked(), clear.isPublishedDate(), m.getPublishedDate(), e::setPublishedDate);
-        handleFieldUpdate(e.getDescriptionLocked(), clear.isDescription(), m.getDescription(), v -> e.setDescription(nullIfBlank(v)));
-        handleFieldUpdate(e.getSeriesNameLocked(), clear.isSeriesName(), m.getSeriesName(), e::setSeriesName);
-        handleFieldUpdate(e.getSeriesNumberLocked(), clear.isSeriesNumber(), m.getSeriesNumber(), e::setSeriesNumber);
-        handleFieldUpdate(e.getSeriesTotalLocked(), clear.isSeriesTotal(), m.getSeriesTotal(), e::setSeriesTotal);
-        handleFieldUpdate(e.getIsbn13Locked(), clear.isIsbn13(), m.getIsbn13(), v -> e.setIsbn13(nullIfBlank(v)));
-        handleFieldUpdate(e.getIsbn10Locked(), clear.isIsbn10(), m.getIsbn10(), v -> e.setIsbn10(nullIfBlank(v)));
-        handleFieldUpdate(e.getAsinLocked(), clear.isAsin(), m.getAsin(), v -> e.setAsin(nullIfBlank(v)));
-        handleFieldUpdate(e.getGoodreadsIdLocked(), clear.isGoodreadsId(), m.getGoodreadsId(), v -> e.setGoodreadsId(nullIfBlank(v)));
-        handleFieldUpdate(e.getComicvineIdLocked(), clear.isComicvineId(), m.getComicvineId(), v -> e.setComicvineId(nullIfBlank(v)));
-        handleFieldUpdate(e.getHardcoverIdLocked(), clear.isHardcoverId(), m.getHardcoverId(), v -> e.setHardcoverId(nullIfBlank(v)));
-        handleFieldUpdate(e.getGoogleIdLocked(), clear.isGoogleId(), m.getGoogleId(), v -> e.setGoogleId(nullIfBlank(v)));
-        handleFieldUpdate(e.getPageCountLocked(), clear.isPageCount(), m.getPageCount(), e::setPageCount);
-        handleFieldUpdate(e.getLanguageLocked(), clear.isLanguage(), m.getLanguage(), v -> e.setLanguage(nullIfBlank(v)));
-        handleFieldUpdate(e.getPersonalRatingLocked(), clear.isPersonalRating(), m.getPersonalRating(), e::setPersonalRating);
-        handleFieldUpdate(e.getAmazonRatingLocked(), clear.isAmazonRating(), m.getAmazonRating(), e::setAmazonRating);
-        handleFieldUpdate(e.getAmazonReviewCountLocked(), clear.isAmazonReviewCount(), m.getAmazonReviewCount(), e::setAmazonReviewCount);
-        handleFieldUpdate(e.getGoodreadsRatingLocked(), clear.isGoodreadsRating(), m.getGoodreadsRating(), e::setGoodreadsRating);
-        handleFieldUpdate(e.getGoodreadsReviewCountLocked(), clear.isGoodreadsReviewCount(), m.getGoodreadsReviewCount(), e::setGoodreadsReviewCount);
-        handleFieldUpdate(e.getHardcoverRatingLocked(), clear.isHardcoverRating(), m.getHardcoverRating(), e::setHardcoverRating);
-        handleFieldUpdate(e.getHardcoverReviewCountLocked(), clear.isHardcoverReviewCount(), m.getHardcoverReviewCount(), e::setHardcoverReviewCount);
+    private void updateBasicFields(BookMetadata m, BookMetadataEntity e, MetadataClearFlags clear, Set<String> changed) {
+        handleFieldUpdate(changed.contains("title"), e.getTitleLocked(), clear.isTitle(), m.getTitle(), v -> e.setTitle(nullIfBlank(v)));
+        handleFieldUpdate(changed.contains("subtitle"), e.getSubtitleLocked(), clear.isSubtitle(), m.getSubtitle(), v -> e.setSubtitle(nullIfBlank(v)));
+        handleFieldUpdate(changed.contains("publisher"), e.getPublisherLocked(), clear.isPublisher(), m.getPublisher(), v -> e.setPublisher(nullIfBlank(v)));
+        handleFieldUpdate(changed.contains("publishedDate"), e.getPublishedDateLocked(), clear.isPublishedDate(), m.getPublishedDate(), e::setPublishedDate);
+        handleFieldUpdate(changed.contains("description"), e.getDescriptionLocked(), clear.isDescription(), m.getDescription(), v -> e.setDescription(nullIfBlank(v)));
+        handleFieldUpdate(changed.contains("seriesName"), e.getSeriesNameLocked(), clear.isSeriesName(), m.getSeriesName(), e::setSeriesName);
+        handleFieldUpdate(changed.contains("seriesNumber"), e.getSeriesNumberLocked(), clear.isSeriesNumber(), m.getSeriesNumber(), e::setSeriesNumber);
+        handleFieldUpdate(changed.contains("seriesTotal"), e.getSeriesTotalLocked(), clear.isSeriesTotal(), m.getSeriesTotal(), e::setSeriesTotal);
+        handleFieldUpdate(changed.contains("isbn13"), e.getIsbn13Locked(), clear.isIsbn13(), m.getIsbn13(), v -> e.setIsbn13(nullIfBlank(v)));
+        handleFieldUpdate(changed.contains("isbn10"), e.getIsbn10Locked(), clear.isIsbn10(), m.getIsbn10(), v -> e.setIsbn10(nullIfBlank(v)));
+        handleFieldUpdate(changed.contains("asin"), e.getAsinLocked(), clear.isAsin(), m.getAsin(), v -> e.setAsin(nullIfBlank(v)));
+        handleFieldUpdate(changed.contains("goodreadsId"), e.getGoodreadsIdLocked(), clear.isGoodreadsId(), m.getGoodreadsId(), v -> e.setGoodreadsId(nullIfBlank(v)));
+        handleFieldUpdate(changed.contains("comicvineId"), e.getComicvineIdLocked(), clear.isComicvineId(), m.getComicvineId(), v -> e.setComicvineId(nullIfBlank(v)));
+        handleFieldUpdate(changed.contains("hardcoverId"), e.getHardcoverIdLocked(), clear.isHardcoverId(), m.getHardcoverId(), v -> e.setHardcoverId(nullIfBlank(v)));
+        handleFieldUpdate(changed.contains("googleId"), e.getGoogleIdLocked(), clear.isGoogleId(), m.getGoogleId(), v -> e.setGoogleId(nullIfBlank(v)));
+        handleFieldUpdate(changed.contains("pageCount"), e.getPageCountLocked(), clear.isPageCount(), m.getPageCount(), e::setPageCount);
+        handleFieldUpdate(changed.contains("language"), e.getLanguageLocked(), clear.isLanguage(), m.getLanguage(), v -> e.setLanguage(nullIfBlank(v)));
+        handleFieldUpdate(changed.contains("personalRating"), e.getPersonalRatingLocked(), clear.isPersonalRating(), m.getPersonalRating(), e::setPersonalRating);
+        handleFieldUpdate(changed.contains("amazonRating"), e.getAmazonRatingLocked(), clear.isAmazonRating(), m.getAmazonRating(), e::setAmazonRating);
+        handleFieldUpdate(changed.contains("amazonReviewCount"), e.getAmazonReviewCountLocked(), clear.isAmazonReviewCount(), m.getAmazonReviewCount(), e::setAmazonReviewCount);
+        handleFieldUpdate(changed.contains("goodreadsRating"), e.getGoodreadsRatingLocked(), clear.isGoodreadsRating(), m.getGoodreadsRating(), e::setGoodreadsRating);
+        handleFieldUpdate(changed.contains("goodreadsReviewCount"), e.getGoodreadsReviewCountLocked(), clear.isGoodreadsReviewCount(), m.getGoodreadsReviewCount(), e::setGoodreadsReviewCount);
+        handleFieldUpdate(changed.contains("hardcoverRating"), e.getHardcoverRatingLocked(), clear.isHardcoverRating(), m.getHardcoverRating(), e::setHardcoverRating);
+        handleFieldUpdate(changed.contains("hardcoverReviewCount"), e.getHardcoverReviewCountLocked(), clear.isHardcoverReviewCount(), m.getHardcoverReviewCount(), e::setHardcoverReviewCount);
     }
 
-    private <T> void handleFieldUpdate(Boolean locked, boolean shouldClear, T newValue, Consumer<T> setter) {
-        if (Boolean.TRUE.equals(locked)) return;
+    private <T> void handleFieldUpdate(boolean changed, Boolean locked, boolean shouldClear, T newValue, Consumer<T> setter) {
+        if (!changed || Boolean.TRUE.equals(locked)) return;
         if (shouldClear) setter.accept(null);
         else if (newValue != null) setter.accept(newValue);
     }
@@ -170,8 +191,7 @@ public class BookMetadataUpdater {
             }
             Set<AuthorEntity> newAuthors = m.getAuthors().stream()
                     .filter(a -> a != null && !a.isBlank())
-                    .map(name -> authorRepository.findByName(name)
-                            .orElseGet(() -> authorRepository.save(AuthorEntity.builder().name(name).build())))
+                    .map(authorRepository::findOrCreateByName)
                     .collect(Collectors.toSet());
             e.getAuthors().clear();
             e.getAuthors().addAll(newAuthors);
@@ -192,8 +212,7 @@ public class BookMetadataUpdater {
                 Set<CategoryEntity> existing = e.getCategories();
                 for (String name : m.getCategories()) {
                     if (name == null || name.isBlank()) continue;
-                    CategoryEntity entity = categoryRepository.findByName(name)
-                            .orElseGet(() -> categoryRepository.save(CategoryEntity.builder().name(name).build()));
+                    CategoryEntity entity = categoryRepository.findOrCreateByName(name);
                     existing.add(entity);
                 }
             } else {
@@ -201,8 +220,7 @@ public class BookMetadataUpdater {
                 existing.clear();
                 Set<CategoryEntity> result = m.getCategories().stream()
                         .filter(n -> n != null && !n.isBlank())
-                        .map(name -> categoryRepository.findByName(name)
-                                .orElseGet(() -> categoryRepository.save(CategoryEntity.builder().name(name).build())))
+                        .map(categoryRepository::findOrCreateByName)
                         .collect(Collectors.toSet());
                 existing.addAll(result);
             }
@@ -210,56 +228,96 @@ public class BookMetadataUpdater {
     }
 
 
-    private void updateThumbnailIfNeeded(long bookId, BookMetadata m, BookMetadataEntity e, boolean set) {
-        if (Boolean.TRUE.equals(e.getCoverLocked())) {
-            return; // Locked — do nothing
+    /**
+     * Downloads the cover of fetched metadata to a temporary file, so callers can do it before opening a transaction
+     * and pass the file on as {@link MetadataUpdateWrapper#getPrefetchedThumbnailPath()}. Returns null if there is no
+     * usable cover URL or the download fails.
+     */
+    public Path prefetchThumbnail(BookMetadata m) {
+        if (m == null || !StringUtils.hasText(m.getThumbnailUrl()) || isLocalOrPrivateUrl(m.getThumbnailUrl())) {
+            return null;
+        }
+        try {
+            return fileService.downloadToTempFile(m.getThumbnailUrl());
+        } catch (IOException e) {
+            log.warn("Failed to download cover {}: {}", m.getThumbnailUrl(), e.getMessage());
+            return null;
         }
-        if (!set) return;
-        if (!StringUtils.hasText(m.getThumbnailUrl()) || isLocalOrPrivateUrl(m.getThumbnailUrl())) return;
+    }
+
+    /**
+     * Whether the metadata brings a cover from a different URL than the current one, i.e. whether it is worth
+     * downloading.
+     */
+    public boolean isNewCover(BookMetadata m, Boolean coverLocked, String coverSourceUrl) {
+        if (m == null || Boolean.TRUE.equals(coverLocked) || !StringUtils.hasText(m.getThumbnailUrl())) {
+            return false;
+        }
+        return !m.getThumbnailUrl().equals(coverSourceUrl);
+    }
+
+    private boolean coverRequiresUpdate(BookMetadata m, BookMetadataEntity e, boolean set, String prefetchedPath) {
+        if (!set || !isNewCover(m, e.getCoverLocked(), e.getCoverSourceUrl())) {
+            return false;
+        }
+        // A prefetched cover already passed the URL check in prefetchThumbnail
+        if (prefetchedPath == null && isLocalOrPrivateUrl(m.getThumbnailUrl())) {
+            log.warn("Blocked local/private thumbnail URL: {}", m.getThumbnailUrl());
+            return false;
+        }
+        return true;
+    }
 
+    private void updateThumbnailIfNeeded(long bookId, BookMetadata m, BookMetadataEntity e, String prefetchedPath) {
         try {
-            String path = fileService.createThumbnail(bookId, m.getThumbnailUrl());
+            String path = fileService.createThumbnail(bookId, prefetchedPath != null ? prefetchedPath : m.getThumbnailUrl());
             e.setThumbnail(path);
             e.setCoverUpdatedOn(Instant.now());
+            e.setCoverSourceUrl(m.getThumbnailUrl());
         } catch (IOException ex) {
             log.warn("Thumbnail generation failed for book {}: {}", bookId, ex.getMessage());
         }
     }
 
-    private void updateLocks(BookMetadata m, BookMetadataEntity e) {
-        List<Pair<Boolean, Consumer<Boolean>>> lockMappings = List.of(
-                Pair.of(m.getTitleLocked(), e::setTitleLocked),
-                Pair.of(m.getSubtitleLocked(), e::setSubtitleLocked),
-                Pair.of(m.getPublisherLocked(), e::setPublisherLocked),
-                Pair.of(m.getPublishedDateLocked(), e::setPublishedDateLocked),
-                Pair.of(m.getDescriptionLocked(), e::setDescriptionLocked),
-                Pair.of(m.getSeriesNameLocked(), e::setSeriesNameLocked),
-                Pair.of(m.getSeriesNumberLocked(), e::setSeriesNumberLocked),
-                Pair.of(m.getSeriesTotalLocked(), e::setSeriesTotalLocked),
-                Pair.of(m.getIsbn13Locked(), e::setIsbn13Locked),
-                Pair.of(m.getIsbn10Locked(), e::setIsbn10Locked),
-                Pair.of(m.getAsinLocked(), e::setAsinLocked),
-                Pair.of(m.getGoodreadsIdLocked(), e::setGoodreadsIdLocked),
-                Pair.of(m.getComicvineIdLocked(), e::setComicvineIdLocked),
-                Pair.of(m.getHardcoverIdLocked(), e::setHardcoverIdLocked),
-                Pair.of(m.getGoogleIdLocked(), e::setGoogleIdLocked),
-                Pair.of(m.getPageCountLocked(), e::setPageCountLocked),
-                Pair.of(m.getLanguageLocked(), e::setLanguageLocked),
-                Pair.of(m.getPersonalRatingLocked(), e::setPersonalRatingLocked),
-                Pair.of(m.getAmazonRatingLocked(), e::setAmazonRatingLocked),
-                Pair.of(m.getAmazonReviewCountLocked(), e::setAmazonReviewCountLocked),
-                Pair.of(m.getGoodreadsRatingLocked(), e::setGoodreadsRatingLocked),
-                Pair.of(m.getGoodreadsReviewCountLocked(), e::setGoodreadsReviewCountLocked),
-                Pair.of(m.getHardcoverRatingLocked(), e::setHardcoverRatingLocked),
-                Pair.of(m.getHardcoverReviewCountLocked(), e::setHardcoverReviewCountLocked),
-                Pair.of(m.getCoverLocked(), e::setCoverLocked),
-                Pair.of(m.getAuthorsLocked(), e::setAuthorsLocked),
-                Pair.of(m.getCategoriesLocked(), e::setCategoriesLocked),
-                Pair.of(m.getReviewsLocked(), e::setReviewsLocked)
+    private boolean updateLocks(BookMetadata m, BookMetadataEntity e) {
+        List<Triple<Boolean, Boolean, Consumer<Boolean>>> lockMappings = List.of(
+                Triple.of(m.getTitleLocked(), e.getTitleLocked(), e::setTitleLocked),
+                Triple.of(m.getSubtitleLocked(), e.getSubtitleLocked(), e::setSubtitleLocked),
+                Triple.of(m.getPublisherLocked(), e.getPublisherLocked(), e::setPublisherLocked),
+                Triple.of(m.getPublishedDateLocked(), e.getPublishedDateLocked(), e::setPublishedDateLocked),
+                Triple.of(m.getDescriptionLocked(), e.getDescriptionLocked(), e::setDescriptionLocked),
+                Triple.of(m.getSeriesNameLocked(), e.getSeriesNameLocked(), e::setSeriesNameLocked),
+                Triple.of(m.getSeriesNumberLocked(), e.getSeriesNumberLocked(), e::setSeriesNumberLocked),
+                Triple.of(m.getSeriesTotalLocked(), e.getSeriesTotalLocked(), e::setSeriesTotalLocked),
+                Triple.of(m.getIsbn13Locked(), e.getIsbn13Locked(), e::setIsbn13Locked),
+                Triple.of(m.getIsbn10Locked(), e.getIsbn10Locked(), e::setIsbn10Locked),
+                Triple.of(m.getAsinLocked(), e.getAsinLocked(), e::setAsinLocked),
+                Triple.of(m.getGoodreadsIdLocked(), e.getGoodreadsIdLocked(), e::setGoodreadsIdLocked),
+                Triple.of(m.getComicvineIdLocked(), e.getComicvineIdLocked(), e::setComicvineIdLocked),
+                Triple.of(m.getHardcoverIdLocked(), e.getHardcoverIdLocked(), e::setHardcoverIdLocked),
+                Triple.of(m.getGoogleIdLocked(), e.getGoogleIdLocked(), e::setGoogleIdLocked),
+                Triple.of(m.getPageCountLocked(), e.getPageCountLocked(), e::setPageCountLocked),
+                Triple.of(m.getLanguageLocked(), e.getLanguageLocked(), e::setLanguageLocked),
+                Triple.of(m.getPersonalRatingLocked(), e.getPersonalRatingLocked(), e::setPersonalRatingLocked),
+                Triple.of(m.getAmazonRatingLocked(), e.getAmazonRatingLocked(), e::setAmazonRatingLocked),
+                Triple.of(m.getAmazonReviewCountLocked(), e.getAmazonReviewCountLocked(), e::setAmazonReviewCountLocked),
+                Triple.of(m.getGoodreadsRatingLocked(), e.getGoodreadsRatingLocked(), e::setGoodreadsRatingLocked),
+                Triple.of(m.getGoodreadsReviewCountLocked(), e.getGoodreadsReviewCountLocked(), e::setGoodreadsReviewCountLocked),
+                Triple.of(m.getHardcoverRatingLocked(), e.getHardcoverRatingLocked(), e::setHardcoverRatingLocked),
+                Triple.of(m.getHardcoverReviewCountLocked(), e.getHardcoverReviewCountLocked(), e::setHardcoverReviewCountLocked),
+                Triple.of(m.getCoverLocked(), e.getCoverLocked(), e::setCoverLocked),
+                Triple.of(m.getAuthorsLocked(), e.getAuthorsLocked(), e::setAuthorsLocked),
+                Triple.of(m.getCategoriesLocked(), e.getCategoriesLocked(), e::setCategoriesLocked),
+                Triple.of(m.getReviewsLocked(), e.getReviewsLocked(), e::setReviewsLocked)
         );
-        lockMappings.forEach(pair -> {
-            if (pair.getLeft() != null) pair.getRight().accept(pair.getLeft());
-        });
+        boolean changed = false;
+        for (Triple<Boolean, Boolean, Consumer<Boolean>> mapping : lockMappings) {
+            if (mapping.getLeft() != null) {
+                changed |= !mapping.getLeft().equals(mapping.getMiddle());
+                mapping.getRight().accept(mapping.getLeft());
+            }
+        }
+        return changed;
     }
 
     private boolean shouldUpdateField(Boolean locked, Object value) {
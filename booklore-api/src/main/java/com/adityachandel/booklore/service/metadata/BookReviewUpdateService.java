@@ -15,6 +15,8 @@ import java.util.stream.Collectors;
 @Service
 public class BookReviewUpdateService {
 
+    public static final int MAX_REVIEWS_PER_PROVIDER = 5;
+
     public void addReviewsToBook(List<BookReview> bookReviews, BookMetadataEntity e) {
         BookMetadata tempMetadata = BookMetadata.builder()
                 .bookReviews(bookReviews)
@@ -90,7 +92,7 @@ public class BookReviewUpdateService {
                 .flatMap(entry -> entry.getValue().stream()
                         .sorted(Comparator.comparing(BookReviewEntity::getDate,
                                 Comparator.nullsLast(Comparator.reverseOrder())))
-                        .limit(5))
+                        .limit(MAX_REVIEWS_PER_PROVIDER))
                 .collect(Collectors.toSet());
     }
 
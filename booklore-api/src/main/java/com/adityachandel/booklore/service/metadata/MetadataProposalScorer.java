@@ -0,0 +1,64 @@
+package com.adityachandel.booklore.service.metadata;
+
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.service.metadata.cache.MetadataResponseCache;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Scores how confident we are that fetched metadata belongs to the book, so review proposals can be filtered on it.
+ */
+final class MetadataProposalScorer {
+
+    private MetadataProposalScorer() {
+    }
+
+    /**
+     * A score from 0 to 1 for how likely the proposal describes the same book: 1 for a matching ISBN, otherwise based
+     * on title words and authors in common.
+     */
+    static double confidence(BookMetadata current, BookMetadata proposed) {
+        if (sameIdentifier(current.getIsbn13(), proposed.getIsbn13()) || sameIdentifier(current.getIsbn10(), proposed.getIsbn10())) {
+            return 1.0;
+        }
+        double titleScore = jaccard(words(current.getTitle()), words(proposed.getTitle()));
+        Set<String> currentAuthors = names(current.getAuthors());
+        Set<String> proposedAuthors = names(proposed.getAuthors());
+        double authorScore;
+        if (currentAuthors.isEmpty() || proposedAuthors.isEmpty()) {
+            authorScore = 0.5;
+        } else {
+            authorScore = Collections.disjoint(currentAuthors, proposedAuthors) ? 0.0 : 1.0;
+        }
+        return Math.round((0.7 * titleScore + 0.3 * authorScore) * 100) / 100.0;
+    }
+
+    private static boolean sameIdentifier(String a, String b) {
+        if (a == null || b == null) return false;
+        String left = a.replaceAll("[^0-9Xx]", "");
+        return !left.isEmpty() && left.equalsIgnoreCase(b.replaceAll("[^0-9Xx]", ""));
+    }
+
+    private static Set<String> words(String value) {
+        String normalized = MetadataResponseCache.normalize(value);
+        return normalized.isEmpty() ? Set.of() : new HashSet<>(Arrays.asList(normalized.split(" ")));
+    }
+
+    private static Set<String> names(Collection<?> values) {
+        if (values == null) return Set.of();
+        return values.stream()
+                .filter(Objects::nonNull)
+                .map(value -> MetadataResponseCache.normalize(value.toString()))
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) return 0.0;
+        Set<String> union = new HashSet<>(a);
+        union.addAll(b);
+        long common = a.stream().filter(b::contains).count();
+        return (double) common / union.size();
+    }
+}
@@ -0,0 +1,86 @@
+package com.adityachandel.booklore.service.metadata;
+
+import com.adityachandel.booklore.model.enums.FetchedMetadataProposalStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Collects the review proposals of one refresh job and inserts them in batches instead of one row per book. The
+ * callback is told about the books of a batch once their proposals are stored, so an interrupted job never counts a
+ * book whose proposal was still buffered.
+ */
+@Slf4j
+final class MetadataProposalWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO metadata_fetch_proposals (task_id, book_id, fetched_at, status, metadata_json, confidence, changed_fields)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String taskId;
+    private final int batchSize;
+    private final Consumer<List<Long>> onStored;
+    private List<Row> pending = new ArrayList<>();
+
+    MetadataProposalWriter(JdbcTemplate jdbcTemplate, String taskId, int batchSize, Consumer<List<Long>> onStored) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskId = taskId;
+        this.batchSize = Math.max(1, batchSize);
+        this.onStored = onStored;
+    }
+
+    void add(long bookId, String metadataJson, double confidence, List<String> changedFields) {
+        List<Row> batch = null;
+        String changed = changedFields.isEmpty() ? null : "," + String.join(",", changedFields) + ",";
+        synchronized (this) {
+            pending.add(new Row(bookId, Instant.now(), metadataJson, confidence, changed));
+            if (pending.size() >= batchSize) {
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+        }
+        if (batch != null) {
+            write(batch);
+        }
+    }
+
+    void flush() {
+        List<Row> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Row> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, row) -> {
+            ps.setString(1, taskId);
+            ps.setLong(2, row.bookId());
+            ps.setTimestamp(3, Timestamp.from(row.fetchedAt()));
+            ps.setString(4, FetchedMetadataProposalStatus.FETCHED.name());
+            ps.setString(5, row.metadataJson());
+            ps.setDouble(6, row.confidence());
+            if (row.changedFields() != null) {
+                ps.setString(7, row.changedFields());
+            } else {
+                ps.setNull(7, Types.VARCHAR);
+            }
+        });
+        log.debug("Stored {} metadata proposals for task {}", batch.size(), taskId);
+        onStored.accept(batch.stream().map(Row::bookId).toList());
+    }
+
+    private record Row(long bookId, Instant fetchedAt, String metadataJson, double confidence, String changedFields) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.adityachandel.booklore.service.metadata;
 
+import com.adityachandel.booklore.config.AppProperties;
 import com.adityachandel.booklore.exception.ApiError;
 import com.adityachandel.booklore.mapper.BookMapper;
 import com.adityachandel.booklore.model.MetadataUpdateWrapper;
@@ -10,10 +11,9 @@ import com.adityachandel.booklore.model.dto.request.MetadataRefreshRequest;
 import com.adityachandel.booklore.model.dto.settings.AppSettings;
 import com.adityachandel.booklore.model.dto.settings.MetadataPublicReviewsSettings;
 import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.BookMetadataEntity;
 import com.adityachandel.booklore.model.entity.LibraryEntity;
 import com.adityachandel.booklore.model.entity.MetadataFetchJobEntity;
-import com.adityachandel.booklore.model.entity.MetadataFetchProposalEntity;
-import com.adityachandel.booklore.model.enums.FetchedMetadataProposalStatus;
 import com.adityachandel.booklore.model.enums.MetadataFetchTaskStatus;
 import com.adityachandel.booklore.model.enums.MetadataProvider;
 import com.adityachandel.booklore.model.enums.EventTaskType;
@@ -22,22 +22,38 @@ import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.repository.MetadataFetchJobRepository;
-import com.adityachandel.booklore.repository.MetadataFetchProposalRepository;
 import com.adityachandel.booklore.service.NotificationService;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
 import com.adityachandel.booklore.service.metadata.parser.BookParser;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderCircuitBreaker;
+import com.adityachandel.booklore.util.MetadataChangeDetector;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.adityachandel.booklore.model.enums.MetadataProvider.*;
@@ -47,9 +63,10 @@ import static com.adityachandel.booklore.model.enums.MetadataProvider.*;
 @Service
 public class MetadataRefreshService {
 
+    private static final int PROPOSAL_BATCH_SIZE = 100;
+
     private final LibraryRepository libraryRepository;
     private final MetadataFetchJobRepository metadataFetchJobRepository;
-    private final MetadataFetchProposalRepository metadataFetchProposalRepository;
     private final BookMapper bookMapper;
     private final BookMetadataUpdater bookMetadataUpdater;
     private final NotificationService notificationService;
@@ -58,9 +75,32 @@ public class MetadataRefreshService {
     private final ObjectMapper objectMapper;
     private final BookRepository bookRepository;
     private final PlatformTransactionManager transactionManager;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+    private final ProviderCircuitBreaker circuitBreaker;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService providerFetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> cancelledJobIds = ConcurrentHashMap.newKeySet();
+
+    @PreDestroy
+    public void shutdown() {
+        providerFetchExecutor.shutdownNow();
+    }
 
+    /**
+     * Marks the job as cancelled by a user before its thread is interrupted. An interrupted job that was not marked is
+     * being stopped by a shutdown and is left to resume on the next start.
+     */
+    public void markCancelled(String jobId) {
+        cancelledJobIds.add(jobId);
+    }
 
-    public void refreshMetadata(MetadataRefreshRequest request, Long userId, String jobId) {
+    /**
+     * Refreshes the books of the request, skipping those in {@code refreshedBookIds}, which a previous run of the same
+     * job already finished. {@code onBooksRefreshed} is called with the books this run finishes, one batch of proposals
+     * at a time in review mode, so an interrupted job can be resumed.
+     */
+    public void refreshMetadata(MetadataRefreshRequest request, Long userId, String jobId, Set<Long> refreshedBookIds, Consumer<List<Long>> onBooksRefreshed) {
         try {
             if (Boolean.TRUE.equals(request.getQuick())) {
                 AppSettings appSettings = appSettingService.getAppSettings();
@@ -68,83 +108,84 @@ public class MetadataRefreshService {
             }
 
             List<MetadataProvider> providers = prepareProviders(request);
-            Set<Long> bookIds = getBookEntities(request);
+            Set<Long> allBookIds = getBookEntities(request);
+            Set<Long> bookIds = new LinkedHashSet<>(allBookIds);
+            bookIds.removeAll(refreshedBookIds);
+            int totalBooks = allBookIds.size();
+            Map<MetadataProvider, Long> rejectedAtStart = new EnumMap<>(MetadataProvider.class);
+            providers.forEach(provider -> rejectedAtStart.put(provider, circuitBreaker.getRejectedCount(provider)));
+            Set<MetadataProvider> reportedUnavailable = EnumSet.noneOf(MetadataProvider.class);
 
             boolean isReviewMode = Boolean.TRUE.equals(request.getRefreshOptions().getReviewBeforeApply());
             MetadataFetchJobEntity task;
 
             if (isReviewMode) {
-                task = MetadataFetchJobEntity.builder()
-                        .taskId(jobId)
-                        .userId(userId)
-                        .status(MetadataFetchTaskStatus.IN_PROGRESS)
-                        .startedAt(Instant.now())
-                        .totalBooksCount(bookIds.size())
-                        .completedBooks(0)
-                        .build();
+                task = metadataFetchJobRepository.findById(jobId)
+                        .orElseGet(() -> MetadataFetchJobEntity.builder()
+                                .taskId(jobId)
+                                .userId(userId)
+                                .startedAt(Instant.now())
+                                .totalBooksCount(totalBooks)
+                                .completedBooks(0)
+                                .build());
+                task.setStatus(MetadataFetchTaskStatus.IN_PROGRESS);
                 metadataFetchJobRepository.save(task);
             } else {
                 task = null;
             }
 
-            TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
-            int completedCount = 0;
-
-            for (Long bookId : bookIds) {
-                checkForInterruption(jobId, task, bookIds.size());
-                int finalCompletedCount = completedCount;
-                txTemplate.execute(status -> {
-                    BookEntity book = bookRepository.findAllWithMetadataByIds(Collections.singleton(bookId))
-                            .stream().findFirst()
-                            .orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
+            MetadataProposalWriter proposalWriter = isReviewMode
+                    ? new MetadataProposalWriter(jdbcTemplate, jobId, PROPOSAL_BATCH_SIZE, onBooksRefreshed)
+                    : null;
+            TransactionTemplate readTxTemplate = new TransactionTemplate(transactionManager);
+            readTxTemplate.setReadOnly(true);
+            TransactionTemplate writeTxTemplate = new TransactionTemplate(transactionManager);
+            AtomicInteger completedCount = new AtomicInteger(totalBooks - bookIds.size());
+            AtomicInteger unchangedCount = new AtomicInteger();
+            int parallelBooks = Math.max(1, appProperties.getMetadataRefresh().getParallelBooks());
+            Semaphore inFlight = new Semaphore(parallelBooks);
+            ExecutorService bookExecutor = new DelegatingSecurityContextExecutorService(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("metadata-refresh-", 0).factory()));
+
+            try {
+                for (Long bookId : bookIds) {
+                    checkForInterruption(jobId, task, totalBooks);
+                    reportUnavailableProviders(jobId, providers, reportedUnavailable);
                     try {
-                        checkForInterruption(jobId, task, bookIds.size());
-                        if (book.getMetadata().areAllFieldsLocked()) {
-                            log.info("Skipping locked book: {}", book.getFileName());
-                            sendTaskNotification(jobId, "Skipped locked book: " + book.getMetadata().getTitle(), TaskStatus.IN_PROGRESS);
-                            return null;
-                        }
-                        reportProgressIfNeeded(task, jobId, finalCompletedCount, bookIds.size(), book);
-                        Map<MetadataProvider, BookMetadata> metadataMap = fetchMetadataForBook(providers, book);
-                        if (providers.contains(GoodReads)) {
-                            try {
-                                Thread.sleep(ThreadLocalRandom.current().nextLong(500, 1500));
-                            } catch (InterruptedException e) {
-                                Thread.currentThread().interrupt();
-                                status.setRollbackOnly();
-                                return null;
+                        inFlight.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        checkForInterruption(jobId, task, totalBooks);
+                    }
+                    bookExecutor.execute(() -> {
+                        try {
+                            boolean refreshed = refreshBook(bookId, providers, request, jobId, task, proposalWriter, readTxTemplate, writeTxTemplate, completedCount, unchangedCount, totalBooks);
+                            // In review mode the writer reports books once their proposals are stored
+                            if (refreshed && proposalWriter == null) {
+                                onBooksRefreshed.accept(List.of(bookId));
                             }
+                        } finally {
+                            inFlight.release();
                         }
-                        BookMetadata fetched = buildFetchMetadata(book.getId(), request, metadataMap);
-                        if (isReviewMode) {
-                            saveProposal(task.getTaskId(), book.getId(), fetched);
-                        } else {
-                            updateBookMetadata(book, fetched, request.getRefreshOptions().isRefreshCovers(), request.getRefreshOptions().isMergeCategories());
-                            sendTaskProgressNotification(jobId, finalCompletedCount + 1, bookIds.size(), "Metadata updated: " + book.getMetadata().getTitle());
-                        }
-                    } catch (Exception e) {
-                        if (Thread.currentThread().isInterrupted()) {
-                            log.info("Processing interrupted for book: {}", book.getFileName());
-                            status.setRollbackOnly();
-                            return null;
-                        }
-                        log.error("Metadata update failed for book: {}", book.getFileName(), e);
-                        sendTaskNotification(jobId, String.format("Failed to process: %s - %s", book.getMetadata().getTitle(), e.getMessage()), TaskStatus.FAILED);
-                    }
-                    bookRepository.saveAndFlush(book);
-                    return null;
-                });
-                completedCount++;
+                    });
+                }
+                bookExecutor.shutdown();
+                awaitCompletion(bookExecutor, jobId, task, totalBooks);
+            } finally {
+                bookExecutor.shutdownNow();
+                flushProposals(proposalWriter);
             }
 
-            if (isReviewMode) completeTask(task, completedCount, bookIds.size());
-            log.info("Metadata refresh task {} completed successfully", jobId);
+            if (isReviewMode) completeTask(task, completedCount.get(), totalBooks);
+            log.info("Metadata refresh task {} completed successfully, {} book(s) already up to date", jobId, unchangedCount.get());
 
-            sendTaskNotification(jobId, String.format("Metadata refresh completed successfully - processed %d books", completedCount), TaskStatus.COMPLETED);
+            String unchangedSummary = unchangedCount.get() > 0 ? String.format(", %d already up to date", unchangedCount.get()) : "";
+            sendTaskNotification(jobId, String.format("Metadata refresh completed successfully - processed %d books%s%s",
+                    completedCount.get(), unchangedSummary, skippedLookupsSummary(rejectedAtStart)), TaskStatus.COMPLETED);
 
         } catch (RuntimeException e) {
             if (e.getCause() instanceof InterruptedException) {
-                log.info("Metadata refresh task {} cancelled successfully", jobId);
+                log.info("Metadata refresh task {} stopped", jobId);
                 return;
             }
             log.error("Fatal error during metadata refresh", e);
@@ -154,12 +195,191 @@ public class MetadataRefreshService {
             log.error("Fatal error during metadata refresh", fatal);
             sendTaskNotification(jobId, "Fatal error during metadata refresh: " + fatal.getMessage(), TaskStatus.FAILED);
             throw fatal;
+        } finally {
+            cancelledJobIds.remove(jobId);
+        }
+    }
+
+    /**
+     * Fetches, merges and saves the metadata of one book. Runs on the job's worker threads, so failures are reported
+     * per book and cancellation only stops this book; the job thread reports the cancellation once.
+     * <p>
+     * The book is read in a short read-only transaction, providers and the cover are fetched with no transaction open,
+     * and the result is written in a second short transaction, so slow providers never pin a database connection.
+     *
+     * @return whether the book is done, so a resumed job can skip it; false if it failed or the job was cancelled
+     */
+    private boolean refreshBook(Long bookId, List<MetadataProvider> providers, MetadataRefreshRequest request, String jobId,
+                             MetadataFetchJobEntity task, MetadataProposalWriter proposalWriter, TransactionTemplate readTxTemplate,
+                             TransactionTemplate writeTxTemplate, AtomicInteger completedCount, AtomicInteger unchangedCount, int totalBooks) {
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        boolean isReviewMode = proposalWriter != null;
+        Path prefetchedCover = null;
+        String updatedTitle = null;
+        String unchangedTitle = null;
+        try {
+            BookSnapshot current = timeTransaction("read", () -> readTxTemplate.execute(status -> {
+                BookEntity book = bookRepository.findAllWithMetadataByIds(Collections.singleton(bookId))
+                        .stream().findFirst()
+                        .orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
+                if (book.getMetadata().areAllFieldsLocked()) {
+                    log.info("Skipping locked book: {}", book.getFileName());
+                    sendTaskNotification(jobId, "Skipped locked book: " + book.getMetadata().getTitle(), TaskStatus.IN_PROGRESS);
+                    return null;
+                }
+                return new BookSnapshot(bookMapper.toBook(book), book.getMetadata().getCoverSourceUrl());
+            }));
+
+            if (current != null) {
+                Book snapshot = current.book();
+                reportProgressIfNeeded(task, jobId, completedCount.get(), totalBooks, snapshot.getMetadata().getTitle());
+                long fetchStarted = System.nanoTime();
+                Map<MetadataProvider, BookMetadata> metadataMap = fetchMetadataForBook(providers, snapshot);
+                BookMetadata fetched = buildFetchMetadata(bookId, request, metadataMap);
+                boolean replaceCover = request.getRefreshOptions().isRefreshCovers();
+                if (!isReviewMode && replaceCover && bookMetadataUpdater.isNewCover(fetched, snapshot.getMetadata().getCoverLocked(), current.coverSourceUrl())) {
+                    prefetchedCover = bookMetadataUpdater.prefetchThumbnail(fetched);
+                }
+                meterRegistry.timer("booklore.metadata.refresh.fetch").record(System.nanoTime() - fetchStarted, TimeUnit.NANOSECONDS);
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+
+                if (isReviewMode) {
+                    List<String> changedFields = timeTransaction("read", () -> readTxTemplate.execute(status -> {
+                        BookMetadataEntity metadata = bookRepository.findAllWithMetadataByIds(Collections.singleton(bookId))
+                                .stream().findFirst()
+                                .orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId))
+                                .getMetadata();
+                        List<String> fields = new ArrayList<>(MetadataChangeDetector.changedFields(fetched, metadata, null, request.getRefreshOptions().isMergeCategories()));
+                        if (bookMetadataUpdater.isNewCover(fetched, metadata.getCoverLocked(), metadata.getCoverSourceUrl())) {
+                            fields.add("cover");
+                        }
+                        return fields;
+                    }));
+                    proposalWriter.add(bookId, objectMapper.writeValueAsString(fetched),
+                            MetadataProposalScorer.confidence(snapshot.getMetadata(), fetched), changedFields);
+                } else {
+                    // Nothing is downloaded while the write holds its connection: without a prefetched cover the cover is left as is
+                    String coverPath = prefetchedCover != null ? prefetchedCover.toString() : null;
+                    boolean writeCover = replaceCover && coverPath != null;
+                    boolean changed = Boolean.TRUE.equals(timeTransaction("write", () -> writeTxTemplate.execute(status -> {
+                        BookEntity book = bookRepository.findAllWithMetadataByIds(Collections.singleton(bookId))
+                                .stream().findFirst()
+                                .orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
+                        if (!updateBookMetadata(book, fetched, writeCover, request.getRefreshOptions().isMergeCategories(), coverPath)) {
+                            return false;
+                        }
+                        bookRepository.saveAndFlush(book);
+                        return true;
+                    })));
+                    meterRegistry.counter("booklore.metadata.refresh.books", "result", changed ? "updated" : "unchanged").increment();
+                    if (changed) {
+                        updatedTitle = snapshot.getMetadata().getTitle();
+                    } else {
+                        unchangedCount.incrementAndGet();
+                        unchangedTitle = snapshot.getMetadata().getTitle();
+                    }
+                }
+            }
+        } catch (RuntimeException | JsonProcessingException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            log.error("Metadata update failed for book {}", bookId, e);
+            sendTaskNotification(jobId, String.format("Failed to process book %d - %s", bookId, e.getMessage()), TaskStatus.FAILED);
+            completedCount.incrementAndGet();
+            return false;
+        } finally {
+            deleteQuietly(prefetchedCover);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        int done = completedCount.incrementAndGet();
+        if (updatedTitle != null) {
+            sendTaskProgressNotification(jobId, done, totalBooks, "Metadata updated: " + updatedTitle);
+        } else if (unchangedTitle != null) {
+            sendTaskProgressNotification(jobId, done, totalBooks, "Metadata unchanged: " + unchangedTitle);
+        }
+        return true;
+    }
+
+    /**
+     * Runs a transaction and records how long it kept its connection, so refresh jobs can be checked for holding
+     * connections longer than the database work needs.
+     */
+    private <T> T timeTransaction(String phase, Supplier<T> transaction) {
+        return meterRegistry.timer("booklore.metadata.refresh.transaction", "phase", phase).record(transaction);
+    }
+
+    /**
+     * Tells the user once per outage when a provider stops answering, since its lookups are skipped until it recovers.
+     */
+    private void reportUnavailableProviders(String jobId, List<MetadataProvider> providers, Set<MetadataProvider> reported) {
+        reported.removeIf(provider -> circuitBreaker.getState(provider) == ProviderCircuitBreaker.State.CLOSED);
+        for (MetadataProvider provider : providers) {
+            if (circuitBreaker.getState(provider) != ProviderCircuitBreaker.State.CLOSED && reported.add(provider)) {
+                sendTaskNotification(jobId, provider + " is not responding, skipping its lookups until it recovers", TaskStatus.IN_PROGRESS);
+            }
+        }
+    }
+
+    private String skippedLookupsSummary(Map<MetadataProvider, Long> rejectedAtStart) {
+        String summary = rejectedAtStart.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), circuitBreaker.getRejectedCount(e.getKey()) - e.getValue()))
+                .filter(e -> e.getValue() > 0)
+                .map(e -> String.format("%s unavailable, %d lookups skipped", e.getKey(), e.getValue()))
+                .collect(Collectors.joining("; "));
+        return summary.isEmpty() ? "" : " - " + summary;
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Failed to delete temporary cover {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Stores the proposals still buffered when the job ends, including when it was cancelled, so the books already
+     * fetched are not fetched again on resume. The interrupt flag is cleared meanwhile because the connection pool
+     * refuses to hand out connections to an interrupted thread.
+     */
+    private void flushProposals(MetadataProposalWriter proposalWriter) {
+        if (proposalWriter == null) return;
+        boolean interrupted = Thread.interrupted();
+        try {
+            proposalWriter.flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to store metadata proposals: {}", e.getMessage(), e);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void awaitCompletion(ExecutorService bookExecutor, String jobId, MetadataFetchJobEntity task, int totalBooks) {
+        try {
+            while (!bookExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+                checkForInterruption(jobId, task, totalBooks);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            checkForInterruption(jobId, task, totalBooks);
         }
     }
 
     public Map<MetadataProvider, BookMetadata> fetchMetadataForBook(List<MetadataProvider> providers, Book book) {
         return providers.stream()
                 .map(provider -> createInterruptibleMetadataFuture(() -> fetchTopMetadataFromAProvider(provider, book)))
+                .toList()
+                .stream()
                 .map(this::joinFutureSafely)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toMap(
@@ -173,6 +393,8 @@ public class MetadataRefreshService {
         Book book = bookMapper.toBook(bookEntity);
         return providers.stream()
                 .map(provider -> createInterruptibleMetadataFuture(() -> fetchTopMetadataFromAProvider(provider, book)))
+                .toList()
+                .stream()
                 .map(this::joinFutureSafely)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toMap(
@@ -189,7 +411,7 @@ public class MetadataRefreshService {
                 return null;
             }
             return metadataSupplier.get();
-        }).exceptionally(e -> {
+        }, providerFetchExecutor).exceptionally(e -> {
             if (e.getCause() instanceof InterruptedException) {
                 log.info("Metadata fetch was interrupted");
                 Thread.currentThread().interrupt();
@@ -202,18 +424,23 @@ public class MetadataRefreshService {
 
     private BookMetadata joinFutureSafely(CompletableFuture<BookMetadata> future) {
         try {
-            return future.join();
-        } catch (Exception e) {
-            if (Thread.currentThread().isInterrupted()) {
-                log.info("Future join interrupted");
-                return null;
-            }
-            throw e;
+            return future.get();
+        } catch (InterruptedException e) {
+            log.info("Waiting for metadata fetch interrupted");
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            log.error("Error fetching metadata from provider", e.getCause());
+            return null;
         }
     }
 
     private void checkForInterruption(String jobId, MetadataFetchJobEntity task, int totalBooks) {
-        if (Thread.currentThread().isInterrupted()) {
+        if (!Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        if (cancelledJobIds.contains(jobId)) {
             log.info("Metadata refresh task {} cancelled by user request", jobId);
             sendTaskNotification(jobId, "Task cancelled by user", TaskStatus.CANCELLED);
             if (task != null) {
@@ -221,6 +448,8 @@ public class MetadataRefreshService {
             }
             throw new RuntimeException(new InterruptedException("Task was cancelled"));
         }
+        log.info("Metadata refresh task {} interrupted by shutdown, it resumes on the next start", jobId);
+        throw new RuntimeException(new InterruptedException("Task was interrupted by shutdown"));
     }
 
     private void sendTaskNotification(String taskId, String message, TaskStatus status) {
@@ -236,11 +465,13 @@ public class MetadataRefreshService {
         sendTaskNotification(taskId, String.format("(%d/%d) %s", current, total, message), TaskStatus.IN_PROGRESS);
     }
 
-    private void reportProgressIfNeeded(MetadataFetchJobEntity task, String taskId, int completedCount, int total, BookEntity book) {
+    private void reportProgressIfNeeded(MetadataFetchJobEntity task, String taskId, int completedCount, int total, String title) {
         if (task == null) return;
-        task.setCompletedBooks(completedCount);
-        metadataFetchJobRepository.save(task);
-        String message = String.format("Processing '%s'", book.getMetadata().getTitle());
+        synchronized (task) {
+            task.setCompletedBooks(Math.max(completedCount, task.getCompletedBooks() != null ? task.getCompletedBooks() : 0));
+            metadataFetchJobRepository.save(task);
+        }
+        String message = String.format("Processing '%s'", title);
         notificationService.sendMessage(Topic.BOOK_METADATA_BATCH_PROGRESS,
                 new MetadataBatchProgressNotification(
                         taskId, completedCount, total, message, MetadataFetchTaskStatus.IN_PROGRESS.name()
@@ -272,32 +503,27 @@ public class MetadataRefreshService {
                 ));
     }
 
-    private void saveProposal(String taskId, Long bookId, BookMetadata metadata) throws JsonProcessingException {
-        MetadataFetchJobEntity job = metadataFetchJobRepository.findById(taskId)
-                .orElseThrow(() -> new IllegalArgumentException("Task not found: " + taskId));
-
-        MetadataFetchProposalEntity proposal = MetadataFetchProposalEntity.builder()
-                .job(job)
-                .bookId(bookId)
-                .metadataJson(objectMapper.writeValueAsString(metadata))
-                .status(FetchedMetadataProposalStatus.FETCHED)
-                .fetchedAt(Instant.now())
-                .build();
-
-        metadataFetchProposalRepository.save(proposal);
+    public boolean updateBookMetadata(BookEntity bookEntity, BookMetadata metadata, boolean replaceCover, boolean mergeCategories) {
+        return updateBookMetadata(bookEntity, metadata, replaceCover, mergeCategories, null);
     }
 
-
-    public void updateBookMetadata(BookEntity bookEntity, BookMetadata metadata, boolean replaceCover, boolean mergeCategories) {
-        if (metadata != null) {
-            MetadataUpdateWrapper metadataUpdateWrapper = MetadataUpdateWrapper.builder()
-                    .metadata(metadata)
-                    .build();
-            bookMetadataUpdater.setBookMetadata(bookEntity, metadataUpdateWrapper, replaceCover, mergeCategories);
-
-            Book book = bookMapper.toBook(bookEntity);
-            notificationService.sendMessage(Topic.BOOK_METADATA_UPDATE, book);
+    /**
+     * Applies the metadata to the book and notifies clients if anything changed. Returns whether anything changed.
+     */
+    public boolean updateBookMetadata(BookEntity bookEntity, BookMetadata metadata, boolean replaceCover, boolean mergeCategories, String prefetchedThumbnailPath) {
+        if (metadata == null) {
+            return false;
+        }
+        MetadataUpdateWrapper metadataUpdateWrapper = MetadataUpdateWrapper.builder()
+                .metadata(metadata)
+                .prefetchedThumbnailPath(prefetchedThumbnailPath)
+                .build();
+        if (!bookMetadataUpdater.setBookMetadata(bookEntity, metadataUpdateWrapper, replaceCover, mergeCategories)) {
+            return false;
         }
+        Book book = bookMapper.toBook(bookEntity);
+        notificationService.sendMessage(Topic.BOOK_METADATA_UPDATE, book);
+        return true;
     }
 
     public List<MetadataProvider> prepareProviders(MetadataRefreshRequest request) {
@@ -505,7 +731,7 @@ public class MetadataRefreshService {
     }
 
 
-    protected Set<Long> getBookEntities(MetadataRefreshRequest request) {
+    public Set<Long> getBookEntities(MetadataRefreshRequest request) {
         MetadataRefreshRequest.RefreshType refreshType = request.getRefreshType();
         if (refreshType != MetadataRefreshRequest.RefreshType.LIBRARY && refreshType != MetadataRefreshRequest.RefreshType.BOOKS) {
             throw ApiError.INVALID_REFRESH_TYPE.createException();
@@ -518,5 +744,7 @@ public class MetadataRefreshService {
             case BOOKS -> request.getBookIds();
         };
     }
-}
 
+    private record BookSnapshot(Book book, String coverSourceUrl) {
+    }
+}
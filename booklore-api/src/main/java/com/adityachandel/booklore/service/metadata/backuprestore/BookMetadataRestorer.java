@@ -64,8 +64,7 @@ public class BookMetadataRestorer {
             Set<AuthorEntity> authors = new HashSet<>();
             if (backup.getAuthors() != null) {
                 authors = backup.getAuthors().stream()
-                        .map(name -> authorRepository.findByName(name)
-                                .orElseGet(() -> authorRepository.save(AuthorEntity.builder().name(name).build())))
+                        .map(authorRepository::findOrCreateByName)
                         .collect(Collectors.toSet());
             }
             metadata.setAuthors(authors);
@@ -75,8 +74,7 @@ public class BookMetadataRestorer {
             Set<CategoryEntity> categories = new HashSet<>();
             if (backup.getCategories() != null) {
                 categories = backup.getCategories().stream()
-                        .map(name -> categoryRepository.findByName(name)
-                                .orElseGet(() -> categoryRepository.save(CategoryEntity.builder().name(name).build())))
+                        .map(categoryRepository::findOrCreateByName)
                         .collect(Collectors.toSet());
             }
             metadata.setCategories(categories);
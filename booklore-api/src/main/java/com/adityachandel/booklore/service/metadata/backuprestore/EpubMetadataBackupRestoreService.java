@@ -107,6 +107,7 @@ public class EpubMetadataBackupRestoreService extends AbstractMetadataBackupRest
             String thumbnailPath = fileService.createThumbnail(bookId, coverPath.toString());
             metadata.setThumbnail(thumbnailPath);
             metadata.setCoverUpdatedOn(Instant.now());
+            metadata.setCoverSourceUrl(null);
         } catch (IOException e) {
             log.error("Failed to update thumbnail for book ID {}: {}", bookId, e.getMessage(), e);
         }
@@ -0,0 +1,345 @@
+package com.adityachandel.booklore.service.metadata.cache;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderCircuitBreaker;
+import com.adityachandel.booklore.util.FileService;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Caches parsed metadata provider responses so repeated lookups for the same query or book don't hit the provider again.
+ * <p>
+ * Entries are kept as JSON in a size-bounded in-memory LRU and written through to one file per entry under the
+ * metadata cache folder, so they survive restarts. Each provider has its own TTL.
+ * <p>
+ * Empty results are cached with a separate, shorter TTL, but only when every provider request made while loading them
+ * succeeded. An empty result caused by an outage, throttling or an open circuit is not remembered.
+ */
+@Slf4j
+@Service
+public class MetadataResponseCache {
+
+    private static final String ENTRY_SUFFIX = ".json";
+    private static final long CLEANUP_INTERVAL_MINUTES = 60;
+
+    private final AppProperties.MetadataCache settings;
+    private final FileService fileService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ProviderCircuitBreaker circuitBreaker;
+
+    private final Map<String, CachedEntry> memory;
+    private final AtomicInteger diskEntries = new AtomicInteger();
+    private final Map<MetadataProvider, Counters> counters = new EnumMap<>(MetadataProvider.class);
+    private final ScheduledExecutorService cleanupExecutor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("metadata-cache-cleanup").daemon().factory());
+    private volatile boolean cleanupScheduled;
+    private Path cacheDir;
+
+    public MetadataResponseCache(AppProperties appProperties, FileService fileService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 ProviderCircuitBreaker circuitBreaker) {
+        this.settings = appProperties.getMetadataCache();
+        this.fileService = fileService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = circuitBreaker;
+        int maxMemoryEntries = Math.max(1, settings.getMaxMemoryEntries());
+        this.memory = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedEntry> eldest) {
+                return size() > maxMemoryEntries;
+            }
+        });
+    }
+
+    @PostConstruct
+    public void init() {
+        for (MetadataProvider provider : MetadataProvider.values()) {
+            counters.put(provider, new Counters(
+                    counter(provider, "memory"),
+                    counter(provider, "disk"),
+                    counter(provider, "miss"),
+                    counter(provider, "negative")));
+        }
+        Gauge.builder("booklore.metadata.cache.entries", memory, Map::size)
+                .description("Metadata provider responses held in memory")
+                .tag("tier", "memory")
+                .register(meterRegistry);
+        Gauge.builder("booklore.metadata.cache.entries", diskEntries, AtomicInteger::get)
+                .description("Metadata provider responses stored on disk")
+                .tag("tier", "disk")
+                .register(meterRegistry);
+
+        if (!settings.isEnabled()) {
+            log.info("Metadata provider cache is disabled");
+            return;
+        }
+        cacheDir = Path.of(fileService.getMetadataCachePath());
+        try {
+            Files.createDirectories(cacheDir);
+            try (Stream<Path> files = Files.list(cacheDir)) {
+                diskEntries.set((int) files.filter(this::isEntryFile).count());
+            }
+        } catch (IOException e) {
+            log.warn("Metadata cache folder {} is not usable, caching in memory only: {}", cacheDir, e.getMessage());
+            cacheDir = null;
+        }
+        cleanupExecutor.scheduleWithFixedDelay(this::cleanupDisk, 1, CLEANUP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleanupExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the cached value for the key, or calls the loader and caches its result. A cached empty result is
+     * returned as such, which may be null.
+     */
+    public <T> T get(MetadataProvider provider, String key, JavaType type, Supplier<T> loader) {
+        if (!settings.isEnabled() || key == null) {
+            return loader.get();
+        }
+        String cacheKey = provider.name() + "|" + key;
+        Counters providerCounters = counters.get(provider);
+        long now = System.currentTimeMillis();
+
+        CachedEntry entry = memory.get(cacheKey);
+        if (entry != null && entry.expiresAt() > now) {
+            if (entry.empty()) {
+                providerCounters.negativeHits().increment();
+                return deserialize(entry.json(), type);
+            }
+            T value = deserialize(entry.json(), type);
+            if (value != null) {
+                providerCounters.memoryHits().increment();
+                return value;
+            }
+        }
+
+        entry = readFromDisk(cacheKey, now);
+        if (entry != null) {
+            if (entry.empty()) {
+                memory.put(cacheKey, entry);
+                providerCounters.negativeHits().increment();
+                return deserialize(entry.json(), type);
+            }
+            T value = deserialize(entry.json(), type);
+            if (value != null) {
+                memory.put(cacheKey, entry);
+                providerCounters.diskHits().increment();
+                return value;
+            }
+        }
+
+        providerCounters.misses().increment();
+        ProviderCircuitBreaker.Snapshot before = circuitBreaker.snapshot();
+        T value = loader.get();
+        if (!isEmpty(value)) {
+            store(provider, cacheKey, value, false, now + ttl(provider).toMillis());
+        } else if (circuitBreaker.onlyHealthySince(before)) {
+            store(provider, cacheKey, value, true, now + settings.getNegativeTtl().toMillis());
+        }
+        return value;
+    }
+
+    /**
+     * Normalizes a query part so trivial differences in case, punctuation and spacing map to the same entry.
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    public void evictAll() {
+        memory.clear();
+        if (cacheDir == null) return;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            files.filter(this::isEntryFile).forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Failed to clear metadata cache folder: {}", e.getMessage());
+        }
+        diskEntries.set(0);
+    }
+
+    private void store(MetadataProvider provider, String cacheKey, Object value, boolean empty, long expiresAt) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            log.debug("Not caching {} response, serialization failed: {}", provider, e.getMessage());
+            return;
+        }
+        CachedEntry entry = new CachedEntry(cacheKey, json, expiresAt, empty);
+        memory.put(cacheKey, entry);
+        writeToDisk(entry);
+    }
+
+    private Duration ttl(MetadataProvider provider) {
+        return settings.getTtl().getOrDefault(provider, settings.getDefaultTtl());
+    }
+
+    private CachedEntry readFromDisk(String cacheKey, long now) {
+        if (cacheDir == null) return null;
+        Path file = entryFile(cacheKey);
+        if (!Files.exists(file)) return null;
+        try {
+            CachedEntry entry = objectMapper.readValue(file.toFile(), CachedEntry.class);
+            if (!cacheKey.equals(entry.key()) || entry.expiresAt() <= now) {
+                return null;
+            }
+            return entry;
+        } catch (IOException e) {
+            log.debug("Discarding unreadable metadata cache entry {}: {}", file, e.getMessage());
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    private void writeToDisk(CachedEntry entry) {
+        if (cacheDir == null) return;
+        Path file = entryFile(entry.key());
+        Path temp = null;
+        try {
+            // A unique temp file per write, so concurrent writers of the same key never share one
+            temp = Files.createTempFile(cacheDir, "entry-", ".tmp");
+            boolean existed = Files.exists(file);
+            objectMapper.writeValue(temp.toFile(), entry);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (!existed && diskEntries.incrementAndGet() > settings.getMaxDiskEntries() && !cleanupScheduled) {
+                cleanupScheduled = true;
+                cleanupExecutor.execute(this::cleanupDisk);
+            }
+        } catch (IOException e) {
+            log.debug("Failed to write metadata cache entry {}: {}", file, e.getMessage());
+            if (temp != null) deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Drops expired entries from disk, then the least recently written ones until the folder is back under 90% of
+     * its limit.
+     */
+    private void cleanupDisk() {
+        cleanupScheduled = false;
+        if (cacheDir == null) return;
+        long now = System.currentTimeMillis();
+        List<Path> remaining = new ArrayList<>();
+        int removed = 0;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            for (Path file : files.filter(this::isEntryFile).toList()) {
+                if (isExpired(file, now)) {
+                    deleteQuietly(file);
+                    removed++;
+                } else {
+                    remaining.add(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up metadata cache folder: {}", e.getMessage());
+            return;
+        }
+
+        int target = (int) (settings.getMaxDiskEntries() * 0.9);
+        if (remaining.size() > target) {
+            remaining.sort(Comparator.comparingLong(this::lastModified));
+            int excess = remaining.size() - target;
+            remaining.subList(0, excess).forEach(this::deleteQuietly);
+            remaining = remaining.subList(excess, remaining.size());
+            removed += excess;
+        }
+        diskEntries.set(remaining.size());
+        if (removed > 0) {
+            log.info("Metadata cache cleanup removed {} entries, {} remain on disk", removed, remaining.size());
+        }
+    }
+
+    private boolean isExpired(Path file, long now) {
+        try {
+            return objectMapper.readValue(file.toFile(), CachedEntry.class).expiresAt() <= now;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private <T> T deserialize(String json, JavaType type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            log.debug("Discarding unreadable metadata cache value: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isEmpty(Object value) {
+        if (value == null) return true;
+        return value instanceof Collection<?> collection && collection.isEmpty();
+    }
+
+    private Path entryFile(String cacheKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(cacheKey.getBytes(StandardCharsets.UTF_8));
+            return cacheDir.resolve(HexFormat.of().formatHex(digest) + ENTRY_SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private boolean isEntryFile(Path file) {
+        return file.getFileName().toString().endsWith(ENTRY_SUFFIX);
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Failed to delete metadata cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Counter counter(MetadataProvider provider, String result) {
+        return Counter.builder("booklore.metadata.cache.requests")
+                .description("Metadata provider cache lookups by result")
+                .tag("provider", provider.name())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Counters(Counter memoryHits, Counter diskHits, Counter misses, Counter negativeHits) {
+    }
+
+    private record CachedEntry(String key, String json, long expiresAt, boolean empty) {
+    }
+}
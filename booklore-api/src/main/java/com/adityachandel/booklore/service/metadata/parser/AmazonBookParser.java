@@ -6,10 +6,17 @@ import com.adityachandel.booklore.model.dto.BookReview;
 import com.adityachandel.booklore.model.dto.request.FetchMetadataRequest;
 import com.adityachandel.booklore.model.enums.MetadataProvider;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.http.OutboundHttpClient;
+import com.adityachandel.booklore.service.http.OutboundResponse;
+import com.adityachandel.booklore.service.metadata.cache.MetadataResponseCache;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderRateLimiter;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderUnavailableException;
 import com.adityachandel.booklore.util.BookUtils;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -17,6 +24,8 @@ import org.jsoup.select.Elements;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
@@ -34,7 +43,25 @@ public class AmazonBookParser implements BookParser {
 
     private static final int COUNT_DETAILED_METADATA_TO_GET = 3;
     private static final String BASE_BOOK_URL = "https://www.amazon.com/dp/";
+    private static final JavaType METADATA_TYPE = TypeFactory.defaultInstance().constructType(BookMetadata.class);
+    private static final List<String> DETAIL_SECTION_MARKERS = List.of(
+            "id=\"productTitle\"",
+            "id=\"productSubtitle\"",
+            "id=\"bylineInfo_feature_div\"",
+            "data-a-expander-name=\"book_description_expander\"",
+            "id=\"rpi-attribute-book_details-isbn10\"",
+            "id=\"rpi-attribute-book_details-isbn13\"",
+            "id=\"rpi-attribute-book_details-publication_date\"",
+            "id=\"rpi-attribute-book_details-series\"",
+            "id=\"rpi-attribute-book_details-fiona_pages\"",
+            "id=\"rpi-attribute-language\"",
+            "id=\"detailBullets_feature_div\"",
+            "id=\"averageCustomerReviews_feature_div\"",
+            "id=\"landingImage\"");
     private final AppSettingService appSettingService;
+    private final MetadataResponseCache metadataResponseCache;
+    private final ProviderRateLimiter providerRateLimiter;
+    private final OutboundHttpClient outboundHttpClient;
 
     @Override
     public BookMetadata fetchTopMetadata(Book book, FetchMetadataRequest fetchMetadataRequest) {
@@ -82,47 +109,61 @@ public class AmazonBookParser implements BookParser {
             log.error("Query URL is null, cannot proceed.");
             return null;
         }
-        LinkedList<String> bookIds = new LinkedList<>();
         try {
-            Document doc = fetchDocument(queryUrl);
-            Element searchResults = doc.select("span[data-component-type=s-search-results]").first();
-            if (searchResults == null) {
+            LinkedList<String> bookIds = parseSearchResults(fetchPage(queryUrl));
+            if (bookIds == null) {
                 log.error("No search results found for query: {}", queryUrl);
                 return null;
             }
-            Elements items = searchResults.select("div[role=listitem][data-index]");
-            if (items.isEmpty()) {
-                log.error("No items found in the search results.");
-            } else {
-                for (Element item : items) {
-                    if (item.text().contains("Collects books from")) {
-                        log.debug("Skipping box set item (collects books): {}", extractAmazonBookId(item));
-                        continue;
-                    }
-                    Element titleDiv = item.selectFirst("div[data-cy=title-recipe]");
-                    if (titleDiv == null) {
-                        log.debug("Skipping item with missing title div: {}", extractAmazonBookId(item));
-                        continue;
-                    }
+            log.info("Amazon: Found {} book ids", bookIds.size());
+            return bookIds;
+        } catch (Exception e) {
+            log.error("Failed to get asin: {}", e.getMessage(), e);
+            return new LinkedList<>();
+        }
+    }
 
-                    String titleText = titleDiv.text().trim();
-                    if (titleText.isEmpty()) {
-                        log.debug("Skipping item with empty title: {}", extractAmazonBookId(item));
-                        continue;
-                    }
+    /**
+     * Reads the book ids from a search page. Only the result list is parsed; the rest of the page is never turned
+     * into a DOM unless the list can't be cut out on its own. Returns null if the page has no result list.
+     */
+    LinkedList<String> parseSearchResults(String html) {
+        String section = HtmlSectionExtractor.extract(html, "data-component-type=\"s-search-results\"");
+        Element root = section != null ? Jsoup.parseBodyFragment(section) : Jsoup.parse(html);
+        Element searchResults = root.select("span[data-component-type=s-search-results]").first();
+        if (searchResults == null) {
+            return null;
+        }
+        LinkedList<String> bookIds = new LinkedList<>();
+        Elements items = searchResults.select("div[role=listitem][data-index]");
+        if (items.isEmpty()) {
+            log.error("No items found in the search results.");
+        } else {
+            for (Element item : items) {
+                if (item.text().contains("Collects books from")) {
+                    log.debug("Skipping box set item (collects books): {}", extractAmazonBookId(item));
+                    continue;
+                }
+                Element titleDiv = item.selectFirst("div[data-cy=title-recipe]");
+                if (titleDiv == null) {
+                    log.debug("Skipping item with missing title div: {}", extractAmazonBookId(item));
+                    continue;
+                }
 
-                    String lowerTitle = titleText.toLowerCase();
-                    if (lowerTitle.contains("books set") || lowerTitle.contains("box set") || lowerTitle.contains("collection set") || lowerTitle.contains("summary & study guide")) {
-                        log.debug("Skipping box set item (matched filtered phrase) in title: {}", extractAmazonBookId(item));
-                        continue;
-                    }
-                    bookIds.add(extractAmazonBookId(item));
+                String titleText = titleDiv.text().trim();
+                if (titleText.isEmpty()) {
+                    log.debug("Skipping item with empty title: {}", extractAmazonBookId(item));
+                    continue;
                 }
+
+                String lowerTitle = titleText.toLowerCase();
+                if (lowerTitle.contains("books set") || lowerTitle.contains("box set") || lowerTitle.contains("collection set") || lowerTitle.contains("summary & study guide")) {
+                    log.debug("Skipping box set item (matched filtered phrase) in title: {}", extractAmazonBookId(item));
+                    continue;
+                }
+                bookIds.add(extractAmazonBookId(item));
             }
-        } catch (Exception e) {
-            log.error("Failed to get asin: {}", e.getMessage(), e);
         }
-        log.info("Amazon: Found {} book ids", bookIds.size());
         return bookIds;
     }
 
@@ -152,22 +193,56 @@ public class AmazonBookParser implements BookParser {
     }
 
     private BookMetadata getBookMetadata(String amazonBookId) {
+        return metadataResponseCache.get(MetadataProvider.Amazon, "detail|" + amazonBookId, METADATA_TYPE, () -> fetchBookMetadata(amazonBookId));
+    }
+
+    private BookMetadata fetchBookMetadata(String amazonBookId) {
         log.info("Amazon: Fetching metadata for: {}", amazonBookId);
 
-        Document doc = fetchDocument(BASE_BOOK_URL + amazonBookId);
+        String html = fetchPage(BASE_BOOK_URL + amazonBookId);
 
-        List<BookReview> reviews = appSettingService.getAppSettings()
+        Integer maxReviews = appSettingService.getAppSettings()
                 .getMetadataPublicReviewsSettings()
                 .getProviders()
                 .stream()
                 .filter(cfg -> cfg.getProvider() == MetadataProvider.Amazon && cfg.isEnabled())
                 .findFirst()
-                .map(cfg -> getReviews(doc, cfg.getMaxReviews()))
-                .orElse(Collections.emptyList());
+                .map(cfg -> cfg.getMaxReviews())
+                .orElse(null);
+
+        return parseBookDetails(html, amazonBookId, maxReviews);
+    }
 
+    /**
+     * Builds the metadata from a product page. Reviews are only read when {@code maxReviews} is set.
+     */
+    BookMetadata parseBookDetails(String html, String amazonBookId, Integer maxReviews) {
+        Document doc = detailSections(html, maxReviews != null);
+        List<BookReview> reviews = maxReviews != null ? getReviews(doc, maxReviews) : Collections.emptyList();
         return buildBookMetadata(doc, amazonBookId, reviews);
     }
 
+    /**
+     * Parses only the parts of a product page the getters below read. Falls back to the whole page when the title
+     * can't be found, since that means the page layout isn't the one the markers were written for.
+     */
+    private Document detailSections(String html, boolean includeReviews) {
+        if (HtmlSectionExtractor.extract(html, "id=\"productTitle\"") == null) {
+            return Jsoup.parse(html);
+        }
+        StringBuilder sections = new StringBuilder();
+        for (String marker : DETAIL_SECTION_MARKERS) {
+            String section = HtmlSectionExtractor.extract(html, marker);
+            if (section != null) {
+                sections.append(section);
+            }
+        }
+        if (includeReviews) {
+            HtmlSectionExtractor.extractAll(html, "data-hook=\"review\"").forEach(sections::append);
+        }
+        return Jsoup.parseBodyFragment(sections.toString());
+    }
+
     private BookMetadata buildBookMetadata(Document doc, String amazonBookId, List<BookReview> reviews) {
         return BookMetadata.builder()
                 .provider(MetadataProvider.Amazon)
@@ -607,10 +682,10 @@ public class AmazonBookParser implements BookParser {
         return null;
     }
 
-    private Document fetchDocument(String url) {
+    private String fetchPage(String url) {
         try {
             String amazonCookie = appSettingService.getAppSettings().getMetadataProviderSettings().getAmazon().getCookie();
-            Connection connection = Jsoup.connect(url)
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
                     .header("accept", "text/html, application/json")
                     .header("accept-language", "en-US,en;q=0.9")
                     .header("content-type", "application/json")
@@ -634,17 +709,27 @@ public class AmazonBookParser implements BookParser {
                     .header("viewport-width", "1170")
                     .header("x-amz-amabot-click-attributes", "disable")
                     .header("x-requested-with", "XMLHttpRequest")
-                    .method(Connection.Method.GET);
+                    .GET();
 
             if (amazonCookie != null && !amazonCookie.isBlank()) {
-                connection.header("cookie", amazonCookie);
+                request.header("cookie", amazonCookie);
             }
 
-            Connection.Response response = connection.execute();
-            return response.parse();
+            OutboundResponse response = providerRateLimiter.execute(MetadataProvider.Amazon,
+                    () -> outboundHttpClient.send(MetadataProvider.Amazon.name(), request.build()), OutboundResponse::statusCode);
+            if (!response.isSuccessful()) {
+                throw new HttpStatusException("HTTP error fetching URL", response.statusCode(), url);
+            }
+            return response.bodyAsString();
+        } catch (ProviderUnavailableException e) {
+            log.debug("Skipping {}: {}", url, e.getMessage());
+            throw new RuntimeException(e);
         } catch (IOException e) {
             log.error("Error parsing url: {}", url, e);
             throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
         }
     }
 
@@ -0,0 +1,61 @@
+package com.adityachandel.booklore.service.metadata.parser;
+
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.model.dto.request.FetchMetadataRequest;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.service.metadata.cache.MetadataResponseCache;
+import com.adityachandel.booklore.util.BookUtils;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import java.util.List;
+
+/**
+ * Serves a provider's search results from the {@link MetadataResponseCache} when the same query was answered before.
+ */
+public class CachingBookParser implements BookParser {
+
+    private static final JavaType METADATA_TYPE = TypeFactory.defaultInstance().constructType(BookMetadata.class);
+    private static final JavaType METADATA_LIST_TYPE = TypeFactory.defaultInstance().constructCollectionType(List.class, BookMetadata.class);
+
+    private final MetadataProvider provider;
+    private final BookParser delegate;
+    private final MetadataResponseCache cache;
+
+    public CachingBookParser(MetadataProvider provider, BookParser delegate, MetadataResponseCache cache) {
+        this.provider = provider;
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public List<BookMetadata> fetchMetadata(Book book, FetchMetadataRequest fetchMetadataRequest) {
+        return cache.get(provider, "search|" + queryKey(book, fetchMetadataRequest), METADATA_LIST_TYPE,
+                () -> delegate.fetchMetadata(book, fetchMetadataRequest));
+    }
+
+    @Override
+    public BookMetadata fetchTopMetadata(Book book, FetchMetadataRequest fetchMetadataRequest) {
+        return cache.get(provider, "top|" + queryKey(book, fetchMetadataRequest), METADATA_TYPE,
+                () -> delegate.fetchTopMetadata(book, fetchMetadataRequest));
+    }
+
+    /**
+     * Builds the key from everything the parsers search with. The file name only matters when there is no title,
+     * since that is the only case in which parsers fall back to it.
+     */
+    static String queryKey(Book book, FetchMetadataRequest request) {
+        String title = MetadataResponseCache.normalize(request.getTitle());
+        String fileName = title.isEmpty() && book != null
+                ? MetadataResponseCache.normalize(BookUtils.cleanFileName(book.getFileName()))
+                : "";
+        String key = String.join("|",
+                MetadataResponseCache.normalize(request.getIsbn()),
+                MetadataResponseCache.normalize(request.getAsin()),
+                title,
+                MetadataResponseCache.normalize(request.getAuthor()),
+                fileName);
+        return key.replace("|", "").isEmpty() ? null : key;
+    }
+}
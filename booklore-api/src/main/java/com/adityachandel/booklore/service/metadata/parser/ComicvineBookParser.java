@@ -7,6 +7,10 @@ import com.adityachandel.booklore.model.dto.response.comicvineapi.Comic;
 import com.adityachandel.booklore.model.dto.response.comicvineapi.ComicvineApiResponse;
 import com.adityachandel.booklore.model.enums.MetadataProvider;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.http.OutboundHttpClient;
+import com.adityachandel.booklore.service.http.OutboundResponse;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderRateLimiter;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderUnavailableException;
 import com.adityachandel.booklore.util.BookUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -16,9 +20,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -37,7 +39,8 @@ public class ComicvineBookParser implements BookParser {
 
     private final ObjectMapper objectMapper;
     private final AppSettingService appSettingService;
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ProviderRateLimiter providerRateLimiter;
+    private final OutboundHttpClient outboundHttpClient;
 
     @Override
     public List<BookMetadata> fetchMetadata(Book book, FetchMetadataRequest fetchMetadataRequest) {
@@ -81,13 +84,16 @@ public class ComicvineBookParser implements BookParser {
                     .GET()
                     .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            OutboundResponse response = providerRateLimiter.execute(MetadataProvider.Comicvine,
+                    () -> outboundHttpClient.send(MetadataProvider.Comicvine.name(), request), OutboundResponse::statusCode);
 
             if (response.statusCode() == 200) {
-                return parseComicvineApiResponse(response.body());
+                return parseComicvineApiResponse(response.bodyAsString());
             } else {
                 log.error("Comicvine Search API returned status code {}", response.statusCode());
             }
+        } catch (ProviderUnavailableException e) {
+            log.debug("Skipping Comicvine lookup: {}", e.getMessage());
         } catch (IOException | InterruptedException e) {
             log.error("Error fetching metadata from Comicvine Search API", e);
         }
@@ -176,10 +182,11 @@ public class ComicvineBookParser implements BookParser {
                     .GET()
                     .build();
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            OutboundResponse response = providerRateLimiter.execute(MetadataProvider.Comicvine,
+                    () -> outboundHttpClient.send(MetadataProvider.Comicvine.name(), request), OutboundResponse::statusCode);
 
             if (response.statusCode() == 200) {
-                ComicvineIssueResponse issueResponse = objectMapper.readValue(response.body(), ComicvineIssueResponse.class);
+                ComicvineIssueResponse issueResponse = objectMapper.readValue(response.bodyAsString(), ComicvineIssueResponse.class);
                 if (issueResponse.getResults() == null || issueResponse.getResults().getPersonCredits() == null) {
                     log.warn("No person credits found for issue ID {}", issueId);
                     return Collections.emptySet();
@@ -193,6 +200,8 @@ public class ComicvineBookParser implements BookParser {
             } else {
                 log.error("Comicvine Issue API returned status code {}", response.statusCode());
             }
+        } catch (ProviderUnavailableException e) {
+            log.debug("Skipping Comicvine issue lookup: {}", e.getMessage());
         } catch (IOException | InterruptedException e) {
             log.error("Error fetching issue metadata from Comicvine Issue API", e);
         }
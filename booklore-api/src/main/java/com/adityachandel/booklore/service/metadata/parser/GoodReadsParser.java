@@ -6,23 +6,32 @@ import com.adityachandel.booklore.model.dto.BookReview;
 import com.adityachandel.booklore.model.dto.request.FetchMetadataRequest;
 import com.adityachandel.booklore.model.enums.MetadataProvider;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.http.OutboundHttpClient;
+import com.adityachandel.booklore.service.http.OutboundResponse;
+import com.adityachandel.booklore.service.metadata.cache.MetadataResponseCache;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderRateLimiter;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderUnavailableException;
 import com.adityachandel.booklore.util.BookUtils;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.text.similarity.FuzzyScore;
-import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
-import org.springframework.boot.configurationprocessor.json.JSONArray;
-import org.springframework.boot.configurationprocessor.json.JSONObject;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpRequest;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -38,7 +47,12 @@ public class GoodReadsParser implements BookParser {
     private static final String BASE_SEARCH_URL = "https://www.goodreads.com/search?q=";
     private static final String BASE_BOOK_URL = "https://www.goodreads.com/book/show/";
     private static final int COUNT_DETAILED_METADATA_TO_GET = 3;
+    private static final JavaType METADATA_TYPE = TypeFactory.defaultInstance().constructType(BookMetadata.class);
     private final AppSettingService appSettingService;
+    private final MetadataResponseCache metadataResponseCache;
+    private final ProviderRateLimiter providerRateLimiter;
+    private final OutboundHttpClient outboundHttpClient;
+    private final ObjectMapper objectMapper;
 
     @Override
     public BookMetadata fetchTopMetadata(Book book, FetchMetadataRequest fetchMetadataRequest) {
@@ -63,12 +77,11 @@ public class GoodReadsParser implements BookParser {
         for (BookMetadata preview : previews) {
             log.info("GoodReads: Fetching metadata for: {}", preview.getTitle());
             try {
-                Document document = fetchDoc(BASE_BOOK_URL + preview.getGoodreadsId());
-                BookMetadata detailedMetadata = parseBookDetails(document, preview.getGoodreadsId());
+                BookMetadata detailedMetadata = metadataResponseCache.get(MetadataProvider.GoodReads, "detail|" + preview.getGoodreadsId(), METADATA_TYPE,
+                        () -> parseBookDetails(fetchPage(BASE_BOOK_URL + preview.getGoodreadsId()), preview.getGoodreadsId()));
                 if (detailedMetadata != null) {
                     fetchedMetadata.add(detailedMetadata);
                 }
-                Thread.sleep(Duration.ofSeconds(1));
             } catch (Exception e) {
                 log.error("Error fetching metadata for book: {}", preview.getGoodreadsId(), e);
             }
@@ -76,23 +89,22 @@ public class GoodReadsParser implements BookParser {
         return fetchedMetadata;
     }
 
-    private BookMetadata parseBookDetails(Document document, String goodreadsId) {
+    BookMetadata parseBookDetails(String html, String goodreadsId) {
         BookMetadata.BookMetadataBuilder builder = BookMetadata.builder()
                 .goodreadsId(goodreadsId)
                 .provider(MetadataProvider.GoodReads);
 
         try {
-            JSONObject apolloStateJson = getJson(document)
-                    .getJSONObject("props")
-                    .getJSONObject("pageProps")
-                    .getJSONObject("apolloState");
-
-            LinkedHashSet<String> keySet = getJsonKeys(apolloStateJson);
+            ApolloState apolloState = readApolloState(html);
+            if (apolloState == null) {
+                log.warn("No apolloState found for providerBookId: {}", goodreadsId);
+                return null;
+            }
 
-            extractContributorDetails(apolloStateJson, keySet, builder);
-            extractSeriesDetails(apolloStateJson, keySet, builder);
-            extractBookDetails(apolloStateJson, keySet, builder);
-            extractWorkDetails(apolloStateJson, keySet, builder);
+            extractContributorDetails(apolloState, builder);
+            extractSeriesDetails(apolloState, builder);
+            extractBookDetails(apolloState, builder);
+            extractWorkDetails(apolloState, builder);
 
             appSettingService.getAppSettings()
                     .getMetadataPublicReviewsSettings()
@@ -100,7 +112,7 @@ public class GoodReadsParser implements BookParser {
                     .stream()
                     .filter(cfg -> cfg.getProvider() == MetadataProvider.GoodReads && cfg.isEnabled())
                     .findFirst()
-                    .ifPresent(cfg -> extractReviews(apolloStateJson, keySet, builder, cfg.getMaxReviews()));
+                    .ifPresent(cfg -> extractReviews(apolloState, builder, cfg.getMaxReviews()));
 
         } catch (Exception e) {
             log.error("Error parsing book details for providerBookId: {}", goodreadsId, e);
@@ -110,18 +122,89 @@ public class GoodReadsParser implements BookParser {
         return builder.build();
     }
 
-    private void extractContributorDetails(JSONObject apolloStateJson, LinkedHashSet<String> keySet, BookMetadata.BookMetadataBuilder builder) {
-        String contributorKey = findKeyByPrefix(keySet, "Contributor:kca");
-        if (contributorKey != null) {
-            String contributorName = getContributorName(apolloStateJson, contributorKey);
-            if (contributorName != null) {
-                builder.authors(Set.of(contributorName));
+    /**
+     * Reads {@code props.pageProps.apolloState} out of the page's {@code __NEXT_DATA__} script. Only that script is cut
+     * out of the page, and everything in it besides apolloState is skipped by the streaming parser.
+     */
+    ApolloState readApolloState(String html) throws IOException {
+        String json = HtmlSectionExtractor.extractScript(html, "__NEXT_DATA__");
+        if (json == null) {
+            log.warn("No JSON script element found!");
+            return null;
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (!moveToField(parser, "props") || !moveToField(parser, "pageProps") || !moveToField(parser, "apolloState")) {
+                return null;
             }
+            JsonNode state = objectMapper.readTree(parser);
+            return state != null && state.isObject() ? new ApolloState(state) : null;
+        }
+    }
+
+    /**
+     * Advances the parser into the value of the named field of the current object, skipping the other fields.
+     */
+    private static boolean moveToField(JsonParser parser, String field) throws IOException {
+        if (parser.currentToken() == null) {
+            parser.nextToken();
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals(name)) {
+                return value == JsonToken.START_OBJECT;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * The normalized Apollo cache of a book page, with its keys grouped by entity type ({@code Book}, {@code Work},
+     * {@code Review}, ...) once instead of scanning all keys for every lookup.
+     */
+    static final class ApolloState {
+        private final JsonNode state;
+        private final Map<String, List<String>> keysByType = new HashMap<>();
+
+        ApolloState(JsonNode state) {
+            this.state = state;
+            Iterator<String> keys = state.fieldNames();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                int separator = key.indexOf(":kca:");
+                if (separator > 0) {
+                    keysByType.computeIfAbsent(key.substring(0, separator), type -> new ArrayList<>()).add(key);
+                }
+            }
+        }
+
+        List<String> keys(String type) {
+            return keysByType.getOrDefault(type, List.of());
+        }
+
+        JsonNode first(String type) {
+            List<String> keys = keys(type);
+            return keys.isEmpty() ? null : state.get(keys.getFirst());
+        }
+
+        JsonNode get(String key) {
+            return key != null ? state.get(key) : null;
         }
     }
 
-    private void extractReviews(JSONObject apolloStateJson, LinkedHashSet<String> keySet, BookMetadata.BookMetadataBuilder builder, int maxReviews) {
-        List<String> allReviewKeys = findKeysByPrefixAll(keySet, "Review:kca");
+    private void extractContributorDetails(ApolloState apolloState, BookMetadata.BookMetadataBuilder builder) {
+        String contributorName = text(apolloState.first("Contributor"), "name");
+        if (contributorName != null) {
+            builder.authors(Set.of(contributorName));
+        }
+    }
+
+    private void extractReviews(ApolloState apolloState, BookMetadata.BookMetadataBuilder builder, int maxReviews) {
+        List<String> allReviewKeys = apolloState.keys("Review");
         List<BookReview> reviews = new ArrayList<>();
 
         int count = 0;
@@ -131,20 +214,19 @@ public class GoodReadsParser implements BookParser {
             String reviewKey = allReviewKeys.get(index);
             index++;
             try {
-                JSONObject reviewJson = apolloStateJson.getJSONObject(reviewKey);
-                String creatorRef = reviewJson.getJSONObject("creator").getString("__ref");
-                JSONObject userJson = apolloStateJson.optJSONObject(creatorRef);
+                JsonNode reviewJson = apolloState.get(reviewKey);
+                JsonNode userJson = apolloState.get(text(reviewJson.path("creator"), "__ref"));
 
                 String reviewerName = null;
                 Integer followersCount = null;
                 Integer textReviewsCount = null;
                 if (userJson != null) {
-                    reviewerName = userJson.optString("name", null);
-                    followersCount = userJson.has("followersCount") ? userJson.optInt("followersCount") : null;
-                    textReviewsCount = userJson.has("textReviewsCount") ? userJson.optInt("textReviewsCount") : null;
+                    reviewerName = text(userJson, "name");
+                    followersCount = userJson.has("followersCount") ? userJson.path("followersCount").asInt() : null;
+                    textReviewsCount = userJson.has("textReviewsCount") ? userJson.path("textReviewsCount").asInt() : null;
                 }
 
-                String rawBody = reviewJson.optString("text", null);
+                String rawBody = text(reviewJson, "text");
                 String plainBody = rawBody != null ? Jsoup.parse(rawBody).text() : null;
 
                 if (plainBody == null || plainBody.trim().isEmpty()) {
@@ -153,10 +235,10 @@ public class GoodReadsParser implements BookParser {
 
                 BookReview review = BookReview.builder()
                         .metadataProvider(MetadataProvider.GoodReads)
-                        .date(parseEpochMillis(String.valueOf(reviewJson.getLong("updatedAt"))))
+                        .date(parseEpochMillis(text(reviewJson, "updatedAt")))
                         .body(plainBody.trim())
-                        .rating(Float.valueOf(reviewJson.optString("rating", null)))
-                        .spoiler(reviewJson.optBoolean("spoilerStatus", false))
+                        .rating(Float.valueOf(text(reviewJson, "rating")))
+                        .spoiler(reviewJson.path("spoilerStatus").asBoolean(false))
                         .reviewerName(reviewerName != null ? reviewerName.trim() : null)
                         .followersCount(followersCount)
                         .textReviewsCount(textReviewsCount)
@@ -181,70 +263,49 @@ public class GoodReadsParser implements BookParser {
         }
     }
 
-    private List<String> findKeysByPrefixAll(LinkedHashSet<String> keySet, String prefix) {
-        List<String> matchingKeys = new ArrayList<>();
-        for (String key : keySet) {
-            if (key.startsWith(prefix)) {
-                matchingKeys.add(key);
-            }
+    private void extractSeriesDetails(ApolloState apolloState, BookMetadata.BookMetadataBuilder builder) {
+        String seriesName = text(apolloState.first("Series"), "title");
+        if (seriesName != null) {
+            builder.seriesName(seriesName);
         }
-        return matchingKeys;
     }
 
-    private void extractSeriesDetails(JSONObject apolloStateJson, LinkedHashSet<String> keySet, BookMetadata.BookMetadataBuilder builder) {
-        String seriesKey = findKeyByPrefix(keySet, "Series:kca");
-        if (seriesKey != null) {
-            String seriesName = getSeriesName(apolloStateJson, seriesKey);
-            if (seriesName != null) {
-                builder.seriesName(seriesName);
-            }
-        }
-    }
-
-    private void extractBookDetails(JSONObject apolloStateJson, LinkedHashSet<String> keySet, BookMetadata.BookMetadataBuilder builder) {
-        JSONObject bookJson = getValidBookJson(apolloStateJson, keySet, "Book:kca:");
+    private void extractBookDetails(ApolloState apolloState, BookMetadata.BookMetadataBuilder builder) {
+        JsonNode bookJson = getValidBookJson(apolloState);
         if (bookJson != null) {
-            builder.title(handleStringNull(bookJson.optString("title")))
-                    .description(handleStringNull(bookJson.optString("description")))
-                    .thumbnailUrl(handleStringNull(bookJson.optString("imageUrl")))
+            builder.title(text(bookJson, "title"))
+                    .description(text(bookJson, "description"))
+                    .thumbnailUrl(text(bookJson, "imageUrl"))
                     .categories(extractGenres(bookJson));
 
-            JSONObject detailsJson = bookJson.optJSONObject("details");
-            if (detailsJson != null) {
-                builder.pageCount(parseInteger(detailsJson.optString("numPages")))
-                        .publishedDate(convertToLocalDate(detailsJson.optString("publicationTime")))
-                        .publisher(handleStringNull(detailsJson.optString("publisher")))
-                        .isbn10(handleStringNull(detailsJson.optString("isbn")))
-                        .isbn13(handleStringNull(detailsJson.optString("isbn13")));
-
-                JSONObject languageJson = detailsJson.optJSONObject("language");
-                if (languageJson != null) {
-                    builder.language(handleStringNull(languageJson.optString("name")));
+            JsonNode detailsJson = bookJson.get("details");
+            if (detailsJson != null && detailsJson.isObject()) {
+                builder.pageCount(parseInteger(text(detailsJson, "numPages")))
+                        .publishedDate(convertToLocalDate(text(detailsJson, "publicationTime")))
+                        .publisher(text(detailsJson, "publisher"))
+                        .isbn10(text(detailsJson, "isbn"))
+                        .isbn13(text(detailsJson, "isbn13"));
+
+                JsonNode languageJson = detailsJson.get("language");
+                if (languageJson != null && languageJson.isObject()) {
+                    builder.language(text(languageJson, "name"));
                 }
             }
 
-            JSONArray bookSeriesJson = bookJson.optJSONArray("bookSeries");
-            if (bookSeriesJson != null && bookSeriesJson.length() > 0) {
-                JSONObject firstElement = bookSeriesJson.optJSONObject(0);
-                if (firstElement != null) {
-                    builder.seriesNumber(parseFloat(firstElement.optString("userPosition")));
-                }
+            JsonNode bookSeriesJson = bookJson.get("bookSeries");
+            if (bookSeriesJson != null && bookSeriesJson.isArray() && !bookSeriesJson.isEmpty()) {
+                builder.seriesNumber(parseFloat(text(bookSeriesJson.get(0), "userPosition")));
             }
         }
     }
 
-    private void extractWorkDetails(JSONObject apolloStateJson, LinkedHashSet<String> keySet, BookMetadata.BookMetadataBuilder builder) {
-        String workKey = findKeyByPrefix(keySet, "Work:kca:");
-        if (workKey != null) {
-            JSONObject workJson = apolloStateJson.optJSONObject(workKey);
-            if (workJson != null) {
-                JSONObject statsJson = workJson.optJSONObject("stats");
-                if (statsJson != null) {
-                    builder.goodreadsRating(parseDouble(statsJson.optString("averageRating")))
-                            .goodreadsReviewCount(parseInteger(statsJson.optString("ratingsCount")));
-                }
-
-                JSONObject detailsJson = workJson.optJSONObject("details");
+    private void extractWorkDetails(ApolloState apolloState, BookMetadata.BookMetadataBuilder builder) {
+        JsonNode workJson = apolloState.first("Work");
+        if (workJson != null) {
+            JsonNode statsJson = workJson.get("stats");
+            if (statsJson != null && statsJson.isObject()) {
+                builder.goodreadsRating(parseDouble(text(statsJson, "averageRating")))
+                        .goodreadsReviewCount(parseInteger(text(statsJson, "ratingsCount")));
             }
         }
     }
@@ -276,85 +337,39 @@ public class GoodReadsParser implements BookParser {
         }
     }
 
-    private String handleStringNull(String s) {
-        if (s != null && s.equals("null")) {
-            return null;
-        }
-        return s;
-    }
-
-    private LinkedHashSet<String> getJsonKeys(JSONObject apolloStateJson) {
-        LinkedHashSet<String> keySet = new LinkedHashSet<>();
-        Iterator<String> keys = apolloStateJson.keys();
-        while (keys.hasNext()) {
-            keySet.add(keys.next());
-        }
-        return keySet;
+    /**
+     * Returns a field as text, or null when the node or field is missing or JSON null.
+     */
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node != null ? node.get(field) : null;
+        return value != null && !value.isNull() && !value.isContainerNode() ? value.asText() : null;
     }
 
-    private JSONObject getValidBookJson(JSONObject apolloStateJson, LinkedHashSet<String> keySet, String prefix) {
-        try {
-            for (String key : keySet) {
-                if (key.contains(prefix)) {
-                    JSONObject bookJson = apolloStateJson.getJSONObject(key);
-                    String string = bookJson.optString("title");
-                    if (string != null && !string.isEmpty()) {
-                        return bookJson;
-                    }
-                }
+    private JsonNode getValidBookJson(ApolloState apolloState) {
+        for (String key : apolloState.keys("Book")) {
+            JsonNode bookJson = apolloState.get(key);
+            String title = text(bookJson, "title");
+            if (title != null && !title.isEmpty()) {
+                return bookJson;
             }
-        } catch (Exception e) {
-            log.error("Error finding getValidBookJson: {}", e.getMessage());
         }
         return null;
     }
 
-    private String findKeyByPrefix(LinkedHashSet<String> keySet, String prefix) {
-        for (String key : keySet) {
-            if (key.contains(prefix)) {
-                return key;
-            }
-        }
-        return null;
-    }
-
-    private String getSeriesName(JSONObject apolloStateJson, String seriesKey) {
-        try {
-            if (seriesKey != null) {
-                JSONObject seriesJson = apolloStateJson.getJSONObject(seriesKey);
-                return seriesJson.getString("title");
-            }
-        } catch (Exception e) {
-            log.warn("Error fetching series name: {}, Error: {}", seriesKey, e.getMessage());
-        }
-        return null;
-    }
-
-    private String getContributorName(JSONObject apolloStateJson, String contributorKey) {
-        try {
-            if (contributorKey != null) {
-                JSONObject contributorJson = apolloStateJson.getJSONObject(contributorKey);
-                return contributorJson.getString("name");
-            }
-        } catch (Exception e) {
-            log.error("Error fetching contributor name: {}, Error: {}", contributorKey, e.getMessage());
+    private Set<String> extractGenres(JsonNode bookJson) {
+        JsonNode bookGenres = bookJson.get("bookGenres");
+        if (bookGenres == null || !bookGenres.isArray()) {
+            log.error("Error extracting genres from book: {}", text(bookJson, "title"));
+            return null;
         }
-        return null;
-    }
-
-    private Set<String> extractGenres(JSONObject bookJson) {
-        try {
-            Set<String> genres = new HashSet<>();
-            JSONArray bookGenresJsonArray = bookJson.getJSONArray("bookGenres");
-            for (int i = 0; i < bookGenresJsonArray.length(); i++) {
-                JSONObject genreJson = bookGenresJsonArray.getJSONObject(i).getJSONObject("genre");
-                genres.add(genreJson.getString("name"));
+        Set<String> genres = new HashSet<>();
+        for (JsonNode bookGenre : bookGenres) {
+            String name = text(bookGenre.path("genre"), "name");
+            if (name != null) {
+                genres.add(name);
             }
-            return genres;
-        } catch (Exception e) {
-            log.error("Error extracting genres from book: {}, Error: {}", bookJson, e.getMessage());
         }
-        return null;
+        return genres;
     }
 
     private LocalDate convertToLocalDate(String timestamp) {
@@ -369,22 +384,6 @@ public class GoodReadsParser implements BookParser {
         }
     }
 
-    public JSONObject getJson(Element document) {
-        try {
-            Element scriptElement = document.getElementById("__NEXT_DATA__");
-
-            if (scriptElement != null) {
-                String jsonString = scriptElement.html();
-                return new JSONObject(jsonString);
-            } else {
-                log.warn("No JSON script element found!");
-            }
-        } catch (Exception e) {
-            log.error("No JSON script element found!", e);
-        }
-        return null;
-    }
-
     public String generateSearchUrl(String searchTerm) {
         String encodedSearchTerm = URLEncoder.encode(searchTerm, StandardCharsets.UTF_8);
         return BASE_SEARCH_URL + encodedSearchTerm;
@@ -396,36 +395,7 @@ public class GoodReadsParser implements BookParser {
             log.info("GoodReads: Fetching metadata previews for: {}", searchTerm);
             try {
                 String searchUrl = generateSearchUrl(searchTerm);
-                Elements previewBooks = fetchDoc(searchUrl).select("table.tableList").first().select("tr[itemtype=http://schema.org/Book]");
-                List<BookMetadata> metadataPreviews = new ArrayList<>();
-                FuzzyScore fuzzyScore = new FuzzyScore(Locale.ENGLISH);
-                String queryAuthor = request.getAuthor();
-                for (Element previewBook : previewBooks) {
-                    Set<String> authors = extractAuthorsPreview(previewBook);
-                    if (queryAuthor != null && !queryAuthor.isBlank()) {
-                        List<String> queryAuthorTokens = List.of(queryAuthor.toLowerCase().split("\\s+"));
-                        boolean matches = authors.stream().flatMap(a -> Arrays.stream(a.toLowerCase().split("\\s+"))).anyMatch(actual -> {
-                            for (String query : queryAuthorTokens) {
-                                int score = fuzzyScore.fuzzyScore(actual, query);
-                                int maxScore = Math.max(fuzzyScore.fuzzyScore(query, query), fuzzyScore.fuzzyScore(actual, actual));
-                                double similarity = maxScore > 0 ? (double) score / maxScore : 0;
-                                if (similarity >= 0.5) return true;
-                            }
-                            return false;
-                        });
-                        if (!matches) {
-                            continue;
-                        }
-                    }
-                    BookMetadata previewMetadata = BookMetadata.builder()
-                            .goodreadsId(String.valueOf(extractGoodReadsIdPreview(previewBook)))
-                            .title(extractTitlePreview(previewBook))
-                            .authors(authors)
-                            .build();
-                    metadataPreviews.add(previewMetadata);
-                }
-                Thread.sleep(Duration.ofSeconds(1));
-                return metadataPreviews;
+                return parseSearchResults(fetchPage(searchUrl), request.getAuthor());
             } catch (Exception e) {
                 log.error("Error fetching metadata previews: {}", e.getMessage());
                 return Collections.emptyList();
@@ -435,6 +405,43 @@ public class GoodReadsParser implements BookParser {
         return Collections.emptyList();
     }
 
+    /**
+     * Reads the previews from a search page. Only the result table is parsed; the rest of the page is never turned
+     * into a DOM unless the table can't be cut out on its own.
+     */
+    List<BookMetadata> parseSearchResults(String html, String queryAuthor) {
+        String resultTable = HtmlSectionExtractor.extract(html, "class=\"tableList\"");
+        Element root = resultTable != null ? Jsoup.parseBodyFragment(resultTable) : Jsoup.parse(html);
+        Elements previewBooks = root.select("table.tableList").first().select("tr[itemtype=http://schema.org/Book]");
+        List<BookMetadata> metadataPreviews = new ArrayList<>();
+        FuzzyScore fuzzyScore = new FuzzyScore(Locale.ENGLISH);
+        for (Element previewBook : previewBooks) {
+            Set<String> authors = extractAuthorsPreview(previewBook);
+            if (queryAuthor != null && !queryAuthor.isBlank()) {
+                List<String> queryAuthorTokens = List.of(queryAuthor.toLowerCase().split("\\s+"));
+                boolean matches = authors.stream().flatMap(a -> Arrays.stream(a.toLowerCase().split("\\s+"))).anyMatch(actual -> {
+                    for (String query : queryAuthorTokens) {
+                        int score = fuzzyScore.fuzzyScore(actual, query);
+                        int maxScore = Math.max(fuzzyScore.fuzzyScore(query, query), fuzzyScore.fuzzyScore(actual, actual));
+                        double similarity = maxScore > 0 ? (double) score / maxScore : 0;
+                        if (similarity >= 0.5) return true;
+                    }
+                    return false;
+                });
+                if (!matches) {
+                    continue;
+                }
+            }
+            BookMetadata previewMetadata = BookMetadata.builder()
+                    .goodreadsId(String.valueOf(extractGoodReadsIdPreview(previewBook)))
+                    .title(extractTitlePreview(previewBook))
+                    .authors(authors)
+                    .build();
+            metadataPreviews.add(previewMetadata);
+        }
+        return metadataPreviews;
+    }
+
     private String getSearchTerm(Book book, FetchMetadataRequest request) {
         return (request.getTitle() != null && !request.getTitle().isEmpty())
                 ? request.getTitle()
@@ -482,9 +489,9 @@ public class GoodReadsParser implements BookParser {
         }
     }
 
-    private Document fetchDoc(String url) {
+    private String fetchPage(String url) {
         try {
-            Connection.Response response = Jsoup.connect(url)
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
                     .header("accept", "text/html, application/json")
                     .header("accept-language", "en-US,en;q=0.9")
                     .header("content-type", "application/json")
@@ -508,12 +515,22 @@ public class GoodReadsParser implements BookParser {
                     .header("viewport-width", "1170")
                     .header("x-amz-amabot-click-attributes", "disable")
                     .header("x-requested-with", "XMLHttpRequest")
-                    .method(Connection.Method.GET)
-                    .execute();
-            return response.parse();
+                    .GET();
+            OutboundResponse response = providerRateLimiter.execute(MetadataProvider.GoodReads,
+                    () -> outboundHttpClient.send(MetadataProvider.GoodReads.name(), request.build()), OutboundResponse::statusCode);
+            if (!response.isSuccessful()) {
+                throw new HttpStatusException("HTTP error fetching URL", response.statusCode(), url);
+            }
+            return response.bodyAsString();
+        } catch (ProviderUnavailableException e) {
+            log.debug("Skipping {}: {}", url, e.getMessage());
+            throw new RuntimeException(e);
         } catch (IOException e) {
             log.error("Error parsing url: {}", url, e);
             throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
         }
     }
 }
\ No newline at end of file
@@ -5,6 +5,10 @@ import com.adityachandel.booklore.model.dto.BookMetadata;
 import com.adityachandel.booklore.model.dto.response.GoogleBooksApiResponse;
 import com.adityachandel.booklore.model.dto.request.FetchMetadataRequest;
 import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.service.http.OutboundHttpClient;
+import com.adityachandel.booklore.service.http.OutboundResponse;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderRateLimiter;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderUnavailableException;
 import com.adityachandel.booklore.util.BookUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -14,9 +18,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -31,6 +33,8 @@ import java.util.stream.Collectors;
 public class GoogleParser implements BookParser {
 
     private final ObjectMapper objectMapper;
+    private final ProviderRateLimiter providerRateLimiter;
+    private final OutboundHttpClient outboundHttpClient;
     private static final String GOOGLE_BOOKS_API_URL = "https://www.googleapis.com/books/v1/volumes";
 
     @Override
@@ -53,20 +57,23 @@ public class GoogleParser implements BookParser {
                     .build()
                     .toUri();
 
-            HttpClient client = HttpClient.newHttpClient();
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(uri)
                     .GET()
                     .build();
 
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            OutboundResponse response = providerRateLimiter.execute(MetadataProvider.Google,
+                    () -> outboundHttpClient.send(MetadataProvider.Google.name(), request), OutboundResponse::statusCode);
 
             if (response.statusCode() == 200) {
-                return parseGoogleBooksApiResponse(response.body());
+                return parseGoogleBooksApiResponse(response.bodyAsString());
             } else {
-                log.error("Failed to fetch metadata from Google Books API. Status: {}, Response: {}", response.statusCode(), response.body());
+                log.error("Failed to fetch metadata from Google Books API. Status: {}, Response: {}", response.statusCode(), response.bodyAsString());
                 return List.of();
             }
+        } catch (ProviderUnavailableException e) {
+            log.debug("Skipping Google Books lookup: {}", e.getMessage());
+            return List.of();
         } catch (IOException | InterruptedException e) {
             log.error("Error occurred while fetching metadata from Google Books API", e);
             return List.of();
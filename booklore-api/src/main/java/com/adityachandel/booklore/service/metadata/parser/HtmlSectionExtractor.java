@@ -0,0 +1,159 @@
+package com.adityachandel.booklore.service.metadata.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cuts single elements out of raw HTML without building a DOM for the whole page. Provider pages are mostly scripts,
+ * navigation and recommendations, so the parsers pick the few sections they read and hand only those to Jsoup.
+ * <p>
+ * An element is located by a marker inside its opening tag, e.g. {@code id="productTitle"}, and ends at the matching
+ * closing tag. Comments, scripts and styles inside it are skipped while matching.
+ */
+final class HtmlSectionExtractor {
+
+    private static final Set<String> VOID_TAGS = Set.of("area", "base", "br", "col", "embed", "hr", "img", "input", "link", "meta", "source", "track", "wbr");
+
+    private HtmlSectionExtractor() {
+    }
+
+    /**
+     * Returns the outer HTML of the first element whose opening tag contains the marker, or null.
+     */
+    static String extract(String html, String marker) {
+        int markerIndex = html.indexOf(marker);
+        if (markerIndex < 0) {
+            return null;
+        }
+        int[] bounds = elementBounds(html, markerIndex);
+        return bounds != null ? html.substring(bounds[0], bounds[1]) : null;
+    }
+
+    /**
+     * Returns the outer HTML of every element whose opening tag contains the marker, ignoring matches nested inside an
+     * element already returned.
+     */
+    static List<String> extractAll(String html, String marker) {
+        List<String> sections = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int markerIndex = html.indexOf(marker, from);
+            if (markerIndex < 0) {
+                return sections;
+            }
+            int[] bounds = elementBounds(html, markerIndex);
+            if (bounds == null) {
+                return sections;
+            }
+            sections.add(html.substring(bounds[0], bounds[1]));
+            from = bounds[1];
+        }
+    }
+
+    /**
+     * Returns the content of the script element with the given id, or null.
+     */
+    static String extractScript(String html, String id) {
+        int markerIndex = html.indexOf("id=\"" + id + "\"");
+        if (markerIndex < 0) {
+            return null;
+        }
+        int contentStart = html.indexOf('>', markerIndex);
+        if (contentStart < 0) {
+            return null;
+        }
+        int contentEnd = indexOfIgnoreCase(html, "</script", contentStart);
+        return contentEnd >= 0 ? html.substring(contentStart + 1, contentEnd) : null;
+    }
+
+    private static int[] elementBounds(String html, int markerIndex) {
+        int start = html.lastIndexOf('<', markerIndex);
+        if (start < 0) {
+            return null;
+        }
+        int nameEnd = start + 1;
+        while (nameEnd < html.length() && isTagNameChar(html.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        String tag = html.substring(start + 1, nameEnd).toLowerCase();
+        int openEnd = html.indexOf('>', markerIndex);
+        if (tag.isEmpty() || openEnd < 0) {
+            return null;
+        }
+        if (VOID_TAGS.contains(tag) || html.charAt(openEnd - 1) == '/') {
+            return new int[]{start, openEnd + 1};
+        }
+
+        int depth = 1;
+        int i = openEnd + 1;
+        while (true) {
+            int lt = html.indexOf('<', i);
+            if (lt < 0 || lt + 1 >= html.length()) {
+                return null;
+            }
+            if (html.startsWith("<!--", lt)) {
+                int commentEnd = html.indexOf("-->", lt + 4);
+                if (commentEnd < 0) {
+                    return null;
+                }
+                i = commentEnd + 3;
+                continue;
+            }
+            boolean closing = html.charAt(lt + 1) == '/';
+            int nameStart = closing ? lt + 2 : lt + 1;
+            if (!closing && !tag.equals("script") && !tag.equals("style")
+                    && (isTag(html, nameStart, "script") || isTag(html, nameStart, "style"))) {
+                String rawTag = isTag(html, nameStart, "script") ? "script" : "style";
+                int rawEnd = indexOfIgnoreCase(html, "</" + rawTag, nameStart);
+                if (rawEnd < 0) {
+                    return null;
+                }
+                i = rawEnd + 2;
+                continue;
+            }
+            if (!isTag(html, nameStart, tag)) {
+                i = lt + 1;
+                continue;
+            }
+            int gt = html.indexOf('>', nameStart);
+            if (gt < 0) {
+                return null;
+            }
+            if (closing) {
+                if (--depth == 0) {
+                    return new int[]{start, gt + 1};
+                }
+            } else if (html.charAt(gt - 1) != '/') {
+                depth++;
+            }
+            i = gt + 1;
+        }
+    }
+
+    private static boolean isTag(String html, int nameStart, String tag) {
+        int nameEnd = nameStart + tag.length();
+        if (nameEnd >= html.length() || !html.regionMatches(true, nameStart, tag, 0, tag.length())) {
+            return false;
+        }
+        return !isTagNameChar(html.charAt(nameEnd));
+    }
+
+    private static boolean isTagNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == ':';
+    }
+
+    /**
+     * Case-insensitive search for a needle starting with {@code <}, jumping between tag openings.
+     */
+    private static int indexOfIgnoreCase(String html, String needle, int from) {
+        int i = html.indexOf('<', from);
+        while (i >= 0) {
+            if (html.regionMatches(true, i, needle, 0, needle.length())) {
+                return i;
+            }
+            i = html.indexOf('<', i + 1);
+        }
+        return -1;
+    }
+}
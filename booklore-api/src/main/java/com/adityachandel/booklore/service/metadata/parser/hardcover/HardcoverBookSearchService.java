@@ -1,6 +1,9 @@
 package com.adityachandel.booklore.service.metadata.parser.hardcover;
 
+import com.adityachandel.booklore.model.enums.MetadataProvider;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.http.OutboundHttpClient;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderRateLimiter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -9,6 +12,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
@@ -18,12 +22,14 @@ public class HardcoverBookSearchService {
 
     private final RestClient restClient;
     private final AppSettingService appSettingService;
+    private final ProviderRateLimiter providerRateLimiter;
 
     @Autowired
-    public HardcoverBookSearchService(AppSettingService appSettingService) {
+    public HardcoverBookSearchService(AppSettingService appSettingService, ProviderRateLimiter providerRateLimiter, OutboundHttpClient outboundHttpClient) {
         this.appSettingService = appSettingService;
+        this.providerRateLimiter = providerRateLimiter;
         String apiUrl = "https://api.hardcover.app/v1/graphql";
-        this.restClient = RestClient.builder()
+        this.restClient = outboundHttpClient.restClientBuilder(MetadataProvider.Hardcover.name())
                 .baseUrl(apiUrl)
                 .build();
     }
@@ -53,13 +59,13 @@ public class HardcoverBookSearchService {
         body.setOperationName("SearchBooks");
 
         try {
-            GraphQLResponse response = restClient.post()
+            GraphQLResponse response = providerRateLimiter.execute(MetadataProvider.Hardcover, () -> restClient.post()
                     .uri("")
                     .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                     .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiToken)
                     .body(body)
                     .retrieve()
-                    .body(GraphQLResponse.class);
+                    .body(GraphQLResponse.class));
 
             if (response == null || response.getData() == null || response.getData().getSearch() == null || response.getData().getSearch().getResults() == null) {
                 log.warn("Empty or malformed response from Hardcover API");
@@ -68,9 +74,12 @@ public class HardcoverBookSearchService {
 
             return response.getData().getSearch().getResults().getHits();
 
-        } catch (RestClientException e) {
+        } catch (RestClientException | IOException e) {
             log.error("Failed to fetch data from Hardcover API, Error: {}", e.getMessage());
             return Collections.emptyList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyList();
         }
     }
 }
\ No newline at end of file
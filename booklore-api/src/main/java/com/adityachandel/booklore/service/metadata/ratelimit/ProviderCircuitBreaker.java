@@ -0,0 +1,188 @@
+package com.adityachandel.booklore.service.metadata.ratelimit;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops calling a metadata provider that keeps failing. After a number of consecutive failures (server errors,
+ * throttling that outlasted the retries, timeouts, connection errors) the provider's circuit opens and requests fail
+ * fast with {@link ProviderUnavailableException}. Once the open period is over a single probe request is let through;
+ * if it succeeds the circuit closes, otherwise it opens again for twice as long, up to a maximum.
+ */
+@Slf4j
+@Service
+public class ProviderCircuitBreaker {
+
+    public enum State {CLOSED, OPEN, HALF_OPEN}
+
+    private final AppProperties.MetadataCircuitBreaker settings;
+    private final Map<MetadataProvider, Circuit> circuits = new EnumMap<>(MetadataProvider.class);
+    // Healthy and unhealthy outcomes of requests made by the current thread, see snapshot()
+    private final ThreadLocal<long[]> threadOutcomes = ThreadLocal.withInitial(() -> new long[2]);
+
+    public ProviderCircuitBreaker(AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.settings = appProperties.getMetadataCircuitBreaker();
+        for (MetadataProvider provider : MetadataProvider.values()) {
+            Circuit circuit = new Circuit(Counter.builder("booklore.metadata.provider.circuit.rejected")
+                    .description("Requests not sent because the provider's circuit was open")
+                    .tag("provider", provider.name())
+                    .register(meterRegistry));
+            circuits.put(provider, circuit);
+            Gauge.builder("booklore.metadata.provider.circuit.state", circuit, c -> c.state().ordinal())
+                    .description("Provider circuit state: 0 closed, 1 open, 2 half open")
+                    .tag("provider", provider.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Lets the request through or throws if the circuit is open. Every permitted request has to be followed by
+     * {@link #record(MetadataProvider, Boolean)}.
+     */
+    public void acquire(MetadataProvider provider) throws ProviderUnavailableException {
+        Circuit circuit = circuits.get(provider);
+        long retryInMs = circuit.tryAcquire();
+        if (retryInMs > 0) {
+            circuit.rejected.increment();
+            threadOutcomes.get()[1]++;
+            throw new ProviderUnavailableException(provider, retryInMs);
+        }
+    }
+
+    /**
+     * Records the outcome of a permitted request. {@code null} means the request ended without telling anything about
+     * the provider's health, e.g. it was interrupted.
+     */
+    public void record(MetadataProvider provider, Boolean healthy) {
+        Circuit circuit = circuits.get(provider);
+        if (healthy == null) {
+            circuit.release();
+            return;
+        }
+        threadOutcomes.get()[healthy ? 0 : 1]++;
+        if (healthy) {
+            if (circuit.onSuccess()) {
+                log.info("{} is responding again, closing its circuit", provider);
+            }
+        } else {
+            long openMs = circuit.onFailure(settings);
+            if (openMs > 0) {
+                log.warn("{} failed repeatedly, skipping it for {} s", provider, openMs / 1000);
+            }
+        }
+    }
+
+    public State getState(MetadataProvider provider) {
+        return circuits.get(provider).state();
+    }
+
+    public List<MetadataProvider> getUnavailableProviders() {
+        return circuits.entrySet().stream()
+                .filter(e -> e.getValue().state() != State.CLOSED)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Captures the request outcomes of the current thread so far, to be passed to {@link #onlyHealthySince(Snapshot)}.
+     */
+    public Snapshot snapshot() {
+        long[] outcomes = threadOutcomes.get();
+        return new Snapshot(outcomes[0], outcomes[1]);
+    }
+
+    /**
+     * Whether the current thread made at least one request since the snapshot and none of them failed or was rejected,
+     * i.e. an empty result it got in between is a real answer from the provider.
+     */
+    public boolean onlyHealthySince(Snapshot snapshot) {
+        long[] outcomes = threadOutcomes.get();
+        return outcomes[0] > snapshot.healthy() && outcomes[1] == snapshot.unhealthy();
+    }
+
+    public long getRejectedCount(MetadataProvider provider) {
+        return (long) circuits.get(provider).rejected.count();
+    }
+
+    public record Snapshot(long healthy, long unhealthy) {
+    }
+
+    private static final class Circuit {
+        private final Counter rejected;
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openDurationMs;
+        private long openUntilNanos;
+        private boolean probeInFlight;
+
+        Circuit(Counter rejected) {
+            this.rejected = rejected;
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        /**
+         * Returns 0 if the request may go ahead, otherwise the milliseconds until the next probe.
+         */
+        synchronized long tryAcquire() {
+            if (state == State.CLOSED) {
+                return 0;
+            }
+            long remainingNanos = openUntilNanos - System.nanoTime();
+            if (state == State.OPEN && remainingNanos <= 0) {
+                state = State.HALF_OPEN;
+            }
+            if (state == State.HALF_OPEN && !probeInFlight) {
+                probeInFlight = true;
+                return 0;
+            }
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+        }
+
+        synchronized void release() {
+            probeInFlight = false;
+        }
+
+        /**
+         * Returns true if this closed an open circuit.
+         */
+        synchronized boolean onSuccess() {
+            boolean reopened = state != State.CLOSED;
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            openDurationMs = 0;
+            probeInFlight = false;
+            return reopened;
+        }
+
+        /**
+         * Returns how long the circuit was opened for, or 0 if it stays as it is.
+         */
+        synchronized long onFailure(AppProperties.MetadataCircuitBreaker settings) {
+            consecutiveFailures++;
+            boolean probeFailed = state == State.HALF_OPEN && probeInFlight;
+            probeInFlight = false;
+            if (state == State.OPEN || (!probeFailed && consecutiveFailures < Math.max(1, settings.getFailureThreshold()))) {
+                return 0;
+            }
+            openDurationMs = probeFailed
+                    ? Math.min(settings.getMaxOpenDuration().toMillis(), openDurationMs * 2)
+                    : settings.getOpenDuration().toMillis();
+            state = State.OPEN;
+            openUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+            return openDurationMs;
+        }
+    }
+}
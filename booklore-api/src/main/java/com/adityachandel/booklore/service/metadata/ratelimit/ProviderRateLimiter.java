@@ -0,0 +1,272 @@
+package com.adityachandel.booklore.service.metadata.ratelimit;
+
+import com.adityachandel.booklore.model.dto.settings.MetadataProviderSettings;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.http.OutboundResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.HttpStatusException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Paces requests to metadata providers. Every provider gets a token bucket (sustained rate plus burst) and a limit on
+ * concurrent requests, both configurable in {@link MetadataProviderSettings}. Requests to different providers never
+ * wait on each other.
+ * <p>
+ * When a provider answers 429 or 503 it is paused for a while, respecting Retry-After if present, and its rate is
+ * halved; the request is retried a couple of times. The rate recovers gradually as requests succeed again.
+ * <p>
+ * Each request's outcome is reported to the {@link ProviderCircuitBreaker}, which stops sending requests to a
+ * provider that keeps failing.
+ */
+@Slf4j
+@Service
+public class ProviderRateLimiter {
+
+    private static final int MAX_RETRIES = 2;
+    private static final long INITIAL_BACKOFF_MS = 2000;
+    private static final long MAX_BACKOFF_MS = 60000;
+    private static final double MIN_RATE_FACTOR = 0.1;
+
+    private final AppSettingService appSettingService;
+    private final MeterRegistry meterRegistry;
+    private final ProviderCircuitBreaker circuitBreaker;
+    private final Map<MetadataProvider, ProviderState> states = new EnumMap<>(MetadataProvider.class);
+
+    public ProviderRateLimiter(AppSettingService appSettingService, MeterRegistry meterRegistry, ProviderCircuitBreaker circuitBreaker) {
+        this.appSettingService = appSettingService;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = circuitBreaker;
+        for (MetadataProvider provider : MetadataProvider.values()) {
+            states.put(provider, new ProviderState());
+        }
+    }
+
+    @FunctionalInterface
+    public interface ProviderCall<T> {
+        T call() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Runs a request whose failures surface as exceptions, e.g. Jsoup or RestClient.
+     */
+    public <T> T execute(MetadataProvider provider, ProviderCall<T> call) throws IOException, InterruptedException {
+        return execute(provider, call, result -> 200);
+    }
+
+    /**
+     * Runs a request whose HTTP status is part of the result, e.g. {@link OutboundResponse#statusCode()}.
+     * A throttled response is returned as is once the retries are used up.
+     */
+    public <T> T execute(MetadataProvider provider, ProviderCall<T> call, ToIntFunction<T> statusOf) throws IOException, InterruptedException {
+        circuitBreaker.acquire(provider);
+        Boolean healthy = null;
+        try {
+            T result = executeWithRetries(provider, call, statusOf);
+            healthy = isHealthy(statusOf.applyAsInt(result));
+            return result;
+        } catch (IOException | RuntimeException e) {
+            healthy = isHealthy(statusOf(e));
+            throw e;
+        } finally {
+            circuitBreaker.record(provider, healthy);
+        }
+    }
+
+    private <T> T executeWithRetries(MetadataProvider provider, ProviderCall<T> call, ToIntFunction<T> statusOf) throws IOException, InterruptedException {
+        ProviderState state = states.get(provider);
+        MetadataProviderSettings.RateLimit limit = currentLimit(provider);
+        for (int attempt = 0; ; attempt++) {
+            Semaphore permit = state.acquire(limit);
+            T result;
+            try {
+                result = call.call();
+            } catch (IOException | RuntimeException e) {
+                int status = statusOf(e);
+                if (isThrottled(status) && attempt < MAX_RETRIES) {
+                    onThrottled(provider, state, status, null);
+                    continue;
+                }
+                if (isThrottled(status)) {
+                    onThrottled(provider, state, status, null);
+                }
+                throw e;
+            } finally {
+                permit.release();
+            }
+            int status = statusOf.applyAsInt(result);
+            if (isThrottled(status)) {
+                onThrottled(provider, state, status, retryAfterMs(result));
+                if (attempt < MAX_RETRIES) {
+                    continue;
+                }
+            } else {
+                state.onSuccess();
+            }
+            return result;
+        }
+    }
+
+    public double getEffectiveRate(MetadataProvider provider) {
+        MetadataProviderSettings.RateLimit limit = currentLimit(provider);
+        return limit.getRequestsPerSecond() * states.get(provider).rateFactor();
+    }
+
+    private void onThrottled(MetadataProvider provider, ProviderState state, int status, Long retryAfterMs) {
+        long backoffMs = state.onThrottled(retryAfterMs);
+        meterRegistry.counter("booklore.metadata.provider.throttled", "provider", provider.name()).increment();
+        log.warn("{} answered {}, pausing requests for {} ms and lowering the rate to {}%",
+                provider, status, backoffMs, Math.round(state.rateFactor() * 100));
+    }
+
+    private MetadataProviderSettings.RateLimit currentLimit(MetadataProvider provider) {
+        MetadataProviderSettings.RateLimit defaults = MetadataProviderSettings.RateLimit.defaultFor(provider);
+        MetadataProviderSettings.RateLimit configured = Optional.ofNullable(appSettingService.getAppSettings().getMetadataProviderSettings())
+                .map(MetadataProviderSettings::getRateLimits)
+                .map(limits -> limits.get(provider))
+                .orElse(null);
+        if (configured == null) {
+            return defaults;
+        }
+        return new MetadataProviderSettings.RateLimit(
+                positiveOr(configured.getRequestsPerSecond(), defaults.getRequestsPerSecond()),
+                positiveOr(configured.getBurst(), defaults.getBurst()),
+                positiveOr(configured.getMaxConcurrentRequests(), defaults.getMaxConcurrentRequests()));
+    }
+
+    private static <N extends Number> N positiveOr(N value, N fallback) {
+        return value != null && value.doubleValue() > 0 ? value : fallback;
+    }
+
+    /**
+     * Not found and other client errors mean the provider works; errors without a status are timeouts or connection
+     * failures.
+     */
+    private static boolean isHealthy(int status) {
+        return status != 0 && status < 500 && !isThrottled(status);
+    }
+
+    private static boolean isThrottled(int status) {
+        return status == 429 || status == 503;
+    }
+
+    private static int statusOf(Exception e) {
+        if (e instanceof HttpStatusException httpStatusException) {
+            return httpStatusException.getStatusCode();
+        }
+        if (e instanceof RestClientResponseException restClientException) {
+            return restClientException.getStatusCode().value();
+        }
+        return 0;
+    }
+
+    private static Long retryAfterMs(Object result) {
+        if (result instanceof OutboundResponse response) {
+            return response.headers().firstValue("Retry-After")
+                    .map(value -> {
+                        try {
+                            return TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+                        } catch (NumberFormatException e) {
+                            return null;
+                        }
+                    })
+                    .orElse(null);
+        }
+        return null;
+    }
+
+    private static final class ProviderState {
+        private Semaphore concurrency;
+        private int concurrencyLimit;
+        private double tokens = -1;
+        private long lastRefillNanos = System.nanoTime();
+        private long pausedUntilNanos = System.nanoTime();
+        private double rateFactor = 1.0;
+        private int consecutiveThrottles;
+
+        /**
+         * Waits for a concurrency slot and a token. Returns the semaphore the slot has to be released to.
+         */
+        Semaphore acquire(MetadataProviderSettings.RateLimit limit) throws InterruptedException {
+            Semaphore permit = concurrencyFor(limit.getMaxConcurrentRequests());
+            permit.acquire();
+            try {
+                while (true) {
+                    long waitNanos = tryTakeToken(limit.getRequestsPerSecond(), limit.getBurst());
+                    if (waitNanos <= 0) {
+                        return permit;
+                    }
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                }
+            } catch (InterruptedException e) {
+                permit.release();
+                throw e;
+            }
+        }
+
+        synchronized double rateFactor() {
+            return rateFactor;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveThrottles = 0;
+            rateFactor = Math.min(1.0, rateFactor * 1.1);
+        }
+
+        synchronized long onThrottled(Long retryAfterMs) {
+            consecutiveThrottles++;
+            rateFactor = Math.max(MIN_RATE_FACTOR, rateFactor / 2);
+            long backoffMs = Objects.requireNonNullElseGet(retryAfterMs,
+                    () -> Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << Math.min(consecutiveThrottles - 1, 5)));
+            backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs);
+            long pauseEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+            if (pauseEnd - pausedUntilNanos > 0) {
+                pausedUntilNanos = pauseEnd;
+            }
+            tokens = Math.min(tokens, 0);
+            return backoffMs;
+        }
+
+        private synchronized Semaphore concurrencyFor(int limit) {
+            if (concurrency == null || concurrencyLimit != limit) {
+                // Requests holding a permit of the previous semaphore release it there once they finish
+                concurrency = new Semaphore(limit, true);
+                concurrencyLimit = limit;
+            }
+            return concurrency;
+        }
+
+        /**
+         * Takes a token if one is available and returns 0, otherwise returns how long to wait before trying again.
+         */
+        private synchronized long tryTakeToken(double requestsPerSecond, int burst) {
+            long now = System.nanoTime();
+            if (pausedUntilNanos - now > 0) {
+                return pausedUntilNanos - now;
+            }
+            double rate = requestsPerSecond * rateFactor;
+            if (tokens < 0) {
+                tokens = burst;
+            } else {
+                tokens = Math.min(burst, tokens + (now - lastRefillNanos) / 1e9 * rate);
+            }
+            lastRefillNanos = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) ((1 - tokens) / rate * 1e9);
+        }
+    }
+}
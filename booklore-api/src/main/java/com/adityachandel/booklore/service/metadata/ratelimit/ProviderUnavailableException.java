@@ -0,0 +1,20 @@
+package com.adityachandel.booklore.service.metadata.ratelimit;
+
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request while the provider's circuit is open.
+ */
+@Getter
+public class ProviderUnavailableException extends IOException {
+
+    private final MetadataProvider provider;
+
+    public ProviderUnavailableException(MetadataProvider provider, long retryInMs) {
+        super(provider + " is unavailable after repeated failures, next attempt in " + Math.max(1, retryInMs / 1000) + " s");
+        this.provider = provider;
+    }
+}
@@ -0,0 +1,151 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import com.adityachandel.booklore.config.AppProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Holds back file CREATE/MODIFY events until the file has stopped changing.
+ * <p>
+ * Copying a large file into a watched folder produces one CREATE followed by a burst of MODIFY events while the data is
+ * still being written. Events are merged per path and the file is only handed on once its size and modification time
+ * have been unchanged for the configured quiet period; files that become stable in the same tick are released together.
+ */
+@Slf4j
+@Component
+public class FileEventCoalescer {
+
+    private final long quietPeriodMs;
+    private final Map<Path, PendingFile> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("file-event-coalescer").daemon().factory());
+
+    public FileEventCoalescer(AppProperties appProperties) {
+        this.quietPeriodMs = appProperties.getMonitoring().getQuietPeriodMs();
+    }
+
+    public void start(Consumer<List<FileChangeEvent>> sink) {
+        long tick = Math.max(250, Math.min(1000, quietPeriodMs / 2));
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                List<FileChangeEvent> stable = collectStableFiles();
+                if (!stable.isEmpty()) {
+                    log.debug("Releasing {} stable file(s) for processing", stable.size());
+                    sink.accept(stable);
+                }
+            } catch (Exception e) {
+                log.error("Error while coalescing file events", e);
+            }
+        }, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a CREATE or MODIFY event. A MODIFY for a path without a pending CREATE is ignored, matching the
+     * watcher's previous behaviour of not reprocessing files modified in place.
+     */
+    public void track(FileChangeEvent event) {
+        long now = System.currentTimeMillis();
+        if (event.getEventKind() == StandardWatchEventKinds.ENTRY_CREATE) {
+            pending.compute(event.getFilePath(), (path, existing) -> {
+                if (existing != null) {
+                    existing.lastEventAt = now;
+                    return existing;
+                }
+                return new PendingFile(event, now);
+            });
+        } else {
+            pending.computeIfPresent(event.getFilePath(), (path, existing) -> {
+                existing.lastEventAt = now;
+                return existing;
+            });
+        }
+    }
+
+    /**
+     * Drops a pending CREATE for the path. Returns true if the file had not been handed on yet.
+     */
+    public boolean cancel(Path path) {
+        return pending.remove(path) != null;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    List<FileChangeEvent> collectStableFiles() {
+        long now = System.currentTimeMillis();
+        List<PendingFile> ready = new ArrayList<>();
+        for (Map.Entry<Path, PendingFile> entry : pending.entrySet()) {
+            PendingFile file = entry.getValue();
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(entry.getKey(), BasicFileAttributes.class);
+                long size = attributes.size();
+                long modified = attributes.lastModifiedTime().toMillis();
+                if (size != file.size || modified != file.modified) {
+                    file.size = size;
+                    file.modified = modified;
+                    file.lastChangeAt = now;
+                } else if (now - Math.max(file.lastChangeAt, file.lastEventAt) >= quietPeriodMs) {
+                    ready.add(file);
+                }
+            } catch (NoSuchFileException e) {
+                pending.remove(entry.getKey(), file);
+            } catch (IOException e) {
+                log.debug("Unable to stat pending file {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        // An event that arrived since the scan restarts the quiet period, so the file is only released if it is still quiet
+        List<PendingFile> released = new ArrayList<>(ready.size());
+        for (PendingFile file : ready) {
+            pending.computeIfPresent(file.event.getFilePath(), (path, current) -> {
+                if (current != file || now - Math.max(current.lastChangeAt, current.lastEventAt) < quietPeriodMs) {
+                    return current;
+                }
+                released.add(current);
+                return null;
+            });
+        }
+        return released.stream()
+                .sorted(Comparator.comparingLong(file -> file.firstSeenAt))
+                .map(file -> file.event)
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private static class PendingFile {
+        private final FileChangeEvent event;
+        private final long firstSeenAt;
+        private volatile long lastEventAt;
+        private volatile long lastChangeAt;
+        private volatile long size = -1;
+        private volatile long modified = -1;
+
+        PendingFile(FileChangeEvent event, long now) {
+            this.event = event;
+            this.firstSeenAt = now;
+            this.lastEventAt = now;
+            this.lastChangeAt = now;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.adityachandel.booklore.service.monitoring;
 
+import com.adityachandel.booklore.config.AppProperties;
 import com.adityachandel.booklore.model.dto.Library;
 import com.adityachandel.booklore.model.enums.BookFileExtension;
 import com.adityachandel.booklore.service.watcher.LibraryFileEventProcessor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
@@ -11,9 +16,12 @@ import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -24,35 +32,61 @@ public class MonitoringService {
     private final LibraryFileEventProcessor libraryFileEventProcessor;
     private final WatchService watchService;
     private final MonitoringTask monitoringTask;
+    private final FileEventCoalescer fileEventCoalescer;
+    private final PollingWatcher pollingWatcher;
+    private final MeterRegistry meterRegistry;
 
-    private final BlockingQueue<FileChangeEvent> eventQueue = new LinkedBlockingQueue<>();
+    private final int eventQueueCapacity;
+    private final BlockingQueue<QueuedEvent> eventQueue;
     private final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+    private final ScheduledExecutorService rescanExecutor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("watcher-rescan").daemon().factory());
 
     private final Set<Path> monitoredPaths = ConcurrentHashMap.newKeySet();
     private final Map<Path, Long> pathToLibraryIdMap = new ConcurrentHashMap<>();
     private final Map<Long, Boolean> libraryWatchStatusMap = new ConcurrentHashMap<>();
     private final Map<Path, WatchKey> registeredWatchKeys = new ConcurrentHashMap<>();
     private final Map<Long, List<Path>> libraryIdToPaths = new ConcurrentHashMap<>();
+    private final Set<Path> touchedWhilePaused = ConcurrentHashMap.newKeySet();
+    private final Map<Path, FileChangeEvent> deferredFiles = new ConcurrentHashMap<>();
+    private final Map<Path, Integer> pausedPaths = new ConcurrentHashMap<>();
+    private final Set<Path> pendingRescans = ConcurrentHashMap.newKeySet();
+
+    private final long inotifyWatchLimit = readInotifyWatchLimit();
+    private volatile boolean watchLimitWarned = false;
+    private final AtomicLong lastEventLagMs = new AtomicLong();
+    private Counter overflowCounter;
+    private Counter saturationCounter;
+    private Timer eventLagTimer;
 
     private int pauseCount = 0;
     private final Object pauseLock = new Object();
 
-    public MonitoringService(LibraryFileEventProcessor libraryFileEventProcessor, WatchService watchService, MonitoringTask monitoringTask) {
+    public MonitoringService(LibraryFileEventProcessor libraryFileEventProcessor, WatchService watchService, MonitoringTask monitoringTask, FileEventCoalescer fileEventCoalescer, PollingWatcher pollingWatcher, AppProperties appProperties, MeterRegistry meterRegistry) {
         this.libraryFileEventProcessor = libraryFileEventProcessor;
         this.watchService = watchService;
         this.monitoringTask = monitoringTask;
+        this.fileEventCoalescer = fileEventCoalescer;
+        this.pollingWatcher = pollingWatcher;
+        this.meterRegistry = meterRegistry;
+        this.eventQueueCapacity = Math.max(1, appProperties.getMonitoring().getEventQueueCapacity());
+        this.eventQueue = new LinkedBlockingQueue<>(eventQueueCapacity);
     }
 
     @PostConstruct
     public void initializeMonitoring() {
+        registerMetrics();
         monitoringTask.monitor();
+        fileEventCoalescer.start(this::enqueueStableFiles);
         startProcessingThread();
+        rescanExecutor.scheduleWithFixedDelay(this::runPendingRescans, 1, 1, TimeUnit.SECONDS);
     }
 
     @PreDestroy
     public void stopMonitoring() {
         log.info("Shutting down monitoring service...");
         singleThreadExecutor.shutdownNow();
+        rescanExecutor.shutdownNow();
         try {
             watchService.close();
         } catch (IOException e) {
@@ -60,18 +94,14 @@ public class MonitoringService {
         }
     }
 
+    /**
+     * Suspends delivery of file events while the application itself changes library files (uploads, moves, bookdrop
+     * imports). Watch registrations stay alive; directory bookkeeping continues, file events are dropped and the
+     * directories they touched are reconciled on resume.
+     */
     public synchronized void pauseMonitoring() {
         pauseCount++;
-        if (pauseCount == 1) {
-            int count = 0;
-            for (Path path : new HashSet<>(monitoredPaths)) {
-                unregisterPath(path, false);
-                count++;
-            }
-            log.info("Monitoring paused ({} paths unregistered, pauseCount={})", count, pauseCount);
-        } else {
-            log.info("Monitoring pause requested (pauseCount={})", pauseCount);
-        }
+        log.info("Monitoring paused (pauseCount={})", pauseCount);
     }
 
     public synchronized void resumeMonitoring() {
@@ -82,34 +112,41 @@ public class MonitoringService {
 
         pauseCount--;
         if (pauseCount == 0) {
-            libraryIdToPaths.forEach((libraryId, rootPaths) -> {
-                for (Path rootPath : rootPaths) {
-                    if (Files.exists(rootPath)) {
-                        try (Stream<Path> stream = Files.walk(rootPath)) {
-                            stream.filter(Files::isDirectory).forEach(path -> {
-                                if (Files.exists(path)) {
-                                    registerPath(path, libraryId);
-                                }
-                            });
-                        } catch (IOException e) {
-                            log.warn("Failed to walk path during resume: {}", rootPath, e);
-                        }
-                    } else {
-                        log.debug("Skipping registration of non-existent path during resume: {}", rootPath);
-                    }
-                }
-            });
+            int reconciled = reconcileTouchedDirectories();
+            releaseDeferredFiles();
 
             synchronized (pauseLock) {
                 pauseLock.notifyAll();
             }
 
-            log.info("Monitoring resumed");
+            log.info("Monitoring resumed ({} directories reconciled)", reconciled);
         } else {
             log.info("Monitoring resume requested (pauseCount={}), monitoring still paused", pauseCount);
         }
     }
 
+    /**
+     * Like {@link #pauseMonitoring()}, but only for events under the given paths; the rest of the library keeps being
+     * watched. Calls are counted per path and must be matched by {@link #resumePaths(Collection)}.
+     */
+    public synchronized void pausePaths(Collection<Path> paths) {
+        paths.forEach(path -> pausedPaths.merge(path.toAbsolutePath().normalize(), 1, Integer::sum));
+        log.info("Monitoring paused for {}", paths);
+    }
+
+    public synchronized void resumePaths(Collection<Path> paths) {
+        paths.forEach(path -> pausedPaths.computeIfPresent(path.toAbsolutePath().normalize(), (p, count) -> count > 1 ? count - 1 : null));
+        if (!isPaused()) {
+            int reconciled = reconcileTouchedDirectories();
+            releaseDeferredFiles();
+            log.info("Monitoring resumed for {} ({} directories reconciled)", paths, reconciled);
+        }
+    }
+
+    private boolean isPathPaused(Path path) {
+        return !pausedPaths.isEmpty() && pausedPaths.keySet().stream().anyMatch(path::startsWith);
+    }
+
     public synchronized boolean isPaused() {
         return pauseCount > 0;
     }
@@ -118,9 +155,11 @@ public class MonitoringService {
         libraries.forEach(lib -> libraryWatchStatusMap.put(lib.getId(), lib.isWatch()));
         libraries.stream().filter(Library::isWatch).forEach(this::registerLibrary);
         log.info("Registered {} libraries for recursive monitoring", libraries.size());
+        checkWatchLimit();
     }
 
     public void registerLibrary(Library library) {
+        libraryFileEventProcessor.invalidateLibrary(library.getId());
         libraryWatchStatusMap.put(library.getId(), library.isWatch());
         if (!library.isWatch()) return;
 
@@ -129,7 +168,14 @@ public class MonitoringService {
 
         library.getPaths().forEach(libraryPath -> {
             Path rootPath = Paths.get(libraryPath.getPath());
-            if (Files.isDirectory(rootPath)) {
+            if (Files.isDirectory(rootPath) && pollingWatcher.shouldPoll(rootPath)) {
+                for (Path path : pollingWatcher.register(rootPath, library.getId())) {
+                    if (registerPath(path, library.getId())) {
+                        registeredCount[0]++;
+                        registeredPaths.add(path);
+                    }
+                }
+            } else if (Files.isDirectory(rootPath)) {
                 try (Stream<Path> pathStream = Files.walk(rootPath)) {
                     pathStream.filter(Files::isDirectory).forEach(path -> {
                         if (registerPath(path, library.getId())) {
@@ -145,6 +191,7 @@ public class MonitoringService {
 
         libraryIdToPaths.put(library.getId(), registeredPaths);
         log.info("Registered {} folders for library '{}'", registeredCount[0], library.getName());
+        checkWatchLimit();
     }
 
     public void unregisterLibrary(Long libraryId) {
@@ -157,8 +204,10 @@ public class MonitoringService {
             unregisterPath(path);
         }
 
+        pollingWatcher.unregisterLibrary(libraryId);
         libraryWatchStatusMap.put(libraryId, false);
         libraryIdToPaths.remove(libraryId);
+        libraryFileEventProcessor.invalidateLibrary(libraryId);
         log.info("Unregistered library {} from monitoring", libraryId);
     }
 
@@ -176,6 +225,13 @@ public class MonitoringService {
 
     public synchronized boolean registerPath(Path path, Long libraryId) {
         try {
+            if (pollingWatcher.isPolled(path)) {
+                if (monitoredPaths.add(path)) {
+                    pathToLibraryIdMap.put(path, libraryId);
+                    return true;
+                }
+                return false;
+            }
             if (monitoredPaths.add(path)) {
                 WatchKey key = path.register(watchService,
                         StandardWatchEventKinds.ENTRY_CREATE,
@@ -210,7 +266,16 @@ public class MonitoringService {
     public void handleFileChangeEvent(FileChangeEvent event) {
         Path fullPath = event.getFilePath();
         WatchEvent.Kind<?> kind = event.getEventKind();
+        boolean paused = isPaused() || isPathPaused(fullPath);
+        if (paused && event.getWatchedFolder() != null) {
+            touchedWhilePaused.add(event.getWatchedFolder());
+        }
 
+        if (kind == StandardWatchEventKinds.ENTRY_MODIFY) {
+            if (paused) return;
+            if (isRelevantBookFile(fullPath)) fileEventCoalescer.track(event);
+            return;
+        }
         if (kind != StandardWatchEventKinds.ENTRY_CREATE && kind != StandardWatchEventKinds.ENTRY_DELETE) return;
 
         boolean isDir = kind == StandardWatchEventKinds.ENTRY_CREATE
@@ -228,18 +293,136 @@ public class MonitoringService {
                 } catch (IOException e) {
                     log.warn("Failed to register nested paths: {}", fullPath, e);
                 }
+                if (!paused) {
+                    libraryFileEventProcessor.handleDirectoryCreated(parentLibraryId, fullPath, () -> trackExistingFiles(fullPath));
+                }
             }
+            return;
         }
 
         if (isDir && kind == StandardWatchEventKinds.ENTRY_DELETE) {
             unregisterSubPaths(fullPath);
         }
 
-        if (!eventQueue.offer(event)) {
-            log.warn("Event queue full, dropping: {}", fullPath);
-        } else {
-            log.debug("Queued: {} [{}]", fullPath, kind.name());
+        if (paused) {
+            log.debug("Monitoring paused, ignoring: {} [{}]", fullPath, kind.name());
+            return;
         }
+
+        if (!isDir && kind == StandardWatchEventKinds.ENTRY_CREATE) {
+            fileEventCoalescer.track(event);
+            return;
+        }
+
+        if (!isDir && kind == StandardWatchEventKinds.ENTRY_DELETE && fileEventCoalescer.cancel(fullPath)) {
+            log.debug("Dropped pending create for deleted file: {}", fullPath);
+            return;
+        }
+
+        enqueue(event);
+    }
+
+    @EventListener
+    public void handleWatchOverflow(WatchOverflowEvent event) {
+        overflowCounter.increment();
+        scheduleRescan(event.getDirectory());
+    }
+
+    private void trackExistingFiles(Path directory) {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            stream.filter(Files::isRegularFile)
+                    .filter(this::isRelevantBookFile)
+                    .forEach(file -> fileEventCoalescer.track(new FileChangeEvent(this, file, StandardWatchEventKinds.ENTRY_CREATE, file.getParent())));
+        } catch (IOException e) {
+            log.warn("Failed to scan new folder for book files: {}", directory, e);
+        }
+    }
+
+    /**
+     * Files that became stable while their path is paused are held back rather than processed, since the application
+     * may still be moving them, and are checked again by the coalescer once the pause ends.
+     */
+    private void enqueueStableFiles(List<FileChangeEvent> events) {
+        for (FileChangeEvent event : events) {
+            if (isPaused() || isPathPaused(event.getFilePath())) {
+                deferredFiles.put(event.getFilePath(), event);
+            } else {
+                enqueue(event);
+            }
+        }
+    }
+
+    private void releaseDeferredFiles() {
+        List<FileChangeEvent> released = deferredFiles.values().stream()
+                .filter(event -> !isPathPaused(event.getFilePath()))
+                .toList();
+        released.forEach(event -> {
+            deferredFiles.remove(event.getFilePath(), event);
+            fileEventCoalescer.track(event);
+        });
+    }
+
+    private void enqueue(FileChangeEvent event) {
+        if (eventQueue.offer(new QueuedEvent(event, System.currentTimeMillis()))) {
+            log.debug("Queued: {} [{}]", event.getFilePath(), event.getEventKind().name());
+            return;
+        }
+        saturationCounter.increment();
+        log.warn("Event queue full, falling back to a rescan for: {}", event.getFilePath());
+        scheduleRescan(event.getWatchedFolder());
+    }
+
+    private void scheduleRescan(Path directory) {
+        if (directory != null && pathToLibraryIdMap.containsKey(directory)) {
+            pendingRescans.add(directory);
+        }
+    }
+
+    /**
+     * Rescans directories whose events were lost, either to a kernel queue overflow or to a full event queue. Waits
+     * until the queue has drained to half its capacity so the rescan does not overflow it again. Directories under a
+     * paused path stay pending until that path is resumed.
+     */
+    void runPendingRescans() {
+        if (pendingRescans.isEmpty() || isPaused() || getQueueDepth() > eventQueueCapacity / 2) return;
+
+        List<Path> directories = pendingRescans.stream()
+                .filter(directory -> !isPathPaused(directory))
+                .toList();
+        pendingRescans.removeAll(directories);
+        for (Path directory : directories) {
+            try {
+                rescanDirectory(directory);
+            } catch (Exception e) {
+                log.warn("Rescan of {} failed: {}", directory, e.getMessage());
+            }
+        }
+    }
+
+    private void rescanDirectory(Path directory) {
+        Long libraryId = pathToLibraryIdMap.get(directory);
+        if (libraryId == null) return;
+        if (!Files.isDirectory(directory)) {
+            unregisterSubPaths(directory);
+            return;
+        }
+
+        for (Path vanished : reconcileChildDirectories(directory, libraryId, this::trackExistingFiles)) {
+            enqueue(new FileChangeEvent(this, vanished, StandardWatchEventKinds.ENTRY_DELETE, directory));
+        }
+        LibraryFileEventProcessor.DirectoryDiff diff = applyDirectoryDiff(directory, libraryId);
+        log.info("Rescanned {}: {} new, {} missing", directory, diff.added().size(), diff.missing().size());
+    }
+
+    /**
+     * Tracks the book files in {@code directory} that are not recorded yet and queues deletes for recorded ones that
+     * are gone.
+     */
+    private LibraryFileEventProcessor.DirectoryDiff applyDirectoryDiff(Path directory, Long libraryId) {
+        LibraryFileEventProcessor.DirectoryDiff diff = libraryFileEventProcessor.diffDirectory(libraryId, directory);
+        diff.added().forEach(file -> fileEventCoalescer.track(new FileChangeEvent(this, file, StandardWatchEventKinds.ENTRY_CREATE, directory)));
+        diff.missing().forEach(file -> enqueue(new FileChangeEvent(this, file, StandardWatchEventKinds.ENTRY_DELETE, directory)));
+        return diff;
     }
 
     @EventListener
@@ -264,8 +447,11 @@ public class MonitoringService {
                         }
                     }
 
-                    FileChangeEvent event = eventQueue.take();
-                    processFileChangeEvent(event);
+                    QueuedEvent queued = eventQueue.take();
+                    long lag = System.currentTimeMillis() - queued.enqueuedAt();
+                    lastEventLagMs.set(lag);
+                    eventLagTimer.record(lag, TimeUnit.MILLISECONDS);
+                    processFileChangeEvent(queued.event());
 
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
@@ -295,6 +481,156 @@ public class MonitoringService {
         }
     }
 
+    /**
+     * Brings directories that saw events during a pause back in line with the disk. Child directories created too
+     * quickly to be caught by their parent's event are registered, vanished ones dropped and their books deleted.
+     * Files are diffed against the recorded books instead of tracked wholesale, so files the paused operation already
+     * imported are left alone while ones added or removed by someone else meanwhile are picked up.
+     */
+    private int reconcileTouchedDirectories() {
+        Set<Path> touched = touchedWhilePaused.stream()
+                .filter(directory -> !isPathPaused(directory))
+                .collect(Collectors.toSet());
+        touchedWhilePaused.removeAll(touched);
+
+        for (Path directory : touched) {
+            Long libraryId = pathToLibraryIdMap.get(directory);
+            if (libraryId == null) continue;
+
+            if (!Files.isDirectory(directory)) {
+                unregisterSubPaths(directory);
+                continue;
+            }
+            try {
+                for (Path vanished : reconcileChildDirectories(directory, libraryId, child -> applyDirectoryDiffs(child, libraryId))) {
+                    enqueue(new FileChangeEvent(this, vanished, StandardWatchEventKinds.ENTRY_DELETE, directory));
+                }
+                applyDirectoryDiff(directory, libraryId);
+            } catch (Exception e) {
+                log.warn("Reconciling {} after a pause failed: {}", directory, e.getMessage());
+            }
+        }
+        return touched.size();
+    }
+
+    private void applyDirectoryDiffs(Path tree, Long libraryId) {
+        try (Stream<Path> stream = Files.walk(tree)) {
+            stream.filter(Files::isDirectory).forEach(path -> applyDirectoryDiff(path, libraryId));
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to diff new directory: {}", tree, e);
+        }
+    }
+
+    /**
+     * Registers child directories of {@code directory} that are not watched yet, handing each to {@code newChild}, and
+     * unregisters watched children that no longer exist, returning the latter.
+     */
+    private List<Path> reconcileChildDirectories(Path directory, Long libraryId, Consumer<Path> newChild) {
+        List<Path> vanished = monitoredPaths.stream()
+                .filter(p -> directory.equals(p.getParent()) && !Files.isDirectory(p))
+                .toList();
+        vanished.forEach(this::unregisterSubPaths);
+
+        try (Stream<Path> children = Files.list(directory)) {
+            children.filter(Files::isDirectory)
+                    .filter(child -> !monitoredPaths.contains(child))
+                    .forEach(child -> {
+                        try (Stream<Path> stream = Files.walk(child)) {
+                            stream.filter(Files::isDirectory).forEach(path -> registerPath(path, libraryId));
+                        } catch (IOException e) {
+                            log.warn("Failed to register directory during reconciliation: {}", child, e);
+                        }
+                        newChild.accept(child);
+                    });
+        } catch (IOException e) {
+            log.warn("Failed to reconcile directory: {}", directory, e);
+        }
+        return vanished;
+    }
+
+    private void registerMetrics() {
+        Gauge.builder("booklore.watcher.directories.registered", monitoredPaths, Set::size)
+                .description("Directories registered for file monitoring")
+                .register(meterRegistry);
+        Gauge.builder("booklore.watcher.queue.depth", this, MonitoringService::getQueueDepth)
+                .description("File events waiting to be dispatched or applied")
+                .register(meterRegistry);
+        Gauge.builder("booklore.watcher.rescans.pending", pendingRescans, Set::size)
+                .description("Directories waiting for a rescan after lost events")
+                .register(meterRegistry);
+        overflowCounter = Counter.builder("booklore.watcher.overflows")
+                .description("Kernel watch queue overflows")
+                .register(meterRegistry);
+        saturationCounter = Counter.builder("booklore.watcher.queue.saturations")
+                .description("File events that did not fit into the event queue")
+                .register(meterRegistry);
+        eventLagTimer = Timer.builder("booklore.watcher.event.lag")
+                .description("Time file events spend in the queue before dispatch")
+                .register(meterRegistry);
+    }
+
+    private void checkWatchLimit() {
+        if (inotifyWatchLimit <= 0) return;
+        int watched = registeredWatchKeys.size();
+        if (watched >= inotifyWatchLimit * 0.9) {
+            if (!watchLimitWarned) {
+                log.warn("{} directories are watched, close to the inotify limit of {} (fs.inotify.max_user_watches). " +
+                        "Raise the limit or enable polling for large libraries, otherwise new folders may go unnoticed.", watched, inotifyWatchLimit);
+                watchLimitWarned = true;
+            }
+        } else {
+            watchLimitWarned = false;
+        }
+    }
+
+    private static long readInotifyWatchLimit() {
+        Path limitFile = Paths.get("/proc/sys/fs/inotify/max_user_watches");
+        try {
+            return Files.isReadable(limitFile) ? Long.parseLong(Files.readString(limitFile).trim()) : -1;
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public int getRegisteredDirectoryCount() {
+        return monitoredPaths.size();
+    }
+
+    public int getWatchKeyCount() {
+        return registeredWatchKeys.size();
+    }
+
+    public long getInotifyWatchLimit() {
+        return inotifyWatchLimit;
+    }
+
+    /**
+     * Events waiting in the event queue plus those already handed to the processor's lanes but not yet applied.
+     */
+    public int getQueueDepth() {
+        return eventQueue.size() + libraryFileEventProcessor.getPendingEventCount();
+    }
+
+    public int getQueueCapacity() {
+        return eventQueueCapacity;
+    }
+
+    public int getPendingRescanCount() {
+        return pendingRescans.size();
+    }
+
+    public long getOverflowCount() {
+        return (long) overflowCounter.count();
+    }
+
+    public long getQueueSaturationCount() {
+        return (long) saturationCounter.count();
+    }
+
+    public long getLastEventLagMs() {
+        return lastEventLagMs.get();
+    }
+
     private void unregisterSubPaths(Path deletedPath) {
         Set<Path> toRemove = monitoredPaths.stream()
                 .filter(p -> p.startsWith(deletedPath))
@@ -304,4 +640,7 @@ public class MonitoringService {
             unregisterPath(path);
         }
     }
-}
\ No newline at end of file
+
+    private record QueuedEvent(FileChangeEvent event, long enqueuedAt) {
+    }
+}
@@ -34,7 +34,11 @@ public class MonitoringTask {
 
                 for (WatchEvent<?> event : key.pollEvents()) {
                     WatchEvent.Kind<?> kind = event.kind();
-                    if (kind == StandardWatchEventKinds.OVERFLOW) continue;
+                    if (kind == StandardWatchEventKinds.OVERFLOW) {
+                        log.warn("Watch events lost for {}, scheduling a rescan", directory);
+                        eventPublisher.publishEvent(new WatchOverflowEvent(this, directory));
+                        continue;
+                    }
 
                     Path fileName = (Path) event.context();
                     Path fullPath = directory.resolve(fileName);
@@ -0,0 +1,281 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import com.adityachandel.booklore.config.AppProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watcher backend for file systems where inotify does not see changes made by other hosts (NFS, SMB, ...).
+ * <p>
+ * Each polled root keeps a snapshot of its directories. A poll stats directories and recently modified files; a
+ * directory is re-listed and diffed against its recorded entries (name, size, modification time) when its own
+ * modification time has changed, or when it was last listed within the timestamp granularity of network file systems
+ * after that modification, since a second change in the same tick leaves the time unchanged. Files written in place
+ * keep their directory's time, so files modified within the last minutes are stat-ed on every poll until they settle.
+ * Differences are published as the same {@link FileChangeEvent}s the native watcher produces. The poll interval of a
+ * root drops to the minimum after a change and backs off exponentially while the tree stays quiet.
+ */
+@Slf4j
+@Component
+public class PollingWatcher {
+
+    private static final Set<String> NETWORK_FS_TYPES = Set.of(
+            "nfs", "nfs4", "cifs", "smb", "smb2", "smb3", "smbfs", "9p", "afpfs", "davfs", "fuse.sshfs", "fuse.rclone");
+
+    // NFS and SMB servers commonly store times with one or two second resolution
+    private static final long MTIME_GRANULARITY_MS = 2_000;
+    private static final long RECENT_FILE_WINDOW_MS = 10 * 60 * 1000;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppProperties.Monitoring settings;
+    private final Map<Path, PolledRoot> roots = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("polling-watcher").daemon().factory());
+
+    public PollingWatcher(ApplicationEventPublisher eventPublisher, AppProperties appProperties) {
+        this.eventPublisher = eventPublisher;
+        this.settings = appProperties.getMonitoring();
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::pollDueRoots, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Whether the given library root should be watched by polling: either it is under a configured polling path or it
+     * lives on a network file system and automatic detection is enabled.
+     */
+    public boolean shouldPoll(Path root) {
+        Path normalized = root.toAbsolutePath().normalize();
+        boolean configured = settings.getPollingPaths().stream()
+                .filter(p -> !p.isBlank())
+                .map(p -> Paths.get(p).toAbsolutePath().normalize())
+                .anyMatch(normalized::startsWith);
+        return configured || (settings.isPollNetworkFilesystems() && isNetworkFileSystem(normalized));
+    }
+
+    public boolean isPolled(Path path) {
+        return roots.keySet().stream().anyMatch(path::startsWith);
+    }
+
+    /**
+     * Takes the initial snapshot of {@code root} and starts polling it. Returns every directory found so the caller can
+     * map them to the library.
+     */
+    public List<Path> register(Path root, Long libraryId) {
+        PolledRoot polledRoot = new PolledRoot(root, libraryId, settings.getPollingMinIntervalMs());
+        try (Stream<Path> stream = Files.walk(root)) {
+            stream.filter(Files::isDirectory).forEach(dir -> snapshotDirectory(polledRoot, dir));
+        } catch (IOException e) {
+            log.error("Failed to take initial snapshot of polled path {}: {}", root, e.getMessage());
+        }
+        roots.put(root, polledRoot);
+        log.info("Polling {} directories under {} for library {}", polledRoot.directories.size(), root, libraryId);
+        return new ArrayList<>(polledRoot.directories.keySet());
+    }
+
+    public void unregisterLibrary(Long libraryId) {
+        roots.values().removeIf(root -> root.libraryId.equals(libraryId));
+    }
+
+    private void pollDueRoots() {
+        long now = System.currentTimeMillis();
+        for (PolledRoot root : roots.values()) {
+            if (now < root.nextPollAt) continue;
+            try {
+                int changes = poll(root);
+                root.intervalMs = changes > 0
+                        ? settings.getPollingMinIntervalMs()
+                        : Math.min(root.intervalMs * 2, settings.getPollingMaxIntervalMs());
+                if (changes > 0) {
+                    log.debug("Polling {} found {} change(s)", root.path, changes);
+                }
+            } catch (Exception e) {
+                log.warn("Polling {} failed: {}", root.path, e.getMessage());
+            }
+            root.nextPollAt = System.currentTimeMillis() + root.intervalMs;
+        }
+    }
+
+    /**
+     * Polls every registered root immediately, ignoring their schedule. Returns the number of changes found.
+     */
+    int pollNow() {
+        return roots.values().stream().mapToInt(this::poll).sum();
+    }
+
+    private int poll(PolledRoot root) {
+        int changes = 0;
+        for (Path dir : new ArrayList<>(root.directories.keySet())) {
+            DirectorySnapshot snapshot = root.directories.get(dir);
+            if (snapshot == null) continue;
+
+            long modified;
+            try {
+                modified = Files.getLastModifiedTime(dir).toMillis();
+            } catch (IOException e) {
+                // Reported by the parent's diff when the parent is still polled
+                if (!dir.equals(root.path) && root.directories.containsKey(dir.getParent())) continue;
+                removeSubtree(root, dir);
+                changes++;
+                continue;
+            }
+            if (modified != snapshot.modified() || Math.abs(snapshot.listedAt() - modified) <= MTIME_GRANULARITY_MS) {
+                changes += relist(root, dir, snapshot.entries());
+            } else {
+                changes += statRecentFiles(root, dir, snapshot);
+            }
+        }
+        return changes;
+    }
+
+    private int statRecentFiles(PolledRoot root, Path dir, DirectorySnapshot snapshot) {
+        long now = System.currentTimeMillis();
+        int changes = 0;
+        Map<String, EntryState> entries = null;
+        for (Map.Entry<String, EntryState> entry : snapshot.entries().entrySet()) {
+            EntryState before = entry.getValue();
+            if (before.directory() || now - before.modified() > RECENT_FILE_WINDOW_MS) continue;
+            Path child = dir.resolve(entry.getKey());
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(child, BasicFileAttributes.class);
+            } catch (IOException e) {
+                // Gone without a visible directory change, the listing sorts out what happened
+                return changes + relist(root, dir, entries != null ? entries : snapshot.entries());
+            }
+            if (attributes.size() != before.size() || attributes.lastModifiedTime().toMillis() != before.modified()) {
+                if (entries == null) entries = new HashMap<>(snapshot.entries());
+                entries.put(entry.getKey(), new EntryState(false, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                publish(child, StandardWatchEventKinds.ENTRY_MODIFY, dir);
+                changes++;
+            }
+        }
+        if (entries != null) {
+            root.directories.put(dir, new DirectorySnapshot(snapshot.modified(), snapshot.listedAt(), entries));
+        }
+        return changes;
+    }
+
+    private int relist(PolledRoot root, Path dir, Map<String, EntryState> previous) {
+        DirectorySnapshot current = listDirectory(dir);
+        if (current == null) return 0;
+        root.directories.put(dir, current);
+
+        int changes = 0;
+        for (Map.Entry<String, EntryState> entry : current.entries().entrySet()) {
+            Path child = dir.resolve(entry.getKey());
+            EntryState before = previous.get(entry.getKey());
+            EntryState after = entry.getValue();
+            if (before == null) {
+                if (after.directory()) {
+                    try (Stream<Path> stream = Files.walk(child)) {
+                        stream.filter(Files::isDirectory).forEach(sub -> snapshotDirectory(root, sub));
+                    } catch (IOException e) {
+                        log.debug("Failed to snapshot new directory {}: {}", child, e.getMessage());
+                    }
+                }
+                publish(child, StandardWatchEventKinds.ENTRY_CREATE, dir);
+                changes++;
+            } else if (!after.directory() && (before.size() != after.size() || before.modified() != after.modified())) {
+                publish(child, StandardWatchEventKinds.ENTRY_MODIFY, dir);
+                changes++;
+            }
+        }
+        for (Map.Entry<String, EntryState> entry : previous.entrySet()) {
+            if (current.entries().containsKey(entry.getKey())) continue;
+            Path child = dir.resolve(entry.getKey());
+            if (entry.getValue().directory()) {
+                removeSubtree(root, child);
+            }
+            publish(child, StandardWatchEventKinds.ENTRY_DELETE, dir);
+            changes++;
+        }
+        return changes;
+    }
+
+    private void removeSubtree(PolledRoot root, Path dir) {
+        root.directories.keySet().removeIf(p -> p.startsWith(dir));
+    }
+
+    private void publish(Path path, WatchEvent.Kind<Path> kind, Path directory) {
+        eventPublisher.publishEvent(new FileChangeEvent(this, path, kind, directory));
+    }
+
+    private void snapshotDirectory(PolledRoot root, Path dir) {
+        DirectorySnapshot snapshot = listDirectory(dir);
+        if (snapshot != null) {
+            root.directories.put(dir, snapshot);
+        }
+    }
+
+    private DirectorySnapshot listDirectory(Path dir) {
+        try {
+            long listedAt = System.currentTimeMillis();
+            long modified = Files.getLastModifiedTime(dir).toMillis();
+            Map<String, EntryState> entries = new HashMap<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path child : stream) {
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(child, BasicFileAttributes.class);
+                        entries.put(child.getFileName().toString(), new EntryState(attributes.isDirectory(), attributes.size(), attributes.lastModifiedTime().toMillis()));
+                    } catch (IOException e) {
+                        log.debug("Skipping unreadable entry {}: {}", child, e.getMessage());
+                    }
+                }
+            }
+            return new DirectorySnapshot(modified, listedAt, entries);
+        } catch (IOException e) {
+            log.debug("Failed to list {}: {}", dir, e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isNetworkFileSystem(Path path) {
+        try {
+            String type = Files.getFileStore(path).type().toLowerCase(Locale.ROOT);
+            return NETWORK_FS_TYPES.contains(type);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private record EntryState(boolean directory, long size, long modified) {
+    }
+
+    private record DirectorySnapshot(long modified, long listedAt, Map<String, EntryState> entries) {
+    }
+
+    private static class PolledRoot {
+        private final Path path;
+        private final Long libraryId;
+        private final Map<Path, DirectorySnapshot> directories = new ConcurrentHashMap<>();
+        private volatile long intervalMs;
+        private volatile long nextPollAt;
+
+        PolledRoot(Path path, Long libraryId, long intervalMs) {
+            this.path = path;
+            this.libraryId = libraryId;
+            this.intervalMs = intervalMs;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import com.adityachandel.booklore.service.watcher.LibraryFileEventProcessor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the state of the library file watcher under {@code /actuator/health}. Reports {@code DEGRADED} when events
+ * were lost and rescans are still pending, or when the registered directories approach the inotify watch limit.
+ */
+@Component("watcher")
+@RequiredArgsConstructor
+public class WatcherHealthIndicator implements HealthIndicator {
+
+    private static final Status DEGRADED = new Status("DEGRADED");
+
+    private final MonitoringService monitoringService;
+    private final LibraryFileEventProcessor libraryFileEventProcessor;
+
+    @Override
+    public Health health() {
+        long watchLimit = monitoringService.getInotifyWatchLimit();
+        int watchKeys = monitoringService.getWatchKeyCount();
+        int pendingRescans = monitoringService.getPendingRescanCount();
+        boolean nearWatchLimit = watchLimit > 0 && watchKeys >= watchLimit * 0.9;
+
+        Health.Builder builder = (pendingRescans > 0 || nearWatchLimit) ? Health.status(DEGRADED) : Health.up();
+        builder.withDetail("paused", monitoringService.isPaused())
+                .withDetail("registeredDirectories", monitoringService.getRegisteredDirectoryCount())
+                .withDetail("watchKeys", watchKeys)
+                .withDetail("queueDepth", monitoringService.getQueueDepth())
+                .withDetail("queueCapacity", monitoringService.getQueueCapacity())
+                .withDetail("processorBacklog", libraryFileEventProcessor.getPendingEventCount())
+                .withDetail("overflows", monitoringService.getOverflowCount())
+                .withDetail("queueSaturations", monitoringService.getQueueSaturationCount())
+                .withDetail("pendingRescans", pendingRescans)
+                .withDetail("lastEventLagMs", monitoringService.getLastEventLagMs());
+        if (watchLimit > 0) {
+            builder.withDetail("inotifyWatchLimit", watchLimit);
+        }
+        return builder.build();
+    }
+}
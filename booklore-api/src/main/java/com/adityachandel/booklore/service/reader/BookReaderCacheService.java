@@ -0,0 +1,38 @@
+package com.adityachandel.booklore.service.reader;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+
+/**
+ * Drops the reader caches of books whose file was deleted, moved or rewritten.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookReaderCacheService {
+
+    private final EpubReaderService epubReaderService;
+    private final CbxNormalizationService cbxNormalizationService;
+    private final CbxReaderService cbxReaderService;
+
+    /**
+     * Closes open handles on a book file that moved. Derived data stays valid, the content did not change.
+     */
+    public void evict(Long bookId) {
+        epubReaderService.evict(bookId);
+    }
+
+    /**
+     * Drops everything derived from a book file that was deleted or rewritten.
+     */
+    public void purge(Long bookId) {
+        epubReaderService.evict(bookId);
+        cbxNormalizationService.deletePacks(bookId);
+        cbxReaderService.deleteManifests(bookId);
+    }
+
+    public void purge(Collection<Long> bookIds) {
+        bookIds.forEach(this::purge);
+    }
+}
@@ -0,0 +1,291 @@
+package com.adityachandel.booklore.service.reader;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.service.FileFingerprint;
+import com.adityachandel.booklore.util.FileUtils;
+import com.github.junrar.Archive;
+import com.github.junrar.rarfile.FileHeader;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
+import org.apache.commons.compress.archivers.sevenz.SevenZFile;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Transcodes solid CBR/CB7 archives into store-mode ZIP packs so pages can be read with random access.
+ * <p>
+ * RAR and solid 7z archives have to be decompressed from the start to reach any entry. A pack is written once per
+ * source fingerprint under {@code cbx_normalized}; afterwards the reader serves pages straight from the pack instead of
+ * extracting the original, which makes re-opening a book after cache eviction and jumping to a page a constant-time
+ * lookup.
+ * <p>
+ * Packs hold the decompressed pages, so each normalized book takes roughly its page images' size again on disk, up to
+ * the budget below. Normalizing on open is therefore off unless {@code app.cbx.normalize-on-open} is set.
+ * <p>
+ * Each pack records the size and modification time of the file it was made from and is only used while the source
+ * still matches, since the stored hash lags behind a file replaced on disk. Packs are deleted with their book and
+ * evicted oldest-used first once they exceed {@code app.cbx.normalized-cache-size-mb}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CbxNormalizationService {
+
+    private static final String NORMALIZED_EXTENSION = ".cbz";
+    private static final String NORMALIZED_DIR = "cbx_normalized";
+    private static final String SOURCE_COMMENT_PREFIX = "source:";
+
+    private final AppProperties appProperties;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("cbx-normalizer").daemon().factory());
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    public static boolean isSolidArchive(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".cbr") || name.endsWith(".cb7");
+    }
+
+    public boolean isNormalizeOnOpen() {
+        return appProperties.getCbx().isNormalizeOnOpen();
+    }
+
+    public boolean isNormalizeOnIngest() {
+        return appProperties.getCbx().isNormalizeOnIngest();
+    }
+
+    public Optional<Path> findNormalizedArchive(BookEntity book) {
+        String fingerprint = book.getCurrentHash();
+        if (fingerprint == null) return Optional.empty();
+        Path pack = getNormalizedPath(book.getId(), fingerprint);
+        if (!Files.isRegularFile(pack)) return Optional.empty();
+
+        Path source = Path.of(FileUtils.getBookFullPath(book));
+        try {
+            if (!sourceComment(source).equals(readComment(pack))) {
+                log.info("Discarding normalized archive of book {}: source file changed", book.getId());
+                Files.deleteIfExists(pack);
+                return Optional.empty();
+            }
+            Files.setLastModifiedTime(pack, FileTime.from(Instant.now()));
+            return Optional.of(pack);
+        } catch (IOException e) {
+            log.debug("Cannot verify normalized archive {}: {}", pack, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Deletes the packs of a book whose file was deleted or rewritten.
+     */
+    public void deletePacks(Long bookId) {
+        Path dir = Path.of(appProperties.getPathConfig(), NORMALIZED_DIR);
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().startsWith(bookId + "-"))
+                    .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.debug("Failed to list normalized archives: {}", e.getMessage());
+        }
+    }
+
+    public void scheduleNormalization(BookEntity book) {
+        Path source = Path.of(FileUtils.getBookFullPath(book));
+        if (!isSolidArchive(source) || findNormalizedArchive(book).isPresent()) return;
+        Long bookId = book.getId();
+        String knownHash = book.getCurrentHash();
+        if (!pending.add(bookId)) return;
+
+        executor.submit(() -> {
+            try {
+                String fingerprint = knownHash != null ? knownHash : FileFingerprint.generateHash(source);
+                normalize(bookId, source, fingerprint);
+            } catch (Exception e) {
+                log.warn("Failed to normalize CBX archive for book {}: {}", bookId, e.getMessage());
+            } finally {
+                pending.remove(bookId);
+            }
+        });
+    }
+
+    private void normalize(Long bookId, Path source, String fingerprint) throws IOException {
+        Path target = getNormalizedPath(bookId, fingerprint);
+        if (Files.exists(target)) return;
+
+        long start = System.currentTimeMillis();
+        Files.createDirectories(target.getParent());
+        String sourceComment = sourceComment(source);
+        Path temp = Files.createTempFile(target.getParent(), bookId + "-", ".tmp");
+        try {
+            try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(temp.toFile())) {
+                out.setMethod(ZipEntry.STORED);
+                out.setComment(sourceComment);
+                String name = source.getFileName().toString().toLowerCase();
+                if (name.endsWith(".cb7")) {
+                    copy7zEntries(source, out);
+                } else {
+                    copyRarEntries(source, out);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        deleteStalePacks(bookId, target);
+        enforceBudget(target);
+        log.info("Normalized {} for book {} in {} ms", source.getFileName(), bookId, System.currentTimeMillis() - start);
+    }
+
+    private void copy7zEntries(Path source, ZipArchiveOutputStream out) throws IOException {
+        try (SevenZFile sevenZFile = new SevenZFile(source.toFile())) {
+            SevenZArchiveEntry entry;
+            byte[] buffer = new byte[8192];
+            while ((entry = sevenZFile.getNextEntry()) != null) {
+                if (entry.isDirectory() || !isImageFile(entry.getName())) continue;
+                out.putArchiveEntry(new ZipArchiveEntry(entry.getName()));
+                long remaining = entry.getSize();
+                int count;
+                while (remaining > 0 && (count = sevenZFile.read(buffer, 0, (int) Math.min(buffer.length, remaining))) > 0) {
+                    out.write(buffer, 0, count);
+                    remaining -= count;
+                }
+                out.closeArchiveEntry();
+            }
+        }
+    }
+
+    private void copyRarEntries(Path source, ZipArchiveOutputStream out) throws IOException {
+        try (Archive archive = new Archive(source.toFile())) {
+            for (FileHeader header : archive.getFileHeaders()) {
+                if (header.isDirectory() || !isImageFile(header.getFileName())) continue;
+                out.putArchiveEntry(new ZipArchiveEntry(header.getFileName().replace("\\", "/")));
+                archive.extractFile(header, new NonClosingOutputStream(out));
+                out.closeArchiveEntry();
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to read CBR archive", e);
+        }
+    }
+
+    private void deleteStalePacks(Long bookId, Path current) {
+        try (Stream<Path> files = Files.list(current.getParent())) {
+            files.filter(p -> p.getFileName().toString().startsWith(bookId + "-"))
+                    .filter(p -> !p.equals(current))
+                    .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.debug("Failed to list normalized archives: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the least recently used packs until all of them fit the configured size. The pack just written is kept
+     * even if it alone is larger.
+     */
+    private void enforceBudget(Path current) {
+        long maxBytes = appProperties.getCbx().getNormalizedCacheSizeMb() * 1024L * 1024L;
+        List<Map.Entry<Path, BasicFileAttributes>> packs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(current.getParent())) {
+            files.filter(p -> p.getFileName().toString().endsWith(NORMALIZED_EXTENSION)).forEach(p -> {
+                try {
+                    packs.add(Map.entry(p, Files.readAttributes(p, BasicFileAttributes.class)));
+                } catch (IOException e) {
+                    log.debug("Skipping normalized archive {}: {}", p, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.debug("Failed to list normalized archives: {}", e.getMessage());
+            return;
+        }
+
+        long total = packs.stream().mapToLong(entry -> entry.getValue().size()).sum();
+        packs.sort(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()));
+        for (Map.Entry<Path, BasicFileAttributes> pack : packs) {
+            if (total <= maxBytes) break;
+            if (pack.getKey().equals(current)) continue;
+            deleteQuietly(pack.getKey());
+            total -= pack.getValue().size();
+        }
+    }
+
+    private void deleteQuietly(Path pack) {
+        try {
+            Files.deleteIfExists(pack);
+        } catch (IOException e) {
+            log.debug("Failed to delete normalized archive {}", pack);
+        }
+    }
+
+    private static String sourceComment(Path source) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        return SOURCE_COMMENT_PREFIX + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+    }
+
+    private static String readComment(Path pack) throws IOException {
+        try (ZipFile zipFile = new ZipFile(pack.toFile())) {
+            return Objects.requireNonNullElse(zipFile.getComment(), "");
+        }
+    }
+
+    private Path getNormalizedPath(Long bookId, String fingerprint) {
+        return Path.of(appProperties.getPathConfig(), NORMALIZED_DIR, bookId + "-" + fingerprint + NORMALIZED_EXTENSION);
+    }
+
+    private boolean isImageFile(String name) {
+        String lower = name.toLowerCase().replace("\\", "/");
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png") || lower.endsWith(".webp");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static class NonClosingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+
+        NonClosingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -1,21 +1,30 @@
 package com.adityachandel.booklore.service.reader;
 
 import com.adityachandel.booklore.exception.ApiError;
+import com.adityachandel.booklore.model.dto.response.CbxPageManifest;
 import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.service.FileFingerprint;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
 import com.adityachandel.booklore.util.FileService;
 import com.adityachandel.booklore.util.FileUtils;
+import com.adityachandel.booklore.util.NaturalOrderComparator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.junrar.Archive;
 import com.github.junrar.exception.RarException;
 import com.github.junrar.rarfile.FileHeader;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
 import org.apache.commons.compress.archivers.sevenz.SevenZFile;
-import org.apache.pdfbox.io.IOUtils;
 import org.springframework.stereotype.Service;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -24,11 +33,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 @Slf4j
@@ -37,6 +47,8 @@ import java.util.zip.ZipInputStream;
 public class CbxReaderService {
 
     private static final String CACHE_INFO_FILENAME = ".cache-info";
+    private static final String MANIFEST_EXTENSION = ".json";
+    private static final String PACK_FILENAME = ".pack";
     private static final String CBZ_EXTENSION = ".cbz";
     private static final String CBR_EXTENSION = ".cbr";
     private static final String CB7_EXTENSION = ".cb7";
@@ -44,8 +56,19 @@ public class CbxReaderService {
     private final BookRepository bookRepository;
     private final AppSettingService appSettingService;
     private final FileService fileService;
+    private final ObjectMapper objectMapper;
+    private final PageVariantService pageVariantService;
+    private final CbxNormalizationService cbxNormalizationService;
+
+    private final Map<Long, CbxPageManifest> manifestCache = new ConcurrentHashMap<>();
 
     public List<Integer> getAvailablePages(Long bookId) {
+        return getPageManifest(bookId).getPages().stream()
+                .map(CbxPageManifest.Page::getPageNumber)
+                .collect(Collectors.toList());
+    }
+
+    public CbxPageManifest getPageManifest(Long bookId) {
         BookEntity bookEntity = bookRepository.findById(bookId).orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
         String bookFullPath = FileUtils.getBookFullPath(bookEntity);
 
@@ -62,88 +85,276 @@ public class CbxReaderService {
             }
             enforceCacheLimit();
 
-            if (needsCacheRefresh(cbzPath, cacheInfoPath)) {
+            String fingerprint = resolveFingerprint(bookEntity, cbzPath);
+            if (needsCacheRefresh(cbzPath, cacheInfoPath) || isPackMissing(cacheDir) || !Files.exists(getManifestPath(bookId, fingerprint))) {
                 log.info("Invalidating cache for book {}", bookId);
-                if (Files.exists(cacheDir)) FileUtils.deleteDirectoryRecursively(cacheDir);
-                Files.createDirectories(cacheDir);
-                extractCbxArchive(cbzPath, cacheDir);
-                writeCacheInfo(cbzPath, cacheInfoPath);
+                rebuildCache(bookEntity, fingerprint, cbzPath, cacheDir, cacheInfoPath);
                 if (!Files.exists(cacheDir)) {
                     log.warn("Cache for book {} was deleted during enforcement. Re-extracting.", bookId);
-                    Files.createDirectories(cacheDir);
-                    extractCbxArchive(cbzPath, cacheDir);
-                    writeCacheInfo(cbzPath, cacheInfoPath);
+                    rebuildCache(bookEntity, fingerprint, cbzPath, cacheDir, cacheInfoPath);
                 }
             }
+            return loadManifest(bookId, fingerprint);
         } catch (IOException e) {
             log.error("Failed to cache CBZ for book {}", bookId, e);
-            return List.of();
+            return CbxPageManifest.builder().bookId(bookId).pages(List.of()).build();
+        }
+    }
+
+    public CbxPageManifest.Page getPage(Long bookId, int page) throws IOException {
+        CbxPageManifest manifest = manifestCache.get(bookId);
+        if (manifest == null) {
+            Optional<String> fingerprint = bookRepository.findCurrentHashById(bookId);
+            // Without a stored manifest under the book's fingerprint it is built the same way the reader's first request does
+            manifest = fingerprint.isPresent() && Files.exists(getManifestPath(bookId, fingerprint.get()))
+                    ? loadManifest(bookId, fingerprint.get())
+                    : getPageManifest(bookId);
+        }
+        return manifest.getPages().stream()
+                .filter(p -> p.getPageNumber() == page)
+                .findFirst()
+                .orElseThrow(() -> new FileNotFoundException("Page not found: " + page));
+    }
+
+    public void streamPageImage(Long bookId, int pageNumber, Integer width, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CbxPageManifest.Page page = getPage(bookId, pageNumber);
+        Path cacheRoot = Path.of(fileService.getCbxCachePath());
+        Path cacheDir = cacheRoot.resolve(String.valueOf(bookId));
+        Path pagePath = cacheDir.resolve(page.getFileName());
+        long maxCacheSizeBytes = mbToBytes(appSettingService.getAppSettings().getCbxCacheSizeInMb());
+        String bookHash = bookRepository.findCurrentHashById(bookId).orElse(null);
+        Optional<Path> pack = readPackPath(cacheDir);
+        if (pack.isPresent()) {
+            // The manifest may have been built from the original archive, packs always use forward slashes
+            pageVariantService.streamPackedPage(cacheRoot, pack.get(), page.getEntryName().replace("\\", "/"), pagePath, page.getMediaType(), bookHash, width, maxCacheSizeBytes, request, response);
+        } else {
+            pageVariantService.streamPage(cacheRoot, pagePath, page.getMediaType(), bookHash, width, maxCacheSizeBytes, request, response);
+        }
+    }
+
+    /**
+     * Returns the fingerprint the book's manifest is stored under. Books imported before fingerprints were recorded have
+     * none yet; theirs is computed once and stored, so later requests and {@link #getPage} find the same manifest.
+     */
+    private String resolveFingerprint(BookEntity bookEntity, Path cbxPath) {
+        if (bookEntity.getCurrentHash() != null) return bookEntity.getCurrentHash();
+        String fingerprint = FileFingerprint.generateHash(cbxPath);
+        if (bookRepository.setCurrentHashIfMissing(bookEntity.getId(), fingerprint) == 0) {
+            // Another request stored one first
+            fingerprint = bookRepository.findCurrentHashById(bookEntity.getId()).orElse(fingerprint);
         }
+        bookEntity.setCurrentHash(fingerprint);
+        return fingerprint;
+    }
 
-        try (var stream = Files.list(cacheDir)) {
-            return stream
-                    .filter(p -> p.toString().endsWith(".jpg"))
-                    .sorted(Comparator.comparing(Path::getFileName))
-                    .map(p -> extractPageNumber(p.getFileName().toString()))
-                    .filter(p -> p != -1)
-                    .collect(Collectors.toList());
+    /**
+     * Re-creates the page cache of a book. The manifest is kept outside the page cache under the book's fingerprint,
+     * so it survives cache eviction and is only built again when the file's content changes.
+     */
+    private void rebuildCache(BookEntity bookEntity, String fingerprint, Path cbxPath, Path cacheDir, Path cacheInfoPath) throws IOException {
+        Long bookId = bookEntity.getId();
+        manifestCache.remove(bookId);
+        if (Files.exists(cacheDir)) FileUtils.deleteDirectoryRecursively(cacheDir);
+        Files.createDirectories(cacheDir);
+
+        boolean manifestExists = Files.exists(getManifestPath(bookId, fingerprint));
+        Optional<Path> normalized = CbxNormalizationService.isSolidArchive(cbxPath)
+                ? cbxNormalizationService.findNormalizedArchive(bookEntity)
+                : Optional.empty();
+        if (normalized.isPresent()) {
+            if (!manifestExists) writePackManifest(bookId, fingerprint, cbxPath, normalized.get());
+            Files.writeString(cacheDir.resolve(PACK_FILENAME), normalized.get().toAbsolutePath().toString());
+        } else {
+            Map<String, String> extracted = extractCbxArchive(cbxPath, cacheDir);
+            if (CbxNormalizationService.isSolidArchive(cbxPath) && cbxNormalizationService.isNormalizeOnOpen()) {
+                cbxNormalizationService.scheduleNormalization(bookEntity);
+            }
+            if (!manifestExists) writeManifest(bookId, fingerprint, cbxPath, cacheDir, extracted);
+        }
+        writeCacheInfo(cbxPath, cacheInfoPath);
+    }
+
+    /**
+     * Deletes the stored manifests of a book whose file was deleted or rewritten.
+     */
+    public void deleteManifests(Long bookId) {
+        Path dir = Path.of(fileService.getCbxManifestPath());
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().startsWith(bookId + "-"))
+                    .forEach(this::deleteQuietly);
         } catch (IOException e) {
-            log.error("Failed to list pages for book {}", bookId, e);
-            return List.of();
+            log.debug("Failed to list page manifests: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the normalized pack the pages of a book are served from, or empty if they were extracted to its cache
+     * directory.
+     */
+    private Optional<Path> readPackPath(Path cacheDir) throws IOException {
+        Path packInfoPath = cacheDir.resolve(PACK_FILENAME);
+        if (!Files.exists(packInfoPath)) return Optional.empty();
+        return Optional.of(Path.of(Files.readString(packInfoPath).trim()));
+    }
+
+    private boolean isPackMissing(Path cacheDir) throws IOException {
+        return readPackPath(cacheDir).map(pack -> !Files.isRegularFile(pack)).orElse(false);
+    }
+
+    private Path getManifestPath(Long bookId, String fingerprint) {
+        return Path.of(fileService.getCbxManifestPath(), bookId + "-" + fingerprint + MANIFEST_EXTENSION);
+    }
+
+    private CbxPageManifest loadManifest(Long bookId, String fingerprint) throws IOException {
+        Path manifestPath = getManifestPath(bookId, fingerprint);
+        if (!Files.exists(manifestPath)) throw new FileNotFoundException("Page manifest not found for book " + bookId);
+        CbxPageManifest manifest = objectMapper.readValue(manifestPath.toFile(), CbxPageManifest.class);
+        manifestCache.put(bookId, manifest);
+        return manifest;
+    }
+
+    private void writeManifest(Long bookId, String fingerprint, Path cbxPath, Path cacheDir, Map<String, String> extracted) throws IOException {
+        List<CbxPageManifest.Page> pages = new ArrayList<>();
+        int pageNumber = 1;
+        for (Map.Entry<String, String> entry : extracted.entrySet()) {
+            Path pagePath = cacheDir.resolve(entry.getValue());
+            CbxPageManifest.Page.PageBuilder page = CbxPageManifest.Page.builder()
+                    .pageNumber(pageNumber++)
+                    .entryName(entry.getKey())
+                    .fileName(entry.getValue())
+                    .size(Files.size(pagePath));
+            try (InputStream in = Files.newInputStream(pagePath)) {
+                page.mediaType(detectMediaType(in, entry.getValue()));
+            }
+            readDimensions(pagePath, page);
+            pages.add(page.build());
+        }
+        saveManifest(bookId, fingerprint, cbxPath, pages);
+    }
+
+    /**
+     * Builds the manifest of a normalized pack from its entries. Only the header of each page is read; the pages stay
+     * in the pack and are served from it.
+     */
+    private void writePackManifest(Long bookId, String fingerprint, Path cbxPath, Path pack) throws IOException {
+        List<CbxPageManifest.Page> pages = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(pack.toFile())) {
+            int pageNumber = 1;
+            for (Map.Entry<String, String> entry : assignPageFiles(listZipImages(zipFile)).entrySet()) {
+                ZipEntry zipEntry = zipFile.getEntry(entry.getKey());
+                CbxPageManifest.Page.PageBuilder page = CbxPageManifest.Page.builder()
+                        .pageNumber(pageNumber++)
+                        .entryName(entry.getKey())
+                        .fileName(entry.getValue())
+                        .size(zipEntry.getSize());
+                try (InputStream in = zipFile.getInputStream(zipEntry)) {
+                    page.mediaType(detectMediaType(in, entry.getValue()));
+                }
+                try (InputStream in = zipFile.getInputStream(zipEntry); ImageInputStream iis = new MemoryCacheImageInputStream(in)) {
+                    readDimensions(iis, page);
+                } catch (IOException e) {
+                    log.debug("Could not read dimensions of {} in {}: {}", entry.getKey(), pack, e.getMessage());
+                }
+                pages.add(page.build());
+            }
         }
+        saveManifest(bookId, fingerprint, cbxPath, pages);
     }
 
-    public void streamPageImage(Long bookId, int page, OutputStream outputStream) throws IOException {
-        Path pagePath = Path.of(fileService.getCbxCachePath(), String.valueOf(bookId), String.format("%04d.jpg", page));
-        if (!Files.exists(pagePath)) throw new FileNotFoundException("Page not found: " + page);
-        try (InputStream in = Files.newInputStream(pagePath)) {
-            IOUtils.copy(in, outputStream);
+    private void saveManifest(Long bookId, String fingerprint, Path cbxPath, List<CbxPageManifest.Page> pages) throws IOException {
+        CbxPageManifest manifest = CbxPageManifest.builder()
+                .bookId(bookId)
+                .sourceSize(Files.size(cbxPath))
+                .sourceLastModified(Files.getLastModifiedTime(cbxPath).toMillis())
+                .pages(pages)
+                .build();
+        Path manifestPath = getManifestPath(bookId, fingerprint);
+        Files.createDirectories(manifestPath.getParent());
+        Path temp = Files.createTempFile(manifestPath.getParent(), bookId + "-", ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), manifest);
+            Files.move(temp, manifestPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
         }
+        deleteStaleManifests(bookId, manifestPath);
+        manifestCache.put(bookId, manifest);
     }
 
-    private void extractCbxArchive(Path cbxPath, Path targetDir) throws IOException {
+    private void deleteStaleManifests(Long bookId, Path current) {
+        try (Stream<Path> files = Files.list(current.getParent())) {
+            files.filter(p -> p.getFileName().toString().startsWith(bookId + "-"))
+                    .filter(p -> p.getFileName().toString().endsWith(MANIFEST_EXTENSION))
+                    .filter(p -> !p.equals(current))
+                    .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.debug("Failed to list page manifests: {}", e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path manifest) {
+        try {
+            Files.deleteIfExists(manifest);
+        } catch (IOException e) {
+            log.debug("Failed to delete page manifest {}", manifest);
+        }
+    }
+
+    /**
+     * Extracts image entries in natural name order, returning entry name to cached file name for each page.
+     */
+    private Map<String, String> extractCbxArchive(Path cbxPath, Path targetDir) throws IOException {
         String filename = cbxPath.getFileName().toString().toLowerCase();
         if (filename.endsWith(CBZ_EXTENSION)) {
-            extractZipArchive(cbxPath, targetDir);
+            return extractZipArchive(cbxPath, targetDir);
         } else if (filename.endsWith(CB7_EXTENSION)) {
-            extract7zArchive(cbxPath, targetDir);
+            return extract7zArchive(cbxPath, targetDir);
         } else if (filename.endsWith(CBR_EXTENSION)) {
-            extractRarArchive(cbxPath, targetDir);
+            return extractRarArchive(cbxPath, targetDir);
         } else {
             throw new IOException("Unsupported archive format: " + cbxPath.getFileName());
         }
     }
 
-    private void extractZipArchive(Path cbzPath, Path targetDir) throws IOException {
-        try (InputStream fis = Files.newInputStream(cbzPath);
-             ZipInputStream zis = new ZipInputStream(fis)) {
-
-            ZipEntry entry;
-            int index = 1;
-
-            while ((entry = zis.getNextEntry()) != null) {
-                isImageFile(entry.getName());
-                if (!entry.isDirectory() && isImageFile(entry.getName())) {
-                    Path target = targetDir.resolve(String.format("%04d.jpg", index++));
-                    Files.copy(zis, target, StandardCopyOption.REPLACE_EXISTING);
+    private Map<String, String> extractZipArchive(Path cbzPath, Path targetDir) throws IOException {
+        try (ZipFile zipFile = new ZipFile(cbzPath.toFile())) {
+            Map<String, String> pageFiles = assignPageFiles(listZipImages(zipFile));
+            for (Map.Entry<String, String> page : pageFiles.entrySet()) {
+                try (InputStream in = zipFile.getInputStream(zipFile.getEntry(page.getKey()))) {
+                    Files.copy(in, targetDir.resolve(page.getValue()), StandardCopyOption.REPLACE_EXISTING);
                 }
-                zis.closeEntry();
             }
+            return pageFiles;
         }
     }
 
-    private void extract7zArchive(Path cb7Path, Path targetDir) throws IOException {
+    private List<String> listZipImages(ZipFile zipFile) {
+        return zipFile.stream()
+                .filter(entry -> !entry.isDirectory() && isImageFile(entry.getName()))
+                .map(ZipEntry::getName)
+                .toList();
+    }
+
+    private Map<String, String> extract7zArchive(Path cb7Path, Path targetDir) throws IOException {
         try (SevenZFile sevenZFile = new SevenZFile(cb7Path.toFile())) {
+            List<String> names = new ArrayList<>();
+            for (SevenZArchiveEntry entry : sevenZFile.getEntries()) {
+                if (!entry.isDirectory() && isImageFile(entry.getName())) {
+                    names.add(entry.getName());
+                }
+            }
+            Map<String, String> pageFiles = assignPageFiles(names);
             SevenZArchiveEntry entry;
-            int index = 1;
             while ((entry = sevenZFile.getNextEntry()) != null) {
-                if (!entry.isDirectory() && isImageFile(entry.getName())) {
-                    Path target = targetDir.resolve(String.format("%04d.jpg", index++));
-                    try (OutputStream out = Files.newOutputStream(target)) {
+                String target = pageFiles.get(entry.getName());
+                if (target != null && !entry.isDirectory()) {
+                    try (OutputStream out = Files.newOutputStream(targetDir.resolve(target))) {
                         copySevenZEntry(sevenZFile, out, entry.getSize());
                     }
                 }
             }
+            return pageFiles;
         }
     }
 
@@ -157,36 +368,91 @@ public class CbxReaderService {
         }
     }
 
-    private void extractRarArchive(Path cbrPath, Path targetDir) throws IOException {
+    private Map<String, String> extractRarArchive(Path cbrPath, Path targetDir) throws IOException {
         try (Archive archive = new Archive(cbrPath.toFile())) {
-            List<FileHeader> headers = archive.getFileHeaders();
-            int index = 1;
+            List<FileHeader> headers = archive.getFileHeaders().stream()
+                    .filter(header -> !header.isDirectory() && isImageFile(header.getFileName()))
+                    .toList();
+            Map<String, String> pageFiles = assignPageFiles(headers.stream().map(FileHeader::getFileName).toList());
             for (FileHeader header : headers) {
-                if (!header.isDirectory() && isImageFile(header.getFileName())) {
-                    Path target = targetDir.resolve(String.format("%04d.jpg", index++));
-                    try (OutputStream out = Files.newOutputStream(target)) {
-                        archive.extractFile(header, out);
-                    }
+                try (OutputStream out = Files.newOutputStream(targetDir.resolve(pageFiles.get(header.getFileName())))) {
+                    archive.extractFile(header, out);
                 }
             }
+            return pageFiles;
         } catch (Exception e) {
             throw new IOException("Failed to extract CBR archive", e);
         }
     }
 
-    private boolean isImageFile(String name) {
-        String lower = name.toLowerCase().replace("\\", "/");
-        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png") || lower.endsWith(".webp");
+    private Map<String, String> assignPageFiles(List<String> entryNames) {
+        List<String> sorted = entryNames.stream()
+                .distinct()
+                .sorted(Comparator.comparing((String name) -> name.replace("\\", "/"), NaturalOrderComparator.INSTANCE))
+                .toList();
+        Map<String, String> pageFiles = new LinkedHashMap<>();
+        int index = 1;
+        for (String name : sorted) {
+            pageFiles.put(name, String.format("%04d.%s", index++, extensionOf(name)));
+        }
+        return pageFiles;
+    }
+
+    private String extensionOf(String name) {
+        String lower = name.toLowerCase();
+        String ext = lower.substring(lower.lastIndexOf('.') + 1);
+        return ext.equals("jpeg") ? "jpg" : ext;
     }
 
-    private int extractPageNumber(String filename) {
+    private String detectMediaType(InputStream in, String fileName) throws IOException {
+        byte[] header = new byte[12];
+        int read = in.readNBytes(header, 0, header.length);
+        if (read >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (read >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return "image/png";
+        }
+        if (read >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return "image/webp";
+        }
+        if (read >= 3 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F') {
+            return "image/gif";
+        }
+        return switch (extensionOf(fileName)) {
+            case "png" -> "image/png";
+            case "webp" -> "image/webp";
+            default -> "image/jpeg";
+        };
+    }
+
+    private void readDimensions(Path imagePath, CbxPageManifest.Page.PageBuilder page) {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(imagePath.toFile())) {
+            readDimensions(iis, page);
+        } catch (IOException e) {
+            log.debug("Could not read dimensions of {}: {}", imagePath, e.getMessage());
+        }
+    }
+
+    private void readDimensions(ImageInputStream iis, CbxPageManifest.Page.PageBuilder page) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+        if (!readers.hasNext()) return;
+        ImageReader reader = readers.next();
         try {
-            return Integer.parseInt(filename.replaceAll("\\D+", ""));
-        } catch (Exception e) {
-            return -1;
+            reader.setInput(iis, true, true);
+            page.width(reader.getWidth(0));
+            page.height(reader.getHeight(0));
+        } finally {
+            reader.dispose();
         }
     }
 
+    private boolean isImageFile(String name) {
+        String lower = name.toLowerCase().replace("\\", "/");
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png") || lower.endsWith(".webp");
+    }
+
     private boolean needsCacheRefresh(Path cbzPath, Path cacheInfoPath) throws IOException {
         if (!Files.exists(cacheInfoPath)) return true;
 
@@ -205,7 +471,6 @@ public class CbxReaderService {
         long lastModified = Files.getLastModifiedTime(cbzPath).toMillis();
         Files.writeString(cacheInfoPath, String.valueOf(lastModified), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
     }
-
     private void enforceCacheLimit() {
         try {
             Path cacheRoot = Path.of(fileService.getCbxCachePath());
@@ -232,6 +497,7 @@ public class CbxReaderService {
                 long sizeFreed = getDirectorySize(leastRecentlyReadDir);
                 FileUtils.deleteDirectoryRecursively(leastRecentlyReadDir);
                 cacheDirs.remove(leastRecentlyReadDir);
+                evictManifest(leastRecentlyReadDir);
                 totalSize -= sizeFreed;
                 log.info("Deleted cache directory {} to enforce cache size limit", leastRecentlyReadDir);
             }
@@ -240,6 +506,13 @@ public class CbxReaderService {
         }
     }
 
+    private void evictManifest(Path cacheDir) {
+        try {
+            manifestCache.remove(Long.valueOf(cacheDir.getFileName().toString()));
+        } catch (NumberFormatException ignored) {
+        }
+    }
+
     private long getLastReadTime(Path cacheDir) {
         Path cacheInfoPath = cacheDir.resolve(CACHE_INFO_FILENAME);
         if (!Files.exists(cacheInfoPath)) {
@@ -0,0 +1,361 @@
+package com.adityachandel.booklore.service.reader;
+
+import com.adityachandel.booklore.exception.ApiError;
+import com.adityachandel.booklore.model.dto.response.EpubBookInfo;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.util.FileUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Serves individual EPUB entries straight out of the book archive so the reader only transfers what it renders.
+ * <p>
+ * Opened archives are kept in a small LRU so the central directory is parsed once per book rather than per request;
+ * an entry is invalidated as soon as the file's size or modification time changes. Archives are reference counted,
+ * so one is only closed once the last request streaming from it has finished.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EpubReaderService {
+
+    private static final int MAX_OPEN_ARCHIVES = 32;
+    private static final String CONTAINER_PATH = "META-INF/container.xml";
+    private static final String CACHE_CONTROL = "private, max-age=86400, must-revalidate";
+
+    private static final Map<String, String> MEDIA_TYPES = Map.ofEntries(
+            Map.entry("xhtml", "application/xhtml+xml"),
+            Map.entry("htm", "text/html"),
+            Map.entry("html", "text/html"),
+            Map.entry("opf", "application/oebps-package+xml"),
+            Map.entry("ncx", "application/x-dtbncx+xml"),
+            Map.entry("xml", "application/xml"),
+            Map.entry("css", "text/css"),
+            Map.entry("js", "application/javascript"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("png", "image/png"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("webp", "image/webp"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("ttf", "font/ttf"),
+            Map.entry("otf", "font/otf"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"),
+            Map.entry("smil", "application/smil+xml"),
+            Map.entry("mp3", "audio/mpeg"),
+            Map.entry("m4a", "audio/mp4"),
+            Map.entry("mp4", "video/mp4")
+    );
+
+    private static final Set<String> ACTIVE_CONTENT_EXTENSIONS = Set.of("xhtml", "htm", "html", "svg", "js", "xml", "opf", "ncx", "smil");
+    // Book files are uploaded by users, so markup and scripts from them must not run with the app's origin
+    private static final String ACTIVE_CONTENT_POLICY = "sandbox; default-src 'none'; style-src 'self' 'unsafe-inline'; img-src 'self' data:; font-src 'self' data:; media-src 'self'";
+
+    private final BookRepository bookRepository;
+
+    private final Map<Long, EpubArchive> openArchives = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<EpubArchive>> openingArchives = new ConcurrentHashMap<>();
+
+    public EpubBookInfo getBookInfo(Long bookId) {
+        EpubArchive archive = acquireArchive(bookId);
+        try {
+            List<EpubBookInfo.Entry> entries = archive.zipFile().stream()
+                    .filter(entry -> !entry.isDirectory())
+                    .map(entry -> EpubBookInfo.Entry.builder()
+                            .path(entry.getName())
+                            .mediaType(resolveMediaType(entry.getName()).toString())
+                            .size(entry.getSize())
+                            .build())
+                    .toList();
+            return EpubBookInfo.builder()
+                    .opfPath(archive.opfPath())
+                    .entries(entries)
+                    .build();
+        } finally {
+            archive.release();
+        }
+    }
+
+    public void streamEntry(Long bookId, String entryPath, HttpServletRequest request, HttpServletResponse response) {
+        EpubArchive archive = acquireArchive(bookId);
+        try {
+            ZipEntry entry = archive.zipFile().getEntry(entryPath);
+            if (entry == null || entry.isDirectory()) {
+                throw ApiError.FILE_NOT_FOUND.createException(entryPath);
+            }
+
+            String etag = "\"" + archive.fingerprint() + "-" + Long.toHexString(entry.getCrc()) + "\"";
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, archive.lastModified());
+            if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            response.setContentType(resolveMediaType(entry.getName()).toString());
+            response.setHeader("X-Content-Type-Options", "nosniff");
+            if (isActiveContent(entry.getName())) {
+                response.setHeader("Content-Security-Policy", ACTIVE_CONTENT_POLICY);
+            }
+            if (entry.getSize() >= 0) {
+                response.setContentLengthLong(entry.getSize());
+            }
+            try (InputStream in = archive.zipFile().getInputStream(entry)) {
+                OutputStream out = response.getOutputStream();
+                in.transferTo(out);
+                out.flush();
+            } catch (IOException e) {
+                log.debug("Failed to stream EPUB entry {} of book {}: {}", entryPath, bookId, e.getMessage());
+            }
+        } finally {
+            archive.release();
+        }
+    }
+
+    /**
+     * Drops the cached archive of a book whose file was deleted, moved or replaced. Requests still streaming from it
+     * finish first, the file is closed after the last one.
+     */
+    public void evict(Long bookId) {
+        EpubArchive archive = openArchives.remove(bookId);
+        if (archive != null) {
+            archive.retire();
+        }
+    }
+
+    /**
+     * Returns the open archive of the book with a reference taken, which the caller must release. Each book's archive
+     * is opened once, concurrent first requests wait for it instead of opening their own.
+     */
+    private EpubArchive acquireArchive(Long bookId) {
+        while (true) {
+            EpubArchive archive = openArchives.get(bookId);
+            if (archive == null || !archive.isCurrent()) {
+                archive = openOrAwait(bookId);
+            }
+            if (archive.acquire()) {
+                evictLeastRecentlyUsed();
+                return archive;
+            }
+            // Retired between lookup and acquire, the next round opens or finds its replacement
+            openArchives.remove(bookId, archive);
+        }
+    }
+
+    /**
+     * Opens the archive of a book and replaces a stale one, outside any map lock so opening one book never holds up
+     * requests for others. A request arriving while the book is being opened waits for that open.
+     */
+    private EpubArchive openOrAwait(Long bookId) {
+        CompletableFuture<EpubArchive> opening = new CompletableFuture<>();
+        CompletableFuture<EpubArchive> inProgress = openingArchives.putIfAbsent(bookId, opening);
+        if (inProgress != null) {
+            try {
+                return inProgress.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            EpubArchive current = openArchives.get(bookId);
+            if (current == null || !current.isCurrent()) {
+                current = openArchive(bookId);
+                EpubArchive previous = openArchives.put(bookId, current);
+                if (previous != null) {
+                    previous.retire();
+                }
+            }
+            opening.complete(current);
+            return current;
+        } catch (RuntimeException e) {
+            opening.completeExceptionally(e);
+            throw e;
+        } finally {
+            openingArchives.remove(bookId, opening);
+        }
+    }
+
+    private EpubArchive openArchive(Long bookId) {
+        BookEntity bookEntity = bookRepository.findById(bookId).orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
+        if (bookEntity.getBookType() != BookFileType.EPUB) {
+            throw ApiError.GENERIC_BAD_REQUEST.createException("The requested book is not an EPUB file.");
+        }
+
+        Path epubPath = Path.of(FileUtils.getBookFullPath(bookEntity));
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(epubPath, BasicFileAttributes.class);
+            ZipFile zipFile = new ZipFile(epubPath.toFile());
+            String fingerprint = bookEntity.getCurrentHash() != null ? bookEntity.getCurrentHash() : Long.toHexString(attributes.size());
+            return new EpubArchive(epubPath, attributes.size(), attributes.lastModifiedTime().toMillis(), fingerprint, zipFile, findOpfPath(zipFile));
+        } catch (IOException e) {
+            log.error("Failed to open EPUB for book {}: {}", bookId, e.getMessage());
+            throw ApiError.FILE_READ_ERROR.createException();
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        while (openArchives.size() > MAX_OPEN_ARCHIVES) {
+            Optional<Map.Entry<Long, EpubArchive>> eldest = openArchives.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastUsed()));
+            if (eldest.isEmpty()) {
+                return;
+            }
+            if (openArchives.remove(eldest.get().getKey(), eldest.get().getValue())) {
+                eldest.get().getValue().retire();
+            }
+        }
+    }
+
+    private static boolean isActiveContent(String entryName) {
+        int dot = entryName.lastIndexOf('.');
+        return dot < 0 || ACTIVE_CONTENT_EXTENSIONS.contains(entryName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private String findOpfPath(ZipFile zipFile) {
+        ZipEntry container = zipFile.getEntry(CONTAINER_PATH);
+        if (container == null) {
+            return null;
+        }
+        try (InputStream in = zipFile.getInputStream(container)) {
+            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+            dbf.setNamespaceAware(true);
+            dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            Document doc = dbf.newDocumentBuilder().parse(in);
+            NodeList roots = doc.getElementsByTagNameNS("*", "rootfile");
+            return roots.getLength() > 0 ? ((Element) roots.item(0)).getAttribute("full-path") : null;
+        } catch (Exception e) {
+            log.warn("Failed to parse container.xml in {}: {}", zipFile.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    static MediaType resolveMediaType(String entryName) {
+        int dot = entryName.lastIndexOf('.');
+        if (dot >= 0) {
+            String type = MEDIA_TYPES.get(entryName.substring(dot + 1).toLowerCase(Locale.ROOT));
+            if (type != null) {
+                return MediaType.parseMediaType(type);
+            }
+        }
+        return MediaTypeFactory.getMediaType(entryName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    /**
+     * An open EPUB shared by concurrent requests. The cache holds one reference and every request one more; the zip is
+     * closed when the last reference is released after the archive was retired from the cache.
+     */
+    static final class EpubArchive {
+
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+        private final String fingerprint;
+        private final ZipFile zipFile;
+        private final String opfPath;
+        private int references = 1;
+        private boolean retired;
+        private volatile long lastUsed = System.nanoTime();
+
+        EpubArchive(Path path, long size, long lastModified, String fingerprint, ZipFile zipFile, String opfPath) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fingerprint = fingerprint;
+            this.zipFile = zipFile;
+            this.opfPath = opfPath;
+        }
+
+        ZipFile zipFile() {
+            return zipFile;
+        }
+
+        String opfPath() {
+            return opfPath;
+        }
+
+        String fingerprint() {
+            return fingerprint;
+        }
+
+        long lastModified() {
+            return lastModified;
+        }
+
+        long lastUsed() {
+            return lastUsed;
+        }
+
+        synchronized boolean acquire() {
+            if (retired) {
+                return false;
+            }
+            references++;
+            lastUsed = System.nanoTime();
+            return true;
+        }
+
+        synchronized void release() {
+            if (--references == 0) {
+                close();
+            }
+        }
+
+        synchronized void retire() {
+            if (!retired) {
+                retired = true;
+                release();
+            }
+        }
+
+        boolean isCurrent() {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return attributes.size() == size && attributes.lastModifiedTime().toMillis() == lastModified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        private void close() {
+            try {
+                zipFile.close();
+            } catch (IOException e) {
+                log.debug("Failed to close EPUB archive {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.adityachandel.booklore.service.reader;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Produces and serves downscaled variants of reader page images.
+ * <p>
+ * Requested widths are snapped to a small set of buckets so a book has at most a handful of variants per page. Variants
+ * are decoded with source subsampling (so a 4000px page is never fully decoded to produce a 720px one), written next to
+ * the original page in the reader cache, and evicted least-recently-used once they exceed their share of that cache.
+ * Variant sizes are tracked per cache root and re-read from disk whenever the share is exceeded, so the accounting
+ * survives restarts and page directories removed by the readers.
+ */
+@Slf4j
+@Service
+public class PageVariantService {
+
+    private static final int[] WIDTH_BUCKETS = {480, 720, 960, 1280, 1600, 2048};
+    private static final String VARIANTS_DIR = "variants";
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final String CACHE_CONTROL = "private, max-age=604800";
+    private static final int VARIANT_CACHE_SHARE_PERCENT = 25;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Lock[] variantLocks = IntStream.range(0, LOCK_STRIPES).mapToObj(i -> new ReentrantLock()).toArray(Lock[]::new);
+    private final Map<Path, VariantIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Streams the page at {@code originalPage}, or a downscaled variant if {@code width} is smaller than the page.
+     *
+     * @param cacheRoot     root of the owning reader cache, whose variants share one size budget
+     * @param bookHash      current hash of the book file, so a replaced book never matches a cached page
+     * @param maxCacheBytes size of the owning reader cache; variants may use a quarter of it
+     */
+    public void streamPage(Path cacheRoot, Path originalPage, String originalMediaType, String bookHash, Integer width, long maxCacheBytes,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!Files.exists(originalPage)) throw new FileNotFoundException("Page not found: " + originalPage.getFileName());
+        streamPage(cacheRoot, originalPage, Files.size(originalPage), () -> Files.newInputStream(originalPage), originalMediaType,
+                bookHash, width, maxCacheBytes, request, response);
+    }
+
+    /**
+     * Streams entry {@code entryName} of a store-mode ZIP pack without extracting it. Variants are stored as if the
+     * page had been extracted to {@code pagePath}, which itself is never written.
+     */
+    public void streamPackedPage(Path cacheRoot, Path pack, String entryName, Path pagePath, String originalMediaType, String bookHash,
+                                 Integer width, long maxCacheBytes, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (bookHash == null || bookHash.isBlank()) throw new FileNotFoundException("Page not found: " + pagePath.getFileName());
+        try (ZipFile zipFile = new ZipFile(pack.toFile())) {
+            ZipEntry entry = zipFile.getEntry(entryName);
+            if (entry == null) throw new FileNotFoundException("Page not found: " + pagePath.getFileName());
+            streamPage(cacheRoot, pagePath, entry.getSize(), () -> zipFile.getInputStream(entry), originalMediaType,
+                    bookHash, width, maxCacheBytes, request, response);
+        }
+    }
+
+    private void streamPage(Path cacheRoot, Path originalPage, long originalSize, InputStreamSource original, String originalMediaType,
+                            String bookHash, Integer width, long maxCacheBytes, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Integer bucket = width != null && width > 0 ? snapWidth(width) : null;
+        String etag = buildEtag(originalPage, bookHash, bucket);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        Path variant = bucket != null
+                ? getOrCreateVariant(cacheRoot, originalPage, original, bucket, maxCacheBytes * VARIANT_CACHE_SHARE_PERCENT / 100)
+                : null;
+        if (variant != null) {
+            response.setContentType("image/jpeg");
+            response.setContentLengthLong(Files.size(variant));
+        } else {
+            response.setContentType(originalMediaType);
+            response.setContentLengthLong(originalSize);
+        }
+        try (InputStream in = variant != null ? Files.newInputStream(variant) : original.getInputStream()) {
+            OutputStream out = response.getOutputStream();
+            in.transferTo(out);
+        }
+    }
+
+    private static String buildEtag(Path originalPage, String bookHash, Integer bucket) throws IOException {
+        String version = bookHash != null && !bookHash.isBlank()
+                ? bookHash
+                : Long.toHexString(Files.getLastModifiedTime(originalPage).toMillis()) + "-" + Long.toHexString(Files.size(originalPage));
+        return "\"" + version + "-" + originalPage.getFileName() + "-" + (bucket != null ? "w" + bucket : "o") + "\"";
+    }
+
+    /**
+     * Returns the variant path for the given bucket width, creating it on first use. Returns null when the original
+     * is already no wider than the requested width or cannot be decoded, in which case the original should be sent.
+     */
+    Path getOrCreateVariant(Path cacheRoot, Path originalPage, int targetWidth, long maxVariantBytes) {
+        return getOrCreateVariant(cacheRoot, originalPage, () -> Files.newInputStream(originalPage), targetWidth, maxVariantBytes);
+    }
+
+    private Path getOrCreateVariant(Path cacheRoot, Path originalPage, InputStreamSource original, int targetWidth, long maxVariantBytes) {
+        String baseName = originalPage.getFileName().toString();
+        int dot = baseName.lastIndexOf('.');
+        if (dot > 0) baseName = baseName.substring(0, dot);
+        Path variant = originalPage.resolveSibling(VARIANTS_DIR).resolve("w" + targetWidth).resolve(baseName + ".jpg");
+        VariantIndex index = indexes.computeIfAbsent(cacheRoot.toAbsolutePath().normalize(), VariantIndex::new);
+
+        if (Files.exists(variant)) {
+            index.touch(variant);
+            return variant;
+        }
+
+        // Striped rather than one lock per variant, so there is no entry to remove while another thread waits on it
+        Lock lock = variantLocks[Math.floorMod(variant.hashCode(), variantLocks.length)];
+        lock.lock();
+        try {
+            if (Files.exists(variant)) {
+                index.touch(variant);
+                return variant;
+            }
+            BufferedImage scaled = decodeScaled(original, targetWidth);
+            if (scaled == null) return null;
+
+            Files.createDirectories(variant.getParent());
+            Path temp = Files.createTempFile(variant.getParent(), baseName, ".tmp");
+            writeJpeg(scaled, temp);
+            Files.move(temp, variant, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            index.register(variant, Files.size(variant), maxVariantBytes);
+            return variant;
+        } catch (IOException e) {
+            log.warn("Failed to create {}px variant of {}: {}", targetWidth, originalPage, e.getMessage());
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private BufferedImage decodeScaled(InputStreamSource original, int targetWidth) throws IOException {
+        try (InputStream in = original.getInputStream(); ImageInputStream iis = new MemoryCacheImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if (sourceWidth <= targetWidth) return null;
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, sourceWidth / targetWidth);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                int targetHeight = (int) Math.round((double) sourceHeight * targetWidth / sourceWidth);
+                if (decoded.getWidth() == targetWidth) return decoded;
+                BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g2d = scaled.createGraphics();
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g2d.setColor(Color.WHITE);
+                g2d.fillRect(0, 0, targetWidth, targetHeight);
+                g2d.drawImage(decoded, 0, 0, targetWidth, targetHeight, null);
+                g2d.dispose();
+                return scaled;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    static int snapWidth(int requestedWidth) {
+        for (int bucket : WIDTH_BUCKETS) {
+            if (requestedWidth <= bucket) return bucket;
+        }
+        return WIDTH_BUCKETS[WIDTH_BUCKETS.length - 1];
+    }
+
+    /**
+     * LRU of the variants under one cache root. Loaded from disk on first use, ordered by modification time, and
+     * reloaded before evicting so variants removed together with their page directory no longer count.
+     */
+    static final class VariantIndex {
+
+        private final Path cacheRoot;
+        private final LinkedHashMap<Path, Long> sizes = new LinkedHashMap<>(256, 0.75f, true);
+        private long totalBytes;
+        private boolean loaded;
+
+        VariantIndex(Path cacheRoot) {
+            this.cacheRoot = cacheRoot;
+        }
+
+        synchronized void touch(Path variant) {
+            ensureLoaded();
+            sizes.get(variant);
+        }
+
+        synchronized void register(Path variant, long size, long maxBytes) {
+            ensureLoaded();
+            put(variant, size);
+            if (totalBytes <= maxBytes) return;
+
+            reload();
+            put(variant, size);
+            Iterator<Map.Entry<Path, Long>> iterator = sizes.entrySet().iterator();
+            while (totalBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<Path, Long> eldest = iterator.next();
+                if (eldest.getKey().equals(variant)) continue;
+                try {
+                    Files.deleteIfExists(eldest.getKey());
+                } catch (IOException e) {
+                    log.debug("Failed to evict page variant {}: {}", eldest.getKey(), e.getMessage());
+                }
+                totalBytes -= eldest.getValue();
+                iterator.remove();
+            }
+        }
+
+        synchronized long totalBytes() {
+            ensureLoaded();
+            return totalBytes;
+        }
+
+        private void put(Path variant, long size) {
+            Long previous = sizes.put(variant, size);
+            totalBytes += size - (previous != null ? previous : 0L);
+        }
+
+        private void ensureLoaded() {
+            if (!loaded) {
+                reload();
+            }
+        }
+
+        /**
+         * Re-reads the variants on disk. Variants this index has seen keep their access order after the ones it has
+         * not, which are ordered oldest first.
+         */
+        private void reload() {
+            Map<Path, Long> onDisk = new HashMap<>();
+            List<Map.Entry<Path, FileTime>> unseen = new ArrayList<>();
+            if (Files.isDirectory(cacheRoot)) {
+                try (Stream<Path> walk = Files.walk(cacheRoot)) {
+                    walk.filter(path -> path.getParent() != null && path.getParent().getParent() != null
+                                    && VARIANTS_DIR.equals(path.getParent().getParent().getFileName().toString()))
+                            .filter(path -> path.getFileName().toString().endsWith(".jpg"))
+                            .forEach(path -> {
+                                try {
+                                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                                    onDisk.put(path, attributes.size());
+                                    if (!sizes.containsKey(path)) {
+                                        unseen.add(Map.entry(path, attributes.lastModifiedTime()));
+                                    }
+                                } catch (IOException e) {
+                                    log.debug("Skipping page variant {}: {}", path, e.getMessage());
+                                }
+                            });
+                } catch (IOException | UncheckedIOException e) {
+                    log.warn("Failed to scan page variants under {}: {}", cacheRoot, e.getMessage());
+                    loaded = true;
+                    return;
+                }
+            }
+
+            List<Path> seen = new ArrayList<>(sizes.keySet());
+            sizes.clear();
+            totalBytes = 0;
+            unseen.stream()
+                    .sorted(Map.Entry.comparingByValue())
+                    .forEach(entry -> put(entry.getKey(), onDisk.get(entry.getKey())));
+            seen.stream()
+                    .filter(onDisk::containsKey)
+                    .forEach(path -> put(path, onDisk.get(path)));
+            loaded = true;
+        }
+    }
+}
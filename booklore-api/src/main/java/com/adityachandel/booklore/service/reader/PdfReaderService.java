@@ -6,12 +6,15 @@ import com.adityachandel.booklore.repository.BookRepository;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
 import com.adityachandel.booklore.util.FileService;
 import com.adityachandel.booklore.util.FileUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.ImageIO;
@@ -34,6 +37,7 @@ public class PdfReaderService {
     private final BookRepository bookRepository;
     private final AppSettingService appSettingService;
     private final FileService fileService;
+    private final PageVariantService pageVariantService;
 
     public List<Integer> getAvailablePages(Long bookId) throws IOException {
         BookEntity bookEntity = bookRepository.findById(bookId).orElseThrow(() -> ApiError.BOOK_NOT_FOUND.createException(bookId));
@@ -72,16 +76,17 @@ public class PdfReaderService {
         }
     }
 
-    public void streamPageImage(Long bookId, int page, OutputStream outputStream) throws IOException {
+    public void streamPageImage(Long bookId, int page, Integer width, HttpServletRequest request, HttpServletResponse response) throws IOException {
         Path pagePath = Path.of(fileService.getPdfCachePath(), String.valueOf(bookId), String.format("%04d.jpg", page));
-        if (!Files.exists(pagePath)) throw new FileNotFoundException("Page not found: " + page);
-        try (InputStream in = Files.newInputStream(pagePath)) {
-            try {
-                in.transferTo(outputStream);
-            } catch (IOException e) {
-                log.error("Error streaming page {} of book {}", page, bookId, e);
-                throw new UncheckedIOException("Failed to stream PDF page image for bookId: " + bookId, e);
-            }
+        long maxCacheSizeBytes = appSettingService.getAppSettings().getPdfCacheSizeInMb() * 1024L * 1024L;
+        String bookHash = bookRepository.findCurrentHashById(bookId).orElse(null);
+        try {
+            pageVariantService.streamPage(Path.of(fileService.getPdfCachePath()), pagePath, MediaType.IMAGE_JPEG_VALUE, bookHash, width, maxCacheSizeBytes, request, response);
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            log.error("Error streaming page {} of book {}", page, bookId, e);
+            throw new UncheckedIOException("Failed to stream PDF page image for bookId: " + bookId, e);
         }
     }
 
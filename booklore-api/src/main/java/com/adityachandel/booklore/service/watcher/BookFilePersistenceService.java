@@ -2,6 +2,7 @@ package com.adityachandel.booklore.service.watcher;
 
 import com.adityachandel.booklore.exception.ApiError;
 import com.adityachandel.booklore.mapper.BookMapper;
+import com.adityachandel.booklore.model.dto.Book;
 import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.entity.LibraryEntity;
 import com.adityachandel.booklore.model.entity.LibraryPathEntity;
@@ -20,6 +21,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static com.adityachandel.booklore.model.enums.PermissionType.ADMIN;
 import static com.adityachandel.booklore.model.enums.PermissionType.MANIPULATE_LIBRARY;
@@ -40,12 +42,19 @@ public class BookFilePersistenceService {
         newLibraryPath = entityManager.merge(newLibraryPath);
 
         String newSubPath = FileUtils.getRelativeSubPath(newLibraryPath.getPath(), path);
+        String newFileName = path.getFileName().toString();
 
-        boolean pathChanged = !Objects.equals(newSubPath, book.getFileSubPath()) || !Objects.equals(newLibraryPath.getId(), book.getLibraryPath().getId());
+        boolean pathChanged = !Objects.equals(newSubPath, book.getFileSubPath())
+                || !Objects.equals(newFileName, book.getFileName())
+                || !Objects.equals(newLibraryPath.getId(), book.getLibraryPath().getId());
 
         if (pathChanged) {
+            if (book.getLibrary() == null || !Objects.equals(book.getLibrary().getId(), libraryEntity.getId())) {
+                book.setLibrary(entityManager.merge(libraryEntity));
+            }
             book.setLibraryPath(newLibraryPath);
             book.setFileSubPath(newSubPath);
+            book.setFileName(newFileName);
             book.setDeleted(false);
             bookRepository.save(book);
             log.info("[FILE_CREATE] Updated path for existing book with hash '{}': '{}'", currentHash, path);
@@ -81,9 +90,7 @@ public class BookFilePersistenceService {
 
     @Transactional
     public int markAllBooksUnderPathAsDeleted(long libraryPathId, String relativeFolderPath) {
-        String normalizedPrefix = relativeFolderPath.endsWith("/") ? relativeFolderPath : (relativeFolderPath + "/");
-
-        List<BookEntity> books = bookRepository.findAllByLibraryPathIdAndFileSubPathStartingWith(libraryPathId, normalizedPrefix);
+        List<BookEntity> books = bookRepository.findAllInDirectory(libraryPathId, relativeFolderPath);
         books.forEach(book -> {
             book.setDeleted(true);
             book.setDeletedAt(Instant.now());
@@ -93,11 +100,64 @@ public class BookFilePersistenceService {
         return books.size();
     }
 
+    /**
+     * Book files under a directory, relative to that directory. Used to recognise the directory after a rename.
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findRelativeFilesInDirectory(long libraryPathId, String relativeFolderPath) {
+        Set<String> files = new HashSet<>();
+        for (BookEntity book : bookRepository.findAllInDirectory(libraryPathId, relativeFolderPath)) {
+            String nested = book.getFileSubPath().substring(relativeFolderPath.length());
+            files.add(nested.isEmpty() ? book.getFileName() : nested.substring(1) + "/" + book.getFileName());
+        }
+        return files;
+    }
+
+    /**
+     * Moves all books under a directory in one update and sends the moved books to clients, which would otherwise keep
+     * showing the old paths.
+     */
+    @Transactional
+    public int moveDirectory(long oldLibraryPathId, String oldFolderPath, LibraryEntity libraryEntity, Path newFolder) {
+        LibraryPathEntity newLibraryPath = entityManager.merge(getLibraryPathEntityForFile(libraryEntity, newFolder.toString()));
+        String newFolderPath = Paths.get(newLibraryPath.getPath()).relativize(newFolder).toString().replace("\\", "/");
+        Set<Long> bookIds = bookRepository.findAllInDirectory(oldLibraryPathId, oldFolderPath).stream()
+                .map(BookEntity::getId)
+                .collect(Collectors.toSet());
+        int moved = bookRepository.moveDirectory(oldLibraryPathId, oldFolderPath, newLibraryPath, newFolderPath);
+        if (!bookIds.isEmpty()) {
+            List<Book> movedBooks = bookRepository.findAllWithMetadataByIds(bookIds).stream()
+                    .map(bookMapper::toBook)
+                    .toList();
+            notificationService.sendMessageToPermissions(Topic.BOOK_METADATA_BATCH_UPDATE, movedBooks, Set.of(ADMIN, MANIPULATE_LIBRARY));
+        }
+        return moved;
+    }
+
+    @Transactional
+    public void relocateBook(long bookId, LibraryEntity libraryEntity, Path path, String currentHash) {
+        bookRepository.findById(bookId).ifPresent(book -> updatePathIfChanged(book, libraryEntity, path, currentHash));
+    }
+
+    @Transactional
+    public Optional<BookEntity> markBookDeleted(long bookId) {
+        return bookRepository.findById(bookId).map(book -> {
+            book.setDeleted(true);
+            bookRepository.save(book);
+            return book;
+        });
+    }
+
     @Transactional(readOnly = true)
     public Optional<BookEntity> findByLibraryPathSubPathAndFileName(long libraryPathId, String fileSubPath, String fileName) {
         return bookRepository.findByLibraryPath_IdAndFileSubPathAndFileName(libraryPathId, fileSubPath, fileName);
     }
 
+    @Transactional(readOnly = true)
+    public Set<String> findFileNamesInDirectory(long libraryPathId, String fileSubPath) {
+        return bookRepository.findFileNamesByLibraryPathIdAndFileSubPath(libraryPathId, fileSubPath);
+    }
+
     @Transactional
     public void save(BookEntity book) {
         bookRepository.save(book);
@@ -0,0 +1,163 @@
+package com.adityachandel.booklore.service.watcher;
+
+import com.adityachandel.booklore.config.AppProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Pairs the DELETE and CREATE events a move or rename produces so the existing book can be relinked in place.
+ * <p>
+ * Deletes are held back for the move detection window, which is longer than the coalescer's quiet period so the
+ * matching CREATE has time to arrive. Files are paired by library and fingerprint; directories by library and their
+ * subtree, i.e. the set of book files relative to the directory. A directory CREATE waits briefly for its DELETE because
+ * both events are reported at the same time but travel different paths through the watcher. Unpaired events fall back to the regular
+ * delete and create handling once their window expires.
+ */
+@Slf4j
+@Component
+public class BookMoveTracker {
+
+    private final long windowMs;
+    private final long directoryCreateWaitMs;
+    private final Map<FileKey, PendingFileDelete> fileDeletes = new ConcurrentHashMap<>();
+    private final List<PendingDirectoryDelete> directoryDeletes = new ArrayList<>();
+    private final List<PendingDirectoryCreate> directoryCreates = new ArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("book-move-tracker").daemon().factory());
+
+    public BookMoveTracker(AppProperties appProperties) {
+        AppProperties.Monitoring monitoring = appProperties.getMonitoring();
+        this.windowMs = Math.max(monitoring.getMoveDetectionWindowMs(), monitoring.getQuietPeriodMs() * 2);
+        this.directoryCreateWaitMs = monitoring.getDirectoryCreateWaitMs();
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::expire, 500, 500, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Holds back the deletion of a book until the window expires or a file with the same fingerprint shows up in the
+     * same library.
+     */
+    public void parkFileDelete(long libraryId, long bookId, String hash, Runnable onExpiry) {
+        PendingFileDelete replaced = fileDeletes.put(new FileKey(libraryId, hash), new PendingFileDelete(bookId, onExpiry, System.currentTimeMillis() + windowMs));
+        if (replaced != null) {
+            runSafely(replaced.onExpiry());
+        }
+    }
+
+    /**
+     * Returns the id of a book of the given library deleted within the window whose file had the given fingerprint.
+     */
+    public Optional<Long> claimFileDelete(long libraryId, String hash) {
+        return Optional.ofNullable(fileDeletes.remove(new FileKey(libraryId, hash))).map(PendingFileDelete::bookId);
+    }
+
+    /**
+     * Holds back the deletion of a directory's books. {@code onMove} is called with the new location if a directory
+     * with the same subtree is created within the window, {@code onExpiry} otherwise.
+     */
+    public void parkDirectoryDelete(long libraryId, Set<String> files, Consumer<Path> onMove, Runnable onExpiry) {
+        PendingDirectoryCreate match;
+        synchronized (this) {
+            match = directoryCreates.stream()
+                    .filter(create -> create.libraryId() == libraryId && create.files().equals(files))
+                    .findFirst()
+                    .orElse(null);
+            if (match != null) {
+                directoryCreates.remove(match);
+            } else {
+                directoryDeletes.add(new PendingDirectoryDelete(libraryId, files, onMove, onExpiry, System.currentTimeMillis() + windowMs));
+                return;
+            }
+        }
+        log.info("[MOVE] Directory moved to '{}'", match.directory());
+        runSafely(() -> onMove.accept(match.directory()));
+    }
+
+    /**
+     * Offers a newly created directory as the target of a pending directory delete. {@code onUnmatched} runs if no
+     * delete with the same subtree arrives shortly.
+     */
+    public void offerDirectoryCreate(long libraryId, Path directory, Set<String> files, Runnable onUnmatched) {
+        if (files.isEmpty()) {
+            runSafely(onUnmatched);
+            return;
+        }
+        PendingDirectoryDelete match;
+        synchronized (this) {
+            match = directoryDeletes.stream()
+                    .filter(delete -> delete.libraryId() == libraryId && delete.files().equals(files))
+                    .findFirst()
+                    .orElse(null);
+            if (match != null) {
+                directoryDeletes.remove(match);
+            } else {
+                directoryCreates.add(new PendingDirectoryCreate(libraryId, directory, files, onUnmatched, System.currentTimeMillis() + directoryCreateWaitMs));
+                return;
+            }
+        }
+        log.info("[MOVE] Directory moved to '{}'", directory);
+        runSafely(() -> match.onMove().accept(directory));
+    }
+
+    private void expire() {
+        long now = System.currentTimeMillis();
+        List<Runnable> expired = new ArrayList<>();
+
+        fileDeletes.forEach((key, pending) -> {
+            if (pending.expiresAt() <= now && fileDeletes.remove(key, pending)) {
+                expired.add(pending.onExpiry());
+            }
+        });
+        synchronized (this) {
+            directoryDeletes.removeIf(pending -> {
+                if (pending.expiresAt() > now) return false;
+                expired.add(pending.onExpiry());
+                return true;
+            });
+            directoryCreates.removeIf(pending -> {
+                if (pending.expiresAt() > now) return false;
+                expired.add(pending.onUnmatched());
+                return true;
+            });
+        }
+        expired.forEach(this::runSafely);
+    }
+
+    private void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.error("Error while applying deferred file event", e);
+        }
+    }
+
+    private record FileKey(long libraryId, String hash) {
+    }
+
+    private record PendingFileDelete(long bookId, Runnable onExpiry, long expiresAt) {
+    }
+
+    private record PendingDirectoryDelete(long libraryId, Set<String> files, Consumer<Path> onMove, Runnable onExpiry, long expiresAt) {
+    }
+
+    private record PendingDirectoryCreate(long libraryId, Path directory, Set<String> files, Runnable onUnmatched, long expiresAt) {
+    }
+}
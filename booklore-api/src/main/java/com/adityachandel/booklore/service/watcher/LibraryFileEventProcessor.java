@@ -1,5 +1,6 @@
 package com.adityachandel.booklore.service.watcher;
 
+import com.adityachandel.booklore.config.AppProperties;
 import com.adityachandel.booklore.exception.ApiError;
 import com.adityachandel.booklore.model.entity.BookEntity;
 import com.adityachandel.booklore.model.entity.LibraryEntity;
@@ -10,51 +11,144 @@ import com.adityachandel.booklore.model.websocket.Topic;
 import com.adityachandel.booklore.repository.LibraryRepository;
 import com.adityachandel.booklore.service.FileFingerprint;
 import com.adityachandel.booklore.service.NotificationService;
-import com.adityachandel.booklore.util.FileUtils;
 import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PreDestroy;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.nio.file.*;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
-import java.util.concurrent.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
 
+/**
+ * Applies watcher events to the library.
+ * <p>
+ * Events are partitioned into a fixed number of serial lanes keyed by library and file path, so events for the same
+ * path are always applied in order while unrelated files are processed concurrently. Library entities are cached
+ * between events and invalidated whenever the monitoring registration of a library changes. New files are ingested under
+ * a lock striped by content hash, so copies of one file landing in different lanes are not both imported.
+ * <p>
+ * At most {@code app.monitoring.max-in-flight-events} events are queued or running across all lanes; beyond that
+ * {@link #processFile} blocks, so the backlog stays in the watcher's bounded event queue.
+ */
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class LibraryFileEventProcessor {
 
-    private final BlockingQueue<FileEvent> eventQueue = new LinkedBlockingQueue<>();
-    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private static final int INGEST_LOCK_STRIPES = 64;
+
     private final LibraryRepository libraryRepository;
     private final BookFileTransactionalHandler bookFileTransactionalHandler;
     private final BookFilePersistenceService bookFilePersistenceService;
+    private final BookMoveTracker bookMoveTracker;
     private final NotificationService notificationService;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, LibraryEntity> libraryCache = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+    private final Lock[] ingestLocks = IntStream.range(0, INGEST_LOCK_STRIPES).mapToObj(i -> new ReentrantLock()).toArray(Lock[]::new);
+    private List<ExecutorService> lanes = List.of();
+    private Semaphore inFlight;
 
     @PostConstruct
     public void init() {
-        Thread.ofVirtual().start(() -> {
-            log.info("LibraryFileEventProcessor virtual thread started.");
-            while (!Thread.currentThread().isInterrupted()) {
+        int laneCount = Math.max(1, appProperties.getMonitoring().getWorkerThreads());
+        List<ExecutorService> created = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            created.add(Executors.newSingleThreadExecutor(Thread.ofVirtual().name("library-event-" + i).factory()));
+        }
+        lanes = List.copyOf(created);
+        inFlight = new Semaphore(Math.max(1, appProperties.getMonitoring().getMaxInFlightEvents()));
+        Gauge.builder("booklore.watcher.processor.queue.depth", pendingEvents, AtomicInteger::get)
+                .description("Watcher events waiting to be applied to libraries")
+                .register(meterRegistry);
+        log.info("LibraryFileEventProcessor started with {} lanes.", laneCount);
+    }
+
+    public void processFile(WatchEvent.Kind<?> eventKind, long libraryId, String libraryPath, String filePath) {
+        FileEvent event = new FileEvent(eventKind, libraryId, libraryPath, filePath);
+        ExecutorService lane = lanes.get(Math.floorMod(Objects.hash(libraryId, filePath), lanes.size()));
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Dropped file event for '{}': interrupted while waiting for a free lane", filePath);
+            return;
+        }
+        pendingEvents.incrementAndGet();
+        try {
+            lane.execute(() -> {
                 try {
-                    handleEvent(eventQueue.take());
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.warn("LibraryFileEventProcessor virtual thread interrupted.");
+                    handleEvent(event);
                 } catch (Exception e) {
                     log.error("Error while processing file event", e);
+                } finally {
+                    pendingEvents.decrementAndGet();
+                    inFlight.release();
                 }
-            }
-        });
+            });
+        } catch (RejectedExecutionException e) {
+            pendingEvents.decrementAndGet();
+            inFlight.release();
+            log.warn("Dropped file event for '{}': processor is shutting down", filePath);
+        }
     }
 
-    public void processFile(WatchEvent.Kind<?> eventKind, long libraryId, String libraryPath, String filePath) {
-        eventQueue.offer(new FileEvent(eventKind, libraryId, libraryPath, filePath));
+    /**
+     * Compares the book files directly inside {@code directory} with the books recorded for it. Used to recover from
+     * lost watcher events without rescanning the whole library.
+     */
+    public DirectoryDiff diffDirectory(long libraryId, Path directory) {
+        LibraryEntity library = getLibrary(libraryId);
+        LibraryPathEntity libraryPath = bookFilePersistenceService.getLibraryPathEntityForFile(library, directory.toString());
+        String fileSubPath = Paths.get(libraryPath.getPath()).toAbsolutePath().normalize()
+                .relativize(directory.toAbsolutePath().normalize())
+                .toString();
+        Set<String> known = new HashSet<>(bookFilePersistenceService.findFileNamesInDirectory(libraryPath.getId(), fileSubPath));
+
+        List<Path> added = new ArrayList<>();
+        try (var stream = Files.list(directory)) {
+            stream.filter(Files::isRegularFile)
+                    .filter(p -> isBookFile(p.getFileName().toString()))
+                    .forEach(p -> {
+                        if (!known.remove(p.getFileName().toString())) added.add(p);
+                    });
+        } catch (IOException e) {
+            log.warn("[RESCAN] Failed to list '{}': {}", directory, e.getMessage());
+            return new DirectoryDiff(List.of(), List.of());
+        }
+        List<Path> missing = known.stream().map(directory::resolve).toList();
+        return new DirectoryDiff(added, missing);
+    }
+
+    public int getPendingEventCount() {
+        return pendingEvents.get();
+    }
+
+    public void invalidateLibrary(Long libraryId) {
+        libraryCache.remove(libraryId);
+    }
+
+    private LibraryEntity getLibrary(long libraryId) {
+        LibraryEntity cached = libraryCache.get(libraryId);
+        if (cached != null) return cached;
+        LibraryEntity library = libraryRepository.findById(libraryId).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(libraryId));
+        libraryCache.put(libraryId, library);
+        return library;
     }
 
     private void handleEvent(FileEvent event) {
@@ -62,7 +156,7 @@ public class LibraryFileEventProcessor {
         String fileName = path.getFileName().toString();
         log.info("[PROCESS] '{}' event for '{}'", event.eventKind().name(), fileName);
 
-        LibraryEntity library = libraryRepository.findById(event.libraryId()).orElseThrow(() -> ApiError.LIBRARY_NOT_FOUND.createException(event.libraryId()));
+        LibraryEntity library = getLibrary(event.libraryId());
 
         if (library.getLibraryPaths().stream().noneMatch(lp -> path.toString().startsWith(lp.getPath()))) {
             log.warn("[SKIP] Path outside of library: '{}'", path);
@@ -93,7 +187,23 @@ public class LibraryFileEventProcessor {
     private void handleFileCreate(LibraryEntity library, Path path) {
         log.info("[FILE_CREATE] '{}'", path);
         String hash = FileFingerprint.generateHash(path);
-        bookFileTransactionalHandler.handleNewBookFile(library.getId(), path, hash);
+        Optional<Long> movedBookId = bookMoveTracker.claimFileDelete(library.getId(), hash);
+        if (movedBookId.isPresent()) {
+            log.info("[MOVE] Book {} moved to '{}'", movedBookId.get(), path);
+            bookFilePersistenceService.relocateBook(movedBookId.get(), library, path, hash);
+            return;
+        }
+        ingest(library.getId(), path, hash);
+    }
+
+    private void ingest(long libraryId, Path path, String hash) {
+        Lock lock = ingestLocks[Math.floorMod(Objects.hashCode(hash), ingestLocks.length)];
+        lock.lock();
+        try {
+            bookFileTransactionalHandler.handleNewBookFile(libraryId, path, hash);
+        } finally {
+            lock.unlock();
+        }
     }
 
     private void handleFileDelete(LibraryEntity library, Path path) {
@@ -108,10 +218,13 @@ public class LibraryFileEventProcessor {
 
             bookFilePersistenceService.findByLibraryPathSubPathAndFileName(libPathEntity.getId(), fileSubPath, fileName)
                     .ifPresentOrElse(book -> {
-                        book.setDeleted(true);
-                        bookFilePersistenceService.save(book);
-                        notificationService.sendMessageToPermissions(Topic.BOOKS_REMOVE, Set.of(book.getId()), Set.of(PermissionType.ADMIN, PermissionType.MANIPULATE_LIBRARY));
-                        log.info("[MARKED_DELETED] Book '{}' marked as deleted", fileName);
+                        long bookId = book.getId();
+                        if (book.getCurrentHash() == null) {
+                            markBookDeleted(bookId, fileName);
+                            return;
+                        }
+                        bookMoveTracker.parkFileDelete(library.getId(), bookId, book.getCurrentHash(), () -> markBookDeleted(bookId, fileName));
+                        log.info("[DELETE_PENDING] Book '{}' will be marked as deleted unless it reappears", fileName);
                     }, () -> log.warn("[NOT_FOUND] Book for deleted path '{}' not found", path));
 
         } catch (Exception e) {
@@ -119,6 +232,29 @@ public class LibraryFileEventProcessor {
         }
     }
 
+    private void markBookDeleted(long bookId, String fileName) {
+        bookFilePersistenceService.markBookDeleted(bookId).ifPresent(book -> {
+            notificationService.sendMessageToPermissions(Topic.BOOKS_REMOVE, Set.of(bookId), Set.of(PermissionType.ADMIN, PermissionType.MANIPULATE_LIBRARY));
+            log.info("[MARKED_DELETED] Book '{}' marked as deleted", fileName);
+        });
+    }
+
+    /**
+     * Called by the watcher for a directory that appeared in a library. If it is the new location of a directory that
+     * was just deleted, its books are moved in place; otherwise {@code onUnmatched} schedules its files for ingestion.
+     */
+    public void handleDirectoryCreated(long libraryId, Path directory, Runnable onUnmatched) {
+        Set<String> files = new HashSet<>();
+        try (var stream = Files.walk(directory)) {
+            stream.filter(Files::isRegularFile)
+                    .filter(p -> isBookFile(p.getFileName().toString()))
+                    .forEach(p -> files.add(directory.relativize(p).toString().replace("\\", "/")));
+        } catch (IOException e) {
+            log.warn("[ERROR] Walking folder '{}': {}", directory, e.getMessage());
+        }
+        bookMoveTracker.offerDirectoryCreate(libraryId, directory, files, onUnmatched);
+    }
+
     private void handleFolderCreate(LibraryEntity library, Path folderPath) {
         log.info("[FOLDER_CREATE] '{}'", folderPath);
         try (var stream = Files.walk(folderPath)) {
@@ -127,7 +263,7 @@ public class LibraryFileEventProcessor {
                     .forEach(p -> {
                         try {
                             String hash = FileFingerprint.generateHash(p);
-                            bookFileTransactionalHandler.handleNewBookFile(library.getId(), p, hash);
+                            ingest(library.getId(), p, hash);
                         } catch (Exception e) {
                             log.warn("[ERROR] Processing file '{}': {}", p, e.getMessage());
                         }
@@ -143,9 +279,20 @@ public class LibraryFileEventProcessor {
             String libPath = bookFilePersistenceService.findMatchingLibraryPath(library, folderPath);
             LibraryPathEntity libPathEntity = bookFilePersistenceService.getLibraryPathEntityForFile(library, libPath);
 
-            String relativePrefix = FileUtils.getRelativeSubPath(libPathEntity.getPath(), folderPath);
-            int count = bookFilePersistenceService.markAllBooksUnderPathAsDeleted(libPathEntity.getId(), relativePrefix);
-            log.info("[MARKED_DELETED] {} books under '{}'", count, folderPath);
+            String relativeFolder = Paths.get(libPathEntity.getPath()).relativize(folderPath).toString().replace("\\", "/");
+            long libraryPathId = libPathEntity.getId();
+            Set<String> files = bookFilePersistenceService.findRelativeFilesInDirectory(libraryPathId, relativeFolder);
+            if (files.isEmpty()) return;
+
+            bookMoveTracker.parkDirectoryDelete(library.getId(), files,
+                    newFolder -> {
+                        int count = bookFilePersistenceService.moveDirectory(libraryPathId, relativeFolder, library, newFolder);
+                        log.info("[MOVE] {} books moved from '{}' to '{}'", count, folderPath, newFolder);
+                    },
+                    () -> {
+                        int count = bookFilePersistenceService.markAllBooksUnderPathAsDeleted(libraryPathId, relativeFolder);
+                        log.info("[MARKED_DELETED] {} books under '{}'", count, folderPath);
+                    });
         } catch (Exception e) {
             log.warn("[ERROR] Folder delete '{}': {}", folderPath, e.getMessage());
         }
@@ -161,8 +308,11 @@ public class LibraryFileEventProcessor {
 
     @PreDestroy
     public void shutdown() {
-        worker.shutdownNow();
-        log.info("LibraryFileEventProcessor worker shutdown.");
+        lanes.forEach(ExecutorService::shutdownNow);
+        log.info("LibraryFileEventProcessor workers shutdown.");
+    }
+
+    public record DirectoryDiff(List<Path> added, List<Path> missing) {
     }
 
     public record FileEvent(WatchEvent.Kind<?> eventKind, long libraryId, String libraryPath, String filePath) {
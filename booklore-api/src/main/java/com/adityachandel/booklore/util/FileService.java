@@ -3,6 +3,7 @@ package com.adityachandel.booklore.util;
 import com.adityachandel.booklore.config.AppProperties;
 import com.adityachandel.booklore.exception.ApiError;
 import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.http.OutboundHttpClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
@@ -13,11 +14,12 @@ import org.springframework.web.multipart.MultipartFile;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -28,6 +30,7 @@ public class FileService {
 
     private final AppProperties appProperties;
     private final AppSettingService appSettingService;
+    private final OutboundHttpClient outboundHttpClient;
 
     public void createThumbnailFromFile(long bookId, MultipartFile file) {
         try {
@@ -98,9 +101,7 @@ public class FileService {
                 originalImage = ImageIO.read(inputStream);
             }
         } else {
-            try (InputStream inputStream = new URL(imageSource).openStream()) {
-                originalImage = ImageIO.read(inputStream);
-            }
+            originalImage = ImageIO.read(new ByteArrayInputStream(downloadCover(imageSource)));
         }
         if (originalImage == null) {
             throw new IOException("Failed to read image from: " + imageSource);
@@ -128,6 +129,29 @@ public class FileService {
         return resizedImage;
     }
 
+    public Path downloadToTempFile(String url) throws IOException {
+        byte[] image = downloadCover(url);
+        Path temp = Files.createTempFile("cover-", ".img");
+        try {
+            Files.write(temp, image);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+
+    private byte[] downloadCover(String url) throws IOException {
+        try {
+            return outboundHttpClient.download("cover", url);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid image URL: " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading " + url, e);
+        }
+    }
+
     public String getThumbnailPath(long bookId) {
         return appProperties.getPathConfig() + "/thumbs/" + bookId + "/";
     }
@@ -144,10 +168,18 @@ public class FileService {
         return appProperties.getPathConfig() + "/cbx_cache";
     }
 
+    public String getCbxManifestPath() {
+        return appProperties.getPathConfig() + "/cbx_manifests";
+    }
+
     public String getPdfCachePath() {
         return appProperties.getPathConfig() + "/pdf_cache";
     }
 
+    public String getMetadataCachePath() {
+        return appProperties.getPathConfig() + "/metadata_cache";
+    }
+
     public String getMissingThumbnailPath() {
         return appProperties.getPathConfig() + "/thumbs/missing/m.jpg";
     }
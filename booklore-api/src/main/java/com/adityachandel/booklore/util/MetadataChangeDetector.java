@@ -2,128 +2,144 @@ package com.adityachandel.booklore.util;
 
 import com.adityachandel.booklore.model.MetadataClearFlags;
 import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.model.dto.BookReview;
+import com.adityachandel.booklore.model.entity.AuthorEntity;
 import com.adityachandel.booklore.model.entity.BookMetadataEntity;
-import lombok.extern.slf4j.Slf4j;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.adityachandel.booklore.model.entity.CategoryEntity;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.service.metadata.BookReviewUpdateService;
 
+import java.time.Instant;
 import java.util.*;
-import java.util.function.Supplier;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-@Slf4j
 public class MetadataChangeDetector {
 
-    public static boolean isDifferent(BookMetadata newMeta, BookMetadataEntity existingMeta, MetadataClearFlags clear) {
-        if (clear == null) return true;
-
-        List<String> changes = new ArrayList<>();
-
-        compare(changes, "title", clear.isTitle(), newMeta.getTitle(), existingMeta.getTitle(), () -> !isTrue(existingMeta.getTitleLocked()), newMeta.getTitleLocked(), existingMeta.getTitleLocked());
-        compare(changes, "subtitle", clear.isSubtitle(), newMeta.getSubtitle(), existingMeta.getSubtitle(), () -> !isTrue(existingMeta.getSubtitleLocked()), newMeta.getSubtitleLocked(), existingMeta.getSubtitleLocked());
-        compare(changes, "publisher", clear.isPublisher(), newMeta.getPublisher(), existingMeta.getPublisher(), () -> !isTrue(existingMeta.getPublisherLocked()), newMeta.getPublisherLocked(), existingMeta.getPublisherLocked());
-        compare(changes, "publishedDate", clear.isPublishedDate(), newMeta.getPublishedDate(), existingMeta.getPublishedDate(), () -> !isTrue(existingMeta.getPublishedDateLocked()), newMeta.getPublishedDateLocked(), existingMeta.getPublishedDateLocked());
-        compare(changes, "description", clear.isDescription(), newMeta.getDescription(), existingMeta.getDescription(), () -> !isTrue(existingMeta.getDescriptionLocked()), newMeta.getDescriptionLocked(), existingMeta.getDescriptionLocked());
-        compare(changes, "seriesName", clear.isSeriesName(), newMeta.getSeriesName(), existingMeta.getSeriesName(), () -> !isTrue(existingMeta.getSeriesNameLocked()), newMeta.getSeriesNameLocked(), existingMeta.getSeriesNameLocked());
-        compare(changes, "seriesNumber", clear.isSeriesNumber(), newMeta.getSeriesNumber(), existingMeta.getSeriesNumber(), () -> !isTrue(existingMeta.getSeriesNumberLocked()), newMeta.getSeriesNumberLocked(), existingMeta.getSeriesNumberLocked());
-        compare(changes, "seriesTotal", clear.isSeriesTotal(), newMeta.getSeriesTotal(), existingMeta.getSeriesTotal(), () -> !isTrue(existingMeta.getSeriesTotalLocked()), newMeta.getSeriesTotalLocked(), existingMeta.getSeriesTotalLocked());
-        compare(changes, "isbn13", clear.isIsbn13(), newMeta.getIsbn13(), existingMeta.getIsbn13(), () -> !isTrue(existingMeta.getIsbn13Locked()), newMeta.getIsbn13Locked(), existingMeta.getIsbn13Locked());
-        compare(changes, "isbn10", clear.isIsbn10(), newMeta.getIsbn10(), existingMeta.getIsbn10(), () -> !isTrue(existingMeta.getIsbn10Locked()), newMeta.getIsbn10Locked(), existingMeta.getIsbn10Locked());
-        compare(changes, "asin", clear.isAsin(), newMeta.getAsin(), existingMeta.getAsin(), () -> !isTrue(existingMeta.getAsinLocked()), newMeta.getAsinLocked(), existingMeta.getAsinLocked());
-        compare(changes, "goodreadsId", clear.isGoodreadsId(), newMeta.getGoodreadsId(), existingMeta.getGoodreadsId(), () -> !isTrue(existingMeta.getGoodreadsIdLocked()), newMeta.getGoodreadsIdLocked(), existingMeta.getGoodreadsIdLocked());
-        compare(changes, "comicvineId", clear.isComicvineId(), newMeta.getComicvineId(), existingMeta.getComicvineId(), () -> !isTrue(existingMeta.getComicvineIdLocked()), newMeta.getComicvineIdLocked(), existingMeta.getComicvineIdLocked());
-        compare(changes, "hardcoverId", clear.isHardcoverId(), newMeta.getHardcoverId(), existingMeta.getHardcoverId(), () -> !isTrue(existingMeta.getHardcoverIdLocked()), newMeta.getHardcoverIdLocked(), existingMeta.getHardcoverIdLocked());
-        compare(changes, "googleId", clear.isGoogleId(), newMeta.getGoogleId(), existingMeta.getGoogleId(), () -> !isTrue(existingMeta.getGoogleIdLocked()), newMeta.getGoogleIdLocked(), existingMeta.getGoogleIdLocked());
-        compare(changes, "pageCount", clear.isPageCount(), newMeta.getPageCount(), existingMeta.getPageCount(), () -> !isTrue(existingMeta.getPageCountLocked()), newMeta.getPageCountLocked(), existingMeta.getPageCountLocked());
-        compare(changes, "language", clear.isLanguage(), newMeta.getLanguage(), existingMeta.getLanguage(), () -> !isTrue(existingMeta.getLanguageLocked()), newMeta.getLanguageLocked(), existingMeta.getLanguageLocked());
-        compare(changes, "personalRating", clear.isPersonalRating(), newMeta.getPersonalRating(), existingMeta.getPersonalRating(), () -> !isTrue(existingMeta.getPersonalRatingLocked()), newMeta.getPersonalRatingLocked(), existingMeta.getPersonalRatingLocked());
-        compare(changes, "amazonRating", clear.isAmazonRating(), newMeta.getAmazonRating(), existingMeta.getAmazonRating(), () -> !isTrue(existingMeta.getAmazonRatingLocked()), newMeta.getAmazonRatingLocked(), existingMeta.getAmazonRatingLocked());
-        compare(changes, "amazonReviewCount", clear.isAmazonReviewCount(), newMeta.getAmazonReviewCount(), existingMeta.getAmazonReviewCount(), () -> !isTrue(existingMeta.getAmazonReviewCountLocked()), newMeta.getAmazonReviewCountLocked(), existingMeta.getAmazonReviewCountLocked());
-        compare(changes, "goodreadsRating", clear.isGoodreadsRating(), newMeta.getGoodreadsRating(), existingMeta.getGoodreadsRating(), () -> !isTrue(existingMeta.getGoodreadsRatingLocked()), newMeta.getGoodreadsRatingLocked(), existingMeta.getGoodreadsRatingLocked());
-        compare(changes, "goodreadsReviewCount", clear.isGoodreadsReviewCount(), newMeta.getGoodreadsReviewCount(), existingMeta.getGoodreadsReviewCount(), () -> !isTrue(existingMeta.getGoodreadsReviewCountLocked()), newMeta.getGoodreadsReviewCountLocked(), existingMeta.getGoodreadsReviewCountLocked());
-        compare(changes, "hardcoverRating", clear.isHardcoverRating(), newMeta.getHardcoverRating(), existingMeta.getHardcoverRating(), () -> !isTrue(existingMeta.getHardcoverRatingLocked()), newMeta.getHardcoverRatingLocked(), existingMeta.getHardcoverRatingLocked());
-        compare(changes, "hardcoverReviewCount", clear.isHardcoverReviewCount(), newMeta.getHardcoverReviewCount(), existingMeta.getHardcoverReviewCount(), () -> !isTrue(existingMeta.getHardcoverReviewCountLocked()), newMeta.getHardcoverReviewCountLocked(), existingMeta.getHardcoverReviewCountLocked());
-        compare(changes, "authors", clear.isAuthors(), newMeta.getAuthors(), toNameSet(existingMeta.getAuthors()), () -> !isTrue(existingMeta.getAuthorsLocked()), newMeta.getAuthorsLocked(), existingMeta.getAuthorsLocked());
-        compare(changes, "categories", clear.isCategories(), newMeta.getCategories(), toNameSet(existingMeta.getCategories()), () -> !isTrue(existingMeta.getCategoriesLocked()), newMeta.getCategoriesLocked(), existingMeta.getCategoriesLocked());
+    /**
+     * Names of the fields whose value would change if {@code newMeta} were applied to {@code existingMeta}, following
+     * the rules of the metadata updater: locked fields are kept, a missing new value keeps the current one unless the
+     * field is cleared, and merged categories only change when a new one is added. The cover is not compared here,
+     * it cannot be told apart without downloading it.
+     */
+    public static Set<String> changedFields(BookMetadata newMeta, BookMetadataEntity existingMeta, MetadataClearFlags clear, boolean mergeCategories) {
+        MetadataClearFlags c = clear != null ? clear : new MetadataClearFlags();
+        Set<String> changes = new LinkedHashSet<>();
+
+        compare(changes, "title", existingMeta.getTitleLocked(), c.isTitle(), newMeta.getTitle(), existingMeta.getTitle());
+        compare(changes, "subtitle", existingMeta.getSubtitleLocked(), c.isSubtitle(), newMeta.getSubtitle(), existingMeta.getSubtitle());
+        compare(changes, "publisher", existingMeta.getPublisherLocked(), c.isPublisher(), newMeta.getPublisher(), existingMeta.getPublisher());
+        compare(changes, "publishedDate", existingMeta.getPublishedDateLocked(), c.isPublishedDate(), newMeta.getPublishedDate(), existingMeta.getPublishedDate());
+        compare(changes, "description", existingMeta.getDescriptionLocked(), c.isDescription(), newMeta.getDescription(), existingMeta.getDescription());
+        compare(changes, "seriesName", existingMeta.getSeriesNameLocked(), c.isSeriesName(), newMeta.getSeriesName(), existingMeta.getSeriesName());
+        compare(changes, "seriesNumber", existingMeta.getSeriesNumberLocked(), c.isSeriesNumber(), newMeta.getSeriesNumber(), existingMeta.getSeriesNumber());
+        compare(changes, "seriesTotal", existingMeta.getSeriesTotalLocked(), c.isSeriesTotal(), newMeta.getSeriesTotal(), existingMeta.getSeriesTotal());
+        compare(changes, "isbn13", existingMeta.getIsbn13Locked(), c.isIsbn13(), newMeta.getIsbn13(), existingMeta.getIsbn13());
+        compare(changes, "isbn10", existingMeta.getIsbn10Locked(), c.isIsbn10(), newMeta.getIsbn10(), existingMeta.getIsbn10());
+        compare(changes, "asin", existingMeta.getAsinLocked(), c.isAsin(), newMeta.getAsin(), existingMeta.getAsin());
+        compare(changes, "goodreadsId", existingMeta.getGoodreadsIdLocked(), c.isGoodreadsId(), newMeta.getGoodreadsId(), existingMeta.getGoodreadsId());
+        compare(changes, "comicvineId", existingMeta.getComicvineIdLocked(), c.isComicvineId(), newMeta.getComicvineId(), existingMeta.getComicvineId());
+        compare(changes, "hardcoverId", existingMeta.getHardcoverIdLocked(), c.isHardcoverId(), newMeta.getHardcoverId(), existingMeta.getHardcoverId());
+        compare(changes, "googleId", existingMeta.getGoogleIdLocked(), c.isGoogleId(), newMeta.getGoogleId(), existingMeta.getGoogleId());
+        compare(changes, "pageCount", existingMeta.getPageCountLocked(), c.isPageCount(), newMeta.getPageCount(), existingMeta.getPageCount());
+        compare(changes, "language", existingMeta.getLanguageLocked(), c.isLanguage(), newMeta.getLanguage(), existingMeta.getLanguage());
+        compare(changes, "personalRating", existingMeta.getPersonalRatingLocked(), c.isPersonalRating(), newMeta.getPersonalRating(), existingMeta.getPersonalRating());
+        compare(changes, "amazonRating", existingMeta.getAmazonRatingLocked(), c.isAmazonRating(), newMeta.getAmazonRating(), existingMeta.getAmazonRating());
+        compare(changes, "amazonReviewCount", existingMeta.getAmazonReviewCountLocked(), c.isAmazonReviewCount(), newMeta.getAmazonReviewCount(), existingMeta.getAmazonReviewCount());
+        compare(changes, "goodreadsRating", existingMeta.getGoodreadsRatingLocked(), c.isGoodreadsRating(), newMeta.getGoodreadsRating(), existingMeta.getGoodreadsRating());
+        compare(changes, "goodreadsReviewCount", existingMeta.getGoodreadsReviewCountLocked(), c.isGoodreadsReviewCount(), newMeta.getGoodreadsReviewCount(), existingMeta.getGoodreadsReviewCount());
+        compare(changes, "hardcoverRating", existingMeta.getHardcoverRatingLocked(), c.isHardcoverRating(), newMeta.getHardcoverRating(), existingMeta.getHardcoverRating());
+        compare(changes, "hardcoverReviewCount", existingMeta.getHardcoverReviewCountLocked(), c.isHardcoverReviewCount(), newMeta.getHardcoverReviewCount(), existingMeta.getHardcoverReviewCount());
+
+        compareSets(changes, "authors", existingMeta.getAuthorsLocked(), c.isAuthors(), false,
+                names(newMeta.getAuthors()), names(existingMeta.getAuthors(), AuthorEntity::getName));
+        compareSets(changes, "categories", existingMeta.getCategoriesLocked(), c.isCategories(), mergeCategories,
+                names(newMeta.getCategories()), names(existingMeta.getCategories(), CategoryEntity::getName));
+        compareReviews(changes, existingMeta, c, mergeCategories, newMeta.getBookReviews());
+
+        return changes;
+    }
 
-        Boolean coverLockedNew = newMeta.getCoverLocked();
-        Boolean coverLockedExisting = existingMeta.getCoverLocked();
-        if (differsLock(coverLockedNew, coverLockedExisting)) {
-            changes.add("cover lock: [" + isTrue(coverLockedExisting) + "] → [" + isTrue(coverLockedNew) + "]");
+    private static void compare(Set<String> changes, String field, Boolean locked, boolean shouldClear, Object newVal, Object oldVal) {
+        if (isTrue(locked)) return;
+        Object normOld = normalize(oldVal);
+        if (shouldClear) {
+            if (normOld != null) changes.add(field);
+            return;
         }
-
-        if (!changes.isEmpty()) {
-            /*changes.forEach(change -> log.info("Metadata change: {}", change));*/
-            return true;
+        if (newVal == null) return;
+        if (!Objects.equals(normalize(newVal), normOld)) {
+            changes.add(field);
         }
-
-        return false;
     }
 
-    private static void compare(List<String> diffs, String field, boolean shouldClear, Object newVal, Object oldVal, Supplier<Boolean> isUnlocked, Boolean newLock, Boolean oldLock) {
-        boolean valueChanged = differs(shouldClear, newVal, oldVal, isUnlocked);
-        boolean lockChanged = differsLock(newLock, oldLock);
-
-        if (valueChanged || lockChanged) {
-            StringBuilder sb = new StringBuilder();
-            sb.append(field);
-            if (valueChanged) sb.append(" value: [").append(safe(oldVal)).append("] → [").append(safe(newVal)).append("]");
-            if (lockChanged) sb.append(" lock: [").append(isTrue(oldLock)).append("] → [").append(isTrue(newLock)).append("]");
-            diffs.add(sb.toString());
+    private static <T> void compareSets(Set<String> changes, String field, Boolean locked, boolean shouldClear, boolean merge,
+                                        Set<T> newVal, Set<T> oldVal) {
+        if (isTrue(locked)) return;
+        Set<T> old = oldVal != null ? oldVal : Set.of();
+        if (shouldClear) {
+            if (!old.isEmpty()) changes.add(field);
+            return;
+        }
+        if (newVal == null) return;
+        boolean changed = merge ? !old.containsAll(newVal) : !old.equals(newVal);
+        if (changed) {
+            changes.add(field);
         }
     }
 
-    private static boolean differs(boolean shouldClear, Object newVal, Object oldVal, Supplier<Boolean> isUnlocked) {
-        if (!isUnlocked.get()) return false;
-
-        Object normNew = normalize(newVal);
-        Object normOld = normalize(oldVal);
-
-        // Ignore transitions from null to empty string or empty set
-        if (normOld == null && isEffectivelyEmpty(normNew)) return false;
-        if (shouldClear) return normOld != null;
-
-        return !Objects.equals(normNew, normOld);
-    }
-
-    private static boolean isEffectivelyEmpty(Object value) {
-        if (value == null) return true;
-        if (value instanceof String s) return s.isBlank();
-        if (value instanceof Collection<?> c) return c.isEmpty();
-        return false;
-    }
-
-    private static boolean differsLock(Boolean dtoLock, Boolean entityLock) {
-        return !Objects.equals(Boolean.TRUE.equals(dtoLock), Boolean.TRUE.equals(entityLock));
+    // Reviews are kept per provider up to a limit, so fetched reviews that would be dropped right away are no change
+    private static void compareReviews(Set<String> changes, BookMetadataEntity existingMeta, MetadataClearFlags clear, boolean merge,
+                                       List<BookReview> newReviews) {
+        if (isTrue(existingMeta.getReviewsLocked())) return;
+        Set<List<Object>> old = existingMeta.getReviews() != null
+                ? existingMeta.getReviews().stream().map(r -> reviewKey(r.getMetadataProvider(), r.getReviewerName(), r.getDate(), r.getBody())).collect(Collectors.toSet())
+                : Set.of();
+        if (clear.isReviews()) {
+            if (!old.isEmpty()) changes.add("reviews");
+            return;
+        }
+        if (newReviews == null) return;
+        Set<List<Object>> result = newReviews.stream()
+                .filter(r -> r != null && r.getMetadataProvider() != null)
+                .map(r -> reviewKey(r.getMetadataProvider(), r.getReviewerName(), r.getDate(), r.getBody()))
+                .collect(Collectors.toCollection(HashSet::new));
+        if (merge) result.addAll(old);
+        Set<List<Object>> kept = result.stream()
+                .collect(Collectors.groupingBy(key -> key.get(0)))
+                .values().stream()
+                .flatMap(keys -> keys.stream()
+                        .sorted(Comparator.comparing((List<Object> key) -> (Instant) key.get(2), Comparator.nullsLast(Comparator.<Instant>reverseOrder())))
+                        .limit(BookReviewUpdateService.MAX_REVIEWS_PER_PROVIDER))
+                .collect(Collectors.toSet());
+        if (!kept.equals(old)) {
+            changes.add("reviews");
+        }
     }
 
-    private static String safe(Object val) {
-        if (val == null) return "null";
-        if (val instanceof Set<?> set) return set.stream().map(String::valueOf).sorted().collect(Collectors.joining(", ", "[", "]"));
-        return val.toString().strip();
+    private static List<Object> reviewKey(MetadataProvider provider, String reviewerName, Instant date, String body) {
+        return Arrays.asList(provider, reviewerName, date, body);
     }
 
     private static Object normalize(Object value) {
-        if (value instanceof String s) return s.strip();
+        if (value instanceof String s) return s.isBlank() ? null : s.strip();
         return value;
     }
 
-    private static Set<String> toNameSet(Set<?> entities) {
-        if (entities == null) return null;
-        return entities.stream()
-                .map(e -> {
-                    try {
-                        return (String) e.getClass().getMethod("getName").invoke(e);
-                    } catch (Exception ex) {
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
+    private static Set<String> names(Collection<String> values) {
+        if (values == null) return null;
+        return values.stream()
+                .filter(v -> v != null && !v.isBlank())
                 .map(String::strip)
                 .collect(Collectors.toSet());
     }
 
+    private static <E> Set<String> names(Set<E> entities, Function<E, String> name) {
+        if (entities == null) return null;
+        return names(entities.stream().map(name).toList());
+    }
+
     private static boolean isTrue(Boolean value) {
         return Boolean.TRUE.equals(value);
     }
-}
\ No newline at end of file
+}
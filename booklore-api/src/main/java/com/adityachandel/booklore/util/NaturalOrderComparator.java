@@ -0,0 +1,50 @@
+package com.adityachandel.booklore.util;
+
+import java.util.Comparator;
+
+/**
+ * Compares strings so that embedded numbers sort by value ("page2" before "page10"), ignoring case elsewhere.
+ */
+public class NaturalOrderComparator implements Comparator<String> {
+
+    public static final NaturalOrderComparator INSTANCE = new NaturalOrderComparator();
+
+    @Override
+    public int compare(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(j);
+            if (Character.isDigit(ca) && Character.isDigit(cb)) {
+                int startA = i;
+                int startB = j;
+                while (startA < a.length() - 1 && a.charAt(startA) == '0' && Character.isDigit(a.charAt(startA + 1))) startA++;
+                while (startB < b.length() - 1 && b.charAt(startB) == '0' && Character.isDigit(b.charAt(startB + 1))) startB++;
+                int endA = startA;
+                int endB = startB;
+                while (endA < a.length() && Character.isDigit(a.charAt(endA))) endA++;
+                while (endB < b.length() && Character.isDigit(b.charAt(endB))) endB++;
+                int lenA = endA - startA;
+                int lenB = endB - startB;
+                if (lenA != lenB) {
+                    return Integer.compare(lenA, lenB);
+                }
+                for (int k = 0; k < lenA; k++) {
+                    int diff = Character.compare(a.charAt(startA + k), b.charAt(startB + k));
+                    if (diff != 0) return diff;
+                }
+                i = endA;
+                j = endB;
+            } else {
+                int diff = Character.compare(Character.toLowerCase(ca), Character.toLowerCase(cb));
+                if (diff != 0) return diff;
+                i++;
+                j++;
+            }
+        }
+        int diff = Integer.compare(a.length() - i, b.length() - j);
+        // Names that differ only in leading zeros or case are still ordered, so the comparator stays consistent with equals
+        return diff != 0 ? diff : a.compareTo(b);
+    }
+}
@@ -0,0 +1,3 @@
+ALTER TABLE bookdrop_file
+    ADD COLUMN file_last_modified BIGINT,
+    ADD COLUMN file_hash          VARCHAR(128);
@@ -0,0 +1,24 @@
+CREATE TABLE metadata_refresh_queue
+(
+    job_id       VARCHAR(100) PRIMARY KEY,
+    user_id      BIGINT      NOT NULL,
+    request_json JSON        NOT NULL,
+    status       VARCHAR(20) NOT NULL,
+    total_books  INT         NOT NULL,
+    queued_at    TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at   TIMESTAMP            DEFAULT NULL
+);
+
+CREATE INDEX idx_metadata_refresh_queue_status ON metadata_refresh_queue (status, queued_at);
+
+CREATE TABLE metadata_refresh_queue_book
+(
+    job_id  VARCHAR(100) NOT NULL,
+    book_id BIGINT       NOT NULL,
+    PRIMARY KEY (job_id, book_id),
+
+    CONSTRAINT fk_metadata_refresh_queue_book_job
+        FOREIGN KEY (job_id)
+            REFERENCES metadata_refresh_queue (job_id)
+            ON DELETE CASCADE
+);
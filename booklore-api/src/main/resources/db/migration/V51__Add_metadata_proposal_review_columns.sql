@@ -0,0 +1,5 @@
+ALTER TABLE metadata_fetch_proposals
+    ADD COLUMN confidence     DOUBLE,
+    ADD COLUMN changed_fields VARCHAR(1024);
+
+CREATE INDEX idx_metadata_proposal_task_status_confidence ON metadata_fetch_proposals (task_id, status, confidence);
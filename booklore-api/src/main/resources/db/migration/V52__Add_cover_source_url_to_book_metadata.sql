@@ -0,0 +1,2 @@
+ALTER TABLE book_metadata
+    ADD COLUMN IF NOT EXISTS cover_source_url VARCHAR(1000);
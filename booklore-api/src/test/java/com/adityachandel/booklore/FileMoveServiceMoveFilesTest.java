@@ -13,6 +13,7 @@ import com.adityachandel.booklore.service.appsettings.AppSettingService;
 import com.adityachandel.booklore.service.file.FileMoveService;
 import com.adityachandel.booklore.service.library.LibraryService;
 import com.adityachandel.booklore.service.monitoring.MonitoringService;
+import com.adityachandel.booklore.service.reader.BookReaderCacheService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
@@ -57,6 +58,9 @@ class FileMoveServiceMoveFilesTest {
     @Mock
     private LibraryService libraryService;
 
+    @Mock
+    private BookReaderCacheService bookReaderCacheService;
+
     @InjectMocks
     private FileMoveService fileMoveService;
 
@@ -0,0 +1,117 @@
+package com.adityachandel.booklore.quartz;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.dto.request.MetadataRefreshRequest;
+import com.adityachandel.booklore.model.entity.MetadataRefreshQueueEntity;
+import com.adityachandel.booklore.model.enums.MetadataRefreshQueueStatus;
+import com.adityachandel.booklore.repository.MetadataRefreshQueueRepository;
+import com.adityachandel.booklore.service.metadata.MetadataRefreshService;
+import com.adityachandel.booklore.service.user.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.quartz.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JobSchedulerServiceTest {
+
+    private static final int SMALL_JOB_MAX_BOOKS = 20;
+    private final Instant now = Instant.now();
+
+    @Test
+    void pickNext_shouldKeepOneSlotFreeOfLargeJobs() {
+        MetadataRefreshQueueEntity library = job("library", 2L, 5000, 1);
+        List<JobSchedulerService.RunningJob> running = List.of(new JobSchedulerService.RunningJob(1L, true));
+
+        assertThat(JobSchedulerService.pickNext(List.of(library), running, 2, SMALL_JOB_MAX_BOOKS)).isNull();
+
+        MetadataRefreshQueueEntity singleBook = job("single", 2L, 1, 2);
+        assertThat(JobSchedulerService.pickNext(List.of(library, singleBook), running, 2, SMALL_JOB_MAX_BOOKS)).isSameAs(singleBook);
+    }
+
+    @Test
+    void pickNext_shouldRunLargeJobsWhenThereIsASingleSlot() {
+        MetadataRefreshQueueEntity library = job("library", 1L, 5000, 1);
+
+        assertThat(JobSchedulerService.pickNext(List.of(library), List.of(), 1, SMALL_JOB_MAX_BOOKS)).isSameAs(library);
+    }
+
+    @Test
+    void pickNext_shouldPreferUsersWithFewerRunningJobs() {
+        MetadataRefreshQueueEntity busyUsersJob = job("busy", 1L, 5, 1);
+        MetadataRefreshQueueEntity idleUsersJob = job("idle", 2L, 5, 2);
+        List<JobSchedulerService.RunningJob> running = List.of(new JobSchedulerService.RunningJob(1L, false));
+
+        assertThat(JobSchedulerService.pickNext(List.of(busyUsersJob, idleUsersJob), running, 3, SMALL_JOB_MAX_BOOKS)).isSameAs(idleUsersJob);
+    }
+
+    @Test
+    void pickNext_shouldRunSmallJobsBeforeOlderLargeOnes() {
+        MetadataRefreshQueueEntity library = job("library", 1L, 500, 1);
+        MetadataRefreshQueueEntity books = job("books", 1L, 3, 2);
+
+        assertThat(JobSchedulerService.pickNext(List.of(library, books), List.of(), 2, SMALL_JOB_MAX_BOOKS)).isSameAs(books);
+    }
+
+    @Test
+    void cancelJob_shouldKeepSlotUntilTheJobHasStopped() throws Exception {
+        Scheduler scheduler = mock(Scheduler.class);
+        ListenerManager listenerManager = mock(ListenerManager.class);
+        MetadataRefreshQueueRepository queueRepository = mock(MetadataRefreshQueueRepository.class);
+        AppProperties appProperties = new AppProperties();
+        appProperties.getMetadataRefresh().setMaxConcurrentJobs(1);
+        ObjectMapper objectMapper = mock(ObjectMapper.class);
+        when(objectMapper.readValue(anyString(), eq(MetadataRefreshRequest.class))).thenReturn(MetadataRefreshRequest.builder().build());
+        MetadataRefreshService metadataRefreshService = mock(MetadataRefreshService.class);
+        JobSchedulerService service = new JobSchedulerService(scheduler, queueRepository, metadataRefreshService,
+                mock(UserService.class), objectMapper, appProperties);
+
+        MetadataRefreshQueueEntity first = job("first", 1L, 5, 1);
+        MetadataRefreshQueueEntity second = job("second", 2L, 5, 2);
+        when(scheduler.getListenerManager()).thenReturn(listenerManager);
+        when(scheduler.interrupt(new JobKey("first", JobSchedulerService.JOB_GROUP))).thenReturn(true);
+        when(queueRepository.findAllByStatusOrderByQueuedAtAsc(MetadataRefreshQueueStatus.QUEUED)).thenReturn(List.of(first, second));
+        service.resumeQueuedJobs();
+        ArgumentCaptor<JobListener> listener = ArgumentCaptor.forClass(JobListener.class);
+        verify(listenerManager).addJobListener(listener.capture(), any(Matcher.class));
+        verify(scheduler, times(1)).scheduleJob(any(JobDetail.class), any(Trigger.class));
+
+        assertThat(service.cancelJob("first")).isTrue();
+        InOrder cancellation = inOrder(metadataRefreshService, scheduler);
+        cancellation.verify(metadataRefreshService).markCancelled("first");
+        cancellation.verify(scheduler).interrupt(new JobKey("first", JobSchedulerService.JOB_GROUP));
+        verify(queueRepository).deleteById("first");
+        verify(scheduler, times(1)).scheduleJob(any(JobDetail.class), any(Trigger.class));
+
+        when(queueRepository.findAllByStatusOrderByQueuedAtAsc(MetadataRefreshQueueStatus.QUEUED)).thenReturn(List.of(second));
+        JobExecutionContext context = mock(JobExecutionContext.class);
+        JobDetail jobDetail = mock(JobDetail.class);
+        when(context.getJobDetail()).thenReturn(jobDetail);
+        when(jobDetail.getKey()).thenReturn(new JobKey("first", JobSchedulerService.JOB_GROUP));
+        listener.getValue().jobWasExecuted(context, null);
+
+        ArgumentCaptor<JobDetail> started = ArgumentCaptor.forClass(JobDetail.class);
+        verify(scheduler, times(2)).scheduleJob(started.capture(), any(Trigger.class));
+        assertThat(started.getAllValues().get(1).getKey().getName()).isEqualTo("second");
+    }
+
+    private MetadataRefreshQueueEntity job(String jobId, Long userId, int totalBooks, int queuePosition) {
+        return MetadataRefreshQueueEntity.builder()
+                .jobId(jobId)
+                .userId(userId)
+                .status(MetadataRefreshQueueStatus.QUEUED)
+                .totalBooks(totalBooks)
+                .requestJson("{}")
+                .queuedAt(now.plusSeconds(queuePosition))
+                .build();
+    }
+}
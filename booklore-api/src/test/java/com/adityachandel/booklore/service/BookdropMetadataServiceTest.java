@@ -149,7 +149,7 @@ class BookdropMetadataServiceTest {
     }
 
     @Test
-    void attachFetchedMetadata_shouldSleepIfGoodreadsIncluded() throws Exception {
+    void attachFetchedMetadata_shouldFetchWhenGoodreadsIncluded() throws Exception {
         sampleFile.setOriginalMetadata("{\"title\":\"Book\"}");
         AppSettings settings = new AppSettings();
         BookMetadata fetched = BookMetadata.builder().title("Fetched Book").build();
@@ -170,6 +170,37 @@ class BookdropMetadataServiceTest {
         verify(bookdropFileRepository).save(result);
     }
 
+    @Test
+    void attachFetchedMetadata_shouldShareLookupForSameIsbn() throws Exception {
+        BookdropFileEntity pdfCopy = new BookdropFileEntity();
+        pdfCopy.setId(2L);
+        pdfCopy.setFileName("book.pdf");
+        pdfCopy.setFilePath("/tmp/book.pdf");
+        sampleFile.setOriginalMetadata("{\"isbn13\":\"978-0-306-40615-7\"}");
+        pdfCopy.setOriginalMetadata("{\"isbn10\":\"0306406152\"}");
+        BookMetadata epubMetadata = BookMetadata.builder().title("Book").isbn13("978-0-306-40615-7").build();
+        BookMetadata pdfMetadata = BookMetadata.builder().title("Book (PDF)").isbn10("0306406152").build();
+        BookMetadata fetched = BookMetadata.builder().title("Fetched Book").build();
+
+        when(bookdropFileRepository.findById(1L)).thenReturn(Optional.of(sampleFile));
+        when(bookdropFileRepository.findById(2L)).thenReturn(Optional.of(pdfCopy));
+        when(appSettingService.getAppSettings()).thenReturn(new AppSettings());
+        when(metadataRefreshService.prepareProviders(any())).thenReturn(List.of(MetadataProvider.Google));
+        when(objectMapper.readValue(sampleFile.getOriginalMetadata(), BookMetadata.class)).thenReturn(epubMetadata);
+        when(objectMapper.readValue(pdfCopy.getOriginalMetadata(), BookMetadata.class)).thenReturn(pdfMetadata);
+        when(metadataRefreshService.fetchMetadataForBook(any(), any(Book.class))).thenReturn(Map.of(MetadataProvider.Google, fetched));
+        when(metadataRefreshService.buildFetchMetadata(any(), any(), any())).thenReturn(fetched);
+        when(objectMapper.writeValueAsString(fetched)).thenReturn("{\"title\":\"Fetched Book\"}");
+        when(bookdropFileRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bookdropMetadataService.attachFetchedMetadata(1L);
+        BookdropFileEntity result = bookdropMetadataService.attachFetchedMetadata(2L);
+
+        assertThat(result.getFetchedMetadata()).contains("Fetched Book");
+        verify(metadataRefreshService, times(1)).fetchMetadataForBook(any(), any(Book.class));
+        verify(metadataRefreshService, times(2)).buildFetchMetadata(any(), any(), any());
+    }
+
     @Test
     void attachFetchedMetadata_shouldThrowOnJsonProcessingError() throws Exception {
         sampleFile.setOriginalMetadata("{invalidJson}");
@@ -6,6 +6,8 @@ import com.adityachandel.booklore.model.dto.BookLoreUser;
 import com.adityachandel.booklore.model.dto.FetchedProposal;
 import com.adityachandel.booklore.model.dto.MetadataBatchProgressNotification;
 import com.adityachandel.booklore.model.dto.MetadataFetchTask;
+import com.adityachandel.booklore.model.dto.request.MetadataProposalBulkStatusRequest;
+import com.adityachandel.booklore.model.dto.request.MetadataProposalFilter;
 import com.adityachandel.booklore.model.dto.response.MetadataTaskDetailsResponse;
 import com.adityachandel.booklore.model.entity.MetadataFetchJobEntity;
 import com.adityachandel.booklore.model.entity.MetadataFetchProposalEntity;
@@ -16,6 +18,11 @@ import com.adityachandel.booklore.repository.MetadataFetchProposalRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 import java.time.Instant;
 import java.util.List;
@@ -58,10 +65,8 @@ class MetadataTaskServiceTest {
     }
 
     @Test
-    void getTaskWithProposals_shouldReturnTaskWithFilteredProposals() {
+    void getTaskWithProposals_shouldReturnTaskWithPendingProposalCount() {
         MetadataFetchJobEntity jobEntity = mock(MetadataFetchJobEntity.class);
-        MetadataFetchProposalEntity p1 = mock(MetadataFetchProposalEntity.class);
-        MetadataFetchProposalEntity p2 = mock(MetadataFetchProposalEntity.class);
 
         when(jobEntity.getTaskId()).thenReturn("task1");
         when(jobEntity.getStatus()).thenReturn(MetadataFetchTaskStatus.IN_PROGRESS);
@@ -72,14 +77,8 @@ class MetadataTaskServiceTest {
         when(jobEntity.getCompletedAt()).thenReturn(null);
         when(jobEntity.getUserId()).thenReturn(99L);
 
-        when(p1.getStatus()).thenReturn(FetchedMetadataProposalStatus.FETCHED);
-        when(p2.getStatus()).thenReturn(FetchedMetadataProposalStatus.ACCEPTED);
-
-        when(jobEntity.getProposals()).thenReturn(List.of(p1, p2));
         when(jobRepository.findById("task1")).thenReturn(Optional.of(jobEntity));
-
-        FetchedProposal dto1 = mock(FetchedProposal.class);
-        when(fetchedProposalMapper.toDto(p1)).thenReturn(dto1);
+        when(proposalRepository.countByJob_TaskIdAndStatus("task1", FetchedMetadataProposalStatus.FETCHED)).thenReturn(1L);
 
         Optional<MetadataTaskDetailsResponse> optResponse = service.getTaskWithProposals("task1");
         assertThat(optResponse).isPresent();
@@ -94,33 +93,79 @@ class MetadataTaskServiceTest {
         assertThat(taskDto.getStartedAt()).isEqualTo(now.minusSeconds(60));
         assertThat(taskDto.getCompletedAt()).isNull();
         assertThat(taskDto.getInitiatedBy()).isEqualTo(99L);
-        assertThat(taskDto.getProposals()).containsExactly(dto1);
+        assertThat(taskDto.getPendingProposals()).isEqualTo(1L);
 
         verify(jobRepository).findById("task1");
-        verify(fetchedProposalMapper).toDto(p1);
-        verifyNoMoreInteractions(proposalRepository);
+        verify(jobEntity, never()).getProposals();
+        verifyNoInteractions(fetchedProposalMapper);
+    }
+
+    @Test
+    void getProposals_shouldPassFilterAndMapSliceAfterProposalId() {
+        MetadataFetchProposalEntity entity = mock(MetadataFetchProposalEntity.class);
+        FetchedProposal dto = mock(FetchedProposal.class);
+        Pageable pageable = PageRequest.of(3, 50, Sort.by("confidence"));
+        Pageable keyset = PageRequest.of(0, 50);
+        MetadataProposalFilter filter = new MetadataProposalFilter();
+        filter.setStatus(FetchedMetadataProposalStatus.FETCHED);
+        filter.setMaxConfidence(0.5);
+        filter.setChangedField(" cover ");
+        filter.setAfterProposalId(100L);
+
+        when(proposalRepository.findFiltered("task1", FetchedMetadataProposalStatus.FETCHED, null, 0.5, "cover", 100L, keyset))
+                .thenReturn(new SliceImpl<>(List.of(entity), keyset, false));
+        when(fetchedProposalMapper.toDto(entity)).thenReturn(dto);
+
+        Slice<FetchedProposal> slice = service.getProposals("task1", filter, pageable);
+
+        assertThat(slice.getContent()).containsExactly(dto);
+        assertThat(slice.isLast()).isTrue();
+    }
+
+    @Test
+    void getProposals_shouldKeepPageNumberButIgnoreSortWithoutAfterProposalId() {
+        Pageable pageable = PageRequest.of(2, 20, Sort.by(Sort.Direction.DESC, "confidence"));
+        Pageable unsorted = PageRequest.of(2, 20);
+        when(proposalRepository.findFiltered("task1", null, null, null, null, null, unsorted))
+                .thenReturn(new SliceImpl<>(List.of(), unsorted, false));
+
+        service.getProposals("task1", new MetadataProposalFilter(), pageable);
+
+        verify(proposalRepository).findFiltered("task1", null, null, null, null, null, unsorted);
+    }
+
+    @Test
+    void getProposals_shouldEscapeWildcardsInChangedField() {
+        Pageable pageable = PageRequest.of(0, 50);
+        MetadataProposalFilter filter = new MetadataProposalFilter();
+        filter.setChangedField("series_%!");
+
+        when(proposalRepository.findFiltered(null, null, null, null, "series!_!%!!", null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        assertThat(service.getProposals(null, filter, pageable).getContent()).isEmpty();
+        verify(proposalRepository).findFiltered(null, null, null, null, "series!_!%!!", null, pageable);
     }
 
     @Test
     void deleteTaskAndProposals_shouldDeleteWhenTaskExists() {
-        MetadataFetchJobEntity jobEntity = mock(MetadataFetchJobEntity.class);
-        when(jobRepository.findById("task1")).thenReturn(Optional.of(jobEntity));
+        when(jobRepository.deleteByTaskId("task1")).thenReturn(1);
 
         boolean result = service.deleteTaskAndProposals("task1");
 
         assertThat(result).isTrue();
-        verify(jobRepository).findById("task1");
-        verify(jobRepository).delete(jobEntity);
+        verify(jobRepository).deleteByTaskId("task1");
+        verifyNoInteractions(proposalRepository);
     }
 
     @Test
     void deleteTaskAndProposals_shouldReturnFalseWhenTaskMissing() {
-        when(jobRepository.findById("missing")).thenReturn(Optional.empty());
+        when(jobRepository.deleteByTaskId("missing")).thenReturn(0);
 
         boolean result = service.deleteTaskAndProposals("missing");
 
         assertThat(result).isFalse();
-        verify(jobRepository).findById("missing");
+        verify(jobRepository).deleteByTaskId("missing");
         verifyNoMoreInteractions(jobRepository);
     }
 
@@ -177,23 +222,68 @@ class MetadataTaskServiceTest {
     }
 
     @Test
-    void getActiveTasks_shouldReturnOnlyTasksWithRemainingProposals() {
-        MetadataFetchJobEntity job1 = mock(MetadataFetchJobEntity.class);
-        MetadataFetchProposalEntity p1 = mock(MetadataFetchProposalEntity.class);
-        MetadataFetchProposalEntity p2 = mock(MetadataFetchProposalEntity.class);
+    void updateProposalStatuses_shouldUpdateSelectedIds() {
+        BookLoreUser mockedUser = mock(BookLoreUser.class);
+        when(mockedUser.getId()).thenReturn(42L);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(mockedUser);
+        when(proposalRepository.updateStatusByIds(eq("task1"), eq(List.of(1L, 2L)), eq(FetchedMetadataProposalStatus.REJECTED), any(Instant.class), eq(42L)))
+                .thenReturn(2);
 
-        when(job1.getTaskId()).thenReturn("task1");
-        when(job1.getProposals()).thenReturn(List.of(p1, p2));
-        when(p1.getStatus()).thenReturn(FetchedMetadataProposalStatus.ACCEPTED);
-        when(p2.getStatus()).thenReturn(FetchedMetadataProposalStatus.REJECTED);
+        MetadataProposalBulkStatusRequest request = new MetadataProposalBulkStatusRequest();
+        request.setStatus(FetchedMetadataProposalStatus.REJECTED);
+        request.setSelectedIds(List.of(1L, 2L));
 
-        MetadataFetchJobEntity job2 = mock(MetadataFetchJobEntity.class);
-        MetadataFetchProposalEntity p3 = mock(MetadataFetchProposalEntity.class);
-        when(job2.getTaskId()).thenReturn("task2");
-        when(job2.getProposals()).thenReturn(List.of(p3));
-        when(p3.getStatus()).thenReturn(FetchedMetadataProposalStatus.FETCHED);
+        assertThat(service.updateProposalStatuses("task1", request)).isEqualTo(2);
+        verify(proposalRepository, never()).updateStatusByFilter(any(), any(), any(), any(), any(), any(), any(), any(), any());
+        verify(proposalRepository, never()).updateStatusByFilterExcluding(any(), any(), any(), any(), any(), any(), any(), any(), any(), any());
+    }
 
-        when(jobRepository.findAllWithProposals()).thenReturn(List.of(job1, job2));
+    @Test
+    void updateProposalStatuses_shouldUpdateEverythingMatchingFilterWhenAllSelected() {
+        BookLoreUser mockedUser = mock(BookLoreUser.class);
+        when(mockedUser.getId()).thenReturn(42L);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(mockedUser);
+        MetadataProposalFilter filter = new MetadataProposalFilter();
+        filter.setStatus(FetchedMetadataProposalStatus.FETCHED);
+        filter.setMinConfidence(0.9);
+        when(proposalRepository.updateStatusByFilter(eq("task1"), eq(FetchedMetadataProposalStatus.FETCHED), eq(0.9), isNull(), isNull(), isNull(),
+                eq(FetchedMetadataProposalStatus.ACCEPTED), any(Instant.class), eq(42L)))
+                .thenReturn(500);
+
+        MetadataProposalBulkStatusRequest request = new MetadataProposalBulkStatusRequest();
+        request.setStatus(FetchedMetadataProposalStatus.ACCEPTED);
+        request.setSelectAll(true);
+        request.setFilter(filter);
+
+        assertThat(service.updateProposalStatuses("task1", request)).isEqualTo(500);
+        verify(proposalRepository, never()).updateStatusByIds(any(), any(), any(), any(), any());
+        verify(proposalRepository, never()).updateStatusByFilterExcluding(any(), any(), any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void updateProposalStatuses_shouldSkipExcludedIdsWhenAllSelected() {
+        BookLoreUser mockedUser = mock(BookLoreUser.class);
+        when(mockedUser.getId()).thenReturn(42L);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(mockedUser);
+        when(proposalRepository.updateStatusByFilterExcluding(eq("task1"), isNull(), isNull(), isNull(), isNull(), isNull(),
+                eq(List.of(7L)), eq(FetchedMetadataProposalStatus.REJECTED), any(Instant.class), eq(42L)))
+                .thenReturn(499);
+
+        MetadataProposalBulkStatusRequest request = new MetadataProposalBulkStatusRequest();
+        request.setStatus(FetchedMetadataProposalStatus.REJECTED);
+        request.setSelectAll(true);
+        request.setExcludedIds(List.of(7L));
+
+        assertThat(service.updateProposalStatuses("task1", request)).isEqualTo(499);
+        verify(proposalRepository, never()).updateStatusByFilter(any(), any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getActiveTasks_shouldReturnOnlyTasksWithRemainingProposals() {
+        when(proposalRepository.countGroupedByTaskAndStatus()).thenReturn(List.of(
+                new Object[]{"task1", FetchedMetadataProposalStatus.ACCEPTED, 1L},
+                new Object[]{"task1", FetchedMetadataProposalStatus.REJECTED, 1L},
+                new Object[]{"task2", FetchedMetadataProposalStatus.FETCHED, 1L}));
 
         List<MetadataBatchProgressNotification> notifications = service.getActiveTasks();
 
@@ -213,22 +303,17 @@ class MetadataTaskServiceTest {
         assertThat(n2.getCompleted()).isEqualTo(0);
         assertThat(n2.getMessage()).contains("Metadata review pending for 1 of 1 books");
 
-        verify(jobRepository).findAllWithProposals();
+        verify(proposalRepository).countGroupedByTaskAndStatus();
+        verifyNoInteractions(jobRepository);
     }
 
     @Test
     void getActiveTasks_shouldFilterOutTasksWithNoRemainingProposals() {
-        MetadataFetchJobEntity job = mock(MetadataFetchJobEntity.class);
-        MetadataFetchProposalEntity p1 = mock(MetadataFetchProposalEntity.class);
-        when(job.getTaskId()).thenReturn("task1");
-        when(job.getProposals()).thenReturn(List.of(p1));
-        when(p1.getStatus()).thenReturn(FetchedMetadataProposalStatus.REJECTED);
-
-        when(jobRepository.findAllWithProposals()).thenReturn(List.of(job));
+        when(proposalRepository.countGroupedByTaskAndStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{"task1", FetchedMetadataProposalStatus.REJECTED, 1L}));
 
         List<MetadataBatchProgressNotification> notifications = service.getActiveTasks();
 
         assertThat(notifications).isEmpty();
-        verify(jobRepository).findAllWithProposals();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,283 @@
+package com.adityachandel.booklore.service.bookdrop;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.config.security.AuthenticationService;
+import com.adityachandel.booklore.exception.APIException;
+import com.adityachandel.booklore.mapper.BookdropFileMapper;
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BookLoreUser;
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.model.dto.request.BookdropFinalizeRequest;
+import com.adityachandel.booklore.model.dto.response.BookdropFinalizeJob;
+import com.adityachandel.booklore.model.dto.response.BookdropFinalizeResult;
+import com.adityachandel.booklore.model.dto.settings.LibraryFile;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.BookdropFileEntity;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.BookdropFileRepository;
+import com.adityachandel.booklore.repository.LibraryRepository;
+import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.fileprocessor.BookFileProcessor;
+import com.adityachandel.booklore.service.fileprocessor.BookFileProcessorRegistry;
+import com.adityachandel.booklore.service.metadata.MetadataRefreshService;
+import com.adityachandel.booklore.service.monitoring.MonitoringService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class BookDropServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final BookdropFileRepository bookdropFileRepository = mock(BookdropFileRepository.class);
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final BookFileProcessor processor = mock(BookFileProcessor.class);
+    private final AuthenticationService authenticationService = mock(AuthenticationService.class);
+    private final MetadataRefreshService metadataRefreshService = mock(MetadataRefreshService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final CountDownLatch slowStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+    private final Map<String, AtomicInteger> runningByHash = new ConcurrentHashMap<>();
+    private final Map<String, Integer> maxRunningByHash = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final List<BookdropFileEntity> files = new ArrayList<>();
+    private LibraryRepository libraryRepository;
+    private BookFileProcessorRegistry registry;
+    private AppProperties appProperties;
+    private BookDropService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path libraryRoot = Files.createDirectories(tempDir.resolve("library"));
+        LibraryPathEntity libraryPath = LibraryPathEntity.builder().id(1L).path(libraryRoot.toString()).build();
+        LibraryEntity library = LibraryEntity.builder().id(1L).name("Books").fileNamingPattern("{currentFilename}")
+                .libraryPaths(List.of(libraryPath)).build();
+        Path otherRoot = Files.createDirectories(tempDir.resolve("other"));
+        LibraryPathEntity otherPath = LibraryPathEntity.builder().id(2L).path(otherRoot.toString()).build();
+        LibraryEntity otherLibrary = LibraryEntity.builder().id(2L).name("Comics").fileNamingPattern("{currentFilename}")
+                .libraryPaths(List.of(otherPath)).build();
+        libraryRepository = mock(LibraryRepository.class);
+        when(libraryRepository.findById(1L)).thenReturn(Optional.of(library));
+        when(libraryRepository.findById(2L)).thenReturn(Optional.of(otherLibrary));
+        when(bookdropFileRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return files.stream().filter(file -> ids.contains(file.getId())).toList();
+        });
+        when(bookRepository.findAllFullBooksByIds(any())).thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).stream()
+                .map(id -> BookEntity.builder().id(id).build())
+                .toList());
+
+        registry = mock(BookFileProcessorRegistry.class);
+        when(registry.getProcessorOrThrow(BookFileType.EPUB)).thenReturn(processor);
+        AtomicLong bookIds = new AtomicLong();
+        when(processor.processFile(any())).thenAnswer(invocation -> {
+            String fileName = invocation.<LibraryFile>getArgument(0).getFileName();
+            if (fileName.startsWith("slow")) {
+                slowStarted.countDown();
+                releaseSlow.await();
+            }
+            String hash = hashOf(fileName);
+            int sameHash = runningByHash.computeIfAbsent(hash, h -> new AtomicInteger()).incrementAndGet();
+            maxRunningByHash.merge(hash, sameHash, Math::max);
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(100);
+            running.decrementAndGet();
+            runningByHash.get(hash).decrementAndGet();
+            return Book.builder().id(bookIds.incrementAndGet()).build();
+        });
+
+        appProperties = new AppProperties();
+        appProperties.setPathConfig(tempDir.toString());
+        service = newService(mock(BookdropMonitoringService.class));
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user(1L, false));
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlow.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void copiesOfOneFileAreFinalizedOneAtATime() throws Exception {
+        addFile(1L, "a.epub", "same");
+        addFile(2L, "b.epub", "same");
+        addFile(3L, "c.epub", "other");
+        addFile(4L, "d.epub", "third");
+
+        BookdropFinalizeResult result = service.finalizeImport(request());
+
+        assertThat(result.getSuccessfullyImported()).isEqualTo(4);
+        assertThat(maxRunningByHash.get("same")).isEqualTo(1);
+        assertThat(maxRunning.get()).isGreaterThan(1);
+        assertThat(tempDir.resolve("library")).isDirectoryContaining(p -> p.getFileName().toString().equals("b.epub"));
+    }
+
+    @Test
+    void booksOfAChunkAreSavedInOneBatch() throws Exception {
+        addFile(1L, "a.epub", "a");
+        addFile(2L, "b.epub", "b");
+        addFile(3L, "c.epub", "c");
+
+        BookdropFinalizeResult result = service.finalizeImport(request());
+
+        assertThat(result.getSuccessfullyImported()).isEqualTo(3);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> loaded = ArgumentCaptor.forClass(Collection.class);
+        verify(bookRepository).findAllFullBooksByIds(loaded.capture());
+        assertThat(loaded.getValue()).containsExactlyInAnyOrder(1L, 2L, 3L);
+        verify(metadataRefreshService, times(3)).updateBookMetadata(any(BookEntity.class), any(), anyBoolean(), anyBoolean());
+        // One transaction for the chunk, flushed once, with the loaded entities written back without a merge
+        verify(transactionManager).getTransaction(any());
+        verify(bookRepository).flush();
+        verify(bookRepository, never()).saveAll(any());
+        verify(bookRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void jobsForDifferentLibrariesDoNotWaitForEachOther() throws Exception {
+        BookdropFileEntity slow = addFile(1L, "slow.epub", "slow");
+        BookdropFileEntity quick = addFile(2L, "quick.epub", "quick");
+        BookdropFileEntity queued = addFile(3L, "queued.epub", "queued");
+
+        String slowJob = service.startFinalizeImport(request(1L, slow)).getJobId();
+        assertThat(slowStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        String queuedJob = service.startFinalizeImport(request(1L, queued)).getJobId();
+
+        BookdropFinalizeResult quickResult = service.finalizeImport(request(2L, quick));
+
+        assertThat(quickResult.getSuccessfullyImported()).isEqualTo(1);
+        assertThat(service.getFinalizeJob(slowJob).getStatus()).isEqualTo(BookdropFinalizeJob.Status.RUNNING);
+        // Shares the slow job's library, so it has to wait for it
+        assertThat(service.getFinalizeJob(queuedJob).getStatus()).isEqualTo(BookdropFinalizeJob.Status.QUEUED);
+
+        releaseSlow.countDown();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.getFinalizeJob(queuedJob).getStatus() != BookdropFinalizeJob.Status.COMPLETED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(service.getFinalizeJob(slowJob).getStatus()).isEqualTo(BookdropFinalizeJob.Status.COMPLETED);
+        assertThat(service.getFinalizeJob(queuedJob).getStatus()).isEqualTo(BookdropFinalizeJob.Status.COMPLETED);
+    }
+
+    @Test
+    void finalizeJobIsOnlyVisibleToItsOwnerAndAdmins() throws Exception {
+        addFile(1L, "a.epub", "a");
+        String jobId = service.startFinalizeImport(request()).getJobId();
+
+        assertThat(service.getFinalizeJob(jobId).getJobId()).isEqualTo(jobId);
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user(2L, false));
+        assertThatThrownBy(() -> service.getFinalizeJob(jobId)).isInstanceOf(APIException.class);
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user(3L, true));
+        assertThat(service.getFinalizeJob(jobId).getJobId()).isEqualTo(jobId);
+    }
+
+    @Test
+    void bookdropMonitoringResumesOnlyAfterTheLastOverlappingJob() throws Exception {
+        appProperties.setBookdropFolder(Files.createDirectories(tempDir.resolve("bookdrop")).toString());
+        BookdropMonitoringService bookdropMonitoringService = new BookdropMonitoringService(appProperties,
+                mock(BookdropEventHandlerService.class), bookdropFileRepository);
+        bookdropMonitoringService.start();
+        service.shutdown();
+        service = newService(bookdropMonitoringService);
+        try {
+            BookdropFileEntity slow = addFile(1L, "slow.epub", "slow");
+            BookdropFileEntity quick = addFile(2L, "quick.epub", "quick");
+
+            String slowJob = service.startFinalizeImport(request(1L, slow)).getJobId();
+            assertThat(slowStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(service.finalizeImport(request(2L, quick)).getSuccessfullyImported()).isEqualTo(1);
+
+            // The quick job's delayed resume has run, but the slow job is still moving files out of the bookdrop
+            Thread.sleep(6_000);
+            assertThat(bookdropMonitoringService.isPaused()).isTrue();
+
+            releaseSlow.countDown();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (bookdropMonitoringService.isPaused() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(service.getFinalizeJob(slowJob).getStatus()).isEqualTo(BookdropFinalizeJob.Status.COMPLETED);
+            assertThat(bookdropMonitoringService.isPaused()).isFalse();
+        } finally {
+            bookdropMonitoringService.stop();
+        }
+    }
+
+    private BookDropService newService(BookdropMonitoringService bookdropMonitoringService) {
+        return new BookDropService(bookdropFileRepository, libraryRepository, bookRepository, mock(MonitoringService.class),
+                bookdropMonitoringService, mock(NotificationService.class), metadataRefreshService,
+                mock(BookdropNotificationService.class), registry, appProperties, mock(BookdropFileMapper.class), new ObjectMapper(),
+                authenticationService, transactionManager, mock(AppSettingService.class));
+    }
+
+    private BookLoreUser user(long id, boolean admin) {
+        BookLoreUser.UserPermissions permissions = new BookLoreUser.UserPermissions();
+        permissions.setAdmin(admin);
+        BookLoreUser user = new BookLoreUser();
+        user.setId(id);
+        user.setPermissions(permissions);
+        return user;
+    }
+
+    private BookdropFileEntity addFile(long id, String fileName, String hash) throws Exception {
+        Path source = Files.writeString(Files.createDirectories(tempDir.resolve("bookdrop")).resolve(fileName), hash);
+        BookdropFileEntity file = BookdropFileEntity.builder().id(id).fileName(fileName).filePath(source.toString()).fileHash(hash).build();
+        files.add(file);
+        return file;
+    }
+
+    private String hashOf(String fileName) {
+        return files.stream().filter(f -> f.getFileName().equals(fileName)).findFirst().orElseThrow().getFileHash();
+    }
+
+    private BookdropFinalizeRequest request() {
+        return request(1L, files.toArray(BookdropFileEntity[]::new));
+    }
+
+    private BookdropFinalizeRequest request(long libraryId, BookdropFileEntity... selected) {
+        BookdropFinalizeRequest request = new BookdropFinalizeRequest();
+        request.setFiles(List.of(selected).stream().map(file -> {
+            BookdropFinalizeRequest.BookdropFinalizeFile finalizeFile = new BookdropFinalizeRequest.BookdropFinalizeFile();
+            finalizeFile.setFileId(file.getId());
+            finalizeFile.setLibraryId(libraryId);
+            finalizeFile.setPathId(libraryId);
+            finalizeFile.setMetadata(BookMetadata.builder().title(file.getFileName()).build());
+            return finalizeFile;
+        }).toList());
+        return request;
+    }
+}
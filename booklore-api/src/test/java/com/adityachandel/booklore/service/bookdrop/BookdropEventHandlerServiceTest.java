@@ -0,0 +1,228 @@
+package com.adityachandel.booklore.service.bookdrop;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.dto.settings.AppSettings;
+import com.adityachandel.booklore.model.entity.BookdropFileEntity;
+import com.adityachandel.booklore.model.websocket.LogNotification;
+import com.adityachandel.booklore.model.websocket.Topic;
+import com.adityachandel.booklore.repository.BookdropFileRepository;
+import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookdropEventHandlerServiceTest {
+
+    @TempDir
+    Path bookdrop;
+
+    private final BookdropFileRepository bookdropFileRepository = mock(BookdropFileRepository.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final BookdropNotificationService bookdropNotificationService = mock(BookdropNotificationService.class);
+    private final AppSettingService appSettingService = mock(AppSettingService.class);
+    private final BookdropMetadataService bookdropMetadataService = mock(BookdropMetadataService.class);
+    private final AppSettings appSettings = new AppSettings();
+    private BookdropEventHandlerService service;
+
+    @BeforeEach
+    void setUp() {
+        AtomicLong ids = new AtomicLong();
+        when(bookdropFileRepository.findByFilePath(anyString())).thenReturn(Optional.empty());
+        when(bookdropFileRepository.save(any())).thenAnswer(invocation -> {
+            BookdropFileEntity entity = invocation.getArgument(0);
+            entity.setId(ids.incrementAndGet());
+            return entity;
+        });
+        when(appSettingService.getAppSettings()).thenReturn(appSettings);
+
+        AppProperties appProperties = new AppProperties();
+        appProperties.getBookdrop().setExtractionThreads(2);
+        appProperties.getBookdrop().setMetadataFetchThreads(1);
+        service = new BookdropEventHandlerService(bookdropFileRepository, notificationService, bookdropNotificationService,
+                appSettingService, bookdropMetadataService, appProperties);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void enqueuesEachPendingFileOnce() throws Exception {
+        Path book = Files.writeString(bookdrop.resolve("book.epub"), "content");
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookdropFileRepository.findByFilePath(book.toString())).thenAnswer(invocation -> {
+            release.await();
+            return Optional.empty();
+        });
+
+        service.enqueueFile(book, StandardWatchEventKinds.ENTRY_CREATE);
+        service.enqueueFile(book, StandardWatchEventKinds.ENTRY_CREATE);
+        service.enqueueFile(book, StandardWatchEventKinds.ENTRY_MODIFY);
+        service.enqueueFile(book, StandardWatchEventKinds.ENTRY_CREATE);
+
+        assertThat(service.getPendingCount()).isEqualTo(1);
+        release.countDown();
+        awaitPending(0);
+
+        verify(bookdropFileRepository, times(1)).save(any());
+        verify(bookdropMetadataService, times(1)).attachInitialMetadata(anyLong());
+    }
+
+    @Test
+    void handlesDeleteOfAPathOnlyAfterItsCreate() throws Exception {
+        Path book = Files.writeString(bookdrop.resolve("book.epub"), "content");
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookdropFileRepository.findByFilePath(book.toString())).thenAnswer(invocation -> {
+            processing.countDown();
+            release.await();
+            return Optional.empty();
+        });
+        // The file is removed right after it was registered, which is what the delete event reports
+        when(bookdropFileRepository.save(any())).thenAnswer(invocation -> {
+            Files.delete(book);
+            BookdropFileEntity entity = invocation.getArgument(0);
+            entity.setId(1L);
+            return entity;
+        });
+
+        service.enqueueFile(book, StandardWatchEventKinds.ENTRY_CREATE);
+        assertThat(processing.await(5, TimeUnit.SECONDS)).isTrue();
+        service.enqueueFile(book, StandardWatchEventKinds.ENTRY_DELETE);
+
+        // A free extraction thread picks the delete up, but it waits for the create of the same path
+        verify(bookdropFileRepository, after(200).never()).deleteAllByFilePathStartingWith(anyString());
+        release.countDown();
+        awaitPending(0);
+
+        InOrder inOrder = inOrder(bookdropFileRepository);
+        inOrder.verify(bookdropFileRepository).save(any());
+        inOrder.verify(bookdropFileRepository).deleteAllByFilePathStartingWith(book.toString());
+    }
+
+    @Test
+    void keepsExtractingWhileMetadataFetchesWait() throws Exception {
+        appSettings.setMetadataDownloadOnBookdrop(true);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(bookdropMetadataService).attachFetchedMetadata(anyLong());
+
+        for (int i = 0; i < 3; i++) {
+            service.enqueueFile(Files.writeString(bookdrop.resolve(i + ".epub"), "content " + i), StandardWatchEventKinds.ENTRY_CREATE);
+        }
+
+        // The single fetch thread is blocked, yet every file gets through the local stage
+        verify(bookdropMetadataService, timeout(5000).times(3)).attachInitialMetadata(anyLong());
+        awaitPending(3);
+        verify(bookdropMetadataService, timeout(5000)).attachFetchedMetadata(anyLong());
+
+        release.countDown();
+        awaitPending(0);
+
+        verify(bookdropMetadataService, times(3)).attachFetchedMetadata(anyLong());
+    }
+
+    @Test
+    void blocksTheWatcherWhenTheExtractionQueueIsFull() throws Exception {
+        service.shutdown();
+        AppProperties appProperties = new AppProperties();
+        appProperties.getBookdrop().setExtractionThreads(1);
+        appProperties.getBookdrop().setMaxQueuedFiles(1);
+        service = new BookdropEventHandlerService(bookdropFileRepository, notificationService, bookdropNotificationService,
+                appSettingService, bookdropMetadataService, appProperties);
+        service.init();
+
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Path first = Files.writeString(bookdrop.resolve("first.epub"), "first");
+        when(bookdropFileRepository.findByFilePath(first.toString())).thenAnswer(invocation -> {
+            processing.countDown();
+            release.await();
+            return Optional.empty();
+        });
+
+        service.enqueueFile(first, StandardWatchEventKinds.ENTRY_CREATE);
+        assertThat(processing.await(5, TimeUnit.SECONDS)).isTrue();
+        service.enqueueFile(Files.writeString(bookdrop.resolve("queued.epub"), "queued"), StandardWatchEventKinds.ENTRY_CREATE);
+
+        // The only thread is busy and the queue holds one file, so the next submission waits for room
+        Path blocked = Files.writeString(bookdrop.resolve("blocked.epub"), "blocked");
+        Thread watcher = Thread.ofPlatform().start(() -> service.enqueueFile(blocked, StandardWatchEventKinds.ENTRY_CREATE));
+        watcher.join(300);
+        assertThat(watcher.isAlive()).isTrue();
+
+        release.countDown();
+        watcher.join(5000);
+        assertThat(watcher.isAlive()).isFalse();
+        awaitPending(0);
+
+        verify(bookdropMetadataService, times(3)).attachInitialMetadata(anyLong());
+    }
+
+    @Test
+    void reportsProgressAsSummaryInsteadOfPerFile() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Path slow = Files.writeString(bookdrop.resolve("slow.epub"), "slow");
+        when(bookdropFileRepository.findByFilePath(slow.toString())).thenAnswer(invocation -> {
+            release.await();
+            return Optional.empty();
+        });
+
+        service.enqueueFile(slow, StandardWatchEventKinds.ENTRY_CREATE);
+        for (int i = 0; i < 4; i++) {
+            service.enqueueFile(Files.writeString(bookdrop.resolve(i + ".epub"), "content " + i), StandardWatchEventKinds.ENTRY_CREATE);
+        }
+        awaitPending(1);
+        service.reportProgress();
+
+        release.countDown();
+        awaitPending(0);
+        service.reportProgress();
+        service.reportProgress();
+
+        // The scheduled reporter may have added a report of its own, but never one per file
+        List<String> messages = logMessages();
+        assertThat(messages).contains("Processing bookdrop files: 4 of 5 done");
+        assertThat(messages).last().isEqualTo("All bookdrop files have finished processing");
+        assertThat(messages).filteredOn(message -> message.startsWith("All")).hasSize(1);
+        assertThat(messages).allMatch(message -> message.startsWith("All") || message.matches("Processing bookdrop files: \\d of 5 done"));
+    }
+
+    private List<String> logMessages() {
+        ArgumentCaptor<Object> messages = ArgumentCaptor.forClass(Object.class);
+        verify(notificationService, atLeast(0)).sendMessageToPermissions(eq(Topic.LOG), messages.capture(), any());
+        return messages.getAllValues().stream().map(message -> ((LogNotification) message).getMessage()).toList();
+    }
+
+    private void awaitPending(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (service.getPendingCount() > count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(service.getPendingCount()).isEqualTo(count);
+    }
+}
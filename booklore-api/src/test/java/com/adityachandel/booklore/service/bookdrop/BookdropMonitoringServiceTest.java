@@ -0,0 +1,159 @@
+package com.adityachandel.booklore.service.bookdrop;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.repository.BookdropFileRepository;
+import com.adityachandel.booklore.service.FileFingerprint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BookdropMonitoringServiceTest {
+
+    @TempDir
+    Path bookdrop;
+
+    private final BookdropEventHandlerService eventHandler = mock(BookdropEventHandlerService.class);
+    private final BookdropFileRepository repository = mock(BookdropFileRepository.class);
+    private final BookdropMonitoringService service = new BookdropMonitoringService(new AppProperties(), eventHandler, repository);
+
+    @Test
+    void staysPausedUntilEveryPauseIsResumed() throws Exception {
+        AppProperties appProperties = new AppProperties();
+        appProperties.setBookdropFolder(bookdrop.toString());
+        BookdropMonitoringService monitoring = new BookdropMonitoringService(appProperties, eventHandler, repository);
+        monitoring.start();
+        try {
+            monitoring.pauseMonitoring();
+            monitoring.pauseMonitoring();
+
+            monitoring.resumeMonitoring();
+            assertThat(monitoring.isPaused()).isTrue();
+
+            monitoring.resumeMonitoring();
+            assertThat(monitoring.isPaused()).isFalse();
+
+            // An unmatched resume does not leave the count negative
+            monitoring.resumeMonitoring();
+            monitoring.pauseMonitoring();
+            assertThat(monitoring.isPaused()).isTrue();
+        } finally {
+            monitoring.stop();
+        }
+    }
+
+    @Test
+    void skipsFilesThatMatchTheirRecord() throws Exception {
+        Path book = Files.writeString(bookdrop.resolve("book.epub"), "content");
+        BookdropFileRepository.FileSnapshot recorded = snapshot(1L, book, FileFingerprint.generateHash(book));
+        when(repository.findAllFileSnapshots()).thenReturn(List.of(recorded));
+
+        service.scanExistingBookdropFiles(bookdrop);
+
+        verifyNoInteractions(eventHandler);
+        verify(repository, never()).updateFileStats(anyLong(), anyLong(), anyLong(), anyString());
+        verify(repository, never()).deleteById(any());
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void enqueuesFilesWithoutRecord() throws Exception {
+        Path book = Files.writeString(bookdrop.resolve("book.epub"), "content");
+        Files.writeString(bookdrop.resolve("notes.txt"), "not a book");
+        when(repository.findAllFileSnapshots()).thenReturn(List.of());
+
+        service.scanExistingBookdropFiles(bookdrop);
+
+        verify(eventHandler).enqueueFile(book, StandardWatchEventKinds.ENTRY_CREATE);
+        verifyNoMoreInteractions(eventHandler);
+    }
+
+    @Test
+    void backfillsTouchedFileWithSameFingerprint() throws Exception {
+        Path book = Files.writeString(bookdrop.resolve("book.epub"), "content");
+        String hash = FileFingerprint.generateHash(book);
+        BookdropFileRepository.FileSnapshot recorded = snapshot(1L, book, hash);
+        when(repository.findAllFileSnapshots()).thenReturn(List.of(recorded));
+        long touched = recorded.getFileLastModified() + 60_000;
+        Files.setLastModifiedTime(book, FileTime.fromMillis(touched));
+
+        service.scanExistingBookdropFiles(bookdrop);
+
+        verify(repository).updateFileStats(1L, Files.size(book), touched, hash);
+        verifyNoInteractions(eventHandler);
+        verify(repository, never()).deleteById(any());
+    }
+
+    @Test
+    void backfillsRecordsWithoutFingerprint() throws Exception {
+        Path book = Files.writeString(bookdrop.resolve("book.epub"), "content");
+        BookdropFileRepository.FileSnapshot legacy = snapshot(1L, book.toString(), Files.size(book), null, null);
+        when(repository.findAllFileSnapshots()).thenReturn(List.of(legacy));
+
+        service.scanExistingBookdropFiles(bookdrop);
+
+        verify(repository).updateFileStats(1L, Files.size(book), Files.getLastModifiedTime(book).toMillis(), FileFingerprint.generateHash(book));
+        verifyNoInteractions(eventHandler);
+    }
+
+    @Test
+    void reprocessesFileWhoseContentChanged() throws Exception {
+        Path book = Files.writeString(bookdrop.resolve("book.epub"), "content");
+        BookdropFileRepository.FileSnapshot recorded = snapshot(1L, book, FileFingerprint.generateHash(book));
+        when(repository.findAllFileSnapshots()).thenReturn(List.of(recorded));
+        Files.writeString(book, "replaced with something else");
+
+        service.scanExistingBookdropFiles(bookdrop);
+
+        verify(repository).deleteById(1L);
+        verify(eventHandler).enqueueFile(book, StandardWatchEventKinds.ENTRY_CREATE);
+    }
+
+    @Test
+    void deletesRecordsOfVanishedFiles() throws Exception {
+        Path book = Files.writeString(bookdrop.resolve("book.epub"), "content");
+        BookdropFileRepository.FileSnapshot present = snapshot(1L, book, FileFingerprint.generateHash(book));
+        BookdropFileRepository.FileSnapshot vanished = snapshot(2L, bookdrop.resolve("gone.epub").toString(), 10L, 1L, "hash");
+        when(repository.findAllFileSnapshots()).thenReturn(List.of(present, vanished));
+
+        service.scanExistingBookdropFiles(bookdrop);
+
+        verify(repository).deleteAllByIdInBatch(List.of(2L));
+        verifyNoInteractions(eventHandler);
+    }
+
+    @Test
+    void keepsRecordsWhenFolderIsEmpty() {
+        BookdropFileRepository.FileSnapshot recorded = snapshot(1L, bookdrop.resolve("book.epub").toString(), 10L, 1L, "hash");
+        when(repository.findAllFileSnapshots()).thenReturn(List.of(recorded));
+
+        service.scanExistingBookdropFiles(bookdrop);
+
+        verify(repository, never()).deleteAllByIdInBatch(any());
+        verify(repository, never()).deleteById(any());
+    }
+
+    private BookdropFileRepository.FileSnapshot snapshot(Long id, Path file, String hash) throws Exception {
+        return snapshot(id, file.toString(), Files.size(file), Files.getLastModifiedTime(file).toMillis(), hash);
+    }
+
+    private BookdropFileRepository.FileSnapshot snapshot(Long id, String path, Long size, Long modified, String hash) {
+        BookdropFileRepository.FileSnapshot snapshot = mock(BookdropFileRepository.FileSnapshot.class);
+        when(snapshot.getId()).thenReturn(id);
+        when(snapshot.getFilePath()).thenReturn(path);
+        when(snapshot.getFileSize()).thenReturn(size);
+        when(snapshot.getFileLastModified()).thenReturn(modified);
+        when(snapshot.getFileHash()).thenReturn(hash);
+        return snapshot;
+    }
+}
@@ -0,0 +1,143 @@
+package com.adityachandel.booklore.service.file;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileStreamingServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileStreamingService service;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new FileStreamingService();
+        file = tempDir.resolve("book.pdf");
+        Files.writeString(file, "0123456789", StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void servesFullFileWithValidators() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.streamFile(file, "abc", MediaType.APPLICATION_OCTET_STREAM, null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("\"abc-");
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+    }
+
+    @Test
+    void servesPartialContentForRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.streamFile(file, "abc", MediaType.APPLICATION_OCTET_STREAM, null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("234");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-4/10");
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeDoesNotMatch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.streamFile(file, "abc", MediaType.APPLICATION_OCTET_STREAM, null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void ignoresRangeWithUnknownUnit() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader(HttpHeaders.RANGE, "items=0-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.streamFile(file, "abc", MediaType.APPLICATION_OCTET_STREAM, null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+    }
+
+    @Test
+    void returnsNotModifiedForMatchingEtag() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        service.streamFile(file, "abc", MediaType.APPLICATION_OCTET_STREAM, null, new MockHttpServletRequest("GET", "/content"), first);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.streamFile(file, "abc", MediaType.APPLICATION_OCTET_STREAM, null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.streamFile(file, "abc", MediaType.APPLICATION_OCTET_STREAM, null, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void parsesSuffixAndOpenEndedRanges() {
+        assertThat(FileStreamingService.ByteRange.parse("bytes=-3", 10)).isEqualTo(new FileStreamingService.ByteRange(7, 9));
+        assertThat(FileStreamingService.ByteRange.parse("bytes=5-", 10)).isEqualTo(new FileStreamingService.ByteRange(5, 9));
+        assertThat(FileStreamingService.ByteRange.parse("bytes=5-100", 10)).isEqualTo(new FileStreamingService.ByteRange(5, 9));
+        assertThat(FileStreamingService.ByteRange.parse("items=0-1", 10)).isNull();
+    }
+
+    @Test
+    void ignoresMalformedRanges() {
+        assertThat(FileStreamingService.ByteRange.parse("bytes=abc", 10)).isNull();
+        assertThat(FileStreamingService.ByteRange.parse("bytes=5", 10)).isNull();
+        assertThat(FileStreamingService.ByteRange.parse("bytes=8-2", 10)).isNull();
+        assertThat(FileStreamingService.ByteRange.parse("bytes=500-100", 10)).isNull();
+        assertThat(FileStreamingService.ByteRange.parse("bytes=-", 10)).isNull();
+        assertThatThrownBy(() -> FileStreamingService.ByteRange.parse("bytes=10-", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void servesFullFileForMalformedRange() throws Exception {
+        for (String range : new String[]{"bytes=abc", "bytes=5", "bytes=500-100"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/content");
+            request.addHeader(HttpHeaders.RANGE, range);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            service.streamFile(file, "abc", MediaType.APPLICATION_OCTET_STREAM, null, request, response);
+
+            assertThat(response.getStatus()).as(range).isEqualTo(200);
+            assertThat(response.getContentAsString()).as(range).isEqualTo("0123456789");
+            assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).as(range).isNull();
+        }
+    }
+}
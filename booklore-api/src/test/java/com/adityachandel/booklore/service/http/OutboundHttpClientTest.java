@@ -0,0 +1,79 @@
+package com.adityachandel.booklore.service.http;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboundHttpClientTest {
+
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundHttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/gzip", exchange -> {
+            boolean acceptsGzip = String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")).contains("gzip");
+            byte[] body = "compressed".getBytes(StandardCharsets.UTF_8);
+            if (acceptsGzip) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                    gzip.write(body);
+                }
+                body = buffer.toByteArray();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+        client = new OutboundHttpClient(new AppProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void get_shouldDecodeGzipResponses() throws Exception {
+        OutboundResponse response = client.get("Google", baseUrl() + "/gzip");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.bodyAsString()).isEqualTo("compressed");
+        assertThat(meterRegistry.timer("booklore.http.client.requests", "client", "Google", "outcome", "success").count()).isEqualTo(1);
+    }
+
+    @Test
+    void download_shouldFailOnErrorStatus() {
+        assertThatThrownBy(() -> client.download("cover", baseUrl() + "/missing"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("404");
+        assertThat(meterRegistry.timer("booklore.http.client.requests", "client", "cover", "outcome", "client_error").count()).isEqualTo(1);
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+}
@@ -0,0 +1,198 @@
+package com.adityachandel.booklore.service.metadata;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.mapper.BookMapper;
+import com.adityachandel.booklore.model.MetadataUpdateWrapper;
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.model.dto.TaskMessage;
+import com.adityachandel.booklore.model.dto.request.MetadataRefreshOptions;
+import com.adityachandel.booklore.model.dto.request.MetadataRefreshRequest;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.BookMetadataEntity;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.model.enums.TaskStatus;
+import com.adityachandel.booklore.model.websocket.Topic;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.LibraryRepository;
+import com.adityachandel.booklore.repository.MetadataFetchJobRepository;
+import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.metadata.parser.BookParser;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderCircuitBreaker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MetadataRefreshServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final BookMapper bookMapper = mock(BookMapper.class);
+    private final BookMetadataUpdater bookMetadataUpdater = mock(BookMetadataUpdater.class);
+    private final BookParser parser = mock(BookParser.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final CountingTransactionManager transactionManager = new CountingTransactionManager();
+    private final List<String> openTransactionsSeen = new ArrayList<>();
+    private MetadataRefreshService service;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service = new MetadataRefreshService(mock(LibraryRepository.class), mock(MetadataFetchJobRepository.class), bookMapper,
+                bookMetadataUpdater, notificationService, mock(AppSettingService.class), Map.of(MetadataProvider.Google, parser),
+                new ObjectMapper(), bookRepository, transactionManager, appProperties, meterRegistry,
+                new ProviderCircuitBreaker(appProperties, meterRegistry), null);
+
+        BookEntity book = BookEntity.builder().id(1L).metadata(new BookMetadataEntity()).build();
+        when(bookRepository.findAllWithMetadataByIds(any())).thenReturn(List.of(book));
+        when(bookMapper.toBook(book)).thenReturn(Book.builder().id(1L).metadata(BookMetadata.builder().title("Dune").build()).build());
+        when(parser.fetchTopMetadata(any(), any())).thenAnswer(invocation -> {
+            openTransactionsSeen.add("fetch:" + transactionManager.open.get());
+            return BookMetadata.builder().provider(MetadataProvider.Google).title("Dune").thumbnailUrl("https://covers.example/dune.jpg").build();
+        });
+        when(bookMetadataUpdater.isNewCover(any(), any(), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void fetchesWithoutTransactionAndWritesWithPrefetchedCover() throws Exception {
+        Path cover = Files.writeString(tempDir.resolve("cover.jpg"), "image");
+        when(bookMetadataUpdater.prefetchThumbnail(any())).thenAnswer(invocation -> {
+            openTransactionsSeen.add("cover:" + transactionManager.open.get());
+            return cover;
+        });
+        List<String> coversUsed = new ArrayList<>();
+        when(bookMetadataUpdater.setBookMetadata(any(), any(), eq(true), anyBoolean())).thenAnswer(invocation -> {
+            MetadataUpdateWrapper wrapper = invocation.getArgument(1);
+            openTransactionsSeen.add("write:" + transactionManager.open.get());
+            coversUsed.add(wrapper.getPrefetchedThumbnailPath());
+            assertThat(Path.of(wrapper.getPrefetchedThumbnailPath())).exists();
+            return true;
+        });
+        List<Long> refreshed = new ArrayList<>();
+
+        service.refreshMetadata(request(), 1L, "job", Set.of(), refreshed::addAll);
+
+        assertThat(openTransactionsSeen).containsExactly("fetch:0", "cover:0", "write:1");
+        assertThat(coversUsed).containsExactly(cover.toString());
+        assertThat(cover).doesNotExist();
+        assertThat(refreshed).containsExactly(1L);
+        assertThat(transactionManager.open).hasValue(0);
+    }
+
+    @Test
+    void deletesPrefetchedCoverWhenWriteFails() throws Exception {
+        Path cover = Files.writeString(tempDir.resolve("cover.jpg"), "image");
+        when(bookMetadataUpdater.prefetchThumbnail(any())).thenReturn(cover);
+        when(bookMetadataUpdater.setBookMetadata(any(), any(), anyBoolean(), anyBoolean())).thenThrow(new IllegalStateException("disk full"));
+        List<Long> refreshed = new ArrayList<>();
+
+        service.refreshMetadata(request(), 1L, "job", Set.of(), refreshed::addAll);
+
+        assertThat(cover).doesNotExist();
+        assertThat(refreshed).isEmpty();
+        assertThat(transactionManager.open).hasValue(0);
+    }
+
+    @Test
+    void leavesCoverAloneWhenPrefetchFails() {
+        when(bookMetadataUpdater.prefetchThumbnail(any())).thenReturn(null);
+        when(bookMetadataUpdater.setBookMetadata(any(), any(), anyBoolean(), anyBoolean())).thenReturn(true);
+
+        service.refreshMetadata(request(), 1L, "job", Set.of(), ids -> {});
+
+        verify(bookMetadataUpdater).setBookMetadata(any(), argThat(wrapper -> wrapper.getPrefetchedThumbnailPath() == null), eq(false), anyBoolean());
+        assertThat(transactionManager.open).hasValue(0);
+    }
+
+    @Test
+    void reportsCancellationOnlyWhenTheUserCancelled() {
+        service.markCancelled("cancelled");
+        Thread.currentThread().interrupt();
+        try {
+            service.refreshMetadata(request(), 1L, "cancelled", Set.of(), ids -> {});
+        } finally {
+            Thread.interrupted();
+        }
+        verify(notificationService).sendMessage(eq(Topic.TASK), argThat(message -> message instanceof TaskMessage task && task.getStatus() == TaskStatus.CANCELLED));
+
+        clearInvocations(notificationService);
+        Thread.currentThread().interrupt();
+        try {
+            service.refreshMetadata(request(), 1L, "shutdown", Set.of(), ids -> {});
+        } finally {
+            Thread.interrupted();
+        }
+        verify(notificationService, never()).sendMessage(eq(Topic.TASK), argThat(message -> message instanceof TaskMessage task && task.getStatus() == TaskStatus.CANCELLED));
+        verify(parser, never()).fetchTopMetadata(any(), any());
+    }
+
+    private MetadataRefreshRequest request() {
+        MetadataRefreshOptions.FieldProvider google = new MetadataRefreshOptions.FieldProvider(null, null, null, MetadataProvider.Google);
+        MetadataRefreshOptions.FieldOptions fieldOptions = new MetadataRefreshOptions.FieldOptions();
+        fieldOptions.setTitle(google);
+        fieldOptions.setDescription(google);
+        fieldOptions.setAuthors(google);
+        fieldOptions.setCategories(google);
+        fieldOptions.setCover(google);
+        MetadataRefreshOptions options = new MetadataRefreshOptions();
+        options.setAllP1(MetadataProvider.Google);
+        options.setRefreshCovers(true);
+        options.setFieldOptions(fieldOptions);
+        return MetadataRefreshRequest.builder()
+                .refreshType(MetadataRefreshRequest.RefreshType.BOOKS)
+                .bookIds(Set.of(1L))
+                .refreshOptions(options)
+                .build();
+    }
+
+    private static class CountingTransactionManager implements PlatformTransactionManager {
+        private final AtomicInteger open = new AtomicInteger();
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            open.incrementAndGet();
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            open.decrementAndGet();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            open.decrementAndGet();
+        }
+    }
+}
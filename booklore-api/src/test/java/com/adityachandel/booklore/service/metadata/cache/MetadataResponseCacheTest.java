@@ -0,0 +1,161 @@
+package com.adityachandel.booklore.service.metadata.cache;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderCircuitBreaker;
+import com.adityachandel.booklore.util.FileService;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetadataResponseCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JavaType metadataType = objectMapper.constructType(BookMetadata.class);
+    private final AppProperties appProperties = new AppProperties();
+    private final FileService fileService = mock(FileService.class);
+    private SimpleMeterRegistry meterRegistry;
+    private ProviderCircuitBreaker circuitBreaker;
+    private MetadataResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(fileService.getMetadataCachePath()).thenReturn(tempDir.toString());
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new ProviderCircuitBreaker(appProperties, meterRegistry);
+        cache = newCache();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void get_shouldCallLoaderOnceForRepeatedKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        BookMetadata first = cache.get(MetadataProvider.Google, "top|dune", metadataType, () -> load(calls, "Dune"));
+        BookMetadata second = cache.get(MetadataProvider.Google, "top|dune", metadataType, () -> load(calls, "Other"));
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(second.getTitle()).isEqualTo(first.getTitle());
+        assertThat(second).isNotSameAs(first);
+        assertThat(meterRegistry.counter("booklore.metadata.cache.requests", "provider", "Google", "result", "memory").count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldServeEntriesFromDiskAfterRestart() {
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(MetadataProvider.Hardcover, "top|dune", metadataType, () -> load(calls, "Dune"));
+        cache.shutdown();
+
+        cache = newCache();
+        BookMetadata restored = cache.get(MetadataProvider.Hardcover, "top|dune", metadataType, () -> load(calls, "Other"));
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(restored.getTitle()).isEqualTo("Dune");
+    }
+
+    @Test
+    void get_shouldLeaveOnlyTheEntryFileOnDisk() throws Exception {
+        cache.get(MetadataProvider.Google, "top|dune", metadataType, () -> load(new AtomicInteger(), "Dune"));
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.map(file -> file.getFileName().toString()).toList())
+                    .singleElement()
+                    .satisfies(name -> assertThat(name).endsWith(".json"));
+        }
+    }
+
+    @Test
+    void get_shouldCacheEmptyResultsOfHealthyRequests() {
+        AtomicInteger calls = new AtomicInteger();
+        JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, BookMetadata.class);
+
+        for (int i = 0; i < 2; i++) {
+            List<BookMetadata> result = cache.get(MetadataProvider.Google, "search|obscure", listType, () -> {
+                calls.incrementAndGet();
+                circuitBreaker.record(MetadataProvider.Google, true);
+                return List.of();
+            });
+            assertThat(result).isEmpty();
+        }
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("booklore.metadata.cache.requests", "provider", "Google", "result", "negative").count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_shouldNotCacheEmptyResultsOfFailedRequests() {
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            BookMetadata result = cache.get(MetadataProvider.GoodReads, "top|dune", metadataType, () -> {
+                calls.incrementAndGet();
+                circuitBreaker.record(MetadataProvider.GoodReads, true);
+                circuitBreaker.record(MetadataProvider.GoodReads, false);
+                return null;
+            });
+            assertThat(result).isNull();
+        }
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_shouldNotCacheEmptyResultsWithoutRequests() {
+        AtomicInteger calls = new AtomicInteger();
+        JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, BookMetadata.class);
+
+        cache.get(MetadataProvider.Amazon, "search|dune", listType, () -> {
+            calls.incrementAndGet();
+            return List.of();
+        });
+        cache.get(MetadataProvider.Amazon, "search|dune", listType, () -> {
+            calls.incrementAndGet();
+            return List.of();
+        });
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_shouldKeepProvidersSeparate() {
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get(MetadataProvider.Google, "top|dune", metadataType, () -> load(calls, "Dune"));
+        cache.get(MetadataProvider.GoodReads, "top|dune", metadataType, () -> load(calls, "Dune"));
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    private MetadataResponseCache newCache() {
+        MetadataResponseCache created = new MetadataResponseCache(appProperties, fileService, objectMapper, meterRegistry, circuitBreaker);
+        created.init();
+        return created;
+    }
+
+    private BookMetadata load(AtomicInteger calls, String title) {
+        calls.incrementAndGet();
+        return BookMetadata.builder().title(title).build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.adityachandel.booklore.service.metadata.parser;
+
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.model.dto.BookReview;
+import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.http.OutboundHttpClient;
+import com.adityachandel.booklore.service.metadata.cache.MetadataResponseCache;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderRateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.adityachandel.booklore.service.metadata.parser.GoodReadsParserTest.fixture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AmazonBookParserTest {
+
+    private final AmazonBookParser parser = new AmazonBookParser(mock(AppSettingService.class), mock(MetadataResponseCache.class),
+            mock(ProviderRateLimiter.class), mock(OutboundHttpClient.class));
+
+    @Test
+    void parseBookDetails_shouldReadProductSections() throws IOException {
+        BookMetadata metadata = parser.parseBookDetails(fixture("amazon/product.html"), "0441172717", 2);
+
+        assertThat(metadata.getTitle()).isEqualTo("Dune");
+        assertThat(metadata.getSubtitle()).isEqualTo("Book 1 of the Dune Chronicles");
+        assertThat(metadata.getAuthors()).containsExactly("Frank Herbert");
+        assertThat(metadata.getIsbn10()).isEqualTo("0441172717");
+        assertThat(metadata.getIsbn13()).isEqualTo("978-0441172719");
+        assertThat(metadata.getPublisher()).isEqualTo("Ace");
+        assertThat(metadata.getPublishedDate()).isEqualTo(LocalDate.of(2005, 8, 2));
+        assertThat(metadata.getSeriesName()).isEqualTo("Dune Chronicles");
+        assertThat(metadata.getSeriesNumber()).isEqualTo(1f);
+        assertThat(metadata.getSeriesTotal()).isEqualTo(6);
+        assertThat(metadata.getLanguage()).isEqualTo("English");
+        assertThat(metadata.getPageCount()).isEqualTo(896);
+        assertThat(metadata.getThumbnailUrl()).endsWith("_SL1500_.jpg");
+        assertThat(metadata.getAmazonRating()).isEqualTo(4.6);
+        assertThat(metadata.getAmazonReviewCount()).isEqualTo(54321);
+        assertThat(metadata.getCategories()).containsExactlyInAnyOrder("Science Fiction", "Classic Literature & Fiction");
+        assertThat(metadata.getDescription()).contains("NOW A MAJOR MOTION PICTURE");
+        assertThat(metadata.getBookReviews()).hasSize(2)
+                .extracting(BookReview::getCountry)
+                .containsOnly("United States");
+    }
+
+    @Test
+    void parseSearchResults_shouldSkipBoxSets() throws IOException {
+        List<String> ids = parser.parseSearchResults(fixture("amazon/search.html"));
+
+        assertThat(ids).hasSize(18).startsWith("0441172717", "0593098234", "B0050CM8LA");
+    }
+}
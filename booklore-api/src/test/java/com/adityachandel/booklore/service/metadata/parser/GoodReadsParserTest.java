@@ -0,0 +1,85 @@
+package com.adityachandel.booklore.service.metadata.parser;
+
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.model.dto.BookReview;
+import com.adityachandel.booklore.model.dto.settings.AppSettings;
+import com.adityachandel.booklore.model.dto.settings.MetadataPublicReviewsSettings;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.http.OutboundHttpClient;
+import com.adityachandel.booklore.service.metadata.cache.MetadataResponseCache;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GoodReadsParserTest {
+
+    private GoodReadsParser parser;
+
+    @BeforeEach
+    void setUp() {
+        AppSettings appSettings = new AppSettings();
+        appSettings.setMetadataPublicReviewsSettings(MetadataPublicReviewsSettings.builder()
+                .providers(Set.of(MetadataPublicReviewsSettings.ReviewProviderConfig.builder()
+                        .provider(MetadataProvider.GoodReads)
+                        .enabled(true)
+                        .maxReviews(3)
+                        .build()))
+                .build());
+        AppSettingService appSettingService = mock(AppSettingService.class);
+        when(appSettingService.getAppSettings()).thenReturn(appSettings);
+        parser = new GoodReadsParser(appSettingService, mock(MetadataResponseCache.class), mock(ProviderRateLimiter.class),
+                mock(OutboundHttpClient.class), new ObjectMapper());
+    }
+
+    @Test
+    void parseBookDetails_shouldReadApolloState() throws IOException {
+        BookMetadata metadata = parser.parseBookDetails(fixture("goodreads/book.html"), "44767458");
+
+        assertThat(metadata.getTitle()).isEqualTo("Dune");
+        assertThat(metadata.getAuthors()).containsExactly("Frank Herbert");
+        assertThat(metadata.getSeriesName()).isEqualTo("Dune");
+        assertThat(metadata.getSeriesNumber()).isEqualTo(1f);
+        assertThat(metadata.getIsbn13()).isEqualTo("9780441013593");
+        assertThat(metadata.getIsbn10()).isEqualTo("0441013597");
+        assertThat(metadata.getPublisher()).isEqualTo("Ace");
+        assertThat(metadata.getPageCount()).isEqualTo(688);
+        assertThat(metadata.getLanguage()).isEqualTo("English");
+        assertThat(metadata.getCategories()).containsExactlyInAnyOrder("Science Fiction", "Fiction", "Fantasy", "Classics");
+        assertThat(metadata.getGoodreadsRating()).isEqualTo(4.27);
+        assertThat(metadata.getGoodreadsReviewCount()).isEqualTo(1523402);
+        assertThat(metadata.getBookReviews()).hasSize(3)
+                .extracting(BookReview::getReviewerName)
+                .containsExactly("Reader 1", "Reader 2", "Reader 3");
+    }
+
+    @Test
+    void parseSearchResults_shouldReadResultTable() throws IOException {
+        String html = fixture("goodreads/search.html");
+
+        List<BookMetadata> all = parser.parseSearchResults(html, null);
+        List<BookMetadata> byAuthor = parser.parseSearchResults(html, "Frank Herbert");
+
+        assertThat(all).hasSize(20);
+        assertThat(all.getFirst().getTitle()).isEqualTo("Dune");
+        assertThat(all.getFirst().getAuthors()).containsExactly("Frank Herbert");
+        assertThat(byAuthor).extracting(BookMetadata::getGoodreadsId).startsWith("44767458", "44492285", "81405");
+    }
+
+    static String fixture(String name) throws IOException {
+        try (InputStream in = GoodReadsParserTest.class.getResourceAsStream("/parser/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.adityachandel.booklore.service.metadata.parser;
+
+import com.adityachandel.booklore.model.dto.settings.AppSettings;
+import com.adityachandel.booklore.model.dto.settings.MetadataPublicReviewsSettings;
+import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.service.http.OutboundHttpClient;
+import com.adityachandel.booklore.service.metadata.cache.MetadataResponseCache;
+import com.adityachandel.booklore.service.metadata.ratelimit.ProviderRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static com.adityachandel.booklore.service.metadata.parser.GoodReadsParserTest.fixture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Parse time and allocation per page for the saved provider pages, next to a full-DOM parse of the same page as
+ * baseline. Excluded from the regular test run; run it with {@code ./gradlew parserBenchmark}.
+ */
+@Tag("benchmark")
+class ProviderPageParsingBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    private static GoodReadsParser goodReadsParser;
+    private static AmazonBookParser amazonBookParser;
+
+    @BeforeAll
+    static void setUp() {
+        AppSettings appSettings = new AppSettings();
+        appSettings.setMetadataPublicReviewsSettings(MetadataPublicReviewsSettings.builder().providers(Set.of()).build());
+        AppSettingService appSettingService = mock(AppSettingService.class);
+        when(appSettingService.getAppSettings()).thenReturn(appSettings);
+        goodReadsParser = new GoodReadsParser(appSettingService, mock(MetadataResponseCache.class), mock(ProviderRateLimiter.class),
+                mock(OutboundHttpClient.class), new ObjectMapper());
+        amazonBookParser = new AmazonBookParser(appSettingService, mock(MetadataResponseCache.class), mock(ProviderRateLimiter.class),
+                mock(OutboundHttpClient.class));
+    }
+
+    @Test
+    void goodreadsBookPage() throws Exception {
+        String html = fixture("goodreads/book.html");
+        compare("goodreads/book.html", html, () -> goodReadsParser.parseBookDetails(html, "44767458"));
+    }
+
+    @Test
+    void goodreadsSearchPage() throws Exception {
+        String html = fixture("goodreads/search.html");
+        compare("goodreads/search.html", html, () -> goodReadsParser.parseSearchResults(html, "Frank Herbert"));
+    }
+
+    @Test
+    void amazonProductPage() throws Exception {
+        String html = fixture("amazon/product.html");
+        compare("amazon/product.html", html, () -> amazonBookParser.parseBookDetails(html, "0441172717", 5));
+    }
+
+    @Test
+    void amazonSearchPage() throws Exception {
+        String html = fixture("amazon/search.html");
+        compare("amazon/search.html", html, () -> amazonBookParser.parseSearchResults(html));
+    }
+
+    private static void compare(String page, String html, Supplier<Object> parse) {
+        Measurement baseline = measure(() -> {
+            Document document = Jsoup.parse(html);
+            return document.body();
+        });
+        Measurement parser = measure(parse);
+        System.out.printf("%-24s %8d KB | full DOM %8.2f ms %10d KB | parser %8.2f ms %10d KB%n",
+                page, html.length() / 1024,
+                baseline.millisPerPage(), baseline.bytesPerPage() / 1024,
+                parser.millisPerPage(), parser.bytesPerPage() / 1024);
+        assertThat(parser.bytesPerPage()).isPositive();
+    }
+
+    private static Measurement measure(Supplier<Object> parse) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertThat(parse.get()).isNotNull();
+        }
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            parse.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Measurement(elapsed / 1e6 / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+
+    private record Measurement(double millisPerPage, long bytesPerPage) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.adityachandel.booklore.service.metadata.ratelimit;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProviderCircuitBreakerTest {
+
+    private ProviderCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getMetadataCircuitBreaker().setFailureThreshold(3);
+        appProperties.getMetadataCircuitBreaker().setOpenDuration(Duration.ofMillis(50));
+        circuitBreaker = new ProviderCircuitBreaker(appProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void acquire_shouldFailFastAfterConsecutiveFailures() throws Exception {
+        fail(MetadataProvider.GoodReads, 3);
+
+        assertThat(circuitBreaker.getState(MetadataProvider.GoodReads)).isEqualTo(ProviderCircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> circuitBreaker.acquire(MetadataProvider.GoodReads))
+                .isInstanceOf(ProviderUnavailableException.class);
+        assertThat(circuitBreaker.getRejectedCount(MetadataProvider.GoodReads)).isEqualTo(1);
+        assertThatCode(() -> circuitBreaker.acquire(MetadataProvider.Google)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void acquire_shouldLetOneProbeThroughAndCloseOnSuccess() throws Exception {
+        fail(MetadataProvider.Amazon, 3);
+        Thread.sleep(80);
+
+        circuitBreaker.acquire(MetadataProvider.Amazon);
+        assertThat(circuitBreaker.getState(MetadataProvider.Amazon)).isEqualTo(ProviderCircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(() -> circuitBreaker.acquire(MetadataProvider.Amazon))
+                .isInstanceOf(ProviderUnavailableException.class);
+
+        circuitBreaker.record(MetadataProvider.Amazon, true);
+        assertThat(circuitBreaker.getState(MetadataProvider.Amazon)).isEqualTo(ProviderCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getUnavailableProviders()).isEmpty();
+    }
+
+    @Test
+    void record_shouldReopenWhenProbeFails() throws Exception {
+        fail(MetadataProvider.Comicvine, 3);
+        Thread.sleep(80);
+
+        fail(MetadataProvider.Comicvine, 1);
+
+        assertThat(circuitBreaker.getState(MetadataProvider.Comicvine)).isEqualTo(ProviderCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.getUnavailableProviders()).containsExactly(MetadataProvider.Comicvine);
+    }
+
+    private void fail(MetadataProvider provider, int times) throws ProviderUnavailableException {
+        for (int i = 0; i < times; i++) {
+            circuitBreaker.acquire(provider);
+            circuitBreaker.record(provider, false);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.adityachandel.booklore.service.metadata.ratelimit;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.dto.settings.AppSettings;
+import com.adityachandel.booklore.model.dto.settings.MetadataProviderSettings;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jsoup.HttpStatusException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProviderRateLimiterTest {
+
+    private ProviderRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        MetadataProviderSettings providerSettings = new MetadataProviderSettings();
+        providerSettings.setRateLimits(Map.of(
+                MetadataProvider.Google, new MetadataProviderSettings.RateLimit(10.0, 2, 2),
+                MetadataProvider.Amazon, new MetadataProviderSettings.RateLimit(100.0, 10, 1)));
+        AppSettings appSettings = new AppSettings();
+        appSettings.setMetadataProviderSettings(providerSettings);
+        AppSettingService appSettingService = mock(AppSettingService.class);
+        when(appSettingService.getAppSettings()).thenReturn(appSettings);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new ProviderRateLimiter(appSettingService, meterRegistry, new ProviderCircuitBreaker(new AppProperties(), meterRegistry));
+    }
+
+    @Test
+    void execute_shouldPaceRequestsBeyondBurst() throws Exception {
+        long started = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.execute(MetadataProvider.Google, () -> "ok");
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        // Two requests fit in the burst, the other two wait roughly 100 ms each
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(150);
+    }
+
+    @Test
+    void execute_shouldNotRetryOtherErrors() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> rateLimiter.execute(MetadataProvider.Amazon, () -> {
+            calls.incrementAndGet();
+            throw new HttpStatusException("Not found", 404, "https://example.com");
+        })).isInstanceOf(IOException.class);
+
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_shouldRetryThrottledResponse() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        int status = rateLimiter.execute(MetadataProvider.Amazon, () -> calls.incrementAndGet() == 1 ? 429 : 200, result -> result);
+
+        assertThat(status).isEqualTo(200);
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(rateLimiter.getEffectiveRate(MetadataProvider.Amazon)).isLessThan(100.0);
+    }
+
+    @Test
+    void execute_shouldStopCallingProviderAfterRepeatedServerErrors() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.execute(MetadataProvider.Amazon, () -> {
+                calls.incrementAndGet();
+                return 500;
+            }, result -> result);
+        }
+
+        assertThatThrownBy(() -> rateLimiter.execute(MetadataProvider.Amazon, () -> {
+            calls.incrementAndGet();
+            return 200;
+        }, result -> result)).isInstanceOf(ProviderUnavailableException.class);
+
+        assertThat(calls.get()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,99 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import com.adityachandel.booklore.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileEventCoalescerTest {
+
+    @TempDir
+    Path root;
+
+    private FileEventCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getMonitoring().setQuietPeriodMs(0);
+        coalescer = new FileEventCoalescer(appProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void holdsBackGrowingFileUntilItIsStable() throws Exception {
+        Path book = Files.writeString(root.resolve("book.epub"), "part one");
+        coalescer.track(event(book, StandardWatchEventKinds.ENTRY_CREATE));
+
+        // The first look only records the size
+        assertThat(coalescer.collectStableFiles()).isEmpty();
+
+        Files.writeString(book, " part two", StandardOpenOption.APPEND);
+        coalescer.track(event(book, StandardWatchEventKinds.ENTRY_MODIFY));
+        assertThat(coalescer.collectStableFiles()).isEmpty();
+        assertThat(coalescer.getPendingCount()).isEqualTo(1);
+
+        assertThat(coalescer.collectStableFiles()).extracting(FileChangeEvent::getFilePath).containsExactly(book);
+        assertThat(coalescer.getPendingCount()).isZero();
+    }
+
+    @Test
+    void mergesEventsForTheSamePath() throws Exception {
+        Path book = Files.writeString(root.resolve("book.epub"), "content");
+        coalescer.track(event(book, StandardWatchEventKinds.ENTRY_CREATE));
+        coalescer.track(event(book, StandardWatchEventKinds.ENTRY_MODIFY));
+        coalescer.track(event(book, StandardWatchEventKinds.ENTRY_CREATE));
+
+        coalescer.collectStableFiles();
+
+        assertThat(coalescer.collectStableFiles()).hasSize(1);
+    }
+
+    @Test
+    void ignoresModifyWithoutPendingCreate() throws Exception {
+        Path book = Files.writeString(root.resolve("book.epub"), "content");
+
+        coalescer.track(event(book, StandardWatchEventKinds.ENTRY_MODIFY));
+
+        assertThat(coalescer.getPendingCount()).isZero();
+    }
+
+    @Test
+    void cancelDropsPendingCreate() throws Exception {
+        Path book = Files.writeString(root.resolve("book.epub"), "content");
+        coalescer.track(event(book, StandardWatchEventKinds.ENTRY_CREATE));
+        coalescer.collectStableFiles();
+
+        assertThat(coalescer.cancel(book)).isTrue();
+        assertThat(coalescer.cancel(book)).isFalse();
+        assertThat(coalescer.collectStableFiles()).isEmpty();
+    }
+
+    @Test
+    void dropsFileDeletedBeforeItIsStable() throws Exception {
+        Path book = Files.writeString(root.resolve("book.epub"), "content");
+        coalescer.track(event(book, StandardWatchEventKinds.ENTRY_CREATE));
+
+        Files.delete(book);
+
+        assertThat(coalescer.collectStableFiles()).isEmpty();
+        assertThat(coalescer.getPendingCount()).isZero();
+    }
+
+    private FileChangeEvent event(Path path, WatchEvent.Kind<?> kind) {
+        return new FileChangeEvent(this, path, kind, root);
+    }
+}
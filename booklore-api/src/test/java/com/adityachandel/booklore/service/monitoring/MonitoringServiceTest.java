@@ -0,0 +1,350 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.repository.LibraryRepository;
+import com.adityachandel.booklore.service.NotificationService;
+import com.adityachandel.booklore.service.watcher.BookFilePersistenceService;
+import com.adityachandel.booklore.service.watcher.BookFileTransactionalHandler;
+import com.adityachandel.booklore.service.watcher.BookMoveTracker;
+import com.adityachandel.booklore.service.watcher.LibraryFileEventProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MonitoringServiceTest {
+
+    @TempDir
+    Path root;
+
+    private final LibraryFileEventProcessor processor = mock(LibraryFileEventProcessor.class);
+    private final FileEventCoalescer coalescer = mock(FileEventCoalescer.class);
+    private final AppProperties appProperties = new AppProperties();
+    private MonitoringService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        appProperties.getMonitoring().setEventQueueCapacity(4);
+        when(processor.diffDirectory(anyLong(), any())).thenReturn(new LibraryFileEventProcessor.DirectoryDiff(List.of(), List.of()));
+        service = new MonitoringService(processor, FileSystems.getDefault().newWatchService(), mock(MonitoringTask.class),
+                coalescer, mock(PollingWatcher.class), appProperties, new SimpleMeterRegistry());
+        service.initializeMonitoring();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stopMonitoring();
+    }
+
+    @Test
+    void dropsFileEventsWhilePaused() throws Exception {
+        service.registerPath(root, 1L);
+        Path created = Files.writeString(root.resolve("new.epub"), "content");
+
+        service.pauseMonitoring();
+        service.handleFileChangeEvent(event(created, StandardWatchEventKinds.ENTRY_CREATE));
+        service.handleFileChangeEvent(event(created, StandardWatchEventKinds.ENTRY_MODIFY));
+        service.handleFileChangeEvent(event(root.resolve("gone.epub"), StandardWatchEventKinds.ENTRY_DELETE));
+
+        verify(coalescer, never()).track(any());
+        verify(coalescer, never()).cancel(any());
+        assertThat(service.getQueueDepth()).isZero();
+
+        service.resumeMonitoring();
+        service.handleFileChangeEvent(event(created, StandardWatchEventKinds.ENTRY_CREATE));
+
+        verify(coalescer).track(argThat(event -> event.getFilePath().equals(created)));
+    }
+
+    @Test
+    void reconcilesTouchedDirectoriesOnResume() throws Exception {
+        Path vanishing = Files.createDirectory(root.resolve("old"));
+        service.registerPath(root, 1L);
+        service.registerPath(vanishing, 1L);
+
+        service.pauseMonitoring();
+        // Created and deleted before any event for them could be handled
+        Path nested = Files.createDirectories(root.resolve("series").resolve("volume 1"));
+        Files.delete(vanishing);
+        service.handleFileChangeEvent(event(nested.resolve("book.epub"), StandardWatchEventKinds.ENTRY_CREATE));
+        service.handleFileChangeEvent(event(root.resolve("book.epub"), StandardWatchEventKinds.ENTRY_CREATE));
+        assertThat(service.getRegisteredDirectoryCount()).isEqualTo(2);
+
+        service.resumeMonitoring();
+
+        assertThat(service.getRegisteredDirectoryCount()).isEqualTo(3);
+        assertThat(service.registerPath(nested, 1L)).isFalse();
+        assertThat(service.registerPath(root.resolve("series"), 1L)).isFalse();
+        verify(coalescer, never()).track(any());
+    }
+
+    @Test
+    void importsFilesChangedByOthersUnderAPausedPathOnResume() throws Exception {
+        Path paused = Files.createDirectory(root.resolve("uploads"));
+        service.registerPath(root, 1L);
+        service.registerPath(paused, 1L);
+        Path external = paused.resolve("external.epub");
+        Path removed = paused.resolve("removed.epub");
+        when(processor.diffDirectory(1L, paused)).thenReturn(new LibraryFileEventProcessor.DirectoryDiff(List.of(external), List.of(removed)));
+
+        service.pausePaths(List.of(paused));
+        Files.writeString(external, "content");
+        service.handleFileChangeEvent(new FileChangeEvent(this, external, StandardWatchEventKinds.ENTRY_CREATE, paused));
+        service.handleFileChangeEvent(new FileChangeEvent(this, removed, StandardWatchEventKinds.ENTRY_DELETE, paused));
+
+        verify(coalescer, never()).track(any());
+        verify(processor, never()).diffDirectory(anyLong(), any());
+
+        service.resumePaths(List.of(paused));
+
+        verify(coalescer).track(argThat(event -> event.getFilePath().equals(external)
+                && event.getEventKind() == StandardWatchEventKinds.ENTRY_CREATE));
+        verify(processor, timeout(5000)).processFile(StandardWatchEventKinds.ENTRY_DELETE, 1L, paused.toString(), removed.toString());
+    }
+
+    @Test
+    void countsNestedPauses() {
+        service.pauseMonitoring();
+        service.pauseMonitoring();
+
+        service.resumeMonitoring();
+        assertThat(service.isPaused()).isTrue();
+
+        service.resumeMonitoring();
+        assertThat(service.isPaused()).isFalse();
+
+        service.resumeMonitoring();
+        assertThat(service.isPaused()).isFalse();
+    }
+
+    @Test
+    void countsNestedPathPauses() throws Exception {
+        Path paused = Files.createDirectory(root.resolve("uploads"));
+        Path inside = Files.writeString(paused.resolve("book.epub"), "content");
+        Path outside = Files.writeString(root.resolve("other.epub"), "content");
+        service.registerPath(root, 1L);
+        service.registerPath(paused, 1L);
+
+        service.pausePaths(List.of(paused));
+        service.pausePaths(List.of(paused));
+        service.resumePaths(List.of(paused));
+        service.handleFileChangeEvent(new FileChangeEvent(this, inside, StandardWatchEventKinds.ENTRY_CREATE, paused));
+        service.handleFileChangeEvent(event(outside, StandardWatchEventKinds.ENTRY_CREATE));
+
+        verify(coalescer, never()).track(argThat(event -> event.getFilePath().equals(inside)));
+        verify(coalescer).track(argThat(event -> event.getFilePath().equals(outside)));
+
+        service.resumePaths(List.of(paused));
+        service.handleFileChangeEvent(new FileChangeEvent(this, inside, StandardWatchEventKinds.ENTRY_CREATE, paused));
+
+        verify(coalescer).track(argThat(event -> event.getFilePath().equals(inside)));
+    }
+
+    @Test
+    void defersFilesThatBecomeStableWhilePaused() throws Exception {
+        Path paused = Files.createDirectory(root.resolve("uploads"));
+        Path inside = Files.writeString(paused.resolve("book.epub"), "content");
+        Path elsewhere = Files.writeString(root.resolve("other.epub"), "content");
+        service.registerPath(root, 1L);
+        service.registerPath(paused, 1L);
+        FileChangeEvent insideEvent = new FileChangeEvent(this, inside, StandardWatchEventKinds.ENTRY_CREATE, paused);
+        FileChangeEvent elsewhereEvent = event(elsewhere, StandardWatchEventKinds.ENTRY_CREATE);
+
+        service.pauseMonitoring();
+        service.pausePaths(List.of(paused));
+        stableFileSink().accept(List.of(insideEvent, elsewhereEvent));
+
+        assertThat(service.getQueueDepth()).isZero();
+        verify(coalescer, never()).track(any());
+
+        // The global pause ends first, the path pause still holds back the file inside it
+        service.resumeMonitoring();
+        verify(coalescer).track(elsewhereEvent);
+        verify(coalescer, never()).track(insideEvent);
+
+        service.resumePaths(List.of(paused));
+        verify(coalescer).track(insideEvent);
+        verify(processor, never()).processFile(any(), anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void rescansEachOverflowedDirectoryOnce() throws Exception {
+        Path first = Files.createDirectory(root.resolve("first"));
+        Path second = Files.createDirectory(root.resolve("second"));
+        service.registerPath(root, 1L);
+        service.registerPath(first, 1L);
+        service.registerPath(second, 1L);
+        // Rescans wait for the end of a pause, which keeps the scheduled run from racing the assertions
+        service.pauseMonitoring();
+
+        // One kernel overflow is reported on every watch key, and may be reported again before the rescan runs
+        for (int i = 0; i < 2; i++) {
+            for (Path directory : List.of(root, first, second)) {
+                service.handleWatchOverflow(new WatchOverflowEvent(this, directory));
+            }
+        }
+        service.handleWatchOverflow(new WatchOverflowEvent(this, root.resolve("unwatched")));
+
+        assertThat(service.getOverflowCount()).isEqualTo(7);
+        assertThat(service.getPendingRescanCount()).isEqualTo(3);
+
+        service.resumeMonitoring();
+        service.runPendingRescans();
+
+        for (Path directory : List.of(root, first, second)) {
+            verify(processor, timeout(5000)).diffDirectory(1L, directory);
+        }
+        assertThat(service.getPendingRescanCount()).isZero();
+    }
+
+    @Test
+    void postponesRescansOfPausedPaths() throws Exception {
+        Path paused = Files.createDirectory(root.resolve("uploads"));
+        service.registerPath(root, 1L);
+        service.registerPath(paused, 1L);
+        service.pausePaths(List.of(paused));
+
+        service.handleWatchOverflow(new WatchOverflowEvent(this, root));
+        service.handleWatchOverflow(new WatchOverflowEvent(this, paused));
+        service.runPendingRescans();
+
+        verify(processor, timeout(5000)).diffDirectory(1L, root);
+        verify(processor, never()).diffDirectory(1L, paused);
+        assertThat(service.getPendingRescanCount()).isEqualTo(1);
+
+        service.resumePaths(List.of(paused));
+        service.runPendingRescans();
+
+        verify(processor, timeout(5000)).diffDirectory(1L, paused);
+        assertThat(service.getPendingRescanCount()).isZero();
+    }
+
+    @Test
+    void fallsBackToRescanWhenQueueIsFullAndWaitsForItToDrain() throws Exception {
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            processing.countDown();
+            release.await();
+            return null;
+        }).when(processor).processFile(any(), anyLong(), anyString(), anyString());
+        Path missed = root.resolve("missed.epub");
+        when(processor.diffDirectory(1L, root)).thenReturn(new LibraryFileEventProcessor.DirectoryDiff(List.of(missed), List.of()));
+        service.registerPath(root, 1L);
+
+        service.handleFileChangeEvent(event(root.resolve("0.epub"), StandardWatchEventKinds.ENTRY_DELETE));
+        assertThat(processing.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i <= 5; i++) {
+            service.handleFileChangeEvent(event(root.resolve(i + ".epub"), StandardWatchEventKinds.ENTRY_DELETE));
+        }
+
+        assertThat(service.getQueueDepth()).isEqualTo(4);
+        assertThat(service.getQueueSaturationCount()).isEqualTo(1);
+        assertThat(service.getPendingRescanCount()).isEqualTo(1);
+
+        // The queue is above half its capacity, so the rescan has to wait
+        service.runPendingRescans();
+        assertThat(service.getPendingRescanCount()).isEqualTo(1);
+        verify(processor, never()).diffDirectory(anyLong(), any());
+
+        release.countDown();
+        verify(coalescer, timeout(5000)).track(argThat(event -> event.getFilePath().equals(missed)));
+        assertThat(service.getPendingRescanCount()).isZero();
+    }
+
+    @Test
+    void busyLanesHoldEventsInTheQueueUntilItOverflowsIntoARescan() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        LibraryRepository libraryRepository = mock(LibraryRepository.class);
+        BookFilePersistenceService persistence = mock(BookFilePersistenceService.class);
+        LibraryPathEntity libraryPath = LibraryPathEntity.builder().id(5L).path(root.toString()).build();
+        LibraryEntity library = LibraryEntity.builder().id(1L).libraryPaths(List.of(libraryPath)).build();
+        when(libraryRepository.findById(1L)).thenReturn(Optional.of(library));
+        when(persistence.getLibraryPathEntityForFile(eq(library), anyString())).thenReturn(libraryPath);
+        when(persistence.findMatchingLibraryPath(eq(library), any())).thenAnswer(invocation -> {
+            release.await();
+            return root.toString();
+        });
+
+        AppProperties properties = new AppProperties();
+        properties.getMonitoring().setWorkerThreads(1);
+        properties.getMonitoring().setMaxInFlightEvents(2);
+        properties.getMonitoring().setEventQueueCapacity(4);
+        LibraryFileEventProcessor realProcessor = new LibraryFileEventProcessor(libraryRepository, mock(BookFileTransactionalHandler.class),
+                persistence, mock(BookMoveTracker.class), mock(NotificationService.class), properties, new SimpleMeterRegistry());
+        realProcessor.init();
+        MonitoringService flooded = new MonitoringService(realProcessor, FileSystems.getDefault().newWatchService(), mock(MonitoringTask.class),
+                mock(FileEventCoalescer.class), mock(PollingWatcher.class), properties, new SimpleMeterRegistry());
+        flooded.initializeMonitoring();
+        try {
+            flooded.registerPath(root, 1L);
+
+            // Two events occupy the lanes, the third is held by the dispatcher until one of them finishes
+            for (int i = 0; i < 3; i++) {
+                flooded.handleFileChangeEvent(event(root.resolve(i + ".epub"), StandardWatchEventKinds.ENTRY_DELETE));
+            }
+            awaitUntil(() -> realProcessor.getPendingEventCount() == 2 && flooded.getQueueDepth() == 2);
+
+            for (int i = 3; i < 9; i++) {
+                flooded.handleFileChangeEvent(event(root.resolve(i + ".epub"), StandardWatchEventKinds.ENTRY_DELETE));
+            }
+            assertThat(flooded.getQueueDepth()).isEqualTo(6);
+            assertThat(flooded.getQueueSaturationCount()).isEqualTo(2);
+            assertThat(flooded.getPendingRescanCount()).isEqualTo(1);
+
+            flooded.runPendingRescans();
+            verify(persistence, never()).findFileNamesInDirectory(anyLong(), anyString());
+
+            release.countDown();
+            verify(persistence, timeout(5000)).findFileNamesInDirectory(5L, "");
+            awaitUntil(() -> flooded.getQueueDepth() == 0 && flooded.getPendingRescanCount() == 0);
+        } finally {
+            release.countDown();
+            flooded.stopMonitoring();
+            realProcessor.shutdown();
+        }
+    }
+
+    private void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<List<FileChangeEvent>> stableFileSink() {
+        ArgumentCaptor<Consumer<List<FileChangeEvent>>> sink = ArgumentCaptor.forClass(Consumer.class);
+        verify(coalescer).start(sink.capture());
+        return sink.getValue();
+    }
+
+    private FileChangeEvent event(Path path, WatchEvent.Kind<?> kind) {
+        return new FileChangeEvent(this, path, kind, path.getParent());
+    }
+}
@@ -0,0 +1,100 @@
+package com.adityachandel.booklore.service.monitoring;
+
+import com.adityachandel.booklore.config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class PollingWatcherTest {
+
+    @TempDir
+    Path root;
+
+    private final FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+    private final List<FileChangeEvent> events = new ArrayList<>();
+    private PollingWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        watcher = new PollingWatcher(event -> events.add((FileChangeEvent) event), new AppProperties());
+    }
+
+    @Test
+    void reportsFilesAddedAndRemovedWhenDirectoryTimeChanges() throws Exception {
+        Path existing = Files.writeString(root.resolve("old.epub"), "old");
+        setOld(root);
+        watcher.register(root, 1L);
+
+        Path added = Files.writeString(root.resolve("new.epub"), "new");
+        Files.delete(existing);
+        Files.setLastModifiedTime(root, FileTime.fromMillis(System.currentTimeMillis() - 30_000));
+
+        assertThat(watcher.pollNow()).isEqualTo(2);
+        assertThat(events).extracting(FileChangeEvent::getFilePath, FileChangeEvent::getEventKind).containsExactlyInAnyOrder(
+                tuple(added, StandardWatchEventKinds.ENTRY_CREATE),
+                tuple(existing, StandardWatchEventKinds.ENTRY_DELETE));
+    }
+
+    @Test
+    void relistsDirectoryChangedWithinTimestampGranularity() throws Exception {
+        FileTime modified = FileTime.fromMillis(System.currentTimeMillis());
+        Files.setLastModifiedTime(root, modified);
+        watcher.register(root, 1L);
+
+        // A second change in the same timestamp tick leaves the directory time as it was
+        Path added = Files.writeString(root.resolve("book.epub"), "content");
+        Files.setLastModifiedTime(root, modified);
+
+        watcher.pollNow();
+
+        assertThat(events).extracting(FileChangeEvent::getFilePath, FileChangeEvent::getEventKind)
+                .containsExactly(tuple(added, StandardWatchEventKinds.ENTRY_CREATE));
+    }
+
+    @Test
+    void reportsRecentFileGrowingInPlace() throws Exception {
+        Path book = Files.writeString(root.resolve("book.epub"), "part one");
+        setOld(root);
+        watcher.register(root, 1L);
+
+        Files.writeString(book, " and part two", StandardOpenOption.APPEND);
+        setOld(root);
+
+        assertThat(watcher.pollNow()).isEqualTo(1);
+        assertThat(events).extracting(FileChangeEvent::getFilePath, FileChangeEvent::getEventKind)
+                .containsExactly(tuple(book, StandardWatchEventKinds.ENTRY_MODIFY));
+
+        events.clear();
+        assertThat(watcher.pollNow()).isZero();
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void skipsSettledFilesOfUnchangedDirectories() throws Exception {
+        Path book = Files.writeString(root.resolve("book.epub"), "content");
+        Files.setLastModifiedTime(book, FileTime.fromMillis(System.currentTimeMillis() - 3_600_000));
+        setOld(root);
+        watcher.register(root, 1L);
+
+        Files.writeString(book, "rewritten");
+        Files.setLastModifiedTime(book, FileTime.fromMillis(System.currentTimeMillis() - 3_600_000));
+        setOld(root);
+
+        assertThat(watcher.pollNow()).isZero();
+    }
+
+    private void setOld(Path dir) throws Exception {
+        Files.setLastModifiedTime(dir, old);
+    }
+}
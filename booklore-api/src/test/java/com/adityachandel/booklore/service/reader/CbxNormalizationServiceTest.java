@@ -0,0 +1,129 @@
+package com.adityachandel.booklore.service.reader;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
+import org.apache.commons.compress.archivers.sevenz.SevenZOutputFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CbxNormalizationServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AppProperties appProperties;
+    private CbxNormalizationService service;
+    private Path library;
+    private BookEntity book;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        appProperties = new AppProperties();
+        appProperties.setPathConfig(tempDir.resolve("data").toString());
+        service = new CbxNormalizationService(appProperties);
+        library = Files.createDirectories(tempDir.resolve("library"));
+        writeCb7(library.resolve("book.cb7"), "page one");
+        book = BookEntity.builder()
+                .id(1L)
+                .libraryPath(LibraryPathEntity.builder().path(library.toString()).build())
+                .fileSubPath("")
+                .fileName("book.cb7")
+                .currentHash("h1")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void writesStoredPackOfTheImages() throws Exception {
+        Path pack = normalize();
+
+        assertThat(pack.getFileName().toString()).isEqualTo("1-h1.cbz");
+        try (ZipFile zipFile = new ZipFile(pack.toFile())) {
+            assertThat(Collections.list(zipFile.entries())).extracting(entry -> entry.getName())
+                    .containsExactly("001.jpg", "002.jpg");
+        }
+    }
+
+    @Test
+    void discardsPackWhenSourceChangedUnderTheSameHash() throws Exception {
+        Path pack = normalize();
+
+        writeCb7(library.resolve("book.cb7"), "replaced page with other content");
+        Files.setLastModifiedTime(library.resolve("book.cb7"), FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+
+        assertThat(service.findNormalizedArchive(book)).isEmpty();
+        assertThat(pack).doesNotExist();
+    }
+
+    @Test
+    void deletesAllPacksOfABook() throws Exception {
+        Path dir = Files.createDirectories(tempDir.resolve("data/cbx_normalized"));
+        Files.writeString(dir.resolve("1-a.cbz"), "a");
+        Files.writeString(dir.resolve("1-b.cbz"), "b");
+        Files.writeString(dir.resolve("12-a.cbz"), "c");
+
+        service.deletePacks(1L);
+
+        try (var files = Files.list(dir)) {
+            assertThat(files.map(p -> p.getFileName().toString())).containsExactly("12-a.cbz");
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPacksOverBudget() throws Exception {
+        appProperties.getCbx().setNormalizedCacheSizeMb(0);
+        Path dir = Files.createDirectories(tempDir.resolve("data/cbx_normalized"));
+        Path old = Files.writeString(dir.resolve("2-old.cbz"), "old pack");
+        Files.setLastModifiedTime(old, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+
+        Path pack = normalize();
+
+        assertThat(pack).exists();
+        assertThat(old).doesNotExist();
+    }
+
+    private Path normalize() throws Exception {
+        service.scheduleNormalization(book);
+        long deadline = System.currentTimeMillis() + 5_000;
+        Optional<Path> pack = service.findNormalizedArchive(book);
+        while (pack.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            pack = service.findNormalizedArchive(book);
+        }
+        assertThat(pack).isPresent();
+        return pack.get();
+    }
+
+    private static void writeCb7(Path target, String content) throws Exception {
+        try (SevenZOutputFile out = new SevenZOutputFile(target.toFile())) {
+            for (String name : List.of("001.jpg", "002.jpg", "notes.txt")) {
+                SevenZArchiveEntry entry = out.createArchiveEntry(target.toFile(), name);
+                entry.setDirectory(false);
+                byte[] bytes = (name + ":" + content).getBytes(StandardCharsets.UTF_8);
+                entry.setSize(bytes.length);
+                out.putArchiveEntry(entry);
+                out.write(bytes);
+                out.closeArchiveEntry();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.adityachandel.booklore.service.reader;
+
+import com.adityachandel.booklore.model.dto.response.CbxPageManifest;
+import com.adityachandel.booklore.model.dto.settings.AppSettings;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.service.FileFingerprint;
+import com.adityachandel.booklore.service.appsettings.AppSettingService;
+import com.adityachandel.booklore.util.FileService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CbxReaderServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final AppSettingService appSettingService = mock(AppSettingService.class);
+    private final FileService fileService = mock(FileService.class);
+    private BookEntity book;
+    private Path archive;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path library = Files.createDirectories(tempDir.resolve("library"));
+        archive = library.resolve("book.cbz");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            for (String name : new String[]{"001.png", "002.png"}) {
+                zip.putNextEntry(new ZipEntry(name));
+                ImageIO.write(new BufferedImage(4, 6, BufferedImage.TYPE_INT_RGB), "png", zip);
+                zip.closeEntry();
+            }
+        }
+        // Imported before fingerprints were recorded
+        book = BookEntity.builder()
+                .id(1L)
+                .libraryPath(LibraryPathEntity.builder().path(library.toString()).build())
+                .fileSubPath("")
+                .fileName("book.cbz")
+                .build();
+
+        AppSettings appSettings = new AppSettings();
+        appSettings.setCbxCacheSizeInMb(100);
+        when(appSettingService.getAppSettings()).thenReturn(appSettings);
+        when(fileService.getCbxCachePath()).thenReturn(tempDir.resolve("cache").toString());
+        when(fileService.getCbxManifestPath()).thenReturn(tempDir.resolve("manifests").toString());
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.setCurrentHashIfMissing(anyLong(), anyString())).thenReturn(1);
+    }
+
+    @Test
+    void storesTheFingerprintOfABookWithoutOneSoPagesResolveAfterARestart() throws Exception {
+        String fingerprint = FileFingerprint.generateHash(archive);
+
+        CbxPageManifest manifest = newService().getPageManifest(1L);
+
+        assertThat(manifest.getPages()).hasSize(2);
+        verify(bookRepository).setCurrentHashIfMissing(1L, fingerprint);
+        assertThat(book.getCurrentHash()).isEqualTo(fingerprint);
+
+        // A fresh instance has no manifests in memory and finds the stored one under the recorded fingerprint
+        when(bookRepository.findCurrentHashById(1L)).thenReturn(Optional.of(fingerprint));
+        assertThat(newService().getPage(1L, 2).getPageNumber()).isEqualTo(2);
+        verify(bookRepository, times(1)).setCurrentHashIfMissing(anyLong(), anyString());
+    }
+
+    @Test
+    void buildsTheManifestForAPageRequestWhenNoneIsStored() throws Exception {
+        when(bookRepository.findCurrentHashById(1L)).thenReturn(Optional.empty());
+
+        assertThat(newService().getPage(1L, 1).getPageNumber()).isEqualTo(1);
+        verify(bookRepository).setCurrentHashIfMissing(1L, FileFingerprint.generateHash(archive));
+    }
+
+    private CbxReaderService newService() {
+        return new CbxReaderService(bookRepository, appSettingService, fileService, new ObjectMapper(),
+                mock(PageVariantService.class), mock(CbxNormalizationService.class));
+    }
+}
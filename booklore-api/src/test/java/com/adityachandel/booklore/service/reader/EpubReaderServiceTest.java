@@ -0,0 +1,232 @@
+package com.adityachandel.booklore.service.reader;
+
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.enums.BookFileType;
+import com.adityachandel.booklore.repository.BookRepository;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EpubReaderServiceTest {
+
+    private static final String CONTAINER = """
+            <?xml version="1.0"?>
+            <container xmlns="urn:oasis:names:tc:opendocument:xmlns:container" version="1.0">
+              <rootfiles><rootfile full-path="OEBPS/content.opf" media-type="application/oebps-package+xml"/></rootfiles>
+            </container>
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private BookRepository bookRepository;
+    private EpubReaderService service;
+    private Path epub;
+    private BookEntity book;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        epub = tempDir.resolve("book.epub");
+        writeEpub("<html>first</html>", "x");
+        bookRepository = mock(BookRepository.class);
+        book = BookEntity.builder()
+                .id(1L)
+                .bookType(BookFileType.EPUB)
+                .libraryPath(LibraryPathEntity.builder().path(tempDir.toString()).build())
+                .fileSubPath("")
+                .fileName("book.epub")
+                .currentHash("hash")
+                .build();
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        service = new EpubReaderService(bookRepository);
+    }
+
+    @Test
+    void streamsEntryWithValidatorsAndSecurityHeaders() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.streamEntry(1L, "OEBPS/chapter.xhtml", new MockHttpServletRequest(), response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("<html>first</html>");
+        assertThat(response.getContentType()).isEqualTo("application/xhtml+xml");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("\"hash-");
+        assertThat(response.getHeader("X-Content-Type-Options")).isEqualTo("nosniff");
+        assertThat(response.getHeader("Content-Security-Policy")).startsWith("sandbox");
+        assertThat(service.getBookInfo(1L).getOpfPath()).isEqualTo("OEBPS/content.opf");
+    }
+
+    @Test
+    void imagesAreNotSandboxed() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.streamEntry(1L, "OEBPS/cover.png", new MockHttpServletRequest(), response);
+
+        assertThat(response.getHeader("X-Content-Type-Options")).isEqualTo("nosniff");
+        assertThat(response.getHeader("Content-Security-Policy")).isNull();
+    }
+
+    @Test
+    void returnsNotModifiedForMatchingEtag() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        service.streamEntry(1L, "OEBPS/chapter.xhtml", new MockHttpServletRequest(), first);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        service.streamEntry(1L, "OEBPS/chapter.xhtml", request, second);
+
+        assertThat(second.getStatus()).isEqualTo(304);
+        assertThat(second.getContentAsByteArray()).isEmpty();
+        verify(bookRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void reopensArchiveWhenFileWasReplaced() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        service.streamEntry(1L, "OEBPS/chapter.xhtml", new MockHttpServletRequest(), first);
+
+        writeEpub("<html>second edition</html>", "x");
+        Files.setLastModifiedTime(epub, FileTime.fromMillis(Files.getLastModifiedTime(epub).toMillis() + 5_000));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        service.streamEntry(1L, "OEBPS/chapter.xhtml", new MockHttpServletRequest(), second);
+
+        assertThat(second.getContentAsString()).isEqualTo("<html>second edition</html>");
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isNotEqualTo(first.getHeader(HttpHeaders.ETAG));
+        verify(bookRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void concurrentFirstRequestsWaitForOneOpenWithoutBlockingOtherBooks() throws Exception {
+        CountDownLatch opening = new CountDownLatch(1);
+        CountDownLatch releaseOpen = new CountDownLatch(1);
+        when(bookRepository.findById(1L)).thenAnswer(invocation -> {
+            opening.countDown();
+            assertThat(releaseOpen.await(5, TimeUnit.SECONDS)).isTrue();
+            return Optional.of(book);
+        });
+        BookEntity other = BookEntity.builder()
+                .id(2L)
+                .bookType(BookFileType.EPUB)
+                .libraryPath(book.getLibraryPath())
+                .fileSubPath("")
+                .fileName("book.epub")
+                .currentHash("hash")
+                .build();
+        when(bookRepository.findById(2L)).thenReturn(Optional.of(other));
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.getBookInfo(1L).getOpfPath());
+        assertThat(opening.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> service.getBookInfo(1L).getOpfPath());
+
+        assertThat(service.getBookInfo(2L).getOpfPath()).isEqualTo("OEBPS/content.opf");
+        assertThat(first).isNotDone();
+        releaseOpen.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("OEBPS/content.opf");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("OEBPS/content.opf");
+        verify(bookRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void evictionWaitsForRunningStream() throws Exception {
+        String large = "a".repeat(256 * 1024);
+        writeEpub("<html>first</html>", large);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        MockHttpServletResponse delegate = new MockHttpServletResponse();
+        HttpServletResponseWrapper response = new HttpServletResponseWrapper(delegate) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new CapturingOutputStream(received, () -> service.evict(1L));
+            }
+        };
+
+        service.streamEntry(1L, "OEBPS/large.css", new MockHttpServletRequest(), response);
+
+        assertThat(received.toString(StandardCharsets.UTF_8)).isEqualTo(large);
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        service.streamEntry(1L, "OEBPS/chapter.xhtml", new MockHttpServletRequest(), next);
+        assertThat(next.getContentAsString()).isEqualTo("<html>first</html>");
+        verify(bookRepository, times(2)).findById(1L);
+    }
+
+    private void writeEpub(String chapter, String stylesheet) throws Exception {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(epub))) {
+            addEntry(zip, "mimetype", "application/epub+zip");
+            addEntry(zip, "META-INF/container.xml", CONTAINER);
+            addEntry(zip, "OEBPS/content.opf", "<package/>");
+            addEntry(zip, "OEBPS/chapter.xhtml", chapter);
+            addEntry(zip, "OEBPS/large.css", stylesheet);
+            addEntry(zip, "OEBPS/cover.png", "png");
+        }
+    }
+
+    private static void addEntry(ZipOutputStream zip, String name, String content) throws Exception {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    /**
+     * Evicts the archive on the first write, while the rest of the entry still has to be read from it.
+     */
+    private static final class CapturingOutputStream extends ServletOutputStream {
+
+        private final OutputStream target;
+        private Runnable onFirstWrite;
+
+        CapturingOutputStream(OutputStream target, Runnable onFirstWrite) {
+            this.target = target;
+            this.onFirstWrite = onFirstWrite;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (onFirstWrite != null) {
+                onFirstWrite.run();
+                onFirstWrite = null;
+            }
+            target.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+    }
+}
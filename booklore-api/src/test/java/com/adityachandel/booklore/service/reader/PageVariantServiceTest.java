@@ -0,0 +1,163 @@
+package com.adityachandel.booklore.service.reader;
+
+import com.adityachandel.booklore.util.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageVariantServiceTest {
+
+    @TempDir
+    Path cacheRoot;
+
+    private final PageVariantService service = new PageVariantService();
+
+    @Test
+    void snapsRequestedWidthsToBuckets() {
+        assertThat(PageVariantService.snapWidth(100)).isEqualTo(480);
+        assertThat(PageVariantService.snapWidth(480)).isEqualTo(480);
+        assertThat(PageVariantService.snapWidth(481)).isEqualTo(720);
+        assertThat(PageVariantService.snapWidth(5000)).isEqualTo(2048);
+    }
+
+    @Test
+    void streamsDownscaledVariantAndCachesIt() throws Exception {
+        Path page = writePage(cacheRoot.resolve("1"), "0001.png", 2000, 1000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.streamPage(cacheRoot, page, "image/png", "hash", 700, Long.MAX_VALUE, new MockHttpServletRequest(), response);
+
+        BufferedImage sent = ImageIO.read(new ByteArrayInputStream(response.getContentAsByteArray()));
+        assertThat(response.getContentType()).isEqualTo("image/jpeg");
+        assertThat(sent.getWidth()).isEqualTo(720);
+        assertThat(sent.getHeight()).isEqualTo(360);
+        assertThat(cacheRoot.resolve("1/variants/w720/0001.jpg")).exists();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"hash-0001.png-w720\"");
+    }
+
+    @Test
+    void sendsOriginalWhenNarrowerThanBucket() throws Exception {
+        Path page = writePage(cacheRoot.resolve("1"), "0001.png", 400, 600);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.streamPage(cacheRoot, page, "image/png", "hash", 720, Long.MAX_VALUE, new MockHttpServletRequest(), response);
+
+        assertThat(response.getContentType()).isEqualTo("image/png");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Files.readAllBytes(page));
+        assertThat(cacheRoot.resolve("1/variants")).doesNotExist();
+    }
+
+    @Test
+    void streamsPackedPageAndItsVariantWithoutExtractingIt() throws Exception {
+        byte[] image = Files.readAllBytes(writePage(cacheRoot.resolve("source"), "page.png", 2000, 1000));
+        Path pack = cacheRoot.resolve("pack.cbz");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(pack))) {
+            ZipEntry entry = new ZipEntry("chapter/page.png");
+            CRC32 crc = new CRC32();
+            crc.update(image);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(image.length);
+            entry.setCrc(crc.getValue());
+            out.putNextEntry(entry);
+            out.write(image);
+            out.closeEntry();
+        }
+        Path pagePath = cacheRoot.resolve("1/0001.png");
+
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        service.streamPackedPage(cacheRoot, pack, "chapter/page.png", pagePath, "image/png", "hash", null, Long.MAX_VALUE, new MockHttpServletRequest(), original);
+        MockHttpServletResponse variant = new MockHttpServletResponse();
+        service.streamPackedPage(cacheRoot, pack, "chapter/page.png", pagePath, "image/png", "hash", 700, Long.MAX_VALUE, new MockHttpServletRequest(), variant);
+
+        assertThat(original.getContentAsByteArray()).isEqualTo(image);
+        assertThat(original.getContentLengthLong()).isEqualTo(image.length);
+        assertThat(ImageIO.read(new ByteArrayInputStream(variant.getContentAsByteArray())).getWidth()).isEqualTo(720);
+        assertThat(variant.getHeader(HttpHeaders.ETAG)).isEqualTo("\"hash-0001.png-w720\"");
+        assertThat(cacheRoot.resolve("1/variants/w720/0001.jpg")).exists();
+        assertThat(pagePath).doesNotExist();
+    }
+
+    @Test
+    void returnsNotModifiedForMatchingEtagOfSameBookVersion() throws Exception {
+        Path page = writePage(cacheRoot.resolve("1"), "0001.png", 2000, 1000);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"hash-0001.png-w720\"");
+
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        service.streamPage(cacheRoot, page, "image/png", "hash", 720, Long.MAX_VALUE, request, notModified);
+        MockHttpServletResponse replaced = new MockHttpServletResponse();
+        service.streamPage(cacheRoot, page, "image/png", "new-hash", 720, Long.MAX_VALUE, request, replaced);
+
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        assertThat(notModified.getContentAsByteArray()).isEmpty();
+        assertThat(replaced.getStatus()).isEqualTo(200);
+        assertThat(replaced.getHeader(HttpHeaders.ETAG)).isEqualTo("\"new-hash-0001.png-w720\"");
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedVariantsIncludingOnesFromBeforeRestart() throws Exception {
+        Path first = writePage(cacheRoot.resolve("1"), "0001.png", 2000, 1000);
+        Path second = writePage(cacheRoot.resolve("2"), "0001.png", 2000, 1000);
+        Path firstVariant = new PageVariantService().getOrCreateVariant(cacheRoot, first, 720, Long.MAX_VALUE);
+        long variantSize = Files.size(firstVariant);
+
+        Path secondVariant = service.getOrCreateVariant(cacheRoot, second, 720, variantSize + variantSize / 2);
+
+        assertThat(secondVariant).exists();
+        assertThat(firstVariant).doesNotExist();
+    }
+
+    @Test
+    void forgetsVariantsRemovedWithTheirPageDirectory() throws Exception {
+        Path first = writePage(cacheRoot.resolve("1"), "0001.png", 2000, 1000);
+        Path second = writePage(cacheRoot.resolve("2"), "0001.png", 2000, 1000);
+        Path firstVariant = service.getOrCreateVariant(cacheRoot, first, 720, Long.MAX_VALUE);
+        long variantSize = Files.size(firstVariant);
+        FileUtils.deleteDirectoryRecursively(cacheRoot.resolve("1"));
+
+        Path secondVariant = service.getOrCreateVariant(cacheRoot, second, 720, variantSize);
+
+        assertThat(secondVariant).exists();
+        PageVariantService.VariantIndex index = new PageVariantService.VariantIndex(cacheRoot);
+        assertThat(index.totalBytes()).isEqualTo(Files.size(secondVariant));
+    }
+
+    @Test
+    void cacheRootsHaveSeparateBudgets() throws Exception {
+        Path cbxRoot = cacheRoot.resolve("cbx_cache");
+        Path pdfRoot = cacheRoot.resolve("pdf_cache");
+        Path cbxVariant = service.getOrCreateVariant(cbxRoot, writePage(cbxRoot.resolve("1"), "0001.png", 2000, 1000), 720, Long.MAX_VALUE);
+        long variantSize = Files.size(cbxVariant);
+
+        Path pdfVariant = service.getOrCreateVariant(pdfRoot, writePage(pdfRoot.resolve("1"), "0001.png", 2000, 1000), 720, variantSize + variantSize / 2);
+
+        assertThat(cbxVariant).exists();
+        assertThat(pdfVariant).exists();
+    }
+
+    private static Path writePage(Path dir, String name, int width, int height) throws Exception {
+        Files.createDirectories(dir);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x += 10) {
+            for (int y = 0; y < height; y += 10) {
+                image.setRGB(x, y, (x * 31 + y * 17) & 0xFFFFFF);
+            }
+        }
+        Path page = dir.resolve(name);
+        ImageIO.write(image, "png", page.toFile());
+        return page;
+    }
+}
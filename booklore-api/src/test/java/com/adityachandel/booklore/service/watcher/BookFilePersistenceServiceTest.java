@@ -0,0 +1,77 @@
+package com.adityachandel.booklore.service.watcher;
+
+import com.adityachandel.booklore.mapper.BookMapper;
+import com.adityachandel.booklore.model.dto.Book;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.model.websocket.Topic;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.service.NotificationService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookFilePersistenceServiceTest {
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final BookMapper bookMapper = mock(BookMapper.class);
+    private final BookFilePersistenceService service = new BookFilePersistenceService(entityManager, bookRepository, notificationService, bookMapper);
+
+    private final LibraryPathEntity firstPath = LibraryPathEntity.builder().id(5L).path("/books/first").build();
+    private final LibraryEntity firstLibrary = LibraryEntity.builder().id(1L).libraryPaths(List.of(firstPath)).build();
+    private final LibraryPathEntity secondPath = LibraryPathEntity.builder().id(6L).path("/books/second").build();
+    private final LibraryEntity secondLibrary = LibraryEntity.builder().id(2L).libraryPaths(List.of(secondPath)).build();
+
+    @BeforeEach
+    void setUp() {
+        when(entityManager.merge(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void bookMovedToAnotherLibraryBelongsToThatLibrary() {
+        BookEntity book = BookEntity.builder().id(7L).library(firstLibrary).libraryPath(firstPath)
+                .fileSubPath("").fileName("book.epub").build();
+
+        service.updatePathIfChanged(book, secondLibrary, Path.of("/books/second/series/book.epub"), "hash");
+
+        assertThat(book.getLibrary()).isSameAs(secondLibrary);
+        assertThat(book.getLibraryPath()).isSameAs(secondPath);
+        assertThat(book.getFileSubPath()).isEqualTo("series");
+        verify(bookRepository).save(book);
+    }
+
+    @Test
+    void directoryMoveSendsTheMovedBooksToClients() {
+        BookEntity first = BookEntity.builder().id(7L).build();
+        BookEntity second = BookEntity.builder().id(8L).build();
+        Book firstDto = Book.builder().id(7L).build();
+        Book secondDto = Book.builder().id(8L).build();
+        when(bookRepository.findAllInDirectory(5L, "old")).thenReturn(List.of(first, second));
+        when(bookRepository.moveDirectory(eq(5L), eq("old"), eq(firstPath), eq("new"))).thenReturn(2);
+        when(bookRepository.findAllWithMetadataByIds(Set.of(7L, 8L))).thenReturn(List.of(first, second));
+        when(bookMapper.toBook(first)).thenReturn(firstDto);
+        when(bookMapper.toBook(second)).thenReturn(secondDto);
+
+        int moved = service.moveDirectory(5L, "old", firstLibrary, Path.of("/books/first/new"));
+
+        assertThat(moved).isEqualTo(2);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Book>> books = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).sendMessageToPermissions(eq(Topic.BOOK_METADATA_BATCH_UPDATE), books.capture(), anySet());
+        assertThat(books.getValue()).containsExactly(firstDto, secondDto);
+    }
+}
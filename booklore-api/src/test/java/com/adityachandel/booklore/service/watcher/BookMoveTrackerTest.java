@@ -0,0 +1,83 @@
+package com.adityachandel.booklore.service.watcher;
+
+import com.adityachandel.booklore.config.AppProperties;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookMoveTrackerTest {
+
+    private final BookMoveTracker tracker = new BookMoveTracker(new AppProperties());
+
+    @Test
+    void pairsFileDeleteWithCreateOfSameFingerprint() {
+        AtomicBoolean deleted = new AtomicBoolean();
+        tracker.parkFileDelete(1L, 42L, "abc", () -> deleted.set(true));
+
+        assertThat(tracker.claimFileDelete(1L, "other")).isEmpty();
+        assertThat(tracker.claimFileDelete(1L, "abc")).contains(42L);
+        assertThat(tracker.claimFileDelete(1L, "abc")).isEmpty();
+        assertThat(deleted).isFalse();
+    }
+
+    @Test
+    void replacedFileDeleteIsAppliedImmediately() {
+        AtomicBoolean firstDeleted = new AtomicBoolean();
+        tracker.parkFileDelete(1L, 1L, "abc", () -> firstDeleted.set(true));
+        tracker.parkFileDelete(1L, 2L, "abc", () -> {});
+
+        assertThat(firstDeleted).isTrue();
+        assertThat(tracker.claimFileDelete(1L, "abc")).contains(2L);
+    }
+
+    @Test
+    void doesNotPairFileDeleteWithCreateInAnotherLibrary() {
+        AtomicBoolean deleted = new AtomicBoolean();
+        tracker.parkFileDelete(1L, 42L, "abc", () -> deleted.set(true));
+        tracker.parkFileDelete(2L, 43L, "abc", () -> {});
+
+        assertThat(deleted).isFalse();
+        assertThat(tracker.claimFileDelete(3L, "abc")).isEmpty();
+        assertThat(tracker.claimFileDelete(2L, "abc")).contains(43L);
+        assertThat(tracker.claimFileDelete(1L, "abc")).contains(42L);
+    }
+
+    @Test
+    void pairsDirectoryRenameBySubtreeInEitherOrder() {
+        Set<String> files = Set.of("a.epub", "sub/b.pdf");
+        AtomicReference<Path> movedTo = new AtomicReference<>();
+        AtomicBoolean unmatched = new AtomicBoolean();
+
+        tracker.offerDirectoryCreate(1L, Path.of("/lib/new"), files, () -> unmatched.set(true));
+        tracker.parkDirectoryDelete(1L, files, movedTo::set, () -> {});
+
+        assertThat(movedTo.get()).isEqualTo(Path.of("/lib/new"));
+        assertThat(unmatched).isFalse();
+
+        movedTo.set(null);
+        tracker.parkDirectoryDelete(1L, files, movedTo::set, () -> {});
+        tracker.offerDirectoryCreate(1L, Path.of("/lib/other"), files, () -> unmatched.set(true));
+
+        assertThat(movedTo.get()).isEqualTo(Path.of("/lib/other"));
+        assertThat(unmatched).isFalse();
+    }
+
+    @Test
+    void doesNotPairDirectoriesWithDifferentContentOrLibrary() {
+        AtomicReference<Path> movedTo = new AtomicReference<>();
+        tracker.parkDirectoryDelete(1L, Set.of("a.epub"), movedTo::set, () -> {});
+
+        AtomicBoolean emptyUnmatched = new AtomicBoolean();
+        tracker.offerDirectoryCreate(1L, Path.of("/lib/empty"), Set.of(), () -> emptyUnmatched.set(true));
+        tracker.offerDirectoryCreate(2L, Path.of("/lib/x"), Set.of("a.epub"), () -> {});
+        tracker.offerDirectoryCreate(1L, Path.of("/lib/y"), Set.of("b.epub"), () -> {});
+
+        assertThat(emptyUnmatched).isTrue();
+        assertThat(movedTo.get()).isNull();
+    }
+}
@@ -0,0 +1,201 @@
+package com.adityachandel.booklore.service.watcher;
+
+import com.adityachandel.booklore.config.AppProperties;
+import com.adityachandel.booklore.mapper.BookMapper;
+import com.adityachandel.booklore.model.entity.BookEntity;
+import com.adityachandel.booklore.model.entity.LibraryEntity;
+import com.adityachandel.booklore.model.entity.LibraryPathEntity;
+import com.adityachandel.booklore.repository.BookRepository;
+import com.adityachandel.booklore.repository.LibraryRepository;
+import com.adityachandel.booklore.service.FileFingerprint;
+import com.adityachandel.booklore.service.NotificationService;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LibraryFileEventProcessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LibraryRepository libraryRepository;
+    private BookFileTransactionalHandler transactionalHandler;
+    private BookFilePersistenceService persistenceService;
+    private LibraryFileEventProcessor processor;
+    private LibraryEntity library;
+
+    @BeforeEach
+    void setUp() {
+        libraryRepository = mock(LibraryRepository.class);
+        transactionalHandler = mock(BookFileTransactionalHandler.class);
+        persistenceService = mock(BookFilePersistenceService.class);
+        BookMoveTracker moveTracker = mock(BookMoveTracker.class);
+        when(moveTracker.claimFileDelete(anyLong(), any())).thenReturn(Optional.empty());
+
+        LibraryPathEntity libraryPath = LibraryPathEntity.builder().id(5L).path(tempDir.toString()).build();
+        library = LibraryEntity.builder().id(1L).libraryPaths(List.of(libraryPath)).build();
+        when(libraryRepository.findById(1L)).thenReturn(Optional.of(library));
+        when(persistenceService.findMatchingLibraryPath(eq(library), any())).thenReturn(tempDir.toString());
+        when(persistenceService.getLibraryPathEntityForFile(eq(library), anyString())).thenReturn(libraryPath);
+
+        AppProperties appProperties = new AppProperties();
+        appProperties.getMonitoring().setWorkerThreads(4);
+        processor = new LibraryFileEventProcessor(libraryRepository, transactionalHandler, persistenceService, moveTracker,
+                mock(NotificationService.class), appProperties, new SimpleMeterRegistry());
+        processor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+    }
+
+    @Test
+    void eventsForTheSamePathAreAppliedInOrder() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("book.epub"), "content");
+        List<String> applied = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            Thread.sleep(50);
+            applied.add("create");
+            return null;
+        }).when(transactionalHandler).handleNewBookFile(anyLong(), any(), any());
+        when(persistenceService.findByLibraryPathSubPathAndFileName(anyLong(), anyString(), anyString())).thenAnswer(invocation -> {
+            applied.add("delete");
+            return Optional.empty();
+        });
+
+        for (int i = 0; i < 3; i++) {
+            processor.processFile(StandardWatchEventKinds.ENTRY_CREATE, 1L, tempDir.toString(), file.toString());
+            processor.processFile(StandardWatchEventKinds.ENTRY_DELETE, 1L, tempDir.toString(), file.toString());
+        }
+        awaitIdle();
+
+        assertThat(applied).containsExactly("create", "delete", "create", "delete", "create", "delete");
+    }
+
+    @Test
+    void copiesOfTheSameFileAreIngestedOneAtATime() throws Exception {
+        List<Path> files = List.of(
+                Files.writeString(tempDir.resolve("a.epub"), "same content"),
+                Files.writeString(tempDir.resolve("b.epub"), "same content"),
+                Files.writeString(tempDir.resolve("c.epub"), "same content"),
+                Files.writeString(tempDir.resolve("d.epub"), "same content"));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Path> ingested = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            ingested.add(invocation.getArgument(1));
+            running.decrementAndGet();
+            return null;
+        }).when(transactionalHandler).handleNewBookFile(anyLong(), any(), any());
+
+        files.forEach(file -> processor.processFile(StandardWatchEventKinds.ENTRY_CREATE, 1L, tempDir.toString(), file.toString()));
+        awaitIdle();
+
+        assertThat(ingested).containsExactlyInAnyOrderElementsOf(files);
+        assertThat(maxRunning).hasValue(1);
+    }
+
+    @Test
+    void renameInTheSameFolderRelinksTheBook() throws Exception {
+        BookRepository bookRepository = mock(BookRepository.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.merge(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        BookFilePersistenceService realPersistence = new BookFilePersistenceService(entityManager, bookRepository,
+                mock(NotificationService.class), mock(BookMapper.class));
+        LibraryFileEventProcessor renameProcessor = new LibraryFileEventProcessor(libraryRepository, transactionalHandler,
+                realPersistence, new BookMoveTracker(new AppProperties()), mock(NotificationService.class), new AppProperties(), new SimpleMeterRegistry());
+        renameProcessor.init();
+        try {
+            Path oldFile = Files.writeString(tempDir.resolve("old name.epub"), "content");
+            BookEntity book = BookEntity.builder().id(7L).libraryPath(library.getLibraryPaths().getFirst())
+                    .fileSubPath("").fileName("old name.epub").currentHash(FileFingerprint.generateHash(oldFile)).build();
+            when(bookRepository.findByLibraryPath_IdAndFileSubPathAndFileName(5L, "", "old name.epub")).thenReturn(Optional.of(book));
+            when(bookRepository.findById(7L)).thenReturn(Optional.of(book));
+
+            Path newFile = Files.move(oldFile, tempDir.resolve("new name.epub"));
+            renameProcessor.processFile(StandardWatchEventKinds.ENTRY_DELETE, 1L, tempDir.toString(), oldFile.toString());
+            awaitIdle(renameProcessor);
+            renameProcessor.processFile(StandardWatchEventKinds.ENTRY_CREATE, 1L, tempDir.toString(), newFile.toString());
+            awaitIdle(renameProcessor);
+
+            assertThat(book.getFileName()).isEqualTo("new name.epub");
+            assertThat(book.getFileSubPath()).isEmpty();
+            assertThat(book.getDeleted()).isNotEqualTo(Boolean.TRUE);
+            verify(bookRepository).save(book);
+            verify(transactionalHandler, never()).handleNewBookFile(anyLong(), any(), any());
+        } finally {
+            renameProcessor.shutdown();
+        }
+    }
+
+    @Test
+    void sameFileAppearingInAnotherLibraryIsIngestedThere(@TempDir Path otherRoot) throws Exception {
+        BookRepository bookRepository = mock(BookRepository.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.merge(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        BookFilePersistenceService realPersistence = new BookFilePersistenceService(entityManager, bookRepository,
+                mock(NotificationService.class), mock(BookMapper.class));
+        LibraryPathEntity otherPath = LibraryPathEntity.builder().id(6L).path(otherRoot.toString()).build();
+        LibraryEntity otherLibrary = LibraryEntity.builder().id(2L).libraryPaths(List.of(otherPath)).build();
+        when(libraryRepository.findById(2L)).thenReturn(Optional.of(otherLibrary));
+        LibraryFileEventProcessor moveProcessor = new LibraryFileEventProcessor(libraryRepository, transactionalHandler,
+                realPersistence, new BookMoveTracker(new AppProperties()), mock(NotificationService.class), new AppProperties(), new SimpleMeterRegistry());
+        moveProcessor.init();
+        try {
+            Path oldFile = Files.writeString(tempDir.resolve("book.epub"), "content");
+            BookEntity book = BookEntity.builder().id(7L).library(library).libraryPath(library.getLibraryPaths().getFirst())
+                    .fileSubPath("").fileName("book.epub").currentHash(FileFingerprint.generateHash(oldFile)).build();
+            when(bookRepository.findByLibraryPath_IdAndFileSubPathAndFileName(5L, "", "book.epub")).thenReturn(Optional.of(book));
+            when(bookRepository.findById(7L)).thenReturn(Optional.of(book));
+
+            Path newFile = Files.move(oldFile, otherRoot.resolve("book.epub"));
+            moveProcessor.processFile(StandardWatchEventKinds.ENTRY_DELETE, 1L, tempDir.toString(), oldFile.toString());
+            awaitIdle(moveProcessor);
+            moveProcessor.processFile(StandardWatchEventKinds.ENTRY_CREATE, 2L, otherRoot.toString(), newFile.toString());
+            awaitIdle(moveProcessor);
+
+            verify(transactionalHandler).handleNewBookFile(eq(2L), eq(newFile), any());
+            verify(bookRepository, never()).save(book);
+            assertThat(book.getLibraryPath().getId()).isEqualTo(5L);
+        } finally {
+            moveProcessor.shutdown();
+        }
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        awaitIdle(processor);
+    }
+
+    private void awaitIdle(LibraryFileEventProcessor target) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (target.getPendingEventCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(target.getPendingEventCount()).isZero();
+    }
+}
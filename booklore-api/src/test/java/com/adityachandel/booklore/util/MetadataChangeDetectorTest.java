@@ -0,0 +1,98 @@
+package com.adityachandel.booklore.util;
+
+import com.adityachandel.booklore.model.MetadataClearFlags;
+import com.adityachandel.booklore.model.dto.BookMetadata;
+import com.adityachandel.booklore.model.dto.BookReview;
+import com.adityachandel.booklore.model.entity.AuthorEntity;
+import com.adityachandel.booklore.model.entity.BookMetadataEntity;
+import com.adityachandel.booklore.model.entity.BookReviewEntity;
+import com.adityachandel.booklore.model.entity.CategoryEntity;
+import com.adityachandel.booklore.model.enums.MetadataProvider;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetadataChangeDetectorTest {
+
+    @Test
+    void sameValuesAndMissingValuesAreNoChange() {
+        BookMetadataEntity existing = existing();
+        BookMetadata fetched = BookMetadata.builder()
+                .title(" Dune ")
+                .authors(Set.of("Frank Herbert"))
+                .categories(Set.of("Science Fiction"))
+                .build();
+
+        assertThat(MetadataChangeDetector.changedFields(fetched, existing, new MetadataClearFlags(), false)).isEmpty();
+    }
+
+    @Test
+    void reportsOnlyChangedUnlockedFields() {
+        BookMetadataEntity existing = existing();
+        existing.setDescriptionLocked(true);
+        BookMetadata fetched = BookMetadata.builder()
+                .title("Dune")
+                .description("A different description")
+                .pageCount(412)
+                .authors(Set.of("Frank Herbert", "Brian Herbert"))
+                .build();
+
+        assertThat(MetadataChangeDetector.changedFields(fetched, existing, new MetadataClearFlags(), false))
+                .containsExactlyInAnyOrder("pageCount", "authors");
+    }
+
+    @Test
+    void mergedCategoriesChangeOnlyWhenOneIsAdded() {
+        BookMetadataEntity existing = existing();
+        BookMetadata subset = BookMetadata.builder().categories(Set.of("Science Fiction")).build();
+        BookMetadata other = BookMetadata.builder().categories(Set.of("Classics")).build();
+
+        assertThat(MetadataChangeDetector.changedFields(subset, existing, new MetadataClearFlags(), true)).isEmpty();
+        assertThat(MetadataChangeDetector.changedFields(other, existing, new MetadataClearFlags(), true)).containsExactly("categories");
+        assertThat(MetadataChangeDetector.changedFields(other, existing, new MetadataClearFlags(), false)).containsExactly("categories");
+    }
+
+    @Test
+    void clearingAnEmptyFieldIsNoChange() {
+        BookMetadataEntity existing = existing();
+        MetadataClearFlags clear = new MetadataClearFlags();
+        clear.setSubtitle(true);
+        clear.setTitle(true);
+
+        assertThat(MetadataChangeDetector.changedFields(new BookMetadata(), existing, clear, false)).containsExactly("title");
+    }
+
+    @Test
+    void olderReviewsBeyondTheLimitAreNoChange() {
+        BookMetadataEntity existing = existing();
+        Instant now = Instant.now();
+        existing.setReviews(IntStream.range(0, 5)
+                .mapToObj(i -> BookReviewEntity.builder().metadataProvider(MetadataProvider.GoodReads)
+                        .reviewerName("reader" + i).date(now.minusSeconds(i)).body("review " + i).build())
+                .collect(Collectors.toCollection(HashSet::new)));
+        List<BookReview> older = List.of(BookReview.builder().metadataProvider(MetadataProvider.GoodReads)
+                .reviewerName("old").date(now.minusSeconds(3600)).body("old review").build());
+        List<BookReview> newer = List.of(BookReview.builder().metadataProvider(MetadataProvider.GoodReads)
+                .reviewerName("new").date(now.plusSeconds(60)).body("new review").build());
+
+        assertThat(MetadataChangeDetector.changedFields(BookMetadata.builder().bookReviews(older).build(), existing, new MetadataClearFlags(), true)).isEmpty();
+        assertThat(MetadataChangeDetector.changedFields(BookMetadata.builder().bookReviews(newer).build(), existing, new MetadataClearFlags(), true)).containsExactly("reviews");
+    }
+
+    private static BookMetadataEntity existing() {
+        return BookMetadataEntity.builder()
+                .title("Dune")
+                .pageCount(896)
+                .description("A desert planet")
+                .authors(new HashSet<>(Set.of(AuthorEntity.builder().name("Frank Herbert").build())))
+                .categories(new HashSet<>(Set.of(CategoryEntity.builder().name("Science Fiction").build())))
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.adityachandel.booklore.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NaturalOrderComparatorTest {
+
+    @Test
+    void sortsEmbeddedNumbersByValue() {
+        List<String> sorted = List.of("page10.jpg", "page2.jpg", "Page1.jpg", "page02b.jpg").stream()
+                .sorted(NaturalOrderComparator.INSTANCE)
+                .toList();
+
+        assertThat(sorted).containsExactly("Page1.jpg", "page2.jpg", "page02b.jpg", "page10.jpg");
+    }
+
+    @Test
+    void ordersFoldersBeforeTheirFiles() {
+        List<String> sorted = List.of("ch10/001.png", "ch2/010.png", "ch2/002.png").stream()
+                .sorted(NaturalOrderComparator.INSTANCE)
+                .toList();
+
+        assertThat(sorted).containsExactly("ch2/002.png", "ch2/010.png", "ch10/001.png");
+    }
+
+    @Test
+    void ordersNamesThatDifferOnlyInLeadingZerosOrCase() {
+        NaturalOrderComparator comparator = NaturalOrderComparator.INSTANCE;
+
+        assertThat(comparator.compare("a01", "a1")).isNotZero();
+        assertThat(Integer.signum(comparator.compare("a01", "a1"))).isEqualTo(-Integer.signum(comparator.compare("a1", "a01")));
+        assertThat(comparator.compare("Cover.jpg", "cover.jpg")).isNotZero();
+        assertThat(comparator.compare("a1", "a1")).isZero();
+
+        List<String> sorted = List.of("a1", "a2", "a01", "a001").stream()
+                .sorted(comparator)
+                .toList();
+        assertThat(sorted).containsExactly("a001", "a01", "a1", "a2");
+    }
+}
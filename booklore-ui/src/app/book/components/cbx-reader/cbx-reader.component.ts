@@ -4,8 +4,8 @@ import {CbxReaderService} from '../../service/cbx-reader.service';
 import {BookService} from '../../service/book.service';
 import {UserService} from '../../../settings/user-management/user.service';
 import {MessageService} from 'primeng/api';
-import {forkJoin} from 'rxjs';
-import {BookSetting, BookType, CbxPageSpread, CbxPageViewMode, PdfPageSpread, PdfPageViewMode} from '../../model/book.model';
+import {forkJoin, map, Observable} from 'rxjs';
+import {BookSetting, BookType, CbxManifestPage, CbxPageSpread, CbxPageViewMode, PdfPageSpread, PdfPageViewMode} from '../../model/book.model';
 import {ProgressSpinner} from 'primeng/progressspinner';
 import {FormsModule} from "@angular/forms";
 import {NewPdfReaderService} from '../../service/new-pdf-reader.service';
@@ -24,6 +24,7 @@ export class CbxReaderComponent implements OnInit {
   goToPageInput: number | null = null;
   bookId!: number;
   pages: number[] = [];
+  pageDetails = new Map<number, CbxManifestPage>();
   currentPage = 0;
   isLoading = true;
 
@@ -56,9 +57,14 @@ export class CbxReaderComponent implements OnInit {
           const userSettings = myself.userSettings;
           this.bookType = book.bookType;
 
-          const pagesObservable = this.bookType === 'PDF'
+          const pagesObservable: Observable<number[]> = this.bookType === 'PDF'
             ? this.pdfReaderService.getAvailablePages(this.bookId)
-            : this.cbxReaderService.getAvailablePages(this.bookId);
+            : this.cbxReaderService.getManifest(this.bookId).pipe(
+              map(manifest => {
+                this.pageDetails = new Map(manifest.pages.map(page => [page.pageNumber, page]));
+                return manifest.pages.map(page => page.pageNumber);
+              })
+            );
 
           pagesObservable.subscribe({
             next: (pages) => {
@@ -156,8 +162,9 @@ export class CbxReaderComponent implements OnInit {
     const previousPage = this.currentPage;
 
     if (this.isTwoPageView) {
-      if (this.currentPage + 2 < this.pages.length) {
-        this.currentPage += 2;
+      const shown = this.isShownAlone(this.currentPage) ? 1 : 2;
+      if (this.currentPage + shown < this.pages.length) {
+        this.currentPage += shown;
       } else if (this.currentPage + 1 < this.pages.length) {
         this.currentPage += 1;
       }
@@ -172,7 +179,8 @@ export class CbxReaderComponent implements OnInit {
 
   previousPage() {
     if (this.isTwoPageView) {
-      this.currentPage = Math.max(0, this.currentPage - 2);
+      const step = this.isWidePage(this.currentPage - 1) || this.isWidePage(this.currentPage - 2) ? 1 : 2;
+      this.currentPage = Math.max(0, this.currentPage - step);
     } else {
       this.currentPage = Math.max(0, this.currentPage - 1);
     }
@@ -243,18 +251,40 @@ export class CbxReaderComponent implements OnInit {
       : this.cbxReaderService.getPageImageUrl(this.bookId, this.pages[pageIndex]);
   }
 
-  get imageUrls(): string[] {
-    if (!this.pages.length) return [];
+  /**
+   * Double-page spreads are stored as one landscape image, which fills the view by itself in two-page mode.
+   */
+  private isWidePage(pageIndex: number): boolean {
+    const page = this.pageDetails.get(this.pages[pageIndex]);
+    return !!page?.width && !!page?.height && page.width > page.height;
+  }
 
-    const urls: string[] = [];
+  private isShownAlone(pageIndex: number): boolean {
+    return this.isWidePage(pageIndex) || this.isWidePage(pageIndex + 1);
+  }
 
-    urls.push(this.getPageImageUrl(this.currentPage));
+  private toVisiblePage(pageIndex: number): { url: string; aspectRatio: string | null } {
+    const page = this.pageDetails.get(this.pages[pageIndex]);
+    return {
+      url: this.getPageImageUrl(pageIndex),
+      aspectRatio: page?.width && page?.height ? `${page.width} / ${page.height}` : null,
+    };
+  }
 
-    if (this.isTwoPageView && this.currentPage + 1 < this.pages.length) {
-      urls.push(this.getPageImageUrl(this.currentPage + 1));
+  get visiblePages(): { url: string; aspectRatio: string | null }[] {
+    if (!this.pages.length) return [];
+
+    const visible = [this.toVisiblePage(this.currentPage)];
+
+    if (this.isTwoPageView && this.currentPage + 1 < this.pages.length && !this.isShownAlone(this.currentPage)) {
+      visible.push(this.toVisiblePage(this.currentPage + 1));
     }
 
-    return urls;
+    return visible;
+  }
+
+  get imageUrls(): string[] {
+    return this.visiblePages.map(page => page.url);
   }
 
   private updateViewerSetting(): void {
@@ -81,82 +81,91 @@ export class EpubViewerComponent implements OnInit, OnDestroy {
 
       const myself$ = this.userService.getMyself();
       const epub$ = this.bookService.getBookByIdFromAPI(bookId, false);
-      const epubData$ = this.bookService.getFileContent(bookId);
+      const epubInfo$ = this.bookService.getEpubInfo(bookId);
       const bookSetting$ = this.bookService.getBookSetting(bookId);
 
-      forkJoin([myself$, epub$, epubData$, bookSetting$]).subscribe({
-        next: ([myself, epub, epubData, bookSetting]) => {
+      forkJoin([myself$, epub$, epubInfo$, bookSetting$]).subscribe({
+        next: ([myself, epub, epubInfo, bookSetting]) => {
           this.epub = epub;
           const individualSetting = bookSetting?.epubSettings;
-          const fileReader = new FileReader();
 
-          fileReader.onload = () => {
-            this.book = ePub(fileReader.result as ArrayBuffer);
-
-            this.book.loaded.navigation.then((nav: any) => {
-              this.chapters = nav.toc.map((chapter: any) => ({
-                label: chapter.label,
-                href: chapter.href,
-              }));
+          if (!epubInfo.opfPath) {
+            this.messageService.add({
+              severity: 'error',
+              summary: 'Error',
+              detail: 'Failed to load the book',
             });
+            this.isLoading = false;
+            return;
+          }
+
+          // Entries are streamed from the archive one by one, so chapters load as they are rendered instead of with the whole file
+          this.book = ePub(this.bookService.getEpubEntryUrl(bookId, epubInfo.opfPath), {
+            requestHeaders: this.bookService.getAuthorizationHeaders(),
+            replacements: 'blobUrl',
+          });
 
-            const settingScope = myself.userSettings.perBookSetting.epub;
-            const globalSettings = myself.userSettings.epubReaderSetting;
-
-            const resolvedFlow = settingScope === 'Global' ? globalSettings.flow : individualSetting?.flow;
-            const resolvedFontSize = settingScope === 'Global' ? globalSettings.fontSize : individualSetting?.fontSize;
-            const resolvedFontFamily = settingScope === 'Global' ? globalSettings.font : individualSetting?.font;
-            const resolvedTheme = settingScope === 'Global' ? globalSettings.theme : individualSetting?.theme;
-            const resolvedLineHeight = settingScope === 'Global' ? globalSettings.lineHeight : individualSetting?.lineHeight;
-            const resolvedLetterSpacing = settingScope === 'Global' ? globalSettings.letterSpacing : individualSetting?.letterSpacing;
-
-            if (resolvedTheme != null) this.selectedTheme = resolvedTheme;
-            if (resolvedFontFamily != null) this.selectedFontType = resolvedFontFamily;
-            if (resolvedFontSize != null) this.fontSize = resolvedFontSize;
-            if (resolvedLineHeight != null) this.lineHeight = resolvedLineHeight;
-            if (resolvedLetterSpacing != null) this.letterSpacing = resolvedLetterSpacing;
-            if (resolvedFlow != null) this.selectedFlow = resolvedFlow;
-
-            this.rendition = this.book.renderTo(this.epubContainer.nativeElement, {
-              flow: this.selectedFlow ?? 'paginated',
-              manager: this.selectedFlow === 'scrolled' ? 'continuous' : 'default',
-              width: '100%',
-              height: '100%',
-              allowScriptedContent: true,
-            });
+          this.book.loaded.navigation.then((nav: any) => {
+            this.chapters = nav.toc.map((chapter: any) => ({
+              label: chapter.label,
+              href: chapter.href,
+            }));
+          });
 
-            const baseTheme = EpubThemeUtil.themesMap.get(this.selectedTheme ?? 'black') || {};
-            const combinedTheme = {
-              ...baseTheme,
-              body: {
-                ...baseTheme.body,
-                ...(this.selectedFontType ? {'font-family': this.selectedFontType} : {}),
-                ...(this.lineHeight != null ? {'line-height': this.lineHeight} : {}),
-                ...(this.letterSpacing != null ? {'letter-spacing': `${this.letterSpacing}em`} : {}),
-              },
-              '*': {
-                ...baseTheme['*'],
-                ...(this.lineHeight != null ? {'line-height': this.lineHeight} : {}),
-                ...(this.letterSpacing != null ? {'letter-spacing': `${this.letterSpacing}em`} : {}),
-              },
-            };
-
-            this.rendition.themes.override('font-size', `${this.fontSize}%`);
-            this.rendition.themes.register('custom', combinedTheme);
-            this.rendition.themes.select('custom');
-
-            const displayPromise = this.epub?.epubProgress?.cfi
-              ? this.rendition.display(this.epub.epubProgress.cfi)
-              : this.rendition.display();
-
-            displayPromise.then(() => {
-              this.setupKeyListener();
-              this.trackProgress();
-              this.isLoading = false;
-            });
+          const settingScope = myself.userSettings.perBookSetting.epub;
+          const globalSettings = myself.userSettings.epubReaderSetting;
+
+          const resolvedFlow = settingScope === 'Global' ? globalSettings.flow : individualSetting?.flow;
+          const resolvedFontSize = settingScope === 'Global' ? globalSettings.fontSize : individualSetting?.fontSize;
+          const resolvedFontFamily = settingScope === 'Global' ? globalSettings.font : individualSetting?.font;
+          const resolvedTheme = settingScope === 'Global' ? globalSettings.theme : individualSetting?.theme;
+          const resolvedLineHeight = settingScope === 'Global' ? globalSettings.lineHeight : individualSetting?.lineHeight;
+          const resolvedLetterSpacing = settingScope === 'Global' ? globalSettings.letterSpacing : individualSetting?.letterSpacing;
+
+          if (resolvedTheme != null) this.selectedTheme = resolvedTheme;
+          if (resolvedFontFamily != null) this.selectedFontType = resolvedFontFamily;
+          if (resolvedFontSize != null) this.fontSize = resolvedFontSize;
+          if (resolvedLineHeight != null) this.lineHeight = resolvedLineHeight;
+          if (resolvedLetterSpacing != null) this.letterSpacing = resolvedLetterSpacing;
+          if (resolvedFlow != null) this.selectedFlow = resolvedFlow;
+
+          this.rendition = this.book.renderTo(this.epubContainer.nativeElement, {
+            flow: this.selectedFlow ?? 'paginated',
+            manager: this.selectedFlow === 'scrolled' ? 'continuous' : 'default',
+            width: '100%',
+            height: '100%',
+            allowScriptedContent: true,
+          });
+
+          const baseTheme = EpubThemeUtil.themesMap.get(this.selectedTheme ?? 'black') || {};
+          const combinedTheme = {
+            ...baseTheme,
+            body: {
+              ...baseTheme.body,
+              ...(this.selectedFontType ? {'font-family': this.selectedFontType} : {}),
+              ...(this.lineHeight != null ? {'line-height': this.lineHeight} : {}),
+              ...(this.letterSpacing != null ? {'letter-spacing': `${this.letterSpacing}em`} : {}),
+            },
+            '*': {
+              ...baseTheme['*'],
+              ...(this.lineHeight != null ? {'line-height': this.lineHeight} : {}),
+              ...(this.letterSpacing != null ? {'letter-spacing': `${this.letterSpacing}em`} : {}),
+            },
           };
 
-          fileReader.readAsArrayBuffer(epubData);
+          this.rendition.themes.override('font-size', `${this.fontSize}%`);
+          this.rendition.themes.register('custom', combinedTheme);
+          this.rendition.themes.select('custom');
+
+          const displayPromise = this.epub?.epubProgress?.cfi
+            ? this.rendition.display(this.epub.epubProgress.cfi)
+            : this.rendition.display();
+
+          displayPromise.then(() => {
+            this.setupKeyListener();
+            this.trackProgress();
+            this.isLoading = false;
+          });
         },
         error: () => {
           this.messageService.add({
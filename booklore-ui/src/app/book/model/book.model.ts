@@ -221,6 +221,24 @@ export interface BulkMetadataUpdateRequest {
   clearGenres?: boolean;
 }
 
+export interface CbxPageManifest {
+  bookId: number;
+  pages: CbxManifestPage[];
+}
+
+export interface CbxManifestPage {
+  pageNumber: number;
+  mediaType: string;
+  size: number;
+  width: number | null;
+  height: number | null;
+}
+
+export interface EpubBookInfo {
+  opfPath: string | null;
+  entries: { path: string; mediaType: string; size: number }[];
+}
+
 export interface BookDeletionResponse {
   deleted: number[];
   failedFileDeletions: number[];
@@ -2,7 +2,7 @@ import {inject, Injectable} from '@angular/core';
 import {BehaviorSubject, first, Observable, of, throwError} from 'rxjs';
 import {HttpClient, HttpParams} from '@angular/common/http';
 import {catchError, filter, map, tap, shareReplay, finalize, distinctUntilChanged} from 'rxjs/operators';
-import {Book, BookDeletionResponse, BookMetadata, BookRecommendation, BookSetting, BulkMetadataUpdateRequest, MetadataUpdateWrapper, ReadStatus} from '../model/book.model';
+import {Book, BookDeletionResponse, BookMetadata, EpubBookInfo, BookRecommendation, BookSetting, BulkMetadataUpdateRequest, MetadataUpdateWrapper, ReadStatus} from '../model/book.model';
 import {BookState} from '../model/state/book-state.model';
 import {API_CONFIG} from '../../config/api-config';
 import {FetchMetadataRequest} from '../../metadata/model/request/fetch-metadata-request.model';
@@ -17,6 +17,7 @@ import {AuthService} from '../../core/service/auth.service';
 export class BookService {
 
   private readonly url = `${API_CONFIG.BASE_URL}/api/v1/books`;
+  private readonly epubUrl = `${API_CONFIG.BASE_URL}/api/v1/epub`;
 
   private http = inject(HttpClient);
   private messageService = inject(MessageService);
@@ -195,6 +196,20 @@ export class BookService {
     return this.http.get<Blob>(`${this.url}/${bookId}/content`, {responseType: 'blob' as 'json'});
   }
 
+  getEpubInfo(bookId: number): Observable<EpubBookInfo> {
+    return this.http.get<EpubBookInfo>(`${this.epubUrl}/${bookId}/info`);
+  }
+
+  getEpubEntryUrl(bookId: number, entryPath: string): string {
+    const encodedPath = entryPath.split('/').map(encodeURIComponent).join('/');
+    return `${this.epubUrl}/${bookId}/file/${encodedPath}`;
+  }
+
+  getAuthorizationHeaders(): Record<string, string> {
+    const token = this.authService.getInternalAccessToken() || this.authService.getOidcAccessToken();
+    return token ? {Authorization: `Bearer ${token}`} : {};
+  }
+
   getBookByIdFromAPI(bookId: number, withDescription: boolean) {
     return this.http.get<Book>(`${this.url}/${bookId}`, {
       params: {
@@ -1,6 +1,7 @@
 import { HttpClient } from '@angular/common/http';
 import { Injectable } from '@angular/core';
 import {API_CONFIG} from '../../config/api-config';
+import {CbxPageManifest} from '../model/book.model';
 
 @Injectable({ providedIn: 'root' })
 export class CbxReaderService {
@@ -13,7 +14,13 @@ export class CbxReaderService {
     return this.http.get<number[]>(`${this.url}/${bookId}/pages`);
   }
 
+  getManifest(bookId: number) {
+    return this.http.get<CbxPageManifest>(`${this.url}/${bookId}/manifest`);
+  }
+
   getPageImageUrl(bookId: number, page: number): string {
-    return `${this.url}/${bookId}/pages/${page}`;
+    // The server snaps the width to a few sizes and scales down pages wider than that
+    const width = Math.round((window.devicePixelRatio || 1) * window.innerWidth);
+    return `${this.url}/${bookId}/pages/${page}?width=${width}`;
   }
 }
@@ -1,5 +1,5 @@
 import {inject, Injectable} from '@angular/core';
-import {HttpClient} from '@angular/common/http';
+import {HttpClient, HttpParams} from '@angular/common/http';
 import {Observable, map} from 'rxjs';
 import {BookMetadata} from '../model/book.model';
 import {API_CONFIG} from '../../config/api-config';
@@ -20,6 +20,30 @@ export interface FetchedProposal {
   reviewerUserId: string | null;
   status: FetchedMetadataProposalStatus;
   metadataJson: BookMetadata;
+  confidence: number | null;
+  changedFields: string[];
+}
+
+export interface MetadataProposalFilter {
+  status?: FetchedMetadataProposalStatus;
+  minConfidence?: number;
+  maxConfidence?: number;
+  changedField?: string;
+  afterProposalId?: number;
+}
+
+export interface Slice<T> {
+  content: T[];
+  number: number;
+  last: boolean;
+}
+
+export interface MetadataProposalBulkStatusRequest {
+  status: FetchedMetadataProposalStatus;
+  selectAll: boolean;
+  filter?: MetadataProposalFilter;
+  excludedIds?: number[];
+  selectedIds?: number[];
 }
 
 export interface MetadataFetchTask {
@@ -32,7 +56,7 @@ export interface MetadataFetchTask {
   initiatedBy: string;
   errorMessage: string | null;
 
-  proposals: FetchedProposal[];
+  pendingProposals: number;
 }
 
 @Injectable({
@@ -50,6 +74,18 @@ export class MetadataTaskService {
       );
   }
 
+  getProposals(taskId: string, filter: MetadataProposalFilter = {}, page: number = 0, size: number = 50): Observable<Slice<FetchedProposal>> {
+    let params = new HttpParams().set('page', page).set('size', size);
+    Object.entries(filter)
+      .filter(([, value]) => value !== undefined && value !== null)
+      .forEach(([key, value]) => params = params.set(key, value));
+    return this.http.get<Slice<FetchedProposal>>(`${this.url}/${taskId}/proposals`, {params});
+  }
+
+  updateProposalStatuses(taskId: string, request: MetadataProposalBulkStatusRequest): Observable<number> {
+    return this.http.post<number>(`${this.url}/${taskId}/proposals/status`, request);
+  }
+
   deleteTask(taskId: string): Observable<void> {
     return this.http.delete<void>(`${this.url}/${taskId}`);
   }
@@ -16,6 +16,8 @@ export class NewPdfReaderService {
   }
 
   getPageImageUrl(bookId: number, page: number): string {
-    return `${this.url}/${bookId}/pages/${page}`;
+    // The server snaps the width to a few sizes and scales down pages wider than that
+    const width = Math.round((window.devicePixelRatio || 1) * window.innerWidth);
+    return `${this.url}/${bookId}/pages/${page}?width=${width}`;
   }
 }
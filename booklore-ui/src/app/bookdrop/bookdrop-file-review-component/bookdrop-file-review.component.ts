@@ -1,8 +1,15 @@
 import {Component, DestroyRef, inject, OnInit, QueryList, ViewChildren} from '@angular/core';
 import {takeUntilDestroyed} from '@angular/core/rxjs-interop';
-import {filter, take} from 'rxjs/operators';
-
-import {BookdropFile, BookdropFileTaskService, BookdropFinalizePayload, BookdropFinalizeResult} from '../bookdrop-file-task.service';
+import {exhaustMap, filter, first, ignoreElements, map, switchMap, take, tap} from 'rxjs/operators';
+
+import {
+  BookdropFile,
+  BookdropFileTaskService,
+  BookdropFinalizeJob,
+  BookdropFinalizePayload,
+  BookdropFinalizeProgress,
+  BookdropFinalizeResult
+} from '../bookdrop-file-task.service';
 import {LibraryService} from '../../book/service/library.service';
 import {Library} from '../../book/model/library.model';
 
@@ -15,7 +22,7 @@ import {Divider} from 'primeng/divider';
 import {ConfirmationService, MessageService} from 'primeng/api';
 
 import {BookdropFileMetadataPickerComponent} from '../bookdrop-file-metadata-picker-component/bookdrop-file-metadata-picker.component';
-import {Observable} from 'rxjs';
+import {merge, Observable, timer} from 'rxjs';
 
 import {AppSettings} from '../../core/model/app-settings.model';
 import {AppSettingsService} from '../../core/service/app-settings.service';
@@ -26,6 +33,7 @@ import {UrlHelperService} from '../../utilities/service/url-helper.service';
 import {Checkbox} from 'primeng/checkbox';
 import {NgClass, NgStyle} from '@angular/common';
 import {Paginator} from 'primeng/paginator';
+import {RxStompService} from '../../shared/websocket/rx-stomp.service';
 
 export interface BookdropFileUI {
   file: BookdropFile;
@@ -67,6 +75,7 @@ export class BookdropFileReviewComponent implements OnInit {
   private readonly appSettingsService = inject(AppSettingsService);
   private readonly messageService = inject(MessageService);
   private readonly urlHelper = inject(UrlHelperService);
+  private readonly rxStompService = inject(RxStompService);
 
   @ViewChildren('metadataPicker') metadataPickers!: QueryList<BookdropFileMetadataPickerComponent>;
 
@@ -82,6 +91,7 @@ export class BookdropFileReviewComponent implements OnInit {
   copiedFlags: Record<number, boolean> = {};
   loading = true;
   saving = false;
+  finalizeProgress: { processed: number; total: number } | null = null;
 
   pageSize = 50;
   totalRecords = 0;
@@ -443,15 +453,28 @@ export class BookdropFileReviewComponent implements OnInit {
       files,
     };
 
-    this.bookdropFileService.finalizeImport(payload).subscribe({
-      next: (result: BookdropFinalizeResult) => {
+    this.bookdropFileService.startFinalizeImport(payload).pipe(
+      switchMap(job => this.awaitFinalizeJob(job)),
+      takeUntilDestroyed(this.destroyRef)
+    ).subscribe({
+      next: (job: BookdropFinalizeJob) => {
         this.saving = false;
-
-        this.messageService.add({
-          severity: 'success',
-          summary: 'Import Complete',
-          detail: 'Import process finished. See details below.',
-        });
+        this.finalizeProgress = null;
+        const result = job.result as BookdropFinalizeResult;
+
+        if (job.status === 'FAILED') {
+          this.messageService.add({
+            severity: 'error',
+            summary: 'Import Failed',
+            detail: 'The import stopped before all files were processed. See details below.',
+          });
+        } else {
+          this.messageService.add({
+            severity: 'success',
+            summary: 'Import Complete',
+            detail: 'Import process finished. See details below.',
+          });
+        }
 
         this.dialogService.open(BookdropFinalizeResultDialogComponent, {
           header: 'Import Summary',
@@ -479,10 +502,29 @@ export class BookdropFileReviewComponent implements OnInit {
           detail: 'Some files could not be moved. Please check the console for more details.',
         });
         this.saving = false;
+        this.finalizeProgress = null;
       }
     });
   }
 
+  private awaitFinalizeJob(job: BookdropFinalizeJob): Observable<BookdropFinalizeJob> {
+    this.finalizeProgress = {processed: job.processed, total: job.totalFiles};
+
+    const progress$ = this.rxStompService.watch('/user/queue/bookdrop-finalize-progress').pipe(
+      map(msg => JSON.parse(msg.body) as BookdropFinalizeProgress),
+      filter(progress => progress.jobId === job.jobId),
+      tap(progress => this.finalizeProgress = {processed: progress.processed, total: progress.totalFiles}),
+      ignoreElements()
+    );
+    const status$ = timer(1000, 2000).pipe(
+      exhaustMap(() => this.bookdropFileService.getFinalizeJob(job.jobId))
+    );
+
+    return merge(progress$, status$).pipe(
+      first(current => current.status === 'COMPLETED' || current.status === 'FAILED')
+    );
+  }
+
   private createMetadataForm(original: BookMetadata | undefined, bookdropFileId: number): FormGroup {
     return new FormGroup({
       title: new FormControl(original?.title ?? ''),
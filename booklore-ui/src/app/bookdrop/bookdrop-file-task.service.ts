@@ -49,6 +49,27 @@ export interface BookdropFinalizeResult {
   results: BookdropFileResult[];
 }
 
+export type BookdropFinalizeJobStatus = 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+
+export interface BookdropFinalizeJob {
+  jobId: string;
+  status: BookdropFinalizeJobStatus;
+  totalFiles: number;
+  processed: number;
+  failed: number;
+  startedAt: string;
+  finishedAt?: string;
+  result?: BookdropFinalizeResult;
+}
+
+export interface BookdropFinalizeProgress {
+  jobId: string;
+  fileId: number;
+  result: BookdropFileResult;
+  processed: number;
+  totalFiles: number;
+}
+
 export interface Page<T> {
   content: T[];
   totalElements: number;
@@ -65,8 +86,12 @@ export class BookdropFileTaskService {
     return this.http.get<Page<BookdropFile>>(`${this.url}/files?status=pending&page=${page}&size=${size}`);
   }
 
-  finalizeImport(payload: BookdropFinalizePayload): Observable<BookdropFinalizeResult> {
-    return this.http.post<BookdropFinalizeResult>(`${this.url}/imports/finalize`, payload);
+  startFinalizeImport(payload: BookdropFinalizePayload): Observable<BookdropFinalizeJob> {
+    return this.http.post<BookdropFinalizeJob>(`${this.url}/imports/finalize/jobs`, payload);
+  }
+
+  getFinalizeJob(jobId: string): Observable<BookdropFinalizeJob> {
+    return this.http.get<BookdropFinalizeJob>(`${this.url}/imports/finalize/jobs/${jobId}`);
   }
 
   discardFiles(payload: { selectAll: boolean; excludedIds?: number[]; selectedIds?: number[] }): Observable<void> {
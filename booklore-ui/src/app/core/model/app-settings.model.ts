@@ -47,6 +47,13 @@ export interface MetadataProviderSettings {
   goodReads: Goodreads;
   hardcover: Hardcover;
   comicvine: Comicvine;
+  rateLimits?: Record<string, ProviderRateLimit>;
+}
+
+export interface ProviderRateLimit {
+  requestsPerSecond?: number;
+  burst?: number;
+  maxConcurrentRequests?: number;
 }
 
 export interface Amazon {
@@ -1,7 +1,7 @@
 import {Component, DestroyRef, inject, OnInit, ViewChild} from '@angular/core';
 import {CommonModule} from '@angular/common';
 import {DynamicDialogConfig, DynamicDialogRef} from 'primeng/dynamicdialog';
-import {FetchedProposal, MetadataTaskService} from '../../book/service/metadata-task';
+import {FetchedMetadataProposalStatus, FetchedProposal, MetadataTaskService} from '../../book/service/metadata-task';
 import {BookService} from '../../book/service/book.service';
 import {Book} from '../../book/model/book.model';
 import {BehaviorSubject, Observable} from 'rxjs';
@@ -24,6 +24,8 @@ import {takeUntilDestroyed} from '@angular/core/rxjs-interop';
 })
 export class MetadataReviewDialogComponent implements OnInit {
 
+  private static readonly PAGE_SIZE = 50;
+
   @ViewChild(MetadataPickerComponent)
   pickerComponent!: MetadataPickerComponent;
 
@@ -35,10 +37,15 @@ export class MetadataReviewDialogComponent implements OnInit {
   private destroyRef = inject(DestroyRef);
 
   proposals: FetchedProposal[] = [];
+  totalProposals = 0;
   currentBooks: Record<number, Book> = {};
   loading = true;
   currentIndex = 0;
-  private initialized = false;
+  private taskId!: string;
+  private hasMoreProposals = true;
+  private loadingPage = false;
+  private afterPageLoaded?: () => void;
+  private booksLoaded = false;
 
   private currentIndexSubject = new BehaviorSubject<number>(0);
 
@@ -56,37 +63,76 @@ export class MetadataReviewDialogComponent implements OnInit {
       this.dialogRef.close();
       return;
     }
+    this.taskId = taskId;
 
     this.metadataTaskService.getTaskWithProposals(taskId).subscribe({
       next: (task) => {
-        this.proposals = task.proposals || [];
-        const bookIds = new Set(this.proposals.map(p => p.bookId));
-
-        this.bookService.bookState$
-          .pipe(
-            map(bookState => bookState.books?.filter(book => bookIds.has(book.id)) ?? []),
-            takeUntilDestroyed(this.destroyRef)
-          )
-          .subscribe((matchedBooks) => {
-
-            if (!this.initialized && matchedBooks.length === bookIds.size) {
-              this.currentBooks = matchedBooks.reduce((map, book) => {
-                map[book.id] = book;
-                return map;
-              }, {} as Record<number, Book>);
-              this.loading = false;
-              this.currentIndex = 0;
-              this.currentIndexSubject.next(0);
-              this.initialized = true;
-            } else if (!this.initialized) {
-              this.loading = true;
-            }
-          });
+        this.totalProposals = task.pendingProposals;
+        this.loadNextPage(() => this.showFirstProposal());
       },
       error: () => {
         this.dialogRef.close();
       },
     });
+
+    this.bookService.bookState$
+      .pipe(takeUntilDestroyed(this.destroyRef))
+      .subscribe(bookState => {
+        if (!bookState.loaded) return;
+        this.currentBooks = (bookState.books ?? []).reduce((map, book) => {
+          map[book.id] = book;
+          return map;
+        }, {} as Record<number, Book>);
+        this.booksLoaded = true;
+        this.showFirstProposal();
+      });
+  }
+
+  /**
+   * Proposals are loaded a page at a time, continuing after the last loaded one, so reviewing a large task never
+   * loads every proposal up front.
+   */
+  private loadNextPage(onLoaded?: () => void): void {
+    if (!this.hasMoreProposals) return;
+    if (this.loadingPage) {
+      this.afterPageLoaded = onLoaded ?? this.afterPageLoaded;
+      return;
+    }
+    this.afterPageLoaded = onLoaded;
+    this.loadingPage = true;
+    const lastProposal = this.proposals[this.proposals.length - 1];
+    this.metadataTaskService.getProposals(this.taskId, {
+      status: FetchedMetadataProposalStatus.FETCHED,
+      afterProposalId: lastProposal?.proposalId
+    }, 0, MetadataReviewDialogComponent.PAGE_SIZE).subscribe({
+      next: (page) => {
+        this.proposals = [...this.proposals, ...page.content];
+        this.hasMoreProposals = !page.last;
+        this.totalProposals = Math.max(this.totalProposals, this.proposals.length);
+        this.loadingPage = false;
+        const afterPageLoaded = this.afterPageLoaded;
+        this.afterPageLoaded = undefined;
+        afterPageLoaded?.();
+      },
+      error: () => {
+        this.loadingPage = false;
+        this.afterPageLoaded = undefined;
+        if (this.proposals.length === 0) {
+          this.dialogRef.close();
+        }
+      }
+    });
+  }
+
+  private showFirstProposal(): void {
+    if (!this.loading || !this.booksLoaded || this.loadingPage) return;
+    if (this.proposals.length === 0) {
+      this.dialogRef.close();
+      return;
+    }
+    this.loading = false;
+    this.currentIndex = 0;
+    this.currentIndexSubject.next(0);
   }
 
   get currentProposal(): FetchedProposal | null {
@@ -148,10 +194,17 @@ export class MetadataReviewDialogComponent implements OnInit {
   next(): void {
     const nextIndex = this.currentIndex + 1;
     if (nextIndex >= this.proposals.length) {
-      this.dialogRef.close();
+      if (this.hasMoreProposals) {
+        this.loadNextPage(() => this.next());
+      } else {
+        this.dialogRef.close();
+      }
     } else {
       this.currentIndex = nextIndex;
       this.currentIndexSubject.next(nextIndex);
+      if (this.proposals.length - nextIndex <= 5) {
+        this.loadNextPage();
+      }
     }
   }
 
@@ -172,7 +225,7 @@ export class MetadataReviewDialogComponent implements OnInit {
   }
 
   get isLast(): boolean {
-    return this.currentIndex === this.proposals.length - 1;
+    return !this.hasMoreProposals && this.currentIndex === this.proposals.length - 1;
   }
 
   close(): void {
@@ -8,7 +8,7 @@ import {Button} from 'primeng/button';
 import {AppSettingsService} from '../../../core/service/app-settings.service';
 import {filter, take} from 'rxjs/operators';
 import {MessageService} from 'primeng/api';
-import {AppSettingKey} from '../../../core/model/app-settings.model';
+import {AppSettingKey, ProviderRateLimit} from '../../../core/model/app-settings.model';
 import {Select} from 'primeng/select';
 
 @Component({
@@ -60,6 +60,7 @@ export class MetadataProviderSettingsComponent implements OnInit {
   googleEnabled: boolean = false;
   comicvineEnabled: boolean = false;
   comicvineToken: string = '';
+  rateLimits?: Record<string, ProviderRateLimit>;
 
   private appSettingsService = inject(AppSettingsService);
   private messageService = inject(MessageService);
@@ -83,6 +84,7 @@ export class MetadataProviderSettingsComponent implements OnInit {
         this.hardcoverEnabled = metadataProviderSettings?.hardcover?.enabled ?? false;
         this.comicvineEnabled = metadataProviderSettings?.comicvine?.enabled ?? false;
         this.comicvineToken = metadataProviderSettings?.comicvine?.apiKey ?? '';
+        this.rateLimits = metadataProviderSettings?.rateLimits;
       });
   }
 
@@ -121,7 +123,8 @@ export class MetadataProviderSettingsComponent implements OnInit {
           hardcover: {
             enabled: this.hardcoverEnabled,
             apiKey: this.hardcoverToken.trim()
-          }
+          },
+          rateLimits: this.rateLimits
         }
       }
     ];